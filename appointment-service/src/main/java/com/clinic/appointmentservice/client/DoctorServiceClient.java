@@ -19,10 +19,14 @@ public class DoctorServiceClient {
 
     private final RestTemplate restTemplate;
     private final ExternalServiceProperties properties;
+    private final DownstreamGuard downstreamGuard;
 
-    public DoctorServiceClient(RestTemplate restTemplate, ExternalServiceProperties properties) {
+    public DoctorServiceClient(RestTemplate restTemplate,
+                               ExternalServiceProperties properties,
+                               DownstreamGuard downstreamGuard) {
         this.restTemplate = restTemplate;
         this.properties = properties;
+        this.downstreamGuard = downstreamGuard;
     }
 
     public DoctorAvailability verifyAvailability(UUID doctorId, LocalDateTime appointmentTime, Integer durationMinutes) {
@@ -39,7 +43,8 @@ public class DoctorServiceClient {
                 .toUriString();
 
         try {
-            DoctorAvailability availability = restTemplate.getForObject(url, DoctorAvailability.class);
+            DoctorAvailability availability = downstreamGuard.call(DownstreamGuard.DOCTOR_SERVICE,
+                    () -> restTemplate.getForObject(url, DoctorAvailability.class));
             if (availability == null) {
                 throw new RemoteServiceException("Doctor availability response is empty");
             }
@@ -68,7 +73,8 @@ public class DoctorServiceClient {
         String url = String.format("%s/api/v1/doctors/%s", baseUrl, doctorId);
 
         try {
-            DoctorResponse doctor = restTemplate.getForObject(url, DoctorResponse.class);
+            DoctorResponse doctor = downstreamGuard.call(DownstreamGuard.DOCTOR_SERVICE,
+                    () -> restTemplate.getForObject(url, DoctorResponse.class));
             if (doctor == null) {
                 throw new RemoteServiceException("Doctor service returned empty response for doctorId=" + doctorId);
             }
@@ -89,8 +95,9 @@ public class DoctorServiceClient {
         String url = String.format("%s/api/v1/doctors/%s/schedules", baseUrl, doctorId);
 
         try {
-            com.clinic.appointmentservice.client.dto.DoctorScheduleResponse[] schedules = 
-                restTemplate.getForObject(url, com.clinic.appointmentservice.client.dto.DoctorScheduleResponse[].class);
+            com.clinic.appointmentservice.client.dto.DoctorScheduleResponse[] schedules = downstreamGuard.call(
+                DownstreamGuard.DOCTOR_SERVICE,
+                () -> restTemplate.getForObject(url, com.clinic.appointmentservice.client.dto.DoctorScheduleResponse[].class));
             return schedules != null ? java.util.Arrays.asList(schedules) : java.util.Collections.emptyList();
         } catch (Exception ex) {
             throw new RemoteServiceException("Error fetching doctor schedules", ex);
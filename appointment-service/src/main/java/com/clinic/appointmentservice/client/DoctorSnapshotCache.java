@@ -0,0 +1,107 @@
+package com.clinic.appointmentservice.client;
+
+import com.clinic.appointmentservice.client.dto.DoctorResponse;
+import com.clinic.appointmentservice.client.dto.DoctorScheduleResponse;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.RemoteServiceException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bounded, TTL-based snapshot of doctor profiles and weekly schedules. Entries are dropped when
+ * doctor-service reports a change, so the TTL only bounds staleness when such a notification is lost.
+ * <p>
+ * The last value fetched for each doctor is also kept past the TTL and served when doctor-service cannot answer
+ * (breaker open, bulkhead full, timeout or 5xx), counted as {@code appointment.doctor.snapshot.stale}. A change
+ * notification drops it too, so a value known to be outdated is never served.
+ */
+@Component
+public class DoctorSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorSnapshotCache.class);
+
+    private final DoctorServiceClient doctorServiceClient;
+    private final Cache<UUID, DoctorResponse> doctors;
+    private final Cache<UUID, List<DoctorScheduleResponse>> schedules;
+    private final Cache<UUID, DoctorResponse> lastKnownDoctors;
+    private final Cache<UUID, List<DoctorScheduleResponse>> lastKnownSchedules;
+    private final MeterRegistry meterRegistry;
+
+    public DoctorSnapshotCache(DoctorServiceClient doctorServiceClient,
+                               AppointmentProperties appointmentProperties,
+                               MeterRegistry meterRegistry) {
+        this.doctorServiceClient = doctorServiceClient;
+        this.doctors = Caffeine.newBuilder()
+                .maximumSize(appointmentProperties.getDoctorCacheMaxSize())
+                .expireAfterWrite(appointmentProperties.getDoctorCacheTtl())
+                .recordStats()
+                .build();
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(appointmentProperties.getDoctorCacheMaxSize())
+                .expireAfterWrite(appointmentProperties.getDoctorCacheTtl())
+                .recordStats()
+                .build();
+        this.lastKnownDoctors = Caffeine.newBuilder()
+                .maximumSize(appointmentProperties.getDoctorCacheMaxSize())
+                .build();
+        this.lastKnownSchedules = Caffeine.newBuilder()
+                .maximumSize(appointmentProperties.getDoctorCacheMaxSize())
+                .build();
+        this.meterRegistry = meterRegistry;
+        CaffeineCacheMetrics.monitor(meterRegistry, doctors, "doctorProfiles");
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, "doctorSchedules");
+    }
+
+    public DoctorResponse getDoctor(UUID doctorId) {
+        try {
+            return doctors.get(doctorId, id -> remember(id, doctorServiceClient.getDoctor(id), lastKnownDoctors));
+        } catch (RemoteServiceException ex) {
+            return lastKnown(doctorId, "profile", ex, lastKnownDoctors);
+        }
+    }
+
+    public List<DoctorScheduleResponse> getDoctorSchedules(UUID doctorId) {
+        try {
+            return schedules.get(doctorId,
+                    id -> remember(id, List.copyOf(doctorServiceClient.getDoctorSchedules(id)), lastKnownSchedules));
+        } catch (RemoteServiceException ex) {
+            return lastKnown(doctorId, "schedules", ex, lastKnownSchedules);
+        }
+    }
+
+    public void invalidate(UUID doctorId) {
+        doctors.invalidate(doctorId);
+        schedules.invalidate(doctorId);
+        lastKnownDoctors.invalidate(doctorId);
+        lastKnownSchedules.invalidate(doctorId);
+        log.debug("Invalidated cached snapshot for doctorId={}", doctorId);
+    }
+
+    private static <T> T remember(UUID doctorId, T value, Cache<UUID, T> lastKnown) {
+        lastKnown.put(doctorId, value);
+        return value;
+    }
+
+    /**
+     * Falls back to the last known value when doctor-service is unavailable. The fallback is not put back into the
+     * TTL cache, so the next call asks doctor-service again; while its breaker is open that costs nothing.
+     */
+    private <T> T lastKnown(UUID doctorId, String kind, RemoteServiceException failure, Cache<UUID, T> lastKnown) {
+        T stale = DownstreamGuard.isUnavailable(failure.getCause()) ? lastKnown.getIfPresent(doctorId) : null;
+        if (stale == null) {
+            throw failure;
+        }
+        meterRegistry.counter("appointment.doctor.snapshot.stale", "kind", kind).increment();
+        log.warn("Doctor service unavailable, serving last known {} for doctorId={}: {}",
+                kind, doctorId, failure.getMessage());
+        return stale;
+    }
+}
@@ -0,0 +1,84 @@
+package com.clinic.appointmentservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs downstream calls through a per-service circuit breaker and bulkhead, configured under
+ * {@code resilience4j.circuitbreaker.instances.*} and {@code resilience4j.bulkhead.instances.*}.
+ * <p>
+ * The bulkhead caps how many request threads can wait on one downstream at a time, so a slow dependency cannot
+ * exhaust Tomcat's pool; the breaker opens on failures or slow calls and then rejects immediately, probing the
+ * downstream with a few half-open calls before closing again. Rejected calls fail in microseconds with
+ * {@link BulkheadFullException} or {@link CallNotPermittedException}, which the clients turn into their usual
+ * {@code RemoteServiceException}, and are counted as {@code appointment.downstream.rejected}.
+ */
+@Component
+public class DownstreamGuard {
+
+    public static final String DOCTOR_SERVICE = "doctor-service";
+    public static final String PATIENT_SERVICE = "patient-service";
+    public static final String NOTIFICATION_SERVICE = "notification-service";
+
+    private static final String REJECTED_COUNTER = "appointment.downstream.rejected";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public DownstreamGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                           BulkheadRegistry bulkheadRegistry,
+                           MeterRegistry meterRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(String downstream, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(downstream);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(downstream);
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, call));
+        } catch (CallNotPermittedException ex) {
+            meterRegistry.counter(REJECTED_COUNTER, "downstream", downstream, "reason", "circuit-open").increment();
+            throw ex;
+        } catch (BulkheadFullException ex) {
+            meterRegistry.counter(REJECTED_COUNTER, "downstream", downstream, "reason", "bulkhead-full").increment();
+            throw ex;
+        }
+    }
+
+    public void run(String downstream, Runnable call) {
+        call(downstream, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Whether the call was turned away by a breaker or bulkhead without reaching the downstream.
+     */
+    public static boolean isRejected(Throwable failure) {
+        return failure instanceof CallNotPermittedException || failure instanceof BulkheadFullException;
+    }
+
+    /**
+     * Whether the failure means the downstream could not answer at all (rejected, unreachable, timed out or
+     * failing with 5xx), as opposed to answering with a 4xx. Only these warrant serving stale data instead.
+     */
+    public static boolean isUnavailable(Throwable failure) {
+        return isRejected(failure)
+                || failure instanceof ResourceAccessException
+                || failure instanceof HttpServerErrorException;
+    }
+}
@@ -14,10 +14,14 @@ public class NotificationServiceClient {
 
     private final RestTemplate restTemplate;
     private final ExternalServiceProperties properties;
+    private final DownstreamGuard downstreamGuard;
 
-    public NotificationServiceClient(RestTemplate restTemplate, ExternalServiceProperties properties) {
+    public NotificationServiceClient(RestTemplate restTemplate,
+                                     ExternalServiceProperties properties,
+                                     DownstreamGuard downstreamGuard) {
         this.restTemplate = restTemplate;
         this.properties = properties;
+        this.downstreamGuard = downstreamGuard;
     }
 
     public void sendNotification(NotificationRequest request) {
@@ -34,7 +38,8 @@ public class NotificationServiceClient {
         HttpEntity<NotificationRequest> entity = new HttpEntity<>(request, headers);
 
         try {
-            restTemplate.postForEntity(url, entity, Void.class);
+            downstreamGuard.run(DownstreamGuard.NOTIFICATION_SERVICE,
+                    () -> restTemplate.postForEntity(url, entity, Void.class));
         } catch (Exception ex) {
             throw new RemoteServiceException("Failed to send notification", ex);
         }
@@ -15,10 +15,14 @@ public class PatientServiceClient {
 
     private final RestTemplate restTemplate;
     private final ExternalServiceProperties properties;
+    private final DownstreamGuard downstreamGuard;
 
-    public PatientServiceClient(RestTemplate restTemplate, ExternalServiceProperties properties) {
+    public PatientServiceClient(RestTemplate restTemplate,
+                                ExternalServiceProperties properties,
+                                DownstreamGuard downstreamGuard) {
         this.restTemplate = restTemplate;
         this.properties = properties;
+        this.downstreamGuard = downstreamGuard;
     }
 
     public PatientProfile getPatient(UUID patientId) {
@@ -30,7 +34,8 @@ public class PatientServiceClient {
         String url = String.format("%s/api/patients/%s", baseUrl, patientId);
 
         try {
-            PatientProfile profile = restTemplate.getForObject(url, PatientProfile.class);
+            PatientProfile profile = downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE,
+                    () -> restTemplate.getForObject(url, PatientProfile.class));
             if (profile == null) {
                 throw new RemoteServiceException("Patient service returned empty response for patientId=" + patientId);
             }
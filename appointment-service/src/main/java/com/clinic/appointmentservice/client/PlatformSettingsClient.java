@@ -1,15 +1,23 @@
 package com.clinic.appointmentservice.client;
 
-import com.clinic.appointmentservice.exception.RemoteServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Map;
 
 @Component
@@ -20,36 +28,78 @@ public class PlatformSettingsClient {
 
     private final RestTemplate restTemplate;
     private final String authServiceUrl;
+    private final Clock clock;
+
+    private volatile SettingsSnapshot snapshot;
 
     public PlatformSettingsClient(RestTemplate restTemplate,
-                                  @Value("${services.auth.url:http://localhost:8081}") String authServiceUrl) {
+                                  @Value("${services.auth.url:http://localhost:8081}") String authServiceUrl,
+                                  Clock clock) {
         this.restTemplate = restTemplate;
         this.authServiceUrl = authServiceUrl;
+        this.clock = clock;
+        this.snapshot = SettingsSnapshot.defaults(clock.instant());
     }
 
     /**
-     * Get current commission rate from platform settings
+     * Refresh the settings snapshot from auth-service. The request is conditional on the ETag of the
+     * current snapshot, so an unchanged configuration costs a 304 with no body.
      */
-    public BigDecimal getCommissionRate() {
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${appointment-service.settings-refresh-interval:PT30S}",
+            initialDelayString = "${appointment-service.settings-refresh-interval:PT30S}")
+    public void refresh() {
+        SettingsSnapshot current = snapshot;
+        HttpHeaders headers = new HttpHeaders();
+        if (current.etag() != null) {
+            headers.setIfNoneMatch(current.etag());
+        }
         try {
             String url = authServiceUrl + "/api/v1/auth/settings/commission-rate";
-            ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            
+            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                snapshot = current.confirmedAt(clock.instant());
+                return;
+            }
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 Object rate = response.getBody().get("commissionRate");
+                Object version = response.getBody().get("version");
                 if (rate != null) {
-                    return new BigDecimal(rate.toString());
+                    snapshot = new SettingsSnapshot(
+                            new BigDecimal(rate.toString()),
+                            version != null ? Long.valueOf(version.toString()) : null,
+                            response.getHeaders().getETag(),
+                            clock.instant());
+                    if (!snapshot.commissionRate().equals(current.commissionRate())) {
+                        log.info("Commission rate changed from {} to {} (settings version {})",
+                                current.commissionRate(), snapshot.commissionRate(), snapshot.version());
+                    }
+                    return;
                 }
             }
-            log.warn("Could not get commission rate from auth service, using default: {}", DEFAULT_COMMISSION_RATE);
-            return DEFAULT_COMMISSION_RATE;
+            log.warn("Could not refresh commission rate from auth service, keeping {} (settings version {})",
+                    current.commissionRate(), current.version());
         } catch (RestClientException e) {
-            log.warn("Failed to get commission rate from auth service: {}. Using default: {}", 
-                    e.getMessage(), DEFAULT_COMMISSION_RATE);
-            return DEFAULT_COMMISSION_RATE;
+            log.warn("Failed to refresh commission rate from auth service: {}. Keeping {} (settings version {})",
+                    e.getMessage(), current.commissionRate(), current.version());
         }
     }
 
+    /**
+     * Current in-memory settings snapshot; never performs a network call.
+     */
+    public SettingsSnapshot currentSettings() {
+        return snapshot;
+    }
+
+    /**
+     * Get current commission rate from platform settings
+     */
+    public BigDecimal getCommissionRate() {
+        return snapshot.commissionRate();
+    }
+
     /**
      * Get all platform settings
      */
@@ -58,7 +108,7 @@ public class PlatformSettingsClient {
         try {
             String url = authServiceUrl + "/api/v1/auth/settings";
             ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            
+
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 return response.getBody();
             }
@@ -73,7 +123,25 @@ public class PlatformSettingsClient {
      * Calculate service fee based on consultation fee
      */
     public BigDecimal calculateServiceFee(BigDecimal consultationFee) {
-        BigDecimal commissionRate = getCommissionRate();
-        return consultationFee.multiply(commissionRate).divide(BigDecimal.valueOf(100));
+        return snapshot.serviceFeeFor(consultationFee);
+    }
+
+    /**
+     * Immutable view of the platform settings used for pricing. {@code version} is {@code null} while the
+     * hard-coded defaults are in use, i.e. auth-service has not been reached yet.
+     */
+    public record SettingsSnapshot(BigDecimal commissionRate, Long version, String etag, Instant fetchedAt) {
+
+        static SettingsSnapshot defaults(Instant now) {
+            return new SettingsSnapshot(DEFAULT_COMMISSION_RATE, null, null, now);
+        }
+
+        SettingsSnapshot confirmedAt(Instant now) {
+            return new SettingsSnapshot(commissionRate, version, etag, now);
+        }
+
+        public BigDecimal serviceFeeFor(BigDecimal consultationFee) {
+            return consultationFee.multiply(commissionRate).divide(BigDecimal.valueOf(100));
+        }
     }
 }
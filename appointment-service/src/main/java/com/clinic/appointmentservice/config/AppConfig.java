@@ -2,10 +2,14 @@ package com.clinic.appointmentservice.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
+@EnableScheduling
 @org.springframework.boot.context.properties.EnableConfigurationProperties({AppointmentProperties.class, ExternalServiceProperties.class})
 public class AppConfig {
 
@@ -13,4 +17,9 @@ public class AppConfig {
     public Clock clock() {
         return Clock.systemUTC();
     }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService bookingLookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
 }
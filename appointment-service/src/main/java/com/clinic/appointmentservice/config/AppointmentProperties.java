@@ -2,6 +2,12 @@ package com.clinic.appointmentservice.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @ConfigurationProperties(prefix = "appointment-service")
@@ -12,6 +18,286 @@ public class AppointmentProperties {
      */
     private int cancellationCutoffHours = 24;
 
+    /**
+     * Deadline for a booking pipeline lookup that has no entry in {@link #bookingStageTimeouts}.
+     */
+    private Duration bookingStageTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Deadline per booking pipeline lookup ({@code patient}, {@code availability}, {@code schedules}, {@code doctor});
+     * the booking is rejected when a lookup exceeds its own.
+     */
+    private Map<String, Duration> bookingStageTimeouts = new LinkedHashMap<>(Map.of(
+            "patient", Duration.ofSeconds(3),
+            "availability", Duration.ofSeconds(3),
+            "schedules", Duration.ofSeconds(2),
+            "doctor", Duration.ofSeconds(2)));
+
+    /**
+     * How long a cached doctor profile or weekly schedule is served before it is fetched again from doctor-service.
+     */
+    private Duration doctorCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of doctors whose profile and schedules are kept in the local snapshot cache.
+     */
+    private long doctorCacheMaxSize = 10_000;
+
+    /**
+     * Interval between conditional refreshes of the platform settings snapshot used to price appointments.
+     */
+    private Duration settingsRefreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * Delay between notification outbox relay runs.
+     */
+    private Duration outboxPollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of outbox rows claimed and delivered per relay transaction.
+     */
+    private int outboxBatchSize = 50;
+
+    /**
+     * Delivery attempts after which an outbox row is marked FAILED and no longer retried.
+     */
+    private int outboxMaxAttempts = 12;
+
+    /**
+     * Delay before the first retry of a failed delivery; doubled on every further attempt.
+     */
+    private Duration outboxInitialBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Upper bound for the retry delay of a failed delivery.
+     */
+    private Duration outboxMaxBackoff = Duration.ofMinutes(30);
+
+    /**
+     * How long a claimed outbox row is hidden from other relays while its delivery is in flight.
+     */
+    private Duration outboxClaimLease = Duration.ofMinutes(2);
+
+    /**
+     * Number of appointments returned per listing page when the client does not ask for a size.
+     */
+    private int listPageSize = 20;
+
+    /**
+     * Upper bound for the page size a client may request from the listing endpoints.
+     */
+    private int listMaxPageSize = 100;
+
+    /**
+     * Rows fetched per round trip by the server-side cursor behind appointment exports.
+     */
+    private int exportFetchSize = 500;
+
+    /**
+     * Upper bound on the number of slots a single bulk or recurring booking may request.
+     */
+    private int bulkMaxSlots = 52;
+
+    /**
+     * Number of days, starting today, for which free slots are materialised and can be queried.
+     */
+    private int freeSlotHorizonDays = 28;
+
+    /**
+     * How long a materialised free-slot day is served before it is rebuilt from the schedule and the database, to pick
+     * up bookings and schedule changes made on other instances; never longer than {@link #doctorCacheTtl}.
+     */
+    private Duration freeSlotTtl = Duration.ofMinutes(2);
+
+    /**
+     * Maximum number of audit rows per multi-row insert.
+     */
+    private int auditBatchSize = 200;
+
+    /**
+     * Number of months ahead of the current one for which appointment partitions are kept ready.
+     */
+    private int partitionMonthsAhead = 3;
+
+    /**
+     * Months of past appointments kept attached; older monthly partitions are moved to the archive schema.
+     */
+    private int partitionRetentionMonths = 24;
+
+    /**
+     * How far back partition maintenance looks for medical records and audit rows whose appointment does not exist;
+     * they are reported, never deleted.
+     */
+    private Duration orphanSweepLookback = Duration.ofDays(2);
+
+    /**
+     * How long a completed request stays replayable under its {@code Idempotency-Key}.
+     */
+    private Duration idempotencyKeyTtl = Duration.ofHours(24);
+
+    /**
+     * How long a claimed key stays locked to its execution; after that another instance may take it over.
+     */
+    private Duration idempotencyLease = Duration.ofSeconds(30);
+
+    /**
+     * How long a duplicate request waits for the first execution of its key before giving up with 409.
+     */
+    private Duration idempotencyWaitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Completed idempotent responses kept in memory in front of the {@code idempotency_keys} table.
+     */
+    private int idempotencyCacheMaxSize = 10000;
+
+    /**
+     * Delay between deletions of expired idempotency keys.
+     */
+    private Duration idempotencyPurgeInterval = Duration.ofHours(1);
+
+    /**
+     * How long before a confirmed appointment each reminder is sent.
+     */
+    private List<Duration> reminderLeadTimes = List.of(Duration.ofHours(24), Duration.ofHours(1));
+
+    /**
+     * Span of reminder fire times loaded and leased as one unit.
+     */
+    private Duration reminderWindow = Duration.ofMinutes(10);
+
+    /**
+     * How far ahead of now reminder windows are leased and loaded into the timing wheel.
+     */
+    private Duration reminderLookahead = Duration.ofMinutes(30);
+
+    /**
+     * How far back unfinished reminder windows are still picked up, e.g. after every instance was down.
+     */
+    private Duration reminderCatchUp = Duration.ofHours(2);
+
+    /**
+     * Lease on a reminder window; another instance takes the window over once it runs out unrenewed.
+     */
+    private Duration reminderLease = Duration.ofMinutes(1);
+
+    /**
+     * Resolution of the reminder timing wheel, and how often due reminders are handed over.
+     */
+    private Duration reminderTick = Duration.ofSeconds(1);
+
+    /**
+     * Delay between renewing window leases and reloading the leased windows.
+     */
+    private Duration reminderMaintenanceInterval = Duration.ofSeconds(20);
+
+    /**
+     * Maximum number of due reminders queued per transaction.
+     */
+    private int reminderBatchSize = 200;
+
+    /**
+     * How long after it was created an appointment may stay pending before it is cancelled unconfirmed. Its start time
+     * does not matter: a pending appointment that has already started is left to the doctor to confirm or cancel.
+     */
+    private Duration pendingConfirmationTimeout = Duration.ofHours(48);
+
+    /**
+     * Delay between runs of the sweeper that cancels overdue pending appointments.
+     */
+    private Duration pendingExpiryInterval = Duration.ofMinutes(5);
+
+    /**
+     * Maximum number of pending appointments cancelled per statement and transaction.
+     */
+    private int pendingExpiryChunkSize = 500;
+
+    /**
+     * Time after which a sweeper run stops starting new chunks; the rest waits for the next run.
+     */
+    private Duration pendingExpiryMaxRunTime = Duration.ofSeconds(30);
+
+    /**
+     * Directory holding medical record attachments, addressed by the SHA-256 of their content.
+     */
+    private String attachmentDir = "data/attachments";
+
+    /**
+     * Largest attachment accepted for upload.
+     */
+    private DataSize attachmentMaxSize = DataSize.ofMegabytes(25);
+
+    /**
+     * Width of the time buckets a booking locks for its doctor; a booking locks every bucket its range touches, so overlapping bookings always share one.
+     */
+    private Duration slotLockBucket = Duration.ofMinutes(15);
+
+    /**
+     * Attempts an appointment state transition gets when concurrent updates keep winning the optimistic version check.
+     */
+    private int transitionMaxAttempts = 4;
+
+    /**
+     * Base delay before retrying a transition that lost a version check; doubled per attempt and fully jittered.
+     */
+    private Duration transitionRetryBackoff = Duration.ofMillis(25);
+
+    /**
+     * Delay between background refreshes of the dashboard read model; roughly how far it trails commits.
+     */
+    private Duration dashboardRefreshInterval = Duration.ofMillis(200);
+
+    /**
+     * Number of committed appointment changes waiting for the dashboard refresh before committing threads refresh
+     * their own.
+     */
+    private int dashboardQueueCapacity = 10000;
+
+    /**
+     * Maximum number of appointments re-projected per dashboard refresh statement.
+     */
+    private int dashboardBatchSize = 500;
+
+    /**
+     * Number of appointments re-projected per statement when the dashboard read model is rebuilt.
+     */
+    private int dashboardRebuildChunkSize = 5000;
+
+    /**
+     * Upper bound on the number of appointments a single bulk status update may name.
+     */
+    private int bulkStatusMaxAppointments = 500;
+
+    /**
+     * How long a waitlist offer for a freed slot is held for its patient before it passes to the next one.
+     */
+    private Duration waitlistOfferHold = Duration.ofHours(2);
+
+    /**
+     * How often freed slots are matched against the waitlist and expired offers are passed on.
+     */
+    private Duration waitlistOfferInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a doctor's in-memory waitlist is trusted before it is reloaded to pick up entries joined on other
+     * instances.
+     */
+    private Duration waitlistIndexTtl = Duration.ofMinutes(1);
+
+    /**
+     * Longest date range, in days, one waitlist entry may cover.
+     */
+    private int waitlistMaxRangeDays = 31;
+
+    /**
+     * Freed slots waiting to be offered; slots freed while the queue is full are not offered.
+     */
+    private int waitlistQueueCapacity = 10000;
+
+    /**
+     * How often waitlist offers whose hold ran out, and entries whose date range has passed, are expired.
+     */
+    private Duration waitlistExpiryInterval = Duration.ofSeconds(30);
+
     public int getCancellationCutoffHours() {
         return cancellationCutoffHours;
     }
@@ -19,4 +305,436 @@ public class AppointmentProperties {
     public void setCancellationCutoffHours(int cancellationCutoffHours) {
         this.cancellationCutoffHours = cancellationCutoffHours;
     }
+
+    public Duration getBookingStageTimeout() {
+        return bookingStageTimeout;
+    }
+
+    public void setBookingStageTimeout(Duration bookingStageTimeout) {
+        this.bookingStageTimeout = bookingStageTimeout;
+    }
+
+    public Map<String, Duration> getBookingStageTimeouts() {
+        return bookingStageTimeouts;
+    }
+
+    public void setBookingStageTimeouts(Map<String, Duration> bookingStageTimeouts) {
+        this.bookingStageTimeouts = bookingStageTimeouts;
+    }
+
+    public Duration getDoctorCacheTtl() {
+        return doctorCacheTtl;
+    }
+
+    public void setDoctorCacheTtl(Duration doctorCacheTtl) {
+        this.doctorCacheTtl = doctorCacheTtl;
+    }
+
+    public long getDoctorCacheMaxSize() {
+        return doctorCacheMaxSize;
+    }
+
+    public void setDoctorCacheMaxSize(long doctorCacheMaxSize) {
+        this.doctorCacheMaxSize = doctorCacheMaxSize;
+    }
+
+    public Duration getSettingsRefreshInterval() {
+        return settingsRefreshInterval;
+    }
+
+    public void setSettingsRefreshInterval(Duration settingsRefreshInterval) {
+        this.settingsRefreshInterval = settingsRefreshInterval;
+    }
+
+    public Duration getOutboxPollInterval() {
+        return outboxPollInterval;
+    }
+
+    public void setOutboxPollInterval(Duration outboxPollInterval) {
+        this.outboxPollInterval = outboxPollInterval;
+    }
+
+    public int getOutboxBatchSize() {
+        return outboxBatchSize;
+    }
+
+    public void setOutboxBatchSize(int outboxBatchSize) {
+        this.outboxBatchSize = outboxBatchSize;
+    }
+
+    public int getOutboxMaxAttempts() {
+        return outboxMaxAttempts;
+    }
+
+    public void setOutboxMaxAttempts(int outboxMaxAttempts) {
+        this.outboxMaxAttempts = outboxMaxAttempts;
+    }
+
+    public Duration getOutboxInitialBackoff() {
+        return outboxInitialBackoff;
+    }
+
+    public void setOutboxInitialBackoff(Duration outboxInitialBackoff) {
+        this.outboxInitialBackoff = outboxInitialBackoff;
+    }
+
+    public Duration getOutboxMaxBackoff() {
+        return outboxMaxBackoff;
+    }
+
+    public void setOutboxMaxBackoff(Duration outboxMaxBackoff) {
+        this.outboxMaxBackoff = outboxMaxBackoff;
+    }
+
+    public Duration getOutboxClaimLease() {
+        return outboxClaimLease;
+    }
+
+    public void setOutboxClaimLease(Duration outboxClaimLease) {
+        this.outboxClaimLease = outboxClaimLease;
+    }
+
+    public int getListPageSize() {
+        return listPageSize;
+    }
+
+    public void setListPageSize(int listPageSize) {
+        this.listPageSize = listPageSize;
+    }
+
+    public int getListMaxPageSize() {
+        return listMaxPageSize;
+    }
+
+    public void setListMaxPageSize(int listMaxPageSize) {
+        this.listMaxPageSize = listMaxPageSize;
+    }
+
+    public int getExportFetchSize() {
+        return exportFetchSize;
+    }
+
+    public void setExportFetchSize(int exportFetchSize) {
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    public int getBulkMaxSlots() {
+        return bulkMaxSlots;
+    }
+
+    public void setBulkMaxSlots(int bulkMaxSlots) {
+        this.bulkMaxSlots = bulkMaxSlots;
+    }
+
+    public int getFreeSlotHorizonDays() {
+        return freeSlotHorizonDays;
+    }
+
+    public void setFreeSlotHorizonDays(int freeSlotHorizonDays) {
+        this.freeSlotHorizonDays = freeSlotHorizonDays;
+    }
+
+    public Duration getFreeSlotTtl() {
+        return freeSlotTtl;
+    }
+
+    public void setFreeSlotTtl(Duration freeSlotTtl) {
+        this.freeSlotTtl = freeSlotTtl;
+    }
+
+    public int getAuditBatchSize() {
+        return auditBatchSize;
+    }
+
+    public void setAuditBatchSize(int auditBatchSize) {
+        this.auditBatchSize = auditBatchSize;
+    }
+
+    public int getPartitionMonthsAhead() {
+        return partitionMonthsAhead;
+    }
+
+    public void setPartitionMonthsAhead(int partitionMonthsAhead) {
+        this.partitionMonthsAhead = partitionMonthsAhead;
+    }
+
+    public int getPartitionRetentionMonths() {
+        return partitionRetentionMonths;
+    }
+
+    public void setPartitionRetentionMonths(int partitionRetentionMonths) {
+        this.partitionRetentionMonths = partitionRetentionMonths;
+    }
+
+    public Duration getOrphanSweepLookback() {
+        return orphanSweepLookback;
+    }
+
+    public void setOrphanSweepLookback(Duration orphanSweepLookback) {
+        this.orphanSweepLookback = orphanSweepLookback;
+    }
+
+    public Duration getIdempotencyKeyTtl() {
+        return idempotencyKeyTtl;
+    }
+
+    public void setIdempotencyKeyTtl(Duration idempotencyKeyTtl) {
+        this.idempotencyKeyTtl = idempotencyKeyTtl;
+    }
+
+    public Duration getIdempotencyLease() {
+        return idempotencyLease;
+    }
+
+    public void setIdempotencyLease(Duration idempotencyLease) {
+        this.idempotencyLease = idempotencyLease;
+    }
+
+    public Duration getIdempotencyWaitTimeout() {
+        return idempotencyWaitTimeout;
+    }
+
+    public void setIdempotencyWaitTimeout(Duration idempotencyWaitTimeout) {
+        this.idempotencyWaitTimeout = idempotencyWaitTimeout;
+    }
+
+    public int getIdempotencyCacheMaxSize() {
+        return idempotencyCacheMaxSize;
+    }
+
+    public void setIdempotencyCacheMaxSize(int idempotencyCacheMaxSize) {
+        this.idempotencyCacheMaxSize = idempotencyCacheMaxSize;
+    }
+
+    public Duration getIdempotencyPurgeInterval() {
+        return idempotencyPurgeInterval;
+    }
+
+    public void setIdempotencyPurgeInterval(Duration idempotencyPurgeInterval) {
+        this.idempotencyPurgeInterval = idempotencyPurgeInterval;
+    }
+
+    public List<Duration> getReminderLeadTimes() {
+        return reminderLeadTimes;
+    }
+
+    public void setReminderLeadTimes(List<Duration> reminderLeadTimes) {
+        this.reminderLeadTimes = reminderLeadTimes;
+    }
+
+    public Duration getReminderWindow() {
+        return reminderWindow;
+    }
+
+    public void setReminderWindow(Duration reminderWindow) {
+        this.reminderWindow = reminderWindow;
+    }
+
+    public Duration getReminderLookahead() {
+        return reminderLookahead;
+    }
+
+    public void setReminderLookahead(Duration reminderLookahead) {
+        this.reminderLookahead = reminderLookahead;
+    }
+
+    public Duration getReminderCatchUp() {
+        return reminderCatchUp;
+    }
+
+    public void setReminderCatchUp(Duration reminderCatchUp) {
+        this.reminderCatchUp = reminderCatchUp;
+    }
+
+    public Duration getReminderLease() {
+        return reminderLease;
+    }
+
+    public void setReminderLease(Duration reminderLease) {
+        this.reminderLease = reminderLease;
+    }
+
+    public Duration getReminderTick() {
+        return reminderTick;
+    }
+
+    public void setReminderTick(Duration reminderTick) {
+        this.reminderTick = reminderTick;
+    }
+
+    public Duration getReminderMaintenanceInterval() {
+        return reminderMaintenanceInterval;
+    }
+
+    public void setReminderMaintenanceInterval(Duration reminderMaintenanceInterval) {
+        this.reminderMaintenanceInterval = reminderMaintenanceInterval;
+    }
+
+    public int getReminderBatchSize() {
+        return reminderBatchSize;
+    }
+
+    public void setReminderBatchSize(int reminderBatchSize) {
+        this.reminderBatchSize = reminderBatchSize;
+    }
+
+    public Duration getPendingConfirmationTimeout() {
+        return pendingConfirmationTimeout;
+    }
+
+    public void setPendingConfirmationTimeout(Duration pendingConfirmationTimeout) {
+        this.pendingConfirmationTimeout = pendingConfirmationTimeout;
+    }
+
+    public Duration getPendingExpiryInterval() {
+        return pendingExpiryInterval;
+    }
+
+    public void setPendingExpiryInterval(Duration pendingExpiryInterval) {
+        this.pendingExpiryInterval = pendingExpiryInterval;
+    }
+
+    public int getPendingExpiryChunkSize() {
+        return pendingExpiryChunkSize;
+    }
+
+    public void setPendingExpiryChunkSize(int pendingExpiryChunkSize) {
+        this.pendingExpiryChunkSize = pendingExpiryChunkSize;
+    }
+
+    public Duration getPendingExpiryMaxRunTime() {
+        return pendingExpiryMaxRunTime;
+    }
+
+    public void setPendingExpiryMaxRunTime(Duration pendingExpiryMaxRunTime) {
+        this.pendingExpiryMaxRunTime = pendingExpiryMaxRunTime;
+    }
+
+    public String getAttachmentDir() {
+        return attachmentDir;
+    }
+
+    public void setAttachmentDir(String attachmentDir) {
+        this.attachmentDir = attachmentDir;
+    }
+
+    public DataSize getAttachmentMaxSize() {
+        return attachmentMaxSize;
+    }
+
+    public void setAttachmentMaxSize(DataSize attachmentMaxSize) {
+        this.attachmentMaxSize = attachmentMaxSize;
+    }
+
+    public Duration getSlotLockBucket() {
+        return slotLockBucket;
+    }
+
+    public void setSlotLockBucket(Duration slotLockBucket) {
+        this.slotLockBucket = slotLockBucket;
+    }
+
+    public int getTransitionMaxAttempts() {
+        return transitionMaxAttempts;
+    }
+
+    public void setTransitionMaxAttempts(int transitionMaxAttempts) {
+        this.transitionMaxAttempts = transitionMaxAttempts;
+    }
+
+    public Duration getTransitionRetryBackoff() {
+        return transitionRetryBackoff;
+    }
+
+    public void setTransitionRetryBackoff(Duration transitionRetryBackoff) {
+        this.transitionRetryBackoff = transitionRetryBackoff;
+    }
+
+    public Duration getDashboardRefreshInterval() {
+        return dashboardRefreshInterval;
+    }
+
+    public void setDashboardRefreshInterval(Duration dashboardRefreshInterval) {
+        this.dashboardRefreshInterval = dashboardRefreshInterval;
+    }
+
+    public int getDashboardQueueCapacity() {
+        return dashboardQueueCapacity;
+    }
+
+    public void setDashboardQueueCapacity(int dashboardQueueCapacity) {
+        this.dashboardQueueCapacity = dashboardQueueCapacity;
+    }
+
+    public int getDashboardBatchSize() {
+        return dashboardBatchSize;
+    }
+
+    public void setDashboardBatchSize(int dashboardBatchSize) {
+        this.dashboardBatchSize = dashboardBatchSize;
+    }
+
+    public int getDashboardRebuildChunkSize() {
+        return dashboardRebuildChunkSize;
+    }
+
+    public void setDashboardRebuildChunkSize(int dashboardRebuildChunkSize) {
+        this.dashboardRebuildChunkSize = dashboardRebuildChunkSize;
+    }
+
+    public int getBulkStatusMaxAppointments() {
+        return bulkStatusMaxAppointments;
+    }
+
+    public void setBulkStatusMaxAppointments(int bulkStatusMaxAppointments) {
+        this.bulkStatusMaxAppointments = bulkStatusMaxAppointments;
+    }
+
+    public Duration getWaitlistOfferHold() {
+        return waitlistOfferHold;
+    }
+
+    public void setWaitlistOfferHold(Duration waitlistOfferHold) {
+        this.waitlistOfferHold = waitlistOfferHold;
+    }
+
+    public Duration getWaitlistOfferInterval() {
+        return waitlistOfferInterval;
+    }
+
+    public void setWaitlistOfferInterval(Duration waitlistOfferInterval) {
+        this.waitlistOfferInterval = waitlistOfferInterval;
+    }
+
+    public Duration getWaitlistIndexTtl() {
+        return waitlistIndexTtl;
+    }
+
+    public void setWaitlistIndexTtl(Duration waitlistIndexTtl) {
+        this.waitlistIndexTtl = waitlistIndexTtl;
+    }
+
+    public int getWaitlistMaxRangeDays() {
+        return waitlistMaxRangeDays;
+    }
+
+    public void setWaitlistMaxRangeDays(int waitlistMaxRangeDays) {
+        this.waitlistMaxRangeDays = waitlistMaxRangeDays;
+    }
+
+    public int getWaitlistQueueCapacity() {
+        return waitlistQueueCapacity;
+    }
+
+    public void setWaitlistQueueCapacity(int waitlistQueueCapacity) {
+        this.waitlistQueueCapacity = waitlistQueueCapacity;
+    }
+
+    public Duration getWaitlistExpiryInterval() {
+        return waitlistExpiryInterval;
+    }
+
+    public void setWaitlistExpiryInterval(Duration waitlistExpiryInterval) {
+        this.waitlistExpiryInterval = waitlistExpiryInterval;
+    }
 }
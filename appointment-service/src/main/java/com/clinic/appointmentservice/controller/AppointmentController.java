@@ -1,17 +1,34 @@
 package com.clinic.appointmentservice.controller;
 
+import com.clinic.appointmentservice.dto.AppointmentExportRequest;
+import com.clinic.appointmentservice.dto.AppointmentPage;
+import com.clinic.appointmentservice.dto.AppointmentPageRequest;
 import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.dto.BulkAppointmentRequest;
+import com.clinic.appointmentservice.dto.BulkAppointmentResponse;
+import com.clinic.appointmentservice.dto.BulkStatusUpdateRequest;
+import com.clinic.appointmentservice.dto.BulkStatusUpdateResponse;
 import com.clinic.appointmentservice.dto.CancelAppointmentRequest;
 import com.clinic.appointmentservice.dto.CreateAppointmentRequest;
+import com.clinic.appointmentservice.dto.ExportFormat;
+import com.clinic.appointmentservice.dto.FreeSlotsResponse;
 import com.clinic.appointmentservice.dto.UpdateAppointmentStatusRequest;
+import com.clinic.appointmentservice.service.AppointmentDashboardService;
+import com.clinic.appointmentservice.service.AppointmentExportService;
 import com.clinic.appointmentservice.service.AppointmentService;
+import com.clinic.appointmentservice.service.FreeSlotIndex;
+import com.clinic.appointmentservice.service.IdempotencyService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -19,16 +36,47 @@ import java.util.UUID;
 @Validated
 public class AppointmentController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final AppointmentService appointmentService;
+    private final AppointmentDashboardService appointmentDashboardService;
+    private final AppointmentExportService appointmentExportService;
+    private final FreeSlotIndex freeSlotIndex;
+    private final IdempotencyService idempotencyService;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService,
+                                 AppointmentDashboardService appointmentDashboardService,
+                                 AppointmentExportService appointmentExportService,
+                                 FreeSlotIndex freeSlotIndex,
+                                 IdempotencyService idempotencyService) {
         this.appointmentService = appointmentService;
+        this.appointmentDashboardService = appointmentDashboardService;
+        this.appointmentExportService = appointmentExportService;
+        this.freeSlotIndex = freeSlotIndex;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping
-    public ResponseEntity<AppointmentResponse> createAppointment(@Valid @RequestBody CreateAppointmentRequest request) {
-        AppointmentResponse response = appointmentService.createAppointment(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<AppointmentResponse> createAppointment(
+            @Valid @RequestBody CreateAppointmentRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            AppointmentResponse response = appointmentService.createAppointment(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+        // Keys are scoped per patient, so two patients' clients picking the same key never see each other's booking.
+        IdempotencyService.Result<AppointmentResponse> result = idempotencyService.execute(
+                "create-appointment:" + request.getPatientId(), idempotencyKey, request, AppointmentResponse.class,
+                HttpStatus.CREATED.value(), () -> appointmentService.createAppointment(request));
+        return ResponseEntity.status(result.status())
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkAppointmentResponse> createAppointments(@Valid @RequestBody BulkAppointmentRequest request) {
+        return ResponseEntity.ok(appointmentService.createAppointments(request));
     }
 
 
@@ -47,17 +95,54 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/bulk/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateStatuses(@Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(appointmentService.updateStatuses(request));
+    }
+
     @GetMapping
-    public ResponseEntity<List<AppointmentResponse>> listAppointments(
+    public ResponseEntity<AppointmentPage> listAppointments(
             @RequestParam(name = "patientId", required = false) UUID patientId,
-            @RequestParam(name = "doctorId", required = false) UUID doctorId) {
+            @RequestParam(name = "doctorId", required = false) UUID doctorId,
+            AppointmentPageRequest page) {
         if (patientId != null) {
-            return ResponseEntity.ok(appointmentService.getAppointmentsByPatient(patientId));
+            return ResponseEntity.ok(appointmentDashboardService.getAppointmentsByPatient(patientId, page));
         }
         if (doctorId != null) {
-            return ResponseEntity.ok(appointmentService.getAppointmentsByDoctor(doctorId));
+            return ResponseEntity.ok(appointmentDashboardService.getAppointmentsByDoctor(doctorId, page));
         }
-        return ResponseEntity.ok(appointmentService.getAllAppointments());
+        return ResponseEntity.ok(appointmentService.getAllAppointments(page));
+    }
+
+    /**
+     * Streams matching appointments (newest first) as NDJSON or CSV without materialising them in memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            AppointmentExportRequest request) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        appointmentExportService.resolveStatus(request);
+        StreamingResponseBody body = out -> appointmentExportService.export(request, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("appointments." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Free time of a doctor per day in {@code [from, to]}, so clients can offer open slots without probing them one by one.
+     */
+    @GetMapping("/doctors/{doctorId}/free-slots")
+    public ResponseEntity<FreeSlotsResponse> getFreeSlots(
+            @PathVariable("doctorId") UUID doctorId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "durationMinutes", defaultValue = "30") int durationMinutes) {
+        return ResponseEntity.ok(freeSlotIndex.freeSlots(doctorId, from, to, durationMinutes));
     }
 
     @GetMapping("/{appointmentId}")
@@ -66,20 +151,22 @@ public class AppointmentController {
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<AppointmentResponse>> getUpcomingAppointments(
-            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+    public ResponseEntity<AppointmentPage> getUpcomingAppointments(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            AppointmentPageRequest page) {
         if (userId != null) {
-            return ResponseEntity.ok(appointmentService.getUpcomingAppointmentsByPatient(UUID.fromString(userId)));
+            return ResponseEntity.ok(appointmentDashboardService.getUpcomingAppointmentsByPatient(UUID.fromString(userId), page));
         }
-        return ResponseEntity.ok(appointmentService.getUpcomingAppointments());
+        return ResponseEntity.ok(appointmentService.getUpcomingAppointments(page));
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<AppointmentResponse>> getAppointmentHistory(
-            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+    public ResponseEntity<AppointmentPage> getAppointmentHistory(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            AppointmentPageRequest page) {
         if (userId != null) {
-            return ResponseEntity.ok(appointmentService.getAppointmentHistoryByPatient(UUID.fromString(userId)));
+            return ResponseEntity.ok(appointmentDashboardService.getAppointmentHistoryByPatient(UUID.fromString(userId), page));
         }
-        return ResponseEntity.ok(appointmentService.getAppointmentHistory());
+        return ResponseEntity.ok(appointmentService.getAppointmentHistory(page));
     }
 }
@@ -0,0 +1,30 @@
+package com.clinic.appointmentservice.controller;
+
+import com.clinic.appointmentservice.dto.DashboardRebuildResponse;
+import com.clinic.appointmentservice.service.AppointmentDashboardProjection;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Internal API for operating the appointment dashboard read model.
+ * The rebuild re-projects every appointment from the normalized tables, e.g. after a crash lost queued changes.
+ */
+@RestController
+@RequestMapping("/api/v1/internal/dashboard")
+public class InternalDashboardController {
+
+    private final AppointmentDashboardProjection appointmentDashboardProjection;
+
+    public InternalDashboardController(AppointmentDashboardProjection appointmentDashboardProjection) {
+        this.appointmentDashboardProjection = appointmentDashboardProjection;
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<DashboardRebuildResponse> rebuild() {
+        AppointmentDashboardProjection.RebuildResult result = appointmentDashboardProjection.rebuild();
+        return ResponseEntity.ok(new DashboardRebuildResponse(
+                result.projected(), result.removed(), result.elapsed().toMillis()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.clinic.appointmentservice.controller;
+
+import com.clinic.appointmentservice.client.DoctorSnapshotCache;
+import com.clinic.appointmentservice.service.FreeSlotIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Internal API for service-to-service communication.
+ * Used by doctor-service to announce profile and schedule changes.
+ */
+@RestController
+@RequestMapping("/api/v1/internal/doctors")
+public class InternalDoctorController {
+
+    private final DoctorSnapshotCache doctorSnapshotCache;
+    private final FreeSlotIndex freeSlotIndex;
+
+    public InternalDoctorController(DoctorSnapshotCache doctorSnapshotCache, FreeSlotIndex freeSlotIndex) {
+        this.doctorSnapshotCache = doctorSnapshotCache;
+        this.freeSlotIndex = freeSlotIndex;
+    }
+
+    @PostMapping("/{doctorId}/invalidate")
+    public ResponseEntity<Void> invalidateDoctor(@PathVariable("doctorId") UUID doctorId) {
+        doctorSnapshotCache.invalidate(doctorId);
+        freeSlotIndex.invalidate(doctorId);
+        return ResponseEntity.noContent().build();
+    }
+}
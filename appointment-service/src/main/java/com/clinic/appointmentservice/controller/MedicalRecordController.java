@@ -1,15 +1,34 @@
 package com.clinic.appointmentservice.controller;
 
+import com.clinic.appointmentservice.dto.AttachmentUploadResponse;
 import com.clinic.appointmentservice.dto.CreateMedicalRecordRequest;
 import com.clinic.appointmentservice.dto.MedicalRecordResponse;
 import com.clinic.appointmentservice.dto.UpdateMedicalRecordRequest;
+import com.clinic.appointmentservice.exception.AttachmentNotFoundException;
+import com.clinic.appointmentservice.service.AttachmentStore;
 import com.clinic.appointmentservice.service.MedicalRecordService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,7 +36,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class MedicalRecordController {
 
+    // Tomcat's sendfile hand-off: the connector copies the file to the socket with FileChannel.transferTo.
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String ATTACHMENT_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable().getHeaderValue();
+
     private final MedicalRecordService medicalRecordService;
+    private final AttachmentStore attachmentStore;
 
     @PostMapping("/appointments/{appointmentId}/medical-record")
     public ResponseEntity<MedicalRecordResponse> createMedicalRecord(
@@ -38,4 +66,99 @@ public class MedicalRecordController {
             @Valid @RequestBody UpdateMedicalRecordRequest request) {
         return ResponseEntity.ok(medicalRecordService.updateMedicalRecord(id, request));
     }
+
+    @PostMapping(path = "/medical-records/attachments", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AttachmentUploadResponse> uploadAttachment(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            AttachmentStore.StoredAttachment stored = attachmentStore.store(content);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(stored.contentId())
+                    .body(AttachmentUploadResponse.builder()
+                            .contentId(stored.contentId())
+                            .size(stored.size())
+                            .build());
+        }
+    }
+
+    /**
+     * Serves a stored attachment. Content ids are hashes of the bytes, so the id doubles as a strong ETag and the
+     * response can be cached for good; single byte ranges are honoured so large scans can be resumed.
+     */
+    @GetMapping("/medical-records/attachments/{contentId}")
+    public void downloadAttachment(@PathVariable String contentId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        AttachmentStore.Attachment attachment = attachmentStore.find(contentId)
+                .orElseThrow(() -> new AttachmentNotFoundException(contentId));
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, ATTACHMENT_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + contentId + "\"")) {
+            return;
+        }
+
+        long length = attachment.size();
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, contentId);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException ex) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(contentId).build().toString());
+        response.setContentLengthLong(count);
+        if (count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, attachment.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(attachment.path())) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = file.transferTo(position, remaining, target);
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * The single range to serve, or {@code null} for the whole file: malformed or multi-range headers and a stale
+     * {@code If-Range} all fall back to a full response.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String contentId) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals("\"" + contentId + "\"")) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
 }
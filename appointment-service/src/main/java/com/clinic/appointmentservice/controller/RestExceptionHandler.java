@@ -1,5 +1,6 @@
 package com.clinic.appointmentservice.controller;
 
+import com.clinic.appointmentservice.client.DownstreamGuard;
 import com.clinic.appointmentservice.dto.ErrorResponse;
 import com.clinic.appointmentservice.exception.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 @RestControllerAdvice
 public class RestExceptionHandler {
@@ -18,7 +20,8 @@ public class RestExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request);
     }
 
-    @ExceptionHandler({PatientNotFoundException.class})
+    @ExceptionHandler({PatientNotFoundException.class, AttachmentNotFoundException.class,
+            WaitlistEntryNotFoundException.class, WaitlistOfferNotFoundException.class})
     public ResponseEntity<ErrorResponse> handlePatientNotFound(RuntimeException ex, HttpServletRequest request) {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request);
     }
@@ -29,7 +32,11 @@ public class RestExceptionHandler {
     }
 
     @ExceptionHandler({PatientInactiveException.class, CancellationNotAllowedException.class,
-            InvalidAppointmentStateException.class, UnsupportedAppointmentStatusException.class})
+            InvalidAppointmentStateException.class, UnsupportedAppointmentStatusException.class,
+            InvalidCursorException.class, UnsupportedExportFormatException.class,
+            InvalidBulkBookingException.class, InvalidSlotRangeException.class,
+            InvalidIdempotencyKeyException.class, InvalidAttachmentException.class,
+            InvalidBulkStatusUpdateException.class, InvalidWaitlistRequestException.class})
     public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex, HttpServletRequest request) {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
     }
@@ -39,6 +46,29 @@ public class RestExceptionHandler {
         return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), request);
     }
 
+    @ExceptionHandler({IdempotencyKeyInProgressException.class, SlotBookingInProgressException.class,
+            ConcurrentAppointmentUpdateException.class})
+    public ResponseEntity<ErrorResponse> handleInProgress(RuntimeException ex, HttpServletRequest request) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({AlreadyWaitlistedException.class, WaitlistOfferUnavailableException.class,
+            SlotHeldForWaitlistException.class})
+    public ResponseEntity<ErrorResponse> handleWaitlistConflict(RuntimeException ex, HttpServletRequest request) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex,
+                                                                      HttpServletRequest request) {
+        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({AttachmentTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<ErrorResponse> handlePayloadTooLarge(RuntimeException ex, HttpServletRequest request) {
+        return buildResponse(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), request);
+    }
+
     @ExceptionHandler(UnauthorizedActionException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorized(UnauthorizedActionException ex, HttpServletRequest request) {
         return buildResponse(HttpStatus.FORBIDDEN, ex.getMessage(), request);
@@ -46,7 +76,9 @@ public class RestExceptionHandler {
 
     @ExceptionHandler(RemoteServiceException.class)
     public ResponseEntity<ErrorResponse> handleRemoteError(RemoteServiceException ex, HttpServletRequest request) {
-        return buildResponse(HttpStatus.BAD_GATEWAY, ex.getMessage(), request);
+        // A breaker or bulkhead turned the call away: the dependency is shedding load, not misbehaving.
+        HttpStatus status = DownstreamGuard.isRejected(ex.getCause()) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_GATEWAY;
+        return buildResponse(status, ex.getMessage(), request);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -0,0 +1,53 @@
+package com.clinic.appointmentservice.controller;
+
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.dto.JoinWaitlistRequest;
+import com.clinic.appointmentservice.dto.WaitlistEntryResponse;
+import com.clinic.appointmentservice.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @PostMapping
+    public ResponseEntity<WaitlistEntryResponse> join(@Valid @RequestBody JoinWaitlistRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(request));
+    }
+
+    @GetMapping("/{entryId}")
+    public ResponseEntity<WaitlistEntryResponse> getEntry(@PathVariable UUID entryId) {
+        return ResponseEntity.ok(waitlistService.getEntry(entryId));
+    }
+
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Void> leave(@PathVariable UUID entryId,
+                                      @RequestHeader("X-User-Id") UUID patientId) {
+        waitlistService.leave(entryId, patientId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/offers/{offerId}/accept")
+    public ResponseEntity<AppointmentResponse> acceptOffer(@PathVariable UUID offerId,
+                                                           @RequestHeader("X-User-Id") UUID patientId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.acceptOffer(offerId, patientId));
+    }
+
+    @PostMapping("/offers/{offerId}/decline")
+    public ResponseEntity<Void> declineOffer(@PathVariable UUID offerId,
+                                             @RequestHeader("X-User-Id") UUID patientId) {
+        waitlistService.declineOffer(offerId, patientId);
+        return ResponseEntity.noContent().build();
+    }
+}
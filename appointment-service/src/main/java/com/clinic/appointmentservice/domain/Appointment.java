@@ -1,6 +1,7 @@
 package com.clinic.appointmentservice.domain;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -11,7 +12,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "appointments")
-public class Appointment {
+public class Appointment implements Persistable<UUID> {
 
     @Id
     @Column(name = "appointment_id")
@@ -63,13 +64,32 @@ public class Appointment {
     @Column(name = "total_amount", precision = 12, scale = 2)
     private BigDecimal totalAmount;
 
+    @Column(name = "settings_version")
+    private Long settingsVersion;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * The id is assigned up front, so {@code save} cannot tell a new appointment from a detached one and would
+     * merge (select, then insert) row by row. Marking fresh instances lets Hibernate persist and batch the inserts.
+     */
+    @Transient
+    private boolean isNew;
+
     protected Appointment() {
         // for JPA
     }
 
-    public static Appointment create() {
+    /**
+     * A new appointment at {@code appointmentTime}; its id encodes that time, see {@link AppointmentIds}.
+     */
+    public static Appointment create(LocalDateTime appointmentTime) {
         Appointment appointment = new Appointment();
-        appointment.setId(UUID.randomUUID());
+        appointment.setId(AppointmentIds.newId(appointmentTime));
+        appointment.setAppointmentTime(appointmentTime);
+        appointment.isNew = true;
         return appointment;
     }
 
@@ -85,10 +105,22 @@ public class Appointment {
         this.updatedAt = Instant.now();
     }
 
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
     public UUID getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
     public void setId(UUID id) {
         this.id = id;
     }
@@ -204,4 +236,16 @@ public class Appointment {
     public void setTotalAmount(BigDecimal totalAmount) {
         this.totalAmount = totalAmount;
     }
+
+    public Long getSettingsVersion() {
+        return settingsVersion;
+    }
+
+    public void setSettingsVersion(Long settingsVersion) {
+        this.settingsVersion = settingsVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
 }
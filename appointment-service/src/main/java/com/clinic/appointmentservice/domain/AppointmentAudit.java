@@ -9,12 +9,13 @@ import java.time.Instant;
 public class AppointmentAudit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_audit_seq")
+    @SequenceGenerator(name = "appointment_audit_seq", sequenceName = "appointment_audit_seq", allocationSize = 50)
     @Column(name = "audit_id")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "appointment_id", nullable = false)
+    @JoinColumn(name = "appointment_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Appointment appointment;
 
     @Column(name = "action", nullable = false, length = 32)
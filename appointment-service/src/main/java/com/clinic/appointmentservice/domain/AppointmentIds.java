@@ -0,0 +1,40 @@
+package com.clinic.appointmentservice.domain;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Appointment ids in the UUID version 7 layout whose timestamp is the appointment time (UTC) rather than the
+ * creation time. The month of an appointment, and with it its {@code appointments} partition, can therefore be
+ * read from the id alone. Ids minted before this scheme are random version 4 UUIDs and carry no time.
+ */
+public final class AppointmentIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private AppointmentIds() {
+    }
+
+    public static UUID newId(LocalDateTime appointmentTime) {
+        long millis = appointmentTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long mostSignificant = (millis << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+        long leastSignificant = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Start of the month the appointment falls in, or empty for ids that do not carry a time.
+     */
+    public static Optional<LocalDateTime> monthOf(UUID id) {
+        if (id.version() != 7) {
+            return Optional.empty();
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16), ZoneOffset.UTC);
+        return Optional.of(time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS));
+    }
+}
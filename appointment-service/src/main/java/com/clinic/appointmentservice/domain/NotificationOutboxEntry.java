@@ -0,0 +1,123 @@
+package com.clinic.appointmentservice.domain;
+
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutboxEntry {
+
+    public enum Status {
+        PENDING,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private UUID appointmentId;
+
+    @Column(name = "patient_id")
+    private UUID patientId;
+
+    @Column(name = "doctor_id")
+    private UUID doctorId;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "message", nullable = false)
+    private String message;
+
+    @Column(name = "channel", nullable = false, length = 16)
+    private String channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    protected NotificationOutboxEntry() {
+        // for JPA
+    }
+
+    public NotificationOutboxEntry(NotificationRequest request, Instant now) {
+        this.appointmentId = request.appointmentId();
+        this.patientId = request.patientId();
+        this.doctorId = request.doctorId();
+        this.subject = request.subject();
+        this.message = request.message();
+        this.channel = request.channel();
+        this.status = Status.PENDING;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+    }
+
+    public NotificationRequest toRequest() {
+        return new NotificationRequest(patientId, doctorId, appointmentId, subject, message, channel);
+    }
+
+    /**
+     * Marks the row as in flight until {@code leaseUntil}; a relay that dies mid-delivery leaves it to be retried then.
+     */
+    public void claim(Instant leaseUntil) {
+        this.attempts++;
+        this.nextAttemptAt = leaseUntil;
+    }
+
+    public void retryAt(Instant nextAttemptAt, String error) {
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = error;
+    }
+
+    public void fail(String error) {
+        this.status = Status.FAILED;
+        this.lastError = error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getAppointmentId() {
+        return appointmentId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
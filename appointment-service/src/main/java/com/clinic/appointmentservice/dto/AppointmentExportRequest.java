@@ -0,0 +1,19 @@
+package com.clinic.appointmentservice.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters of an appointment export. {@code from} is inclusive and {@code to} exclusive; without {@code to}
+ * the export covers appointments that started before now.
+ */
+public record AppointmentExportRequest(
+        UUID patientId,
+        UUID doctorId,
+        String status,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+) {
+}
@@ -0,0 +1,12 @@
+package com.clinic.appointmentservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of an appointment listing. {@code nextCursor} is {@code null} on the last page.
+ */
+public record AppointmentPage(
+        List<AppointmentResponse> data,
+        String nextCursor
+) {
+}
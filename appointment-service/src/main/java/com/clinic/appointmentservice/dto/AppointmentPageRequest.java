@@ -0,0 +1,22 @@
+package com.clinic.appointmentservice.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and position of an appointment listing page. {@code from} is inclusive and {@code to} exclusive;
+ * {@code cursor} is the {@code nextCursor} of the previous page.
+ */
+public record AppointmentPageRequest(
+        String status,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        String cursor,
+        Integer limit
+) {
+
+    public static AppointmentPageRequest firstPage() {
+        return new AppointmentPageRequest(null, null, null, null, null);
+    }
+}
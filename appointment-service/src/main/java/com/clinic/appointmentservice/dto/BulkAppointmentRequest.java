@@ -0,0 +1,82 @@
+package com.clinic.appointmentservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Books a series of appointments for one patient with one doctor. Exactly one of {@code slots} and
+ * {@code recurrence} must be given.
+ */
+public class BulkAppointmentRequest {
+
+    @NotNull
+    private UUID patientId;
+
+    @NotNull
+    private UUID doctorId;
+
+    @Min(1)
+    private Integer durationMinutes;
+
+    @Size(max = 500)
+    private String notes;
+
+    private List<@NotNull LocalDateTime> slots;
+
+    @Valid
+    private RecurrenceRule recurrence;
+
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(UUID patientId) {
+        this.patientId = patientId;
+    }
+
+    public UUID getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(UUID doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public List<LocalDateTime> getSlots() {
+        return slots;
+    }
+
+    public void setSlots(List<LocalDateTime> slots) {
+        this.slots = slots;
+    }
+
+    public RecurrenceRule getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(RecurrenceRule recurrence) {
+        this.recurrence = recurrence;
+    }
+}
@@ -0,0 +1,30 @@
+package com.clinic.appointmentservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record BulkAppointmentResponse(
+        int booked,
+        int rejected,
+        List<SlotResult> results
+) {
+
+    public enum Outcome {
+        BOOKED,
+        IN_PAST,
+        OUTSIDE_SCHEDULE,
+        UNAVAILABLE,
+        CONFLICT
+    }
+
+    /**
+     * Result for one requested slot; {@code appointment} is set only when the slot was booked.
+     */
+    public record SlotResult(
+            LocalDateTime appointmentTime,
+            Outcome outcome,
+            AppointmentResponse appointment,
+            String reason
+    ) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.clinic.appointmentservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves a list of appointments, typically a doctor's day, to the same status. Each appointment is checked like a
+ * single status update; the ones that pass are updated together.
+ */
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty
+    private List<@NotNull UUID> appointmentIds;
+
+    @NotBlank
+    private String status;
+
+    @NotNull
+    private UUID requesterId;
+
+    @NotNull
+    private RequesterRole requesterRole;
+
+    @Size(max = 500)
+    private String notes;
+
+    public List<UUID> getAppointmentIds() {
+        return appointmentIds;
+    }
+
+    public void setAppointmentIds(List<UUID> appointmentIds) {
+        this.appointmentIds = appointmentIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public UUID getRequesterId() {
+        return requesterId;
+    }
+
+    public void setRequesterId(UUID requesterId) {
+        this.requesterId = requesterId;
+    }
+
+    public RequesterRole getRequesterRole() {
+        return requesterRole;
+    }
+
+    public void setRequesterRole(RequesterRole requesterRole) {
+        this.requesterRole = requesterRole;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
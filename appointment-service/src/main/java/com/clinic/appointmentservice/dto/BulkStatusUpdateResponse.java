@@ -0,0 +1,29 @@
+package com.clinic.appointmentservice.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkStatusUpdateResponse(
+        int updated,
+        int rejected,
+        List<AppointmentResult> results
+) {
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        INVALID_TRANSITION,
+        NOT_ALLOWED
+    }
+
+    /**
+     * Result for one requested appointment; {@code appointment} is set only when it was updated.
+     */
+    public record AppointmentResult(
+            UUID appointmentId,
+            Outcome outcome,
+            AppointmentResponse appointment,
+            String reason
+    ) {
+    }
+}
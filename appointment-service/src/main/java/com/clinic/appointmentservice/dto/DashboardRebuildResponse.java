@@ -0,0 +1,11 @@
+package com.clinic.appointmentservice.dto;
+
+/**
+ * Outcome of rebuilding the dashboard read model: appointments re-projected and stale rows removed.
+ */
+public record DashboardRebuildResponse(
+        long projected,
+        int removed,
+        long elapsedMillis
+) {
+}
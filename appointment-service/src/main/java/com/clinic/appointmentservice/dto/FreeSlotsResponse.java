@@ -0,0 +1,23 @@
+package com.clinic.appointmentservice.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Free time of a doctor per day. Every range is at least {@code durationMinutes} long, so any start in
+ * {@code [start, end - durationMinutes]} on the 5-minute grid can be booked.
+ */
+public record FreeSlotsResponse(
+        UUID doctorId,
+        int durationMinutes,
+        List<Day> days
+) {
+
+    public record Day(LocalDate date, List<Range> free) {
+    }
+
+    public record Range(LocalDateTime start, LocalDateTime end) {
+    }
+}
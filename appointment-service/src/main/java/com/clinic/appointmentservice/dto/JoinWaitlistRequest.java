@@ -0,0 +1,84 @@
+package com.clinic.appointmentservice.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Puts a patient on a doctor's waitlist for any slot of {@code durationMinutes} within
+ * {@code [earliestTime, latestTime]}. Entries with a higher {@code priority} are offered freed slots first.
+ */
+public class JoinWaitlistRequest {
+
+    @NotNull
+    private UUID patientId;
+
+    @NotNull
+    private UUID doctorId;
+
+    @NotNull
+    private LocalDateTime earliestTime;
+
+    @NotNull
+    @Future
+    private LocalDateTime latestTime;
+
+    @Min(1)
+    private Integer durationMinutes;
+
+    @Min(0)
+    @Max(100)
+    private Integer priority;
+
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(UUID patientId) {
+        this.patientId = patientId;
+    }
+
+    public UUID getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(UUID doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public LocalDateTime getEarliestTime() {
+        return earliestTime;
+    }
+
+    public void setEarliestTime(LocalDateTime earliestTime) {
+        this.earliestTime = earliestTime;
+    }
+
+    public LocalDateTime getLatestTime() {
+        return latestTime;
+    }
+
+    public void setLatestTime(LocalDateTime latestTime) {
+        this.latestTime = latestTime;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+}
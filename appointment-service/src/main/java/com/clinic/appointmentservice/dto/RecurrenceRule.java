@@ -0,0 +1,72 @@
+package com.clinic.appointmentservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repeats {@code start} every {@code interval} days or weeks, until {@code occurrences} slots have been
+ * produced or the next slot would start after {@code until}, whichever comes first.
+ */
+public class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY
+    }
+
+    @NotNull
+    private LocalDateTime start;
+
+    @NotNull
+    private Frequency frequency;
+
+    @Min(1)
+    private int interval = 1;
+
+    @Min(1)
+    private Integer occurrences;
+
+    private LocalDateTime until;
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public Integer getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(Integer occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDateTime until) {
+        this.until = until;
+    }
+}
@@ -0,0 +1,17 @@
+package com.clinic.appointmentservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record WaitlistEntryResponse(
+        UUID entryId,
+        UUID patientId,
+        UUID doctorId,
+        LocalDateTime earliestTime,
+        LocalDateTime latestTime,
+        int durationMinutes,
+        int priority,
+        String status,
+        LocalDateTime createdAt
+) {
+}
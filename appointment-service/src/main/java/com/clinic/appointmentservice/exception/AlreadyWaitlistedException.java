@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.exception;
+
+import java.util.UUID;
+
+public class AlreadyWaitlistedException extends RuntimeException {
+
+    public AlreadyWaitlistedException(UUID patientId, UUID doctorId) {
+        super("Patient " + patientId + " is already on the waitlist of doctor " + doctorId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class AttachmentNotFoundException extends RuntimeException {
+
+    public AttachmentNotFoundException(String contentId) {
+        super("Attachment not found: " + contentId);
+    }
+}
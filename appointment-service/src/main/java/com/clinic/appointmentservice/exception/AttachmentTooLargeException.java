@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class AttachmentTooLargeException extends RuntimeException {
+
+    public AttachmentTooLargeException(long maxBytes) {
+        super("Attachment exceeds the maximum size of " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,14 @@
+package com.clinic.appointmentservice.exception;
+
+import java.util.UUID;
+
+public class ConcurrentAppointmentUpdateException extends RuntimeException {
+
+    public ConcurrentAppointmentUpdateException(UUID appointmentId, int attempts) {
+        super("Appointment " + appointmentId + " kept changing concurrently; gave up after " + attempts + " attempts");
+    }
+
+    public ConcurrentAppointmentUpdateException(int appointments, int attempts) {
+        super(appointments + " appointments kept changing concurrently; gave up after " + attempts + " attempts");
+    }
+}
@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class InvalidAttachmentException extends RuntimeException {
+
+    public InvalidAttachmentException(String contentId) {
+        super("Not an uploaded attachment id: " + contentId);
+    }
+}
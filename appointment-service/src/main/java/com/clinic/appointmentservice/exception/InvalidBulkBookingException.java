@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class InvalidBulkBookingException extends RuntimeException {
+
+    public InvalidBulkBookingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class InvalidBulkStatusUpdateException extends RuntimeException {
+
+    public InvalidBulkStatusUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class InvalidSlotRangeException extends RuntimeException {
+
+    public InvalidSlotRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.clinic.appointmentservice.exception;
+
+public class InvalidWaitlistRequestException extends RuntimeException {
+
+    public InvalidWaitlistRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.clinic.appointmentservice.exception;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class SlotBookingInProgressException extends RuntimeException {
+
+    public SlotBookingInProgressException(UUID doctorId, LocalDateTime time) {
+        super("Another booking with doctor " + doctorId + " around " + time + " is in progress; retry shortly");
+    }
+}
@@ -0,0 +1,12 @@
+package com.clinic.appointmentservice.exception;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class SlotHeldForWaitlistException extends RuntimeException {
+
+    public SlotHeldForWaitlistException(UUID doctorId, LocalDateTime time, LocalDateTime heldUntil) {
+        super("The slot with doctor " + doctorId + " at " + time + " is held for a waitlisted patient until "
+                + heldUntil);
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.exception;
+
+import java.util.UUID;
+
+public class WaitlistEntryNotFoundException extends RuntimeException {
+
+    public WaitlistEntryNotFoundException(UUID entryId) {
+        super("Waitlist entry not found with id: " + entryId);
+    }
+}
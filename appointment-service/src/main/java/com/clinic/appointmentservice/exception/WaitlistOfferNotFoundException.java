@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.exception;
+
+import java.util.UUID;
+
+public class WaitlistOfferNotFoundException extends RuntimeException {
+
+    public WaitlistOfferNotFoundException(UUID offerId) {
+        super("Waitlist offer not found with id: " + offerId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.exception;
+
+import java.util.UUID;
+
+public class WaitlistOfferUnavailableException extends RuntimeException {
+
+    public WaitlistOfferUnavailableException(UUID offerId) {
+        super("Waitlist offer " + offerId + " is no longer open");
+    }
+}
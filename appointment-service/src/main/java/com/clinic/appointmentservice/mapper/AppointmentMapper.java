@@ -2,6 +2,7 @@ package com.clinic.appointmentservice.mapper;
 
 import com.clinic.appointmentservice.domain.Appointment;
 import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.repository.AppointmentListRow;
 
 public final class AppointmentMapper {
 
@@ -29,4 +30,26 @@ public final class AppointmentMapper {
                 medicalRecordId
         );
     }
+
+    public static AppointmentResponse toResponse(AppointmentListRow row) {
+        return new AppointmentResponse(
+                row.id(),
+                row.patientId(),
+                row.doctorId(),
+                row.doctorName(),
+                row.patientName(),
+                row.clinicAddress(),
+                row.appointmentTime(),
+                row.durationMinutes(),
+                row.status().name(),
+                row.notes(),
+                row.cancelledReason(),
+                row.consultationFee(),
+                row.serviceFee(),
+                row.totalAmount(),
+                row.createdAt(),
+                row.updatedAt(),
+                row.medicalRecordId()
+        );
+    }
 }
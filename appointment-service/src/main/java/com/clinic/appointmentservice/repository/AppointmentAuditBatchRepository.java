@@ -0,0 +1,72 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserts audit rows as one multi-row {@code INSERT} per call. Ids come from {@code appointment_audit_seq} with
+ * the same pooled scheme Hibernate uses for {@link com.clinic.appointmentservice.domain.AppointmentAudit}: each
+ * {@code nextval} reserves the block {@code (value - ALLOCATION_SIZE, value]}, so a flush of 50 rows costs one
+ * sequence call at most.
+ * <p>
+ * {@code appointment_audit} has no foreign key into the partitioned {@code appointments} table, so the insert
+ * itself skips rows whose appointment does not exist and reports them through its row count.
+ */
+@Repository
+public class AppointmentAuditBatchRepository {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT = "INSERT INTO appointment_audit "
+            + "(audit_id, appointment_id, action, performed_by, details, created_at) "
+            + "SELECT v.audit_id, v.appointment_id, v.action, v.performed_by, v.details, v.created_at FROM (VALUES ";
+    private static final String ROW = "(CAST(? AS BIGINT), CAST(? AS UUID), ?, ?, ?, CAST(? AS TIMESTAMPTZ))";
+    private static final String EXISTING = ") AS v (audit_id, appointment_id, action, performed_by, details, created_at) "
+            + "WHERE EXISTS (SELECT 1 FROM appointments a WHERE a.appointment_id = v.appointment_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private long nextId;
+    private long maxId;
+
+    public AppointmentAuditBatchRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Returns how many rows were inserted, which is fewer than {@code events} when some appointments do not exist.
+     */
+    public int insertAll(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(events.size() * 6);
+        for (AuditEvent event : events) {
+            args.add(allocateId());
+            args.add(event.appointmentId());
+            args.add(event.action());
+            args.add(event.performedBy());
+            args.add(event.details());
+            args.add(event.createdAt().atOffset(ZoneOffset.UTC));
+        }
+        return jdbcTemplate.update(INSERT + String.join(", ", Collections.nCopies(events.size(), ROW)) + EXISTING,
+                args.toArray());
+    }
+
+    private synchronized long allocateId() {
+        while (nextId == 0 || nextId > maxId) {
+            Long hi = jdbcTemplate.queryForObject("SELECT nextval('appointment_audit_seq')", Long.class);
+            // A fresh sequence starts at 1; a block below 1 is skipped like Hibernate's pooled optimizer does.
+            if (hi != null && hi >= ALLOCATION_SIZE) {
+                maxId = hi;
+                nextId = hi - ALLOCATION_SIZE + 1;
+            }
+        }
+        return nextId++;
+    }
+}
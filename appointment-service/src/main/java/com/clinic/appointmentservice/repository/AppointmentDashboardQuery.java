@@ -0,0 +1,41 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One dashboard page: the appointments of a patient or of a doctor, optionally narrowed by status and time, in
+ * {@code (appointmentTime, id)} order after the cursor key. {@code startingAfter} is exclusive, {@code from}
+ * inclusive and {@code to} exclusive; {@code null} filters are left out.
+ */
+public record AppointmentDashboardQuery(
+        Owner owner,
+        UUID ownerId,
+        AppointmentStatusCode status,
+        LocalDateTime startingAfter,
+        LocalDateTime from,
+        LocalDateTime to,
+        LocalDateTime afterTime,
+        UUID afterId,
+        Sort.Direction direction,
+        int limit
+) {
+
+    public enum Owner {
+        PATIENT("patient_id"),
+        DOCTOR("doctor_id");
+
+        private final String column;
+
+        Owner(String column) {
+            this.column = column;
+        }
+
+        String column() {
+            return column;
+        }
+    }
+}
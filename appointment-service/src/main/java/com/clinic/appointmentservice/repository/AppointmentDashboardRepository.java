@@ -0,0 +1,220 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and maintains {@code appointment_dashboard}, the denormalized read model of the patient and doctor
+ * dashboards. Rows are never written from application state: every refresh re-selects the appointment, its status
+ * code and its medical record id from the normalized tables and upserts the result, so a refresh that arrives late
+ * or twice still converges on what was committed. An upsert never replaces a row projected from a newer
+ * {@code appointments.version}.
+ */
+@Repository
+public class AppointmentDashboardRepository {
+
+    private static final String COLUMNS = """
+            appointment_id, patient_id, doctor_id, doctor_name, patient_name, clinic_address, appointment_time,
+            duration_minutes, status_code, notes, cancelled_reason, consultation_fee, service_fee, total_amount,
+            created_at, updated_at, medical_record_id""";
+
+    private static final String PROJECT = """
+            INSERT INTO appointment_dashboard (%s, source_version, projected_at)
+            SELECT a.appointment_id, a.patient_id, a.doctor_id, a.doctor_name, a.patient_name, a.clinic_address,
+                   a.appointment_time, a.duration_minutes, s.code, a.notes, a.cancelled_reason, a.consultation_fee,
+                   a.service_fee, a.total_amount, a.created_at, a.updated_at, m.id, a.version, now()
+            FROM %s a
+            JOIN appointment_status s ON s.id = a.status_id
+            LEFT JOIN medical_records m ON m.appointment_id = a.appointment_id
+            ON CONFLICT (appointment_id) DO UPDATE SET
+                patient_id = EXCLUDED.patient_id,
+                doctor_id = EXCLUDED.doctor_id,
+                doctor_name = EXCLUDED.doctor_name,
+                patient_name = EXCLUDED.patient_name,
+                clinic_address = EXCLUDED.clinic_address,
+                appointment_time = EXCLUDED.appointment_time,
+                duration_minutes = EXCLUDED.duration_minutes,
+                status_code = EXCLUDED.status_code,
+                notes = EXCLUDED.notes,
+                cancelled_reason = EXCLUDED.cancelled_reason,
+                consultation_fee = EXCLUDED.consultation_fee,
+                service_fee = EXCLUDED.service_fee,
+                total_amount = EXCLUDED.total_amount,
+                created_at = EXCLUDED.created_at,
+                updated_at = EXCLUDED.updated_at,
+                medical_record_id = EXCLUDED.medical_record_id,
+                source_version = EXCLUDED.source_version,
+                projected_at = EXCLUDED.projected_at
+            WHERE appointment_dashboard.source_version <= EXCLUDED.source_version
+            """;
+
+    // The time bounds let the planner skip the partitions none of the appointments live in.
+    private static final String REFRESH = PROJECT.formatted(COLUMNS, """
+            (SELECT * FROM appointments
+             WHERE appointment_id = ANY(?::uuid[])
+               AND appointment_time BETWEEN ? AND ?)""");
+
+    private static final String REBUILD_CHUNK = """
+            WITH chunk AS (
+                SELECT appointment_id, appointment_time
+                FROM appointments
+                %s
+                ORDER BY appointment_time, appointment_id
+                LIMIT ?
+            ),
+            projected AS (
+                %s
+                RETURNING 1
+            )
+            SELECT appointment_time, appointment_id, (SELECT count(*) FROM chunk) AS scanned
+            FROM chunk
+            ORDER BY appointment_time DESC, appointment_id DESC
+            LIMIT 1
+            """;
+
+    private static final String REBUILD_SOURCE = """
+            (SELECT a.* FROM appointments a
+             JOIN chunk c ON c.appointment_id = a.appointment_id AND c.appointment_time = a.appointment_time)""";
+
+    private static final String REBUILD_FIRST_CHUNK = REBUILD_CHUNK.formatted("",
+            PROJECT.formatted(COLUMNS, REBUILD_SOURCE));
+
+    private static final String REBUILD_NEXT_CHUNK = REBUILD_CHUNK.formatted(
+            "WHERE (appointment_time, appointment_id) > (?, ?)", PROJECT.formatted(COLUMNS, REBUILD_SOURCE));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentDashboardRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Re-projects the given appointments, all starting between {@code earliest} and {@code latest} inclusive.
+     * Returns how many rows were written.
+     */
+    public int refresh(Collection<UUID> appointmentIds, LocalDateTime earliest, LocalDateTime latest) {
+        if (appointmentIds.isEmpty()) {
+            return 0;
+        }
+        String[] ids = appointmentIds.stream().map(UUID::toString).toArray(String[]::new);
+        return jdbcTemplate.update(REFRESH, ids, earliest, latest);
+    }
+
+    /**
+     * The database clock; rows a rebuild started at this time did not touch are stale afterwards.
+     */
+    public OffsetDateTime now() {
+        return jdbcTemplate.queryForObject("SELECT now()", OffsetDateTime.class);
+    }
+
+    /**
+     * Re-projects up to {@code limit} appointments following {@code after} in {@code (appointmentTime, id)} order,
+     * or the first ones when {@code after} is {@code null}, in one statement. Returns the key of the last
+     * appointment covered and how many were covered, or {@code null} once there are none left.
+     */
+    public RebuildChunk rebuildChunk(RebuildChunk after, int limit) {
+        RowMapper<RebuildChunk> mapper = (rs, rowNum) -> new RebuildChunk(
+                rs.getObject("appointment_time", LocalDateTime.class),
+                rs.getObject("appointment_id", UUID.class),
+                rs.getInt("scanned"));
+        List<RebuildChunk> last = after == null
+                ? jdbcTemplate.query(REBUILD_FIRST_CHUNK, mapper, limit)
+                : jdbcTemplate.query(REBUILD_NEXT_CHUNK, mapper, after.appointmentTime(), after.appointmentId(), limit);
+        return last.isEmpty() ? null : last.get(0);
+    }
+
+    /**
+     * Deletes the rows not projected since {@code since}, i.e. those whose appointment no longer exists or was
+     * archived with its partition. Returns how many were deleted.
+     */
+    public int deleteProjectedBefore(OffsetDateTime since) {
+        return jdbcTemplate.update("DELETE FROM appointment_dashboard WHERE projected_at < ?", since);
+    }
+
+    /**
+     * One page of a patient's or doctor's appointments, read from the owner's
+     * {@code (owner, appointment_time, appointment_id)} index.
+     */
+    public List<AppointmentListRow> findPage(AppointmentDashboardQuery query) {
+        boolean ascending = query.direction().isAscending();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(" FROM appointment_dashboard WHERE ").append(query.owner().column()).append(" = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(query.ownerId());
+        if (query.status() != null) {
+            sql.append(" AND status_code = ?");
+            args.add(query.status().name());
+        }
+        if (query.startingAfter() != null) {
+            sql.append(" AND appointment_time > ?");
+            args.add(query.startingAfter());
+        }
+        if (query.from() != null) {
+            sql.append(" AND appointment_time >= ?");
+            args.add(query.from());
+        }
+        if (query.to() != null) {
+            sql.append(" AND appointment_time < ?");
+            args.add(query.to());
+        }
+        if (query.afterTime() != null) {
+            sql.append(ascending
+                    ? " AND (appointment_time, appointment_id) > (?, ?)"
+                    : " AND (appointment_time, appointment_id) < (?, ?)");
+            args.add(query.afterTime());
+            args.add(query.afterId());
+        }
+        String order = ascending ? "ASC" : "DESC";
+        sql.append(" ORDER BY appointment_time ").append(order).append(", appointment_id ").append(order)
+                .append(" LIMIT ?");
+        args.add(query.limit());
+        return jdbcTemplate.query(sql.toString(), AppointmentDashboardRepository::mapRow, args.toArray());
+    }
+
+    private static AppointmentListRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new AppointmentListRow(
+                rs.getObject("appointment_id", UUID.class),
+                rs.getObject("patient_id", UUID.class),
+                rs.getObject("doctor_id", UUID.class),
+                rs.getString("doctor_name"),
+                rs.getString("patient_name"),
+                rs.getString("clinic_address"),
+                rs.getObject("appointment_time", LocalDateTime.class),
+                (Integer) rs.getObject("duration_minutes"),
+                AppointmentStatusCode.valueOf(rs.getString("status_code")),
+                rs.getString("notes"),
+                rs.getString("cancelled_reason"),
+                rs.getBigDecimal("consultation_fee"),
+                rs.getBigDecimal("service_fee"),
+                rs.getBigDecimal("total_amount"),
+                toInstant(rs.getObject("created_at", LocalDateTime.class)),
+                toInstant(rs.getObject("updated_at", LocalDateTime.class)),
+                rs.getObject("medical_record_id", UUID.class)
+        );
+    }
+
+    // Timestamps are written in UTC (hibernate.jdbc.time_zone) into columns without a zone
+    private static Instant toInstant(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * Key of the last appointment a rebuild chunk covered, with the number of appointments in the chunk.
+     */
+    public record RebuildChunk(LocalDateTime appointmentTime, UUID appointmentId, int scanned) {
+    }
+}
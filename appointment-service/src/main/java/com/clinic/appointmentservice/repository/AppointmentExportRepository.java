@@ -0,0 +1,104 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads appointments row by row for exports. Inside a transaction the PostgreSQL driver honours the fetch
+ * size with a server-side cursor, so only one fetch window is ever held in memory; the medical record id
+ * comes from a left join instead of a second lookup.
+ */
+@Repository
+public class AppointmentExportRepository {
+
+    private static final String SELECT = """
+            SELECT a.appointment_id, a.patient_id, a.doctor_id, a.doctor_name, a.patient_name, a.clinic_address,
+                   a.appointment_time, a.duration_minutes, s.code AS status, a.notes, a.cancelled_reason,
+                   a.consultation_fee, a.service_fee, a.total_amount, a.created_at, a.updated_at,
+                   mr.id AS medical_record_id
+            FROM appointments a
+            JOIN appointment_status s ON s.id = a.status_id
+            LEFT JOIN medical_records mr ON mr.appointment_id = a.appointment_id
+            WHERE a.appointment_time < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentExportRepository(DataSource dataSource, AppointmentProperties appointmentProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(appointmentProperties.getExportFetchSize());
+    }
+
+    /**
+     * Streams matching appointments, newest first, to {@code sink}. Must run inside a transaction for the
+     * cursor to be used.
+     */
+    public void stream(UUID patientId, UUID doctorId, AppointmentStatusCode status,
+                       LocalDateTime from, LocalDateTime to, Consumer<AppointmentResponse> sink) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        args.add(to);
+        if (from != null) {
+            sql.append(" AND a.appointment_time >= ?");
+            args.add(from);
+        }
+        if (patientId != null) {
+            sql.append(" AND a.patient_id = ?");
+            args.add(patientId);
+        }
+        if (doctorId != null) {
+            sql.append(" AND a.doctor_id = ?");
+            args.add(doctorId);
+        }
+        if (status != null) {
+            sql.append(" AND s.code = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY a.appointment_time DESC, a.appointment_id DESC");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            sink.accept(mapRow(rs));
+        }, args.toArray());
+    }
+
+    private static AppointmentResponse mapRow(ResultSet rs) throws SQLException {
+        return new AppointmentResponse(
+                rs.getObject("appointment_id", UUID.class),
+                rs.getObject("patient_id", UUID.class),
+                rs.getObject("doctor_id", UUID.class),
+                rs.getString("doctor_name"),
+                rs.getString("patient_name"),
+                rs.getString("clinic_address"),
+                rs.getObject("appointment_time", LocalDateTime.class),
+                (Integer) rs.getObject("duration_minutes"),
+                rs.getString("status"),
+                rs.getString("notes"),
+                rs.getString("cancelled_reason"),
+                rs.getBigDecimal("consultation_fee"),
+                rs.getBigDecimal("service_fee"),
+                rs.getBigDecimal("total_amount"),
+                toInstant(rs.getObject("created_at", LocalDateTime.class)),
+                toInstant(rs.getObject("updated_at", LocalDateTime.class)),
+                rs.getObject("medical_record_id", UUID.class)
+        );
+    }
+
+    // Timestamps are written in UTC (hibernate.jdbc.time_zone) into columns without a zone
+    private static Instant toInstant(LocalDateTime value) {
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+}
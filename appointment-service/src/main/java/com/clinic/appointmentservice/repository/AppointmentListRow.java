@@ -0,0 +1,33 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat projection of one appointment listing row, with its status code and medical record id resolved
+ * by joins in the same query.
+ */
+public record AppointmentListRow(
+        UUID id,
+        UUID patientId,
+        UUID doctorId,
+        String doctorName,
+        String patientName,
+        String clinicAddress,
+        LocalDateTime appointmentTime,
+        Integer durationMinutes,
+        AppointmentStatusCode status,
+        String notes,
+        String cancelledReason,
+        BigDecimal consultationFee,
+        BigDecimal serviceFee,
+        BigDecimal totalAmount,
+        Instant createdAt,
+        Instant updatedAt,
+        UUID medicalRecordId
+) {
+}
@@ -0,0 +1,16 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.Appointment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AppointmentListingRepository {
+
+    /**
+     * Returns up to {@code limit} listing rows matching {@code spec}, reading appointment, status code and
+     * medical record id with a single statement.
+     */
+    List<AppointmentListRow> findListRows(Specification<Appointment> spec, Sort sort, int limit);
+}
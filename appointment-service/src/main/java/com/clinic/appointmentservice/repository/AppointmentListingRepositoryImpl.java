@@ -0,0 +1,57 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.domain.MedicalRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaEntityJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class AppointmentListingRepositoryImpl implements AppointmentListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentListRow> findListRows(Specification<Appointment> spec, Sort sort, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<AppointmentListRow> query = cb.createQuery(AppointmentListRow.class);
+        JpaRoot<Appointment> appointment = query.from(Appointment.class);
+        // medical_records only holds the appointment id, so it is joined as an entity rather than an association
+        JpaEntityJoin<MedicalRecord> medicalRecord = appointment.join(MedicalRecord.class, SqmJoinType.LEFT);
+        medicalRecord.on(cb.equal(medicalRecord.get("appointmentId"), appointment.get("id")));
+
+        query.select(cb.construct(AppointmentListRow.class,
+                appointment.get("id"),
+                appointment.get("patientId"),
+                appointment.get("doctorId"),
+                appointment.get("doctorName"),
+                appointment.get("patientName"),
+                appointment.get("clinicAddress"),
+                appointment.get("appointmentTime"),
+                appointment.get("durationMinutes"),
+                appointment.get("status").get("code"),
+                appointment.get("notes"),
+                appointment.get("cancelledReason"),
+                appointment.get("consultationFee"),
+                appointment.get("serviceFee"),
+                appointment.get("totalAmount"),
+                appointment.get("createdAt"),
+                appointment.get("updatedAt"),
+                medicalRecord.get("id")));
+        query.where(spec.toPredicate(appointment, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, appointment, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+
+/**
+ * Calls the partition maintenance functions installed by the V8, V14 and V16 migrations. Creating and archiving
+ * partitions take an advisory lock, so concurrent calls from several instances are serialised.
+ */
+@Repository
+public class AppointmentPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Creates the monthly partitions from the current month through {@code monthsAhead} months ahead that do not
+     * exist yet; returns how many were created.
+     */
+    public int ensurePartitions(int monthsAhead) {
+        Integer created = jdbcTemplate.queryForObject("SELECT ensure_appointment_partitions(?)", Integer.class, monthsAhead);
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Detaches the monthly partitions that ended more than {@code retentionMonths} months ago into the
+     * {@code appointment_archive} schema; returns how many were archived.
+     */
+    public int archivePartitions(int retentionMonths) {
+        Integer archived = jdbcTemplate.queryForObject("SELECT archive_appointment_partitions(?)", Integer.class, retentionMonths);
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * Counts the medical records and audit rows created since {@code since} whose appointment does not exist.
+     * Nothing is deleted: the rows are left for someone to inspect.
+     */
+    public OrphanedReferences countOrphanedReferences(OffsetDateTime since) {
+        return jdbcTemplate.queryForObject(
+                "SELECT medical_records, audit_rows FROM count_orphaned_appointment_references(?)",
+                (rs, rowNum) -> new OrphanedReferences(rs.getLong("medical_records"), rs.getLong("audit_rows")),
+                since);
+    }
+}
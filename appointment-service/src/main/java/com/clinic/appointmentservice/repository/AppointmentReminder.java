@@ -0,0 +1,11 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One reminder of one appointment: the appointment starting at {@code appointmentTime}, reminded
+ * {@code leadMinutes} before it starts.
+ */
+public record AppointmentReminder(UUID appointmentId, int leadMinutes, LocalDateTime appointmentTime) {
+}
@@ -0,0 +1,98 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Window leases and sent markers of the reminder scheduler, in {@code reminder_windows} and
+ * {@code appointment_reminders_sent}.
+ */
+@Repository
+public class AppointmentReminderRepository {
+
+    private static final String CLAIM_WINDOW = """
+            INSERT INTO reminder_windows (window_start, owner, lease_until)
+            VALUES (?, ?, ?)
+            ON CONFLICT (window_start) DO UPDATE
+               SET owner = EXCLUDED.owner,
+                   lease_until = EXCLUDED.lease_until
+             WHERE reminder_windows.completed_at IS NULL
+               AND (reminder_windows.owner = EXCLUDED.owner OR reminder_windows.lease_until <= ?)
+            """;
+
+    private static final String MARK_SENT = "INSERT INTO appointment_reminders_sent "
+            + "(appointment_id, lead_minutes, appointment_time) VALUES ";
+    private static final String ROW = "(?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentReminderRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Takes or renews the lease on the window starting at {@code windowStart}. Fails when the window is completed or
+     * leased by another owner whose lease has not run out yet.
+     */
+    public boolean claimWindow(Instant windowStart, String owner, Instant now, Instant leaseUntil) {
+        return jdbcTemplate.update(CLAIM_WINDOW, timestamp(windowStart), owner, timestamp(leaseUntil),
+                timestamp(now)) == 1;
+    }
+
+    public void completeWindow(Instant windowStart, String owner, Instant now) {
+        jdbcTemplate.update("""
+                UPDATE reminder_windows SET completed_at = ?
+                WHERE window_start = ? AND owner = ? AND completed_at IS NULL
+                """, timestamp(now), timestamp(windowStart), owner);
+    }
+
+    /**
+     * Records {@code reminders} as sent and returns the ones that were not recorded before; only those may be
+     * queued. Must run in the transaction that queues them.
+     */
+    public Set<AppointmentReminder> markSent(List<AppointmentReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return Set.of();
+        }
+        List<Object> args = new ArrayList<>(reminders.size() * 3);
+        for (AppointmentReminder reminder : reminders) {
+            args.add(reminder.appointmentId());
+            args.add(reminder.leadMinutes());
+            args.add(reminder.appointmentTime());
+        }
+        String sql = MARK_SENT + String.join(", ", Collections.nCopies(reminders.size(), ROW))
+                + " ON CONFLICT DO NOTHING RETURNING appointment_id, lead_minutes, appointment_time";
+        return new HashSet<>(jdbcTemplate.query(sql,
+                (rs, rowNum) -> new AppointmentReminder(
+                        rs.getObject("appointment_id", UUID.class),
+                        rs.getInt("lead_minutes"),
+                        rs.getObject("appointment_time", LocalDateTime.class)),
+                args.toArray()));
+    }
+
+    /**
+     * Deletes sent markers of appointments that started before {@code before} and windows that ended before
+     * {@code windowsBefore}.
+     */
+    public int purge(LocalDateTime before, Instant windowsBefore) {
+        int markers = jdbcTemplate.update("DELETE FROM appointment_reminders_sent WHERE appointment_time < ?", before);
+        int windows = jdbcTemplate.update("DELETE FROM reminder_windows WHERE window_start < ?", timestamp(windowsBefore));
+        return markers + windows;
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -1,35 +1,132 @@
 package com.clinic.appointmentservice.repository;
 
 import com.clinic.appointmentservice.domain.Appointment;
-import com.clinic.appointmentservice.domain.AppointmentStatus;
+import com.clinic.appointmentservice.domain.AppointmentIds;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import java.util.UUID;
-
-public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
-
-    boolean existsByDoctorIdAndAppointmentTime(UUID doctorId, LocalDateTime appointmentTime);
+public interface AppointmentRepository extends JpaRepository<Appointment, UUID>, JpaSpecificationExecutor<Appointment>,
+        AppointmentListingRepository {
 
-    Optional<Appointment> findByIdAndDoctorId(UUID id, UUID doctorId);
+    @Query("""
+            select a from Appointment a
+            where a.id = :id
+              and a.appointmentTime >= :from
+              and a.appointmentTime < :to
+            """)
+    Optional<Appointment> findByIdWithin(@Param("id") UUID id,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 
-    Optional<Appointment> findByIdAndPatientId(UUID id, UUID patientId);
+    /**
+     * Looks an appointment up by id, bounded to the month encoded in the id so that only one partition is probed.
+     * Ids minted before time-keyed ids fall back to a lookup across all partitions.
+     */
+    default Optional<Appointment> findByAppointmentId(UUID id) {
+        return AppointmentIds.monthOf(id)
+                .map(month -> findByIdWithin(id, month, month.plusMonths(1)))
+                .orElseGet(() -> findById(id));
+    }
 
-    List<Appointment> findAllByPatientId(UUID patientId);
+    @Query("""
+            select a from Appointment a
+            join fetch a.status
+            where a.id in :ids
+              and a.appointmentTime >= :from
+              and a.appointmentTime < :to
+            """)
+    List<Appointment> findAllByIdsWithin(@Param("ids") Collection<UUID> ids,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 
-    List<Appointment> findAllByDoctorId(UUID doctorId);
+    @Query("""
+            select a from Appointment a
+            join fetch a.status
+            where a.id in :ids
+            """)
+    List<Appointment> findAllByIdsWithStatus(@Param("ids") Collection<UUID> ids);
 
-    List<Appointment> findAllByStatus(AppointmentStatus status);
+    /**
+     * Loads the appointments among {@code ids} with their status in one statement, bounded to the months encoded in
+     * the ids so that only their partitions are probed. Any id minted before time-keyed ids widens the lookup to all
+     * partitions.
+     */
+    default List<Appointment> findAllByAppointmentIds(Collection<UUID> ids) {
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (UUID id : ids) {
+            Optional<LocalDateTime> month = AppointmentIds.monthOf(id);
+            if (month.isEmpty()) {
+                return findAllByIdsWithStatus(ids);
+            }
+            first = first == null || month.get().isBefore(first) ? month.get() : first;
+            last = last == null || month.get().isAfter(last) ? month.get() : last;
+        }
+        return first == null ? List.of() : findAllByIdsWithin(ids, first, last.plusMonths(1));
+    }
 
-    List<Appointment> findByAppointmentTimeAfterOrderByAppointmentTimeAsc(LocalDateTime time);
+    @Query("""
+            select new com.clinic.appointmentservice.repository.BookedInterval(a.id, a.appointmentTime, a.durationMinutes)
+            from Appointment a
+            where a.doctorId = :doctorId
+              and a.appointmentTime >= :from
+              and a.appointmentTime < :to
+              and a.status.code <> com.clinic.appointmentservice.domain.AppointmentStatusCode.CANCELLED
+            """)
+    List<BookedInterval> findBookedIntervals(@Param("doctorId") UUID doctorId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
 
-    List<Appointment> findByPatientIdAndAppointmentTimeAfterOrderByAppointmentTimeAsc(UUID patientId, LocalDateTime time);
+    /**
+     * Whether a non-cancelled booking of the doctor overlaps {@code [start, end)}, as committed in the database.
+     * Bookings are assumed to last less than a day, which bounds the scan to two days of the doctor's rows.
+     */
+    @Query(value = """
+            select exists (
+                select 1
+                from appointments a
+                join appointment_status s on s.id = a.status_id
+                where a.doctor_id = :doctorId
+                  and a.appointment_time < :end
+                  and a.appointment_time > cast(:start as timestamp) - interval '1 day'
+                  and a.appointment_time + make_interval(mins => coalesce(a.duration_minutes, 30)) > :start
+                  and s.code <> 'CANCELLED'
+            )
+            """, nativeQuery = true)
+    boolean existsOverlappingBooking(@Param("doctorId") UUID doctorId,
+                                     @Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end);
 
-    List<Appointment> findByAppointmentTimeBeforeOrderByAppointmentTimeDesc(LocalDateTime time);
+    @Query("""
+            select new com.clinic.appointmentservice.repository.ReminderTarget(a.id, a.patientId, a.doctorId, a.appointmentTime)
+            from Appointment a
+            where a.appointmentTime >= :from
+              and a.appointmentTime < :to
+              and a.status.code = com.clinic.appointmentservice.domain.AppointmentStatusCode.CONFIRMED
+            """)
+    List<ReminderTarget> findReminderTargets(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
 
-    List<Appointment> findByPatientIdAndAppointmentTimeBeforeOrderByAppointmentTimeDesc(UUID patientId, LocalDateTime time);
+    /**
+     * The appointments among {@code ids} that are still confirmed and still start within {@code [from, to]}.
+     */
+    @Query("""
+            select new com.clinic.appointmentservice.repository.ReminderTarget(a.id, a.patientId, a.doctorId, a.appointmentTime)
+            from Appointment a
+            where a.id in :ids
+              and a.appointmentTime >= :from
+              and a.appointmentTime <= :to
+              and a.status.code = com.clinic.appointmentservice.domain.AppointmentStatusCode.CONFIRMED
+            """)
+    List<ReminderTarget> findReminderTargetsByIds(@Param("ids") Collection<UUID> ids,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
 }
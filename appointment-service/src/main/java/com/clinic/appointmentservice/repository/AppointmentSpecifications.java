@@ -0,0 +1,64 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Building blocks for appointment listings. Listings are ordered by {@code (appointmentTime, id)} and paged
+ * with {@link #after}, which matches the composite {@code (…, appointment_time, appointment_id)} indexes.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Sort keysetOrder(Sort.Direction direction) {
+        return Sort.by(direction, "appointmentTime", "id");
+    }
+
+    public static Specification<Appointment> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Appointment> forPatient(UUID patientId) {
+        return (root, query, cb) -> cb.equal(root.get("patientId"), patientId);
+    }
+
+    public static Specification<Appointment> forDoctor(UUID doctorId) {
+        return (root, query, cb) -> cb.equal(root.get("doctorId"), doctorId);
+    }
+
+    public static Specification<Appointment> withStatus(AppointmentStatusCode status) {
+        return (root, query, cb) -> cb.equal(root.get("status").get("code"), status);
+    }
+
+    public static Specification<Appointment> startingAtOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("appointmentTime"), from);
+    }
+
+    public static Specification<Appointment> startingAfter(LocalDateTime time) {
+        return (root, query, cb) -> cb.greaterThan(root.get("appointmentTime"), time);
+    }
+
+    public static Specification<Appointment> startingBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("appointmentTime"), to);
+    }
+
+    /**
+     * Rows strictly after {@code (appointmentTime, id)} in the given order.
+     */
+    public static Specification<Appointment> after(LocalDateTime appointmentTime, UUID id, Sort.Direction direction) {
+        return (root, query, cb) -> direction.isAscending()
+                ? cb.or(
+                        cb.greaterThan(root.get("appointmentTime"), appointmentTime),
+                        cb.and(cb.equal(root.get("appointmentTime"), appointmentTime), cb.greaterThan(root.get("id"), id)))
+                : cb.or(
+                        cb.lessThan(root.get("appointmentTime"), appointmentTime),
+                        cb.and(cb.equal(root.get("appointmentTime"), appointmentTime), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An appointment audit row that has not been written yet.
+ */
+public record AuditEvent(UUID appointmentId, String action, String performedBy, String details, Instant createdAt) {
+}
@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the time range occupied by a non-cancelled appointment.
+ */
+public record BookedInterval(UUID appointmentId, LocalDateTime appointmentTime, Integer durationMinutes) {
+}
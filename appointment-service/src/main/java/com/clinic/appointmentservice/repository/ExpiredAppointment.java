@@ -0,0 +1,11 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A pending appointment that was cancelled because nobody confirmed it in time.
+ */
+public record ExpiredAppointment(UUID appointmentId, UUID patientId, UUID doctorId, LocalDateTime appointmentTime,
+                                 Integer durationMinutes) {
+}
@@ -0,0 +1,88 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Claims, completes and releases rows of {@code idempotency_keys}. Every statement is a single auto-committed
+ * write, so a claim is visible to other instances before the guarded booking starts.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String CLAIM = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, locked_until, expires_at)
+            VALUES (?, ?, 'IN_PROGRESS', ?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+               SET fingerprint = EXCLUDED.fingerprint,
+                   status = 'IN_PROGRESS',
+                   response_status = NULL,
+                   response_body = NULL,
+                   locked_until = EXCLUDED.locked_until,
+                   expires_at = EXCLUDED.expires_at,
+                   created_at = NOW()
+             WHERE idempotency_keys.expires_at <= ?
+                OR (idempotency_keys.status = 'IN_PROGRESS' AND idempotency_keys.locked_until <= ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Claims {@code key} for a new execution. Succeeds when the key is unknown, expired, or held by an execution
+     * whose lease ran out (its instance died); otherwise the current holder keeps it.
+     */
+    public boolean claim(String key, String fingerprint, Instant now, Instant lockedUntil, Instant expiresAt) {
+        return jdbcTemplate.update(CLAIM, key, fingerprint, timestamp(lockedUntil), timestamp(expiresAt),
+                timestamp(now), timestamp(now)) == 1;
+    }
+
+    public Optional<IdempotencyRecord> find(String key) {
+        return jdbcTemplate.query("""
+                        SELECT idempotency_key, fingerprint, status, response_status, response_body, locked_until, expires_at
+                        FROM idempotency_keys
+                        WHERE idempotency_key = ?
+                        """,
+                (rs, rowNum) -> new IdempotencyRecord(
+                        rs.getString("idempotency_key"),
+                        rs.getString("fingerprint"),
+                        "COMPLETED".equals(rs.getString("status")),
+                        (Integer) rs.getObject("response_status"),
+                        rs.getString("response_body"),
+                        rs.getObject("locked_until", OffsetDateTime.class).toInstant(),
+                        rs.getObject("expires_at", OffsetDateTime.class).toInstant()),
+                key).stream().findFirst();
+    }
+
+    public void complete(String key, int responseStatus, String responseBody) {
+        jdbcTemplate.update("""
+                UPDATE idempotency_keys
+                SET status = 'COMPLETED', response_status = ?, response_body = ?
+                WHERE idempotency_key = ? AND status = 'IN_PROGRESS'
+                """, responseStatus, responseBody, key);
+    }
+
+    /**
+     * Drops an in-progress claim whose execution failed, so a retry runs the request again.
+     */
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status = 'IN_PROGRESS'", key);
+    }
+
+    public int purgeExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", timestamp(now));
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
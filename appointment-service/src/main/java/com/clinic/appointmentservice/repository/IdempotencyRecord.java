@@ -0,0 +1,18 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.Instant;
+
+/**
+ * A row of {@code idempotency_keys}. {@code responseStatus} and {@code responseBody} are only set once the
+ * execution holding the key has completed.
+ */
+public record IdempotencyRecord(
+        String key,
+        String fingerprint,
+        boolean completed,
+        Integer responseStatus,
+        String responseBody,
+        Instant lockedUntil,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,35 @@
+package com.clinic.appointmentservice.repository;
+
+import com.clinic.appointmentservice.domain.NotificationOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    /**
+     * Locks up to {@code limit} due rows, skipping rows another relay already holds. A row is only due
+     * when no earlier pending row exists for the same appointment, which keeps delivery ordered per
+     * appointment even while an earlier row is backing off or in flight elsewhere. Ids are allocated in
+     * blocks per instance, so "earlier" is decided by {@code created_at} and the id only breaks ties.
+     */
+    @Query(value = """
+            SELECT o.* FROM notification_outbox o
+            WHERE o.status = 'PENDING'
+              AND o.next_attempt_at <= :now
+              AND NOT EXISTS (
+                  SELECT 1 FROM notification_outbox earlier
+                  WHERE earlier.appointment_id = o.appointment_id
+                    AND earlier.status = 'PENDING'
+                    AND (earlier.created_at, earlier.id) < (o.created_at, o.id))
+            ORDER BY o.created_at, o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<NotificationOutboxEntry> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    long countByStatus(NotificationOutboxEntry.Status status);
+}
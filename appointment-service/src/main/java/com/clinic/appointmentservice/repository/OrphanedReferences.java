@@ -0,0 +1,11 @@
+package com.clinic.appointmentservice.repository;
+
+/**
+ * Counts of recent medical records and audit rows whose appointment does not exist.
+ */
+public record OrphanedReferences(long medicalRecords, long auditRows) {
+
+    public boolean isEmpty() {
+        return medicalRecords == 0 && auditRows == 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cancels overdue pending appointments with one set-based statement per chunk instead of loading and saving each
+ * entity. The chunk is picked in {@code appointment_time} order through the {@code (status_id, appointment_time,
+ * appointment_id)} index and locked with {@code SKIP LOCKED}, so rows being confirmed or cancelled concurrently
+ * are left alone and several instances can sweep side by side.
+ */
+@Repository
+public class PendingAppointmentExpiryRepository {
+
+    private static final String EXPIRE = """
+            WITH overdue AS (
+                SELECT appointment_id, appointment_time
+                FROM appointments
+                WHERE status_id = ?
+                  AND created_at <= ?
+                ORDER BY appointment_time, appointment_id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE appointments a
+               SET status_id = ?, cancelled_reason = ?, updated_at = ?, version = a.version + 1
+              FROM overdue o
+             WHERE a.appointment_id = o.appointment_id
+               AND a.appointment_time = o.appointment_time
+            RETURNING a.appointment_id, a.patient_id, a.doctor_id, a.appointment_time, a.duration_minutes
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PendingAppointmentExpiryRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Moves up to {@code limit} appointments in {@code pendingStatusId} that were created at or before
+     * {@code createdBefore} to {@code cancelledStatusId}, stamping them as updated at {@code now}. Both times must be
+     * UTC wall-clock, like the columns, regardless of the host's zone. Returns the appointments changed.
+     */
+    public List<ExpiredAppointment> expirePending(long pendingStatusId, long cancelledStatusId, String reason,
+                                                  LocalDateTime createdBefore, LocalDateTime now, int limit) {
+        return jdbcTemplate.query(EXPIRE,
+                (rs, rowNum) -> new ExpiredAppointment(
+                        rs.getObject("appointment_id", UUID.class),
+                        rs.getObject("patient_id", UUID.class),
+                        rs.getObject("doctor_id", UUID.class),
+                        rs.getObject("appointment_time", LocalDateTime.class),
+                        (Integer) rs.getObject("duration_minutes")),
+                pendingStatusId, createdBefore, limit, cancelledStatusId, reason, now);
+    }
+}
@@ -0,0 +1,10 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a confirmed appointment that is due a reminder.
+ */
+public record ReminderTarget(UUID appointmentId, UUID patientId, UUID doctorId, LocalDateTime appointmentTime) {
+}
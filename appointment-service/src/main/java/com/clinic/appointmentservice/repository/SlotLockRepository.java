@@ -0,0 +1,36 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Takes transaction-scoped Postgres advisory locks for booking slots. The locks are held by the surrounding
+ * transaction's connection and vanish with it, so nothing has to be cleaned up when an instance dies mid-booking.
+ */
+@Repository
+public class SlotLockRepository {
+
+    private static final String TRY_LOCK = """
+            SELECT k
+            FROM unnest(?::bigint[]) AS k
+            WHERE NOT pg_try_advisory_xact_lock(k)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SlotLockRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Tries every key in one round trip without waiting; returns the keys another transaction holds. Keys that
+     * were acquired stay held until the current transaction ends, whether or not the others were.
+     */
+    public Set<Long> tryLockAll(long[] keys) {
+        return new HashSet<>(jdbcTemplate.queryForList(TRY_LOCK, Long.class, (Object) keys));
+    }
+}
@@ -0,0 +1,35 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A row of {@code waitlist_entries}: a patient waiting for a slot of {@code durationMinutes} with a doctor that
+ * lies within {@code [earliestTime, latestTime]}. Times are UTC wall-clock, like the columns.
+ */
+public record WaitlistEntry(
+        UUID entryId,
+        UUID patientId,
+        UUID doctorId,
+        LocalDateTime earliestTime,
+        LocalDateTime latestTime,
+        int durationMinutes,
+        int priority,
+        Status status,
+        LocalDateTime createdAt
+) {
+
+    /**
+     * Whether an appointment of this entry's length starting at {@code start} fits both the entry's range and a
+     * freed slot of {@code slotMinutes}.
+     */
+    public boolean fits(LocalDateTime start, int slotMinutes) {
+        return durationMinutes <= slotMinutes
+                && !start.isBefore(earliestTime)
+                && !start.plusMinutes(durationMinutes).isAfter(latestTime);
+    }
+
+    public enum Status {
+        WAITING, OFFERED, BOOKED, LEFT, EXPIRED
+    }
+}
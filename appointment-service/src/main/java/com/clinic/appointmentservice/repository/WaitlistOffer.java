@@ -0,0 +1,33 @@
+package com.clinic.appointmentservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A row of {@code waitlist_offers}: the slot freed by {@code sourceAppointmentId}, held for the patient of
+ * {@code entryId} until {@code expiresAt}. {@code durationMinutes} is the length of the freed slot.
+ */
+public record WaitlistOffer(
+        UUID offerId,
+        UUID entryId,
+        UUID patientId,
+        UUID doctorId,
+        UUID sourceAppointmentId,
+        LocalDateTime slotTime,
+        int durationMinutes,
+        Status status,
+        LocalDateTime expiresAt,
+        LocalDateTime createdAt
+) {
+
+    /**
+     * Whether the offered slot overlaps {@code [start, end)}.
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return slotTime.isBefore(end) && slotTime.plusMinutes(durationMinutes).isAfter(start);
+    }
+
+    public enum Status {
+        OPEN, ACCEPTED, DECLINED, EXPIRED
+    }
+}
@@ -0,0 +1,237 @@
+package com.clinic.appointmentservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reads and writes {@code waitlist_entries} and {@code waitlist_offers}. Every state change is a conditional update
+ * on the status it starts from, and an open offer is unique per slot, so instances racing for the same entry or
+ * slot are settled by the database: the loser changes no row and is told so.
+ */
+@Repository
+public class WaitlistRepository {
+
+    private static final String ENTRY_COLUMNS = """
+            entry_id, patient_id, doctor_id, earliest_time, latest_time, duration_minutes, priority, status,
+            created_at""";
+
+    private static final String OFFER_COLUMNS = """
+            offer_id, entry_id, patient_id, doctor_id, source_appointment_id, slot_time, duration_minutes, status,
+            expires_at, created_at""";
+
+    private static final String INSERT_ENTRY = """
+            INSERT INTO waitlist_entries (%s, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """.formatted(ENTRY_COLUMNS);
+
+    private static final String INSERT_OFFER = """
+            INSERT INTO waitlist_offers (%s)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (doctor_id, slot_time) WHERE status = 'OPEN' DO NOTHING
+            """.formatted(OFFER_COLUMNS);
+
+    // Patients whose offer ran out go back to waiting with their original place in the queue.
+    private static final String EXPIRE_OFFERS = """
+            WITH due AS (
+                SELECT offer_id
+                FROM waitlist_offers
+                WHERE status = 'OPEN' AND expires_at <= ?
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ),
+            expired AS (
+                UPDATE waitlist_offers o
+                   SET status = 'EXPIRED', closed_at = ?
+                  FROM due d
+                 WHERE o.offer_id = d.offer_id
+                RETURNING o.*
+            ),
+            requeued AS (
+                UPDATE waitlist_entries w
+                   SET status = 'WAITING', updated_at = ?
+                  FROM expired e
+                 WHERE w.entry_id = e.entry_id AND w.status = 'OFFERED'
+                RETURNING w.entry_id
+            )
+            SELECT %s FROM expired
+            """.formatted(OFFER_COLUMNS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WaitlistRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Inserts a new entry; a patient already waiting for the doctor fails with a
+     * {@link org.springframework.dao.DuplicateKeyException}.
+     */
+    public void insertEntry(WaitlistEntry entry) {
+        jdbcTemplate.update(INSERT_ENTRY, entry.entryId(), entry.patientId(), entry.doctorId(), entry.earliestTime(),
+                entry.latestTime(), entry.durationMinutes(), entry.priority(), entry.status().name(),
+                entry.createdAt(), entry.createdAt());
+    }
+
+    public Optional<WaitlistEntry> findEntry(UUID entryId) {
+        return jdbcTemplate.query("SELECT " + ENTRY_COLUMNS + " FROM waitlist_entries WHERE entry_id = ?",
+                WaitlistRepository::mapEntry, entryId).stream().findFirst();
+    }
+
+    /**
+     * The doctor's waiting entries whose range ends after {@code now}.
+     */
+    public List<WaitlistEntry> findWaiting(UUID doctorId, LocalDateTime now) {
+        return jdbcTemplate.query("SELECT " + ENTRY_COLUMNS
+                        + " FROM waitlist_entries WHERE doctor_id = ? AND status = 'WAITING' AND latest_time > ?",
+                WaitlistRepository::mapEntry, doctorId, now);
+    }
+
+    /**
+     * Moves the entry from {@code from} to {@code to}, recording the booked appointment if any. Returns whether the
+     * entry was still in {@code from}.
+     */
+    public boolean transitionEntry(UUID entryId, WaitlistEntry.Status from, WaitlistEntry.Status to,
+                                   UUID appointmentId, LocalDateTime now) {
+        return jdbcTemplate.update("""
+                        UPDATE waitlist_entries
+                           SET status = ?, appointment_id = COALESCE(?, appointment_id), updated_at = ?
+                         WHERE entry_id = ? AND status = ?""",
+                to.name(), appointmentId, now, entryId, from.name()) == 1;
+    }
+
+    /**
+     * Takes the entry off the waitlist, whether it is waiting or holds an offer. Returns whether it was active.
+     */
+    public boolean leave(UUID entryId, LocalDateTime now) {
+        return jdbcTemplate.update("""
+                        UPDATE waitlist_entries
+                           SET status = 'LEFT', updated_at = ?
+                         WHERE entry_id = ? AND status IN ('WAITING', 'OFFERED')""",
+                now, entryId) == 1;
+    }
+
+    /**
+     * Marks waiting entries whose range has ended by {@code now} as expired. Returns how many were expired.
+     */
+    public int expireEntries(LocalDateTime now) {
+        return jdbcTemplate.update("""
+                        UPDATE waitlist_entries
+                           SET status = 'EXPIRED', updated_at = ?
+                         WHERE status = 'WAITING' AND latest_time <= ?""",
+                now, now);
+    }
+
+    /**
+     * Inserts an open offer unless the slot is already held for another patient. Returns whether it was inserted.
+     */
+    public boolean insertOffer(WaitlistOffer offer) {
+        return jdbcTemplate.update(INSERT_OFFER, offer.offerId(), offer.entryId(), offer.patientId(),
+                offer.doctorId(), offer.sourceAppointmentId(), offer.slotTime(), offer.durationMinutes(),
+                offer.status().name(), offer.expiresAt(), offer.createdAt()) == 1;
+    }
+
+    public Optional<WaitlistOffer> findOffer(UUID offerId) {
+        return jdbcTemplate.query("SELECT " + OFFER_COLUMNS + " FROM waitlist_offers WHERE offer_id = ?",
+                WaitlistRepository::mapOffer, offerId).stream().findFirst();
+    }
+
+    /**
+     * The entries the doctor's slot starting at {@code slotTime} has been offered to so far, in any status.
+     */
+    public Set<UUID> findOfferedEntryIds(UUID doctorId, LocalDateTime slotTime) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT entry_id FROM waitlist_offers WHERE doctor_id = ? AND slot_time = ?",
+                UUID.class, doctorId, slotTime));
+    }
+
+    /**
+     * The doctor's open offers starting after {@code from} and before {@code to} whose hold has not run out by
+     * {@code now}. Their slots are held for the offered patient and not bookable by anyone else.
+     */
+    public List<WaitlistOffer> findHeldSlots(UUID doctorId, LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        return jdbcTemplate.query("SELECT " + OFFER_COLUMNS
+                        + " FROM waitlist_offers WHERE doctor_id = ? AND status = 'OPEN'"
+                        + " AND slot_time > ? AND slot_time < ? AND expires_at > ?",
+                WaitlistRepository::mapOffer, doctorId, from, to, now);
+    }
+
+    /**
+     * Accepts the offer if it is still open and its hold has not run out by {@code now}. Returns whether it was.
+     */
+    public boolean acceptOffer(UUID offerId, LocalDateTime now) {
+        return jdbcTemplate.update("""
+                        UPDATE waitlist_offers
+                           SET status = 'ACCEPTED', closed_at = ?
+                         WHERE offer_id = ? AND status = 'OPEN' AND expires_at > ?""",
+                now, offerId, now) == 1;
+    }
+
+    /**
+     * Declines the offer if it is still open. Returns whether it was.
+     */
+    public boolean declineOffer(UUID offerId, LocalDateTime now) {
+        return jdbcTemplate.update("""
+                        UPDATE waitlist_offers
+                           SET status = 'DECLINED', closed_at = ?
+                         WHERE offer_id = ? AND status = 'OPEN'""",
+                now, offerId) == 1;
+    }
+
+    /**
+     * Declines the open offer of the entry, if there is one, and returns it.
+     */
+    public Optional<WaitlistOffer> declineOpenOfferOf(UUID entryId, LocalDateTime now) {
+        return jdbcTemplate.query("""
+                        UPDATE waitlist_offers
+                           SET status = 'DECLINED', closed_at = ?
+                         WHERE entry_id = ? AND status = 'OPEN'
+                        RETURNING\s""" + OFFER_COLUMNS,
+                WaitlistRepository::mapOffer, now, entryId).stream().findFirst();
+    }
+
+    /**
+     * Expires up to {@code limit} open offers whose hold ran out by {@code now} and puts their entries back on the
+     * waitlist. Offers being accepted or declined concurrently are skipped. Returns the offers expired.
+     */
+    public List<WaitlistOffer> expireOffers(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(EXPIRE_OFFERS, WaitlistRepository::mapOffer, now, limit, now, now);
+    }
+
+    private static WaitlistEntry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new WaitlistEntry(
+                rs.getObject("entry_id", UUID.class),
+                rs.getObject("patient_id", UUID.class),
+                rs.getObject("doctor_id", UUID.class),
+                rs.getObject("earliest_time", LocalDateTime.class),
+                rs.getObject("latest_time", LocalDateTime.class),
+                rs.getInt("duration_minutes"),
+                rs.getInt("priority"),
+                WaitlistEntry.Status.valueOf(rs.getString("status")),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    private static WaitlistOffer mapOffer(ResultSet rs, int rowNum) throws SQLException {
+        return new WaitlistOffer(
+                rs.getObject("offer_id", UUID.class),
+                rs.getObject("entry_id", UUID.class),
+                rs.getObject("patient_id", UUID.class),
+                rs.getObject("doctor_id", UUID.class),
+                rs.getObject("source_appointment_id", UUID.class),
+                rs.getObject("slot_time", LocalDateTime.class),
+                rs.getInt("duration_minutes"),
+                WaitlistOffer.Status.valueOf(rs.getString("status")),
+                rs.getObject("expires_at", LocalDateTime.class),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+}
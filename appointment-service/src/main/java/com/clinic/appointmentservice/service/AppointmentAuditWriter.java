@@ -0,0 +1,111 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.AppointmentAuditBatchRepository;
+import com.clinic.appointmentservice.repository.AuditEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes appointment audit rows in the transaction of the change they describe. Events recorded inside a
+ * transaction are held with it and written just before it commits, one multi-row insert per batch, so the rows
+ * commit or roll back together with the change: a rolled back change leaves no audit row, and a failed audit
+ * write fails the commit instead of losing the events. The same holds for events whose appointment is not in the
+ * database at commit time: they are counted as rejected and fail the commit rather than being dropped. Outside a
+ * transaction events are written right away.
+ */
+@Component
+public class AppointmentAuditWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentAuditWriter.class);
+
+    static final String METRIC_PREFIX = "appointment.audit";
+
+    private final AppointmentAuditBatchRepository repository;
+    private final EntityManager entityManager;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Counter written;
+    private final Counter rejected;
+
+    public AppointmentAuditWriter(AppointmentAuditBatchRepository repository,
+                                  EntityManager entityManager,
+                                  AppointmentProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  Clock clock) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.written = meterRegistry.counter(METRIC_PREFIX + ".written");
+        this.rejected = meterRegistry.counter(METRIC_PREFIX + ".rejected");
+    }
+
+    public void record(UUID appointmentId, String action, String performedBy, String details) {
+        AuditEvent event = new AuditEvent(appointmentId, action, performedBy, details, clock.instant());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<AuditEvent> pending = (List<AuditEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<AuditEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                        // Hibernate flushes only on commit; the insert skips rows of appointments not written yet.
+                        entityManager.flush();
+                    }
+                    write(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AppointmentAuditWriter.this);
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    private void write(List<AuditEvent> events) {
+        int batchSize = properties.getAuditBatchSize();
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<AuditEvent> batch = events.subList(from, Math.min(from + batchSize, events.size()));
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            try {
+                int inserted = repository.insertAll(batch);
+                written.increment(inserted);
+                if (inserted < batch.size()) {
+                    int missing = batch.size() - inserted;
+                    rejected.increment(missing);
+                    log.error("Rejected {} appointment audit events whose appointment does not exist", missing);
+                    throw new IllegalStateException(
+                            missing + " appointment audit events refer to appointments that do not exist");
+                }
+                outcome = "success";
+            } finally {
+                sample.stop(meterRegistry.timer(METRIC_PREFIX + ".flush", "outcome", outcome));
+            }
+        }
+    }
+}
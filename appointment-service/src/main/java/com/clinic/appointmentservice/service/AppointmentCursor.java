@@ -0,0 +1,40 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.exception.InvalidCursorException;
+import com.clinic.appointmentservice.repository.AppointmentListRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token holding the {@code (appointmentTime, id)} key of the last row of a page.
+ */
+record AppointmentCursor(LocalDateTime appointmentTime, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    static AppointmentCursor of(AppointmentListRow row) {
+        return new AppointmentCursor(row.appointmentTime(), row.id());
+    }
+
+    static AppointmentCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new AppointmentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    String encode() {
+        String raw = appointmentTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,242 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.repository.AppointmentDashboardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps the {@code appointment_dashboard} read model in step with appointment state changes. A change recorded
+ * inside a transaction is held with it and queued only once it commits; the queue is drained in the background,
+ * and each batch re-projects its appointments from the normalized tables in one statement, so an appointment
+ * changed several times between two refreshes is projected once.
+ * <p>
+ * It never drops a change: a full queue makes the committing thread refresh its own appointments, a failed
+ * refresh keeps its batch for the next run and shutdown drains the queue. Whatever slips through anyway, for
+ * example on a crash, is repaired by {@link #rebuild()}. How far the dashboards trail the commits is timed per
+ * change as {@code appointment.dashboard.lag}; {@code appointment.dashboard.lag.oldest} is the age of the oldest
+ * change still waiting.
+ */
+@Component
+public class AppointmentDashboardProjection {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentDashboardProjection.class);
+
+    static final String METRIC_PREFIX = "appointment.dashboard";
+
+    private final AppointmentDashboardRepository repository;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final BlockingQueue<Change> queue;
+    private final Counter projected;
+    private final Counter overflow;
+    private final Timer lag;
+    private final Object rebuildLock = new Object();
+
+    private volatile List<Change> unflushed = List.of();
+
+    public AppointmentDashboardProjection(AppointmentDashboardRepository repository,
+                                          AppointmentProperties properties,
+                                          MeterRegistry meterRegistry,
+                                          Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(properties.getDashboardQueueCapacity());
+        this.projected = meterRegistry.counter(METRIC_PREFIX + ".projected");
+        this.overflow = meterRegistry.counter(METRIC_PREFIX + ".overflow");
+        this.lag = meterRegistry.timer(METRIC_PREFIX + ".lag");
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".lag.oldest", this, AppointmentDashboardProjection::oldestPendingSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void onAppointmentChanged(Appointment appointment) {
+        onAppointmentChanged(appointment.getId(), appointment.getAppointmentTime());
+    }
+
+    /**
+     * Schedules the appointment for re-projection once the current transaction commits, or right away outside one.
+     */
+    public void onAppointmentChanged(UUID appointmentId, LocalDateTime appointmentTime) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(new Change(appointmentId, appointmentTime, clock.instant())));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Change> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AppointmentDashboardProjection.this);
+                    if (status == STATUS_COMMITTED) {
+                        Instant committedAt = clock.instant();
+                        enqueue(changes.stream()
+                                .map(change -> new Change(change.appointmentId(), change.appointmentTime(), committedAt))
+                                .toList());
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.add(new Change(appointmentId, appointmentTime, null));
+    }
+
+    /**
+     * Re-projects queued changes until the queue is empty.
+     */
+    @Scheduled(fixedDelayString = "${appointment-service.dashboard-refresh-interval:PT0.2S}")
+    public synchronized void flush() {
+        if (!unflushed.isEmpty()) {
+            if (!refresh(unflushed)) {
+                return;
+            }
+            unflushed = List.of();
+        }
+        List<Change> batch = new ArrayList<>(properties.getDashboardBatchSize());
+        while (queue.drainTo(batch, properties.getDashboardBatchSize()) > 0) {
+            if (!refresh(batch)) {
+                unflushed = List.copyOf(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Re-projects every appointment chunk by chunk, then deletes the rows no chunk touched. Dashboards keep
+     * serving the old rows meanwhile, and changes committed during the rebuild are still applied by the
+     * background refresh. Concurrent calls run one after the other.
+     */
+    public RebuildResult rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            OffsetDateTime since = repository.now();
+            int chunkSize = Math.max(1, properties.getDashboardRebuildChunkSize());
+            long total = 0;
+            AppointmentDashboardRepository.RebuildChunk chunk = null;
+            do {
+                chunk = repository.rebuildChunk(chunk, chunkSize);
+                if (chunk != null) {
+                    total += chunk.scanned();
+                }
+            } while (chunk != null && chunk.scanned() == chunkSize);
+            int removed = repository.deleteProjectedBefore(since);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            meterRegistry.timer(METRIC_PREFIX + ".rebuild").record(elapsed);
+            log.info("Rebuilt the appointment dashboard: {} appointments projected, {} stale rows removed in {} ms",
+                    total, removed, elapsed.toMillis());
+            return new RebuildResult(total, removed, elapsed);
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        flush();
+        if (!unflushed.isEmpty() || !queue.isEmpty()) {
+            log.error("Shutting down with {} appointment changes not projected to the dashboard; rebuild it",
+                    unflushed.size() + queue.size());
+        }
+    }
+
+    int queueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(List<Change> changes) {
+        for (int i = 0; i < changes.size(); i++) {
+            if (!queue.offer(changes.get(i))) {
+                // Back-pressure instead of loss: the caller pays for the refresh when the projection falls behind.
+                List<Change> rest = changes.subList(i, changes.size());
+                overflow.increment(rest.size());
+                if (!refresh(rest)) {
+                    log.error("Dashboard missed {} changes for appointmentId={}; rebuild it",
+                            rest.size(), rest.get(0).appointmentId());
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean refresh(List<Change> changes) {
+        Map<UUID, LocalDateTime> appointments = new LinkedHashMap<>();
+        LocalDateTime earliest = LocalDateTime.MAX;
+        LocalDateTime latest = LocalDateTime.MIN;
+        for (Change change : changes) {
+            appointments.put(change.appointmentId(), change.appointmentTime());
+            if (change.appointmentTime().isBefore(earliest)) {
+                earliest = change.appointmentTime();
+            }
+            if (change.appointmentTime().isAfter(latest)) {
+                latest = change.appointmentTime();
+            }
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            repository.refresh(appointments.keySet(), earliest, latest);
+            projected.increment(appointments.size());
+            outcome = "success";
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh {} appointments on the dashboard: {}", appointments.size(), ex.getMessage());
+            return false;
+        } finally {
+            sample.stop(meterRegistry.timer(METRIC_PREFIX + ".refresh", "outcome", outcome));
+        }
+        Instant now = clock.instant();
+        for (Change change : changes) {
+            lag.record(Duration.between(change.committedAt(), now));
+        }
+        return true;
+    }
+
+    private double oldestPendingSeconds() {
+        List<Change> retained = unflushed;
+        Change oldest = !retained.isEmpty() ? retained.get(0) : queue.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.committedAt(), clock.instant()).toMillis() / 1000.0;
+    }
+
+    /**
+     * An appointment to re-project; {@code committedAt} is when the change became visible in the normalized tables.
+     */
+    record Change(UUID appointmentId, LocalDateTime appointmentTime, Instant committedAt) {
+    }
+
+    /**
+     * Outcome of a {@link #rebuild()}.
+     */
+    public record RebuildResult(long projected, int removed, Duration elapsed) {
+    }
+}
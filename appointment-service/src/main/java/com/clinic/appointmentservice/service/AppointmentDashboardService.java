@@ -0,0 +1,82 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.dto.AppointmentPage;
+import com.clinic.appointmentservice.dto.AppointmentPageRequest;
+import com.clinic.appointmentservice.mapper.AppointmentMapper;
+import com.clinic.appointmentservice.repository.AppointmentDashboardQuery;
+import com.clinic.appointmentservice.repository.AppointmentDashboardQuery.Owner;
+import com.clinic.appointmentservice.repository.AppointmentDashboardRepository;
+import com.clinic.appointmentservice.repository.AppointmentListRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves the patient and doctor dashboards from the {@code appointment_dashboard} read model: every page is one
+ * range scan of the owner's index, with no joins and no partition fan-out. Pages and cursors are the same as
+ * those of the normalized listings in {@link AppointmentService}, but trail the latest commits by about one
+ * {@code dashboard-refresh-interval}.
+ */
+@Service
+public class AppointmentDashboardService {
+
+    private final AppointmentDashboardRepository repository;
+    private final AppointmentProperties appointmentProperties;
+    private final Clock clock;
+
+    public AppointmentDashboardService(AppointmentDashboardRepository repository,
+                                       AppointmentProperties appointmentProperties,
+                                       Clock clock) {
+        this.repository = repository;
+        this.appointmentProperties = appointmentProperties;
+        this.clock = clock;
+    }
+
+    public AppointmentPage getAppointmentsByPatient(UUID patientId, AppointmentPageRequest page) {
+        return findPage(Owner.PATIENT, patientId, null, null, Sort.Direction.ASC, page);
+    }
+
+    public AppointmentPage getAppointmentsByDoctor(UUID doctorId, AppointmentPageRequest page) {
+        return findPage(Owner.DOCTOR, doctorId, null, null, Sort.Direction.ASC, page);
+    }
+
+    public AppointmentPage getUpcomingAppointmentsByPatient(UUID patientId, AppointmentPageRequest page) {
+        return findPage(Owner.PATIENT, patientId, LocalDateTime.now(clock), null, Sort.Direction.ASC, page);
+    }
+
+    public AppointmentPage getAppointmentHistoryByPatient(UUID patientId, AppointmentPageRequest page) {
+        return findPage(Owner.PATIENT, patientId, null, LocalDateTime.now(clock), Sort.Direction.DESC, page);
+    }
+
+    private AppointmentPage findPage(Owner owner, UUID ownerId, LocalDateTime startingAfter, LocalDateTime before,
+                                     Sort.Direction direction, AppointmentPageRequest page) {
+        AppointmentStatusCode status = page.status() != null && !page.status().isBlank()
+                ? AppointmentService.parseStatus(page.status())
+                : null;
+        LocalDateTime to = before != null && (page.to() == null || before.isBefore(page.to())) ? before : page.to();
+        AppointmentCursor cursor = AppointmentCursor.decode(page.cursor());
+
+        int limit = pageSize(page.limit());
+        List<AppointmentListRow> rows = repository.findPage(new AppointmentDashboardQuery(owner, ownerId, status,
+                startingAfter, page.from(), to,
+                cursor != null ? cursor.appointmentTime() : null, cursor != null ? cursor.id() : null,
+                direction, limit + 1));
+
+        List<AppointmentListRow> pageRows = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = rows.size() > limit ? AppointmentCursor.of(pageRows.get(limit - 1)).encode() : null;
+        return new AppointmentPage(pageRows.stream().map(AppointmentMapper::toResponse).toList(), nextCursor);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return appointmentProperties.getListPageSize();
+        }
+        return Math.min(requested, appointmentProperties.getListMaxPageSize());
+    }
+}
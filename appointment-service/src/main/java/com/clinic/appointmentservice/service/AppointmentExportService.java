@@ -0,0 +1,160 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.dto.AppointmentExportRequest;
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.dto.ExportFormat;
+import com.clinic.appointmentservice.exception.UnsupportedAppointmentStatusException;
+import com.clinic.appointmentservice.repository.AppointmentExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes appointment exports straight to the response stream. Rows are serialized as they arrive from the
+ * database cursor, and writes block while the client is not reading, so memory use does not grow with the
+ * size of the export.
+ */
+@Service
+public class AppointmentExportService {
+
+    static final String CSV_HEADER = "id,patientId,doctorId,doctorName,patientName,clinicAddress,appointmentTime,"
+            + "durationMinutes,status,notes,cancelledReason,consultationFee,serviceFee,totalAmount,createdAt,updatedAt,"
+            + "medicalRecordId";
+
+    private final AppointmentExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public AppointmentExportService(AppointmentExportRepository exportRepository, ObjectMapper objectMapper, Clock clock) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Validates the request up front, so bad input fails before the response is committed.
+     */
+    public AppointmentStatusCode resolveStatus(AppointmentExportRequest request) {
+        if (request.status() == null || request.status().isBlank()) {
+            return null;
+        }
+        try {
+            return AppointmentStatusCode.valueOf(request.status().toUpperCase(Locale.US));
+        } catch (IllegalArgumentException ex) {
+            throw new UnsupportedAppointmentStatusException(request.status());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(AppointmentExportRequest request, ExportFormat format, OutputStream out) throws IOException {
+        AppointmentStatusCode status = resolveStatus(request);
+        LocalDateTime to = request.to() != null ? request.to() : LocalDateTime.now(clock);
+        switch (format) {
+            case NDJSON -> writeNdjson(request, status, to, out);
+            case CSV -> writeCsv(request, status, to, out);
+        }
+    }
+
+    private void writeNdjson(AppointmentExportRequest request, AppointmentStatusCode status, LocalDateTime to,
+                             OutputStream out) throws IOException {
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            stream(request, status, to, row -> {
+                try {
+                    rowWriter.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        out.flush();
+    }
+
+    private void writeCsv(AppointmentExportRequest request, AppointmentStatusCode status, LocalDateTime to,
+                          OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        stream(request, status, to, row -> {
+            try {
+                writeCsvRow(writer, row);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+    }
+
+    private void stream(AppointmentExportRequest request, AppointmentStatusCode status, LocalDateTime to,
+                        Consumer<AppointmentResponse> sink) throws IOException {
+        try {
+            exportRepository.stream(request.patientId(), request.doctorId(), status, request.from(), to, sink);
+        } catch (UncheckedIOException ex) {
+            // Client went away; surface the I/O failure so the cursor is closed and the transaction ends
+            throw ex.getCause();
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, AppointmentResponse row) throws IOException {
+        Object[] values = {
+                row.id(), row.patientId(), row.doctorId(), row.doctorName(), row.patientName(), row.clinicAddress(),
+                row.appointmentTime(), row.durationMinutes(), row.status(), row.notes(), row.cancelledReason(),
+                row.consultationFee(), row.serviceFee(), row.totalAmount(), row.createdAt(), row.updatedAt(),
+                row.medicalRecordId()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quotes a field when RFC 4180 requires it. Free text that a spreadsheet would read as a formula
+     * (leading {@code =}, {@code +}, {@code -}, {@code @}, tab or carriage return) is prefixed with {@code '}
+     * and quoted, so patient-supplied notes are shown as text instead of being evaluated.
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = Objects.toString(value);
+        if (value instanceof CharSequence && startsLikeFormula(text)) {
+            return "\"'" + text.replace("\"", "\"\"") + '"';
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean startsLikeFormula(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
@@ -0,0 +1,60 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.AppointmentPartitionRepository;
+import com.clinic.appointmentservice.repository.OrphanedReferences;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+
+/**
+ * Keeps the monthly {@code appointments} partitions rolling: future months are created ahead of the bookings
+ * that need them, and months past the retention window are detached to the archive schema. Medical records and
+ * audit rows cannot carry foreign keys into the partitioned table, so each run also reports the recent ones whose
+ * appointment does not exist. They are never deleted automatically.
+ */
+@Component
+public class AppointmentPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentPartitionMaintenance.class);
+
+    private final AppointmentPartitionRepository repository;
+    private final AppointmentProperties properties;
+    private final Clock clock;
+
+    public AppointmentPartitionMaintenance(AppointmentPartitionRepository repository,
+                                           AppointmentProperties properties,
+                                           Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${appointment-service.partition-maintenance-cron:0 15 1 * * *}")
+    public void maintain() {
+        try {
+            int created = repository.ensurePartitions(properties.getPartitionMonthsAhead());
+            int archived = repository.archivePartitions(properties.getPartitionRetentionMonths());
+            if (created > 0 || archived > 0) {
+                log.info("Appointment partitions: created {}, archived {}", created, archived);
+            }
+            OrphanedReferences orphaned = repository.countOrphanedReferences(
+                    OffsetDateTime.now(clock).minus(properties.getOrphanSweepLookback()));
+            if (!orphaned.isEmpty()) {
+                log.warn("Found {} medical records and {} audit rows whose appointment does not exist",
+                        orphaned.medicalRecords(), orphaned.auditRows());
+            }
+        } catch (DataAccessException ex) {
+            // Bookings beyond the last partition still land in the default partition; the next run retries.
+            log.error("Appointment partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.repository.AppointmentReminder;
+import com.clinic.appointmentservice.repository.AppointmentReminderRepository;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.ReminderTarget;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends reminders a configured time before each confirmed appointment (T-24h and T-1h by default).
+ * <p>
+ * Fire times are split into fixed windows. Each instance leases the windows from a little in the past to
+ * {@code reminder-lookahead} ahead in {@code reminder_windows}, loads the reminders firing in the windows it won
+ * with one time-bounded query per lead time, and keeps them in a {@link TimingWheel}. Every tick the expired
+ * reminders are re-checked against the appointments and queued in the notification outbox in batches, one
+ * transaction per batch, together with a sent marker that keeps a reminder from being queued twice. A window is
+ * marked completed once it has ended and its reminders were handed over.
+ * <p>
+ * Leases are renewed on every maintenance run; a window whose owner died is taken over when its lease runs out
+ * and reloaded, overdue reminders included, so a restart or crash loses no reminder. Changes made on this
+ * instance update the wheel as soon as they commit; changes made elsewhere are picked up by the reload on the
+ * next run, and a cancelled or moved appointment is skipped at fire time anyway.
+ */
+@Component
+public class AppointmentReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
+    private static final DateTimeFormatter MESSAGE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    static final String METRIC_PREFIX = "appointment.reminder";
+    static final int WHEEL_SIZE = 64;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentReminderRepository reminderRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final String owner;
+
+    // Guarded by this.
+    private final TimingWheel<ReminderKey, Reminder> wheel;
+    private final Set<Instant> ownedWindows = new HashSet<>();
+    private final Set<Instant> loadedWindows = new HashSet<>();
+
+    public AppointmentReminderScheduler(AppointmentRepository appointmentRepository,
+                                        AppointmentReminderRepository reminderRepository,
+                                        NotificationOutbox notificationOutbox,
+                                        PlatformTransactionManager transactionManager,
+                                        AppointmentProperties properties,
+                                        MeterRegistry meterRegistry,
+                                        Clock clock) {
+        this.appointmentRepository = appointmentRepository;
+        this.reminderRepository = reminderRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.owner = System.getenv().getOrDefault("HOSTNAME", "appointment-service") + "/" + UUID.randomUUID();
+        this.wheel = new TimingWheel<>(properties.getReminderTick(), WHEEL_SIZE, clock.instant());
+        meterRegistry.gauge(METRIC_PREFIX + ".pending", this, AppointmentReminderScheduler::pending);
+    }
+
+    /**
+     * Leases the windows from {@code reminder-catch-up} ago through {@code reminder-lookahead} ahead, loads the ones
+     * newly won or still to come, completes the ones that are over, and drops the ones whose lease was lost.
+     */
+    @Scheduled(fixedDelayString = "${appointment-service.reminder-maintenance-interval:PT20S}")
+    public void maintainWindows() {
+        Instant now = clock.instant();
+        Instant leaseUntil = now.plus(properties.getReminderLease());
+        Instant last = windowStart(now.plus(properties.getReminderLookahead()));
+        for (Instant start = windowStart(now.minus(properties.getReminderCatchUp())); !start.isAfter(last);
+             start = start.plus(properties.getReminderWindow())) {
+            try {
+                maintainWindow(start, now, leaseUntil);
+            } catch (DataAccessException ex) {
+                // Leases lapse if this keeps failing, and another instance takes the windows over.
+                log.warn("Reminder window maintenance failed at window {}; retrying on the next run", start, ex);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands the reminders that fell due since the last tick over to the notification outbox.
+     */
+    @Scheduled(fixedDelayString = "${appointment-service.reminder-tick:PT1S}")
+    public void fireDue() {
+        List<Reminder> due;
+        synchronized (this) {
+            due = wheel.advance(clock.instant());
+        }
+        int batchSize = properties.getReminderBatchSize();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Reminder> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                handOver(batch);
+            } catch (DataAccessException ex) {
+                log.warn("Queueing {} appointment reminders failed; retrying later", batch.size(), ex);
+                retryLater(batch);
+            }
+        }
+    }
+
+    /**
+     * Brings this instance's wheel in line with {@code appointment} once the surrounding transaction commits:
+     * reminders of a cancelled appointment are dropped, those of a confirmed or moved one (re)scheduled when they
+     * fall into a window owned here.
+     */
+    public void onAppointmentChanged(Appointment appointment) {
+        UUID appointmentId = appointment.getId();
+        boolean confirmed = appointment.getStatus().getCode() == AppointmentStatusCode.CONFIRMED;
+        ReminderTarget target = new ReminderTarget(appointmentId, appointment.getPatientId(),
+                appointment.getDoctorId(), appointment.getAppointmentTime());
+        Runnable update = () -> reschedule(target, confirmed);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    @Scheduled(cron = "${appointment-service.reminder-purge-cron:0 45 1 * * *}")
+    public void purge() {
+        Instant now = clock.instant();
+        try {
+            int purged = reminderRepository.purge(LocalDateTime.ofInstant(now, clock.getZone()).minusDays(1),
+                    now.minus(properties.getReminderCatchUp()).minus(properties.getReminderWindow()));
+            log.debug("Purged {} reminder markers and windows", purged);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to purge reminder markers; retrying on the next run", ex);
+        }
+    }
+
+    synchronized int pending() {
+        return wheel.size();
+    }
+
+    private void maintainWindow(Instant start, Instant now, Instant leaseUntil) {
+        if (!reminderRepository.claimWindow(start, owner, now, leaseUntil)) {
+            synchronized (this) {
+                if (ownedWindows.remove(start)) {
+                    loadedWindows.remove(start);
+                    int dropped = wheel.cancelIf(reminder -> reminder.windowStart().equals(start));
+                    log.info("Lost the lease on reminder window {}; dropped {} reminders", start, dropped);
+                }
+            }
+            return;
+        }
+        boolean ended = !start.plus(properties.getReminderWindow()).isAfter(now);
+        boolean loaded;
+        boolean pending;
+        synchronized (this) {
+            ownedWindows.add(start);
+            loaded = loadedWindows.contains(start);
+            pending = wheel.anyMatch(reminder -> reminder.windowStart().equals(start));
+        }
+        if (ended && loaded) {
+            if (!pending) {
+                reminderRepository.completeWindow(start, owner, now);
+                synchronized (this) {
+                    ownedWindows.remove(start);
+                    loadedWindows.remove(start);
+                }
+            }
+            return;
+        }
+        load(start, now);
+    }
+
+    /**
+     * (Re)loads the reminders firing in the window. On a reload, reminders whose time has already passed were
+     * handled by the first load: they are neither scheduled again nor dropped if still waiting for the next tick.
+     */
+    private void load(Instant windowStart, Instant now) {
+        Instant windowEnd = windowStart.plus(properties.getReminderWindow());
+        List<Reminder> reminders = new ArrayList<>();
+        for (Duration lead : properties.getReminderLeadTimes()) {
+            LocalDateTime from = LocalDateTime.ofInstant(windowStart.plus(lead), clock.getZone());
+            LocalDateTime to = LocalDateTime.ofInstant(windowEnd.plus(lead), clock.getZone());
+            for (ReminderTarget target : appointmentRepository.findReminderTargets(from, to)) {
+                reminders.add(new Reminder(target, (int) lead.toMinutes(), windowStart, fireAt(target, lead)));
+            }
+        }
+        synchronized (this) {
+            if (!ownedWindows.contains(windowStart)) {
+                return;
+            }
+            boolean reload = !loadedWindows.add(windowStart);
+            wheel.cancelIf(reminder -> reminder.windowStart().equals(windowStart) && reminder.fireAt().isAfter(now));
+            for (Reminder reminder : reminders) {
+                if (!reload || reminder.fireAt().isAfter(now)) {
+                    wheel.schedule(reminder.key(), reminder.fireAt(), reminder);
+                }
+            }
+        }
+    }
+
+    private synchronized void reschedule(ReminderTarget target, boolean confirmed) {
+        Instant now = clock.instant();
+        for (Duration lead : properties.getReminderLeadTimes()) {
+            int leadMinutes = (int) lead.toMinutes();
+            wheel.cancel(new ReminderKey(target.appointmentId(), leadMinutes));
+            if (!confirmed) {
+                continue;
+            }
+            Instant fireAt = fireAt(target, lead);
+            Instant windowStart = windowStart(fireAt);
+            if (fireAt.isAfter(now) && loadedWindows.contains(windowStart)) {
+                Reminder reminder = new Reminder(target, leadMinutes, windowStart, fireAt);
+                wheel.schedule(reminder.key(), fireAt, reminder);
+            }
+        }
+    }
+
+    private void handOver(List<Reminder> batch) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime from = batch.stream().map(reminder -> reminder.target().appointmentTime())
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = batch.stream().map(reminder -> reminder.target().appointmentTime())
+                .max(Comparator.naturalOrder()).orElseThrow();
+        Set<UUID> ids = batch.stream().map(reminder -> reminder.target().appointmentId()).collect(Collectors.toSet());
+
+        Integer queued = transactionTemplate.execute(status -> {
+            // Still confirmed and still at the time the reminder was scheduled for; anything else is stale.
+            Map<UUID, ReminderTarget> current = appointmentRepository.findReminderTargetsByIds(ids, from, to).stream()
+                    .collect(Collectors.toMap(ReminderTarget::appointmentId, Function.identity()));
+            List<AppointmentReminder> valid = batch.stream()
+                    .filter(reminder -> reminder.target().equals(current.get(reminder.target().appointmentId())))
+                    .filter(reminder -> reminder.target().appointmentTime().isAfter(now))
+                    .map(Reminder::toAppointmentReminder)
+                    .toList();
+            Set<AppointmentReminder> unsent = reminderRepository.markSent(valid);
+            for (Reminder reminder : batch) {
+                if (unsent.contains(reminder.toAppointmentReminder())) {
+                    notificationOutbox.enqueue(notification(reminder));
+                }
+            }
+            return unsent.size();
+        });
+        int sent = queued != null ? queued : 0;
+        meterRegistry.counter(METRIC_PREFIX + ".queued").increment(sent);
+        meterRegistry.counter(METRIC_PREFIX + ".skipped").increment(batch.size() - sent);
+    }
+
+    private synchronized void retryLater(List<Reminder> batch) {
+        Instant retryAt = clock.instant().plus(properties.getReminderMaintenanceInterval());
+        for (Reminder reminder : batch) {
+            if (!wheel.contains(reminder.key())) {
+                wheel.schedule(reminder.key(), retryAt, reminder);
+            }
+        }
+    }
+
+    private NotificationRequest notification(Reminder reminder) {
+        ReminderTarget target = reminder.target();
+        String lead = reminder.leadMinutes() % 60 == 0
+                ? (reminder.leadMinutes() / 60) + (reminder.leadMinutes() == 60 ? " hour" : " hours")
+                : reminder.leadMinutes() + " minutes";
+        return new NotificationRequest(
+                target.patientId(),
+                target.doctorId(),
+                target.appointmentId(),
+                "Appointment reminder",
+                "Reminder: your appointment on %s starts in %s."
+                        .formatted(MESSAGE_TIME_FORMATTER.format(target.appointmentTime()), lead),
+                "EMAIL"
+        );
+    }
+
+    /**
+     * When the reminder {@code lead} before the appointment fires. Appointment times are wall-clock times in the
+     * clock's zone, like everywhere else in the service.
+     */
+    private Instant fireAt(ReminderTarget target, Duration lead) {
+        return target.appointmentTime().atZone(clock.getZone()).toInstant().minus(lead);
+    }
+
+    private Instant windowStart(Instant instant) {
+        long windowMillis = properties.getReminderWindow().toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), windowMillis) * windowMillis);
+    }
+
+    private record ReminderKey(UUID appointmentId, int leadMinutes) {
+    }
+
+    private record Reminder(ReminderTarget target, int leadMinutes, Instant windowStart, Instant fireAt) {
+
+        ReminderKey key() {
+            return new ReminderKey(target.appointmentId(), leadMinutes);
+        }
+
+        AppointmentReminder toAppointmentReminder() {
+            return new AppointmentReminder(target.appointmentId(), leadMinutes, target.appointmentTime());
+        }
+    }
+}
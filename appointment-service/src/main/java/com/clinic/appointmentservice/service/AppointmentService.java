@@ -1,36 +1,52 @@
 package com.clinic.appointmentservice.service;
 
-import com.clinic.appointmentservice.client.DoctorServiceClient;
-import com.clinic.appointmentservice.client.NotificationServiceClient;
-import com.clinic.appointmentservice.client.PatientServiceClient;
-import com.clinic.appointmentservice.client.PlatformSettingsClient;
 import com.clinic.appointmentservice.client.dto.DoctorAvailability;
 import com.clinic.appointmentservice.client.dto.DoctorResponse;
 import com.clinic.appointmentservice.client.dto.NotificationRequest;
 import com.clinic.appointmentservice.client.dto.PatientProfile;
 import com.clinic.appointmentservice.config.AppointmentProperties;
 import com.clinic.appointmentservice.domain.Appointment;
-import com.clinic.appointmentservice.domain.AppointmentAudit;
 import com.clinic.appointmentservice.domain.AppointmentStatus;
 import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.domain.MedicalRecord;
 import com.clinic.appointmentservice.dto.*;
 import com.clinic.appointmentservice.exception.*;
 import com.clinic.appointmentservice.mapper.AppointmentMapper;
-import com.clinic.appointmentservice.repository.AppointmentAuditRepository;
+import com.clinic.appointmentservice.repository.AppointmentListRow;
 import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.AppointmentSpecifications;
+import com.clinic.appointmentservice.repository.BookedInterval;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Service
@@ -41,33 +57,48 @@ public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final AppointmentStatusService appointmentStatusService;
-    private final AppointmentAuditRepository appointmentAuditRepository;
-    private final PatientServiceClient patientServiceClient;
-    private final DoctorServiceClient doctorServiceClient;
-    private final PlatformSettingsClient platformSettingsClient;
-
-    private final NotificationServiceClient notificationServiceClient;
+    private final AppointmentAuditWriter appointmentAuditWriter;
+    private final BookingValidationPipeline bookingValidationPipeline;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingSlotLocks bookingSlotLocks;
+    private final AppointmentTransitionExecutor appointmentTransitionExecutor;
+
+    private final NotificationOutbox notificationOutbox;
+    private final AppointmentReminderScheduler appointmentReminderScheduler;
+    private final AppointmentDashboardProjection appointmentDashboardProjection;
+    private final WaitlistOfferEngine waitlistOfferEngine;
+    private final WaitlistRepository waitlistRepository;
     private final com.clinic.appointmentservice.repository.MedicalRecordRepository medicalRecordRepository;
     private final AppointmentProperties appointmentProperties;
     private final Clock clock;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
                               AppointmentStatusService appointmentStatusService,
-                              AppointmentAuditRepository appointmentAuditRepository,
-                              PatientServiceClient patientServiceClient,
-                              DoctorServiceClient doctorServiceClient,
-                              PlatformSettingsClient platformSettingsClient,
-                              NotificationServiceClient notificationServiceClient,
+                              AppointmentAuditWriter appointmentAuditWriter,
+                              BookingValidationPipeline bookingValidationPipeline,
+                              BookingIntervalIndex bookingIntervalIndex,
+                              BookingSlotLocks bookingSlotLocks,
+                              AppointmentTransitionExecutor appointmentTransitionExecutor,
+                              NotificationOutbox notificationOutbox,
+                              AppointmentReminderScheduler appointmentReminderScheduler,
+                              AppointmentDashboardProjection appointmentDashboardProjection,
+                              WaitlistOfferEngine waitlistOfferEngine,
+                              WaitlistRepository waitlistRepository,
                               com.clinic.appointmentservice.repository.MedicalRecordRepository medicalRecordRepository,
                               AppointmentProperties appointmentProperties,
                               Clock clock) {
         this.appointmentRepository = appointmentRepository;
         this.appointmentStatusService = appointmentStatusService;
-        this.appointmentAuditRepository = appointmentAuditRepository;
-        this.patientServiceClient = patientServiceClient;
-        this.doctorServiceClient = doctorServiceClient;
-        this.platformSettingsClient = platformSettingsClient;
-        this.notificationServiceClient = notificationServiceClient;
+        this.appointmentAuditWriter = appointmentAuditWriter;
+        this.bookingValidationPipeline = bookingValidationPipeline;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingSlotLocks = bookingSlotLocks;
+        this.appointmentTransitionExecutor = appointmentTransitionExecutor;
+        this.notificationOutbox = notificationOutbox;
+        this.appointmentReminderScheduler = appointmentReminderScheduler;
+        this.appointmentDashboardProjection = appointmentDashboardProjection;
+        this.waitlistOfferEngine = waitlistOfferEngine;
+        this.waitlistRepository = waitlistRepository;
         this.medicalRecordRepository = medicalRecordRepository;
         this.appointmentProperties = appointmentProperties;
         this.clock = clock;
@@ -75,56 +106,27 @@ public class AppointmentService {
 
     @Transactional
     public AppointmentResponse createAppointment(CreateAppointmentRequest request) {
-        PatientProfile patient = patientServiceClient.getPatient(request.getPatientId());
-        if (!patient.active()) {
-            throw new PatientInactiveException(request.getPatientId());
-        }
+        // Settle races for the slot before paying for the remote lookups.
+        bookingSlotLocks.lock(request.getDoctorId(), request.getAppointmentTime(), request.getDurationMinutes());
+        ensureSlotFree(request.getDoctorId(), request.getPatientId(), request.getAppointmentTime(),
+                request.getDurationMinutes());
 
-        DoctorAvailability doctorAvailability =
-                doctorServiceClient.verifyAvailability(request.getDoctorId(), request.getAppointmentTime(), request.getDurationMinutes());
+        BookingValidationPipeline.BookingLookups lookups = bookingValidationPipeline.validate(request);
+        DoctorAvailability doctorAvailability = lookups.availability();
 
         // Validate Doctor Schedule
-        List<com.clinic.appointmentservice.client.dto.DoctorScheduleResponse> schedules = doctorServiceClient.getDoctorSchedules(request.getDoctorId());
-        validateDoctorSchedule(schedules, request.getAppointmentTime(), request.getDurationMinutes());
-
-        ensureNoConflict(request.getDoctorId(), request.getAppointmentTime());
-
-        // Snapshot Logic
-        String patientName = patient.firstName() + " " + patient.lastName();
-        DoctorResponse doctorInfo = doctorServiceClient.getDoctor(request.getDoctorId());
-
-        Appointment appointment = Appointment.create();
-        appointment.setPatientId(request.getPatientId());
-        appointment.setDoctorId(request.getDoctorId());
-        appointment.setAppointmentTime(request.getAppointmentTime());
-        appointment.setDurationMinutes(request.getDurationMinutes());
-        appointment.setNotes(request.getNotes());
-        
-        // Set Snapshot Data
-        appointment.setPatientName(patientName);
-        appointment.setDoctorName(doctorInfo.fullName());
-        appointment.setClinicAddress(doctorInfo.hospitalAddress());
+        validateDoctorSchedule(lookups.schedules(), request.getAppointmentTime(), request.getDurationMinutes());
 
-        // Calculate and set fees
-        BigDecimal consultationFee = doctorInfo.consultationFee() != null 
-            ? doctorInfo.consultationFee() 
-            : BigDecimal.valueOf(300000); // Default fee in VND
-        
-        BigDecimal serviceFee = platformSettingsClient.calculateServiceFee(consultationFee);
-        BigDecimal totalAmount = consultationFee.add(serviceFee);
-        
-        appointment.setConsultationFee(consultationFee);
-        appointment.setServiceFee(serviceFee);
-        appointment.setTotalAmount(totalAmount);
-        
-        log.info("Appointment fees - consultation: {}, service: {}, total: {}", 
-                consultationFee, serviceFee, totalAmount);
+        AppointmentStatus initialStatus = initialStatus(doctorAvailability);
+        Appointment appointment = newAppointment(request.getPatientId(), request.getDoctorId(),
+                request.getAppointmentTime(), request.getDurationMinutes(), request.getNotes(), lookups, initialStatus);
 
-        AppointmentStatus initialStatus = doctorAvailability.autoAccept()
-                ? appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED)
-                : appointmentStatusService.getStatus(AppointmentStatusCode.PENDING);
+        bookingIntervalIndex.reserve(appointment.getId(), request.getDoctorId(),
+                request.getAppointmentTime(), request.getDurationMinutes());
 
-        appointment.setStatus(initialStatus);
+        log.info("Appointment fees - consultation: {}, service: {}, total: {}, settings version: {}", 
+                appointment.getConsultationFee(), appointment.getServiceFee(), appointment.getTotalAmount(),
+                lookups.settingsVersion());
 
         try {
             appointment = appointmentRepository.save(appointment);
@@ -133,20 +135,159 @@ public class AppointmentService {
         }
 
         String performedBy = "PATIENT_" + request.getPatientId();
-        appointmentAuditRepository.save(new AppointmentAudit(appointment, "CREATED", performedBy, request.getNotes()));
+        appointmentAuditWriter.record(appointment.getId(), "CREATED", performedBy, request.getNotes());
 
         if (doctorAvailability.autoAccept()) {
-            appointmentAuditRepository.save(new AppointmentAudit(appointment, "AUTO_CONFIRMED", "SYSTEM", null));
+            appointmentAuditWriter.record(appointment.getId(), "AUTO_CONFIRMED", "SYSTEM", null);
         }
 
         sendCreationNotification(appointment);
+        appointmentReminderScheduler.onAppointmentChanged(appointment);
+        appointmentDashboardProjection.onAppointmentChanged(appointment);
 
         return AppointmentMapper.toResponse(appointment, null);
     }
 
+    /**
+     * Books a series for one patient and doctor. The patient, doctor and schedule lookups run once, for the first
+     * future slot; every slot is then checked against the doctor's weekly schedule and, in one pass, against
+     * existing bookings. Availability and auto-accept are checked per day, at the first slot of each day within
+     * the schedule, and apply to that day's slots; only the first day's check runs with the other lookups and
+     * fails the whole series like a single booking would. Accepted appointments and their audit rows are inserted
+     * in JDBC batches within this transaction, and the patient gets a single notification for the series.
+     */
     @Transactional
+    public BulkAppointmentResponse createAppointments(BulkAppointmentRequest request) {
+        List<LocalDateTime> slots = expandSlots(request);
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<LocalDateTime, BulkAppointmentResponse.SlotResult> results = new LinkedHashMap<>();
+
+        List<LocalDateTime> future = new ArrayList<>(slots.size());
+        for (LocalDateTime slot : slots) {
+            if (slot.isAfter(now)) {
+                future.add(slot);
+            } else {
+                results.put(slot, rejectedSlot(slot, BulkAppointmentResponse.Outcome.IN_PAST, "Slot is in the past"));
+            }
+        }
+        if (future.isEmpty()) {
+            return bulkResponse(slots, results);
+        }
+
+        int durationMinutes = request.getDurationMinutes() != null
+                ? request.getDurationMinutes()
+                : BookingIntervalIndex.DEFAULT_DURATION_MINUTES;
+        CreateAppointmentRequest representative = new CreateAppointmentRequest();
+        representative.setPatientId(request.getPatientId());
+        representative.setDoctorId(request.getDoctorId());
+        representative.setAppointmentTime(future.get(0));
+        representative.setDurationMinutes(durationMinutes);
+        representative.setNotes(request.getNotes());
+        BookingValidationPipeline.BookingLookups lookups = bookingValidationPipeline.validate(representative);
+
+        List<LocalDateTime> scheduled = new ArrayList<>(future.size());
+        Map<LocalDate, LocalDateTime> firstSlotOfDay = new LinkedHashMap<>();
+        for (LocalDateTime slot : future) {
+            try {
+                validateDoctorSchedule(lookups.schedules(), slot, durationMinutes);
+            } catch (DoctorUnavailableException ex) {
+                results.put(slot, rejectedSlot(slot, BulkAppointmentResponse.Outcome.OUTSIDE_SCHEDULE, ex.getMessage()));
+                continue;
+            }
+            scheduled.add(slot);
+            firstSlotOfDay.putIfAbsent(slot.toLocalDate(), slot);
+        }
+        Map<LocalDate, Optional<DoctorAvailability>> availabilityByDay = availabilityByDay(request.getDoctorId(),
+                future.get(0), lookups.availability(), firstSlotOfDay.values(), durationMinutes);
+
+        List<Appointment> candidates = new ArrayList<>(scheduled.size());
+        for (LocalDateTime slot : scheduled) {
+            Optional<DoctorAvailability> availability = availabilityByDay.get(slot.toLocalDate());
+            if (availability.isEmpty()) {
+                results.put(slot, rejectedSlot(slot, BulkAppointmentResponse.Outcome.UNAVAILABLE,
+                        "Doctor is not available on " + slot.toLocalDate()));
+                continue;
+            }
+            candidates.add(newAppointment(request.getPatientId(), request.getDoctorId(), slot,
+                    durationMinutes, request.getNotes(), lookups, initialStatus(availability.get())));
+        }
+
+        List<BookingIntervalIndex.Slot> candidateSlots = candidates.stream()
+                .map(appointment -> new BookingIntervalIndex.Slot(appointment.getId(),
+                        appointment.getAppointmentTime(), appointment.getDurationMinutes()))
+                .toList();
+        Set<UUID> locked = bookingSlotLocks.lockAll(request.getDoctorId(), candidateSlots);
+        // Like ensureSlotFree: bookings committed on other instances are only visible in the database.
+        Set<UUID> conflicting = bookedInDatabase(request.getDoctorId(), candidateSlots.stream()
+                .filter(slot -> !locked.contains(slot.appointmentId()))
+                .toList(), durationMinutes);
+        Set<UUID> held = heldForWaitlist(request.getDoctorId(), request.getPatientId(), candidateSlots.stream()
+                .filter(slot -> !locked.contains(slot.appointmentId()) && !conflicting.contains(slot.appointmentId()))
+                .toList(), durationMinutes);
+        conflicting.addAll(bookingIntervalIndex.reserveAll(request.getDoctorId(), candidateSlots.stream()
+                .filter(slot -> !locked.contains(slot.appointmentId()) && !conflicting.contains(slot.appointmentId())
+                        && !held.contains(slot.appointmentId()))
+                .toList()));
+        List<Appointment> accepted = new ArrayList<>(candidates.size());
+        for (Appointment candidate : candidates) {
+            if (locked.contains(candidate.getId())) {
+                results.put(candidate.getAppointmentTime(), rejectedSlot(candidate.getAppointmentTime(),
+                        BulkAppointmentResponse.Outcome.CONFLICT, "Another booking for this time is in progress"));
+            } else if (conflicting.contains(candidate.getId())) {
+                results.put(candidate.getAppointmentTime(), rejectedSlot(candidate.getAppointmentTime(),
+                        BulkAppointmentResponse.Outcome.CONFLICT, "Doctor already has an appointment at this time"));
+            } else if (held.contains(candidate.getId())) {
+                results.put(candidate.getAppointmentTime(), rejectedSlot(candidate.getAppointmentTime(),
+                        BulkAppointmentResponse.Outcome.CONFLICT, "This time is held for a waitlisted patient"));
+            } else {
+                accepted.add(candidate);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return bulkResponse(slots, results);
+        }
+
+        List<Appointment> saved;
+        try {
+            saved = appointmentRepository.saveAllAndFlush(accepted);
+        } catch (DataIntegrityViolationException ex) {
+            // The insert batch fails as a whole, so nothing of the series is kept; report it per slot, not as a 500.
+            markRollbackOnly();
+            log.warn("Bulk booking for patientId={} doctorId={} hit a conflicting write; no slot was booked",
+                    request.getPatientId(), request.getDoctorId(), ex);
+            for (Appointment candidate : accepted) {
+                results.put(candidate.getAppointmentTime(), rejectedSlot(candidate.getAppointmentTime(),
+                        BulkAppointmentResponse.Outcome.CONFLICT,
+                        "A conflicting booking was saved concurrently; no slot of the series was booked"));
+            }
+            return bulkResponse(slots, results);
+        }
+        String performedBy = "PATIENT_" + request.getPatientId();
+        for (Appointment appointment : saved) {
+            appointmentAuditWriter.record(appointment.getId(), "CREATED", performedBy, request.getNotes());
+            if (appointment.getStatus().getCode() == AppointmentStatusCode.CONFIRMED) {
+                appointmentAuditWriter.record(appointment.getId(), "AUTO_CONFIRMED", "SYSTEM", null);
+            }
+            appointmentReminderScheduler.onAppointmentChanged(appointment);
+            appointmentDashboardProjection.onAppointmentChanged(appointment);
+            results.put(appointment.getAppointmentTime(), new BulkAppointmentResponse.SlotResult(
+                    appointment.getAppointmentTime(), BulkAppointmentResponse.Outcome.BOOKED,
+                    AppointmentMapper.toResponse(appointment, null), null));
+        }
+        sendSeriesNotification(saved);
+
+        log.info("Bulk booking for patientId={} doctorId={}: {} of {} slots booked",
+                request.getPatientId(), request.getDoctorId(), saved.size(), slots.size());
+        return bulkResponse(slots, results);
+    }
+
     public AppointmentResponse cancelAppointment(UUID appointmentId, CancelAppointmentRequest request) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        return appointmentTransitionExecutor.execute("cancel", appointmentId,
+                () -> applyCancellation(appointmentId, request));
+    }
+
+    private AppointmentResponse applyCancellation(UUID appointmentId, CancelAppointmentRequest request) {
+        Appointment appointment = appointmentRepository.findByAppointmentId(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
 
         validateRequesterForAppointment(appointment, request.getRequesterId(), request.getRequesterRole());
@@ -166,17 +307,24 @@ public class AppointmentService {
         appointment.setCancelledReason(request.getReason());
 
         Appointment updated = appointmentRepository.save(appointment);
+        releaseSlot(updated);
         String performedBy = buildPerformer(request.getRequesterRole(), request.getRequesterId());
-        appointmentAuditRepository.save(new AppointmentAudit(updated, "CANCELLED", performedBy, request.getReason()));
+        appointmentAuditWriter.record(updated.getId(), "CANCELLED", performedBy, request.getReason());
 
         sendCancellationNotification(updated, request.getReason());
+        appointmentReminderScheduler.onAppointmentChanged(updated);
+        appointmentDashboardProjection.onAppointmentChanged(updated);
 
         return AppointmentMapper.toResponse(updated, null);
     }
 
-    @Transactional
     public AppointmentResponse updateStatus(UUID appointmentId, UpdateAppointmentStatusRequest request) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        return appointmentTransitionExecutor.execute("update-status", appointmentId,
+                () -> applyStatusUpdate(appointmentId, request));
+    }
+
+    private AppointmentResponse applyStatusUpdate(UUID appointmentId, UpdateAppointmentStatusRequest request) {
+        Appointment appointment = appointmentRepository.findByAppointmentId(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
 
         AppointmentStatusCode targetStatus = parseStatus(request.getStatus());
@@ -194,11 +342,16 @@ public class AppointmentService {
         }
 
         Appointment updated = appointmentRepository.save(appointment);
+        if (targetStatus == AppointmentStatusCode.CANCELLED) {
+            releaseSlot(updated);
+        }
 
         String performedBy = buildPerformer(request.getRequesterRole(), request.getRequesterId());
-        appointmentAuditRepository.save(new AppointmentAudit(updated, "STATUS_" + targetStatus.name(), performedBy, request.getNotes()));
+        appointmentAuditWriter.record(updated.getId(), "STATUS_" + targetStatus.name(), performedBy, request.getNotes());
 
         sendStatusChangeNotification(updated, targetStatus);
+        appointmentReminderScheduler.onAppointmentChanged(updated);
+        appointmentDashboardProjection.onAppointmentChanged(updated);
 
         UUID medicalRecordId = medicalRecordRepository.findByAppointmentId(appointmentId)
                 .map(com.clinic.appointmentservice.domain.MedicalRecord::getId)
@@ -207,9 +360,94 @@ public class AppointmentService {
         return AppointmentMapper.toResponse(updated, medicalRecordId);
     }
 
+    /**
+     * Moves many appointments to one status in a single transaction. They are loaded with their status in one
+     * statement and each is checked like a single status update; the ones that fail are reported and left alone.
+     * The rest are written as batched updates at flush, and their audit rows and notifications are queued together.
+     * A concurrent change to any of them runs the whole batch again.
+     */
+    public BulkStatusUpdateResponse updateStatuses(BulkStatusUpdateRequest request) {
+        List<UUID> appointmentIds = List.copyOf(new LinkedHashSet<>(request.getAppointmentIds()));
+        int maxAppointments = appointmentProperties.getBulkStatusMaxAppointments();
+        if (appointmentIds.size() > maxAppointments) {
+            throw new InvalidBulkStatusUpdateException(
+                    "At most " + maxAppointments + " appointments can be updated at once");
+        }
+        AppointmentStatusCode targetStatus = parseStatus(request.getStatus());
+        return appointmentTransitionExecutor.executeAll("bulk-update-status", appointmentIds,
+                () -> applyStatusUpdates(appointmentIds, targetStatus, request));
+    }
+
+    private BulkStatusUpdateResponse applyStatusUpdates(List<UUID> appointmentIds, AppointmentStatusCode targetStatus,
+                                                        BulkStatusUpdateRequest request) {
+        Map<UUID, Appointment> appointments = new HashMap<>();
+        for (Appointment appointment : appointmentRepository.findAllByAppointmentIds(appointmentIds)) {
+            appointments.put(appointment.getId(), appointment);
+        }
+        AppointmentStatus status = appointmentStatusService.getStatus(targetStatus);
+        String performedBy = buildPerformer(request.getRequesterRole(), request.getRequesterId());
+        boolean hasNotes = request.getNotes() != null && !request.getNotes().isBlank();
+
+        Map<UUID, BulkStatusUpdateResponse.AppointmentResult> rejected = new HashMap<>();
+        List<Appointment> updated = new ArrayList<>(appointments.size());
+        for (UUID appointmentId : appointmentIds) {
+            Appointment appointment = appointments.get(appointmentId);
+            if (appointment == null) {
+                rejected.put(appointmentId, rejectedAppointment(appointmentId,
+                        BulkStatusUpdateResponse.Outcome.NOT_FOUND, "Appointment not found"));
+                continue;
+            }
+            try {
+                validateStatusTransition(appointment, targetStatus, request.getRequesterRole(), request.getRequesterId());
+            } catch (InvalidAppointmentStateException ex) {
+                rejected.put(appointmentId, rejectedAppointment(appointmentId,
+                        BulkStatusUpdateResponse.Outcome.INVALID_TRANSITION, ex.getMessage()));
+                continue;
+            } catch (UnauthorizedActionException | CancellationNotAllowedException ex) {
+                rejected.put(appointmentId, rejectedAppointment(appointmentId,
+                        BulkStatusUpdateResponse.Outcome.NOT_ALLOWED, ex.getMessage()));
+                continue;
+            }
+
+            appointment.setStatus(status);
+            if (targetStatus != AppointmentStatusCode.CANCELLED) {
+                appointment.setCancelledReason(null);
+            }
+            if (hasNotes) {
+                appointment.setNotes(request.getNotes());
+            }
+            if (targetStatus == AppointmentStatusCode.CANCELLED) {
+                releaseSlot(appointment);
+            }
+            appointmentAuditWriter.record(appointment.getId(), "STATUS_" + targetStatus.name(), performedBy,
+                    request.getNotes());
+            appointmentReminderScheduler.onAppointmentChanged(appointment);
+            appointmentDashboardProjection.onAppointmentChanged(appointment);
+            updated.add(appointment);
+        }
+        if (updated.isEmpty()) {
+            return bulkStatusResponse(appointmentIds, Map.of(), rejected, Map.of());
+        }
+
+        // Managed entities: the flush writes them as JDBC batches and runs the version checks here.
+        appointmentRepository.flush();
+        notificationOutbox.enqueueAll(updated.stream()
+                .map(appointment -> statusChangeNotification(appointment, targetStatus))
+                .toList());
+        Map<UUID, UUID> medicalRecordIds = new HashMap<>();
+        for (MedicalRecord medicalRecord : medicalRecordRepository.findByAppointmentIdIn(
+                updated.stream().map(Appointment::getId).toList())) {
+            medicalRecordIds.put(medicalRecord.getAppointmentId(), medicalRecord.getId());
+        }
+
+        log.info("Bulk status update to {} by {}: {} of {} appointments updated",
+                targetStatus, performedBy, updated.size(), appointmentIds.size());
+        return bulkStatusResponse(appointmentIds, appointments, rejected, medicalRecordIds);
+    }
+
     @Transactional(readOnly = true)
     public AppointmentResponse getAppointment(UUID appointmentId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        Appointment appointment = appointmentRepository.findByAppointmentId(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
         
         UUID medicalRecordId = medicalRecordRepository.findByAppointmentId(appointmentId)
@@ -220,67 +458,290 @@ public class AppointmentService {
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAppointmentsByPatient(UUID patientId) {
-        List<Appointment> appointments = appointmentRepository.findAllByPatientId(patientId);
-        return mapToResponseList(appointments);
+    public AppointmentPage getAppointmentsByPatient(UUID patientId, AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.forPatient(patientId), Sort.Direction.ASC, page);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAppointmentsByDoctor(UUID doctorId) {
-        List<Appointment> appointments = appointmentRepository.findAllByDoctorId(doctorId);
-        return mapToResponseList(appointments);
+    public AppointmentPage getAppointmentsByDoctor(UUID doctorId, AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.forDoctor(doctorId), Sort.Direction.ASC, page);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAllAppointments() {
-        List<Appointment> appointments = appointmentRepository.findAll();
-        return mapToResponseList(appointments);
+    public AppointmentPage getAllAppointments(AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.all(), Sort.Direction.ASC, page);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getUpcomingAppointments() {
-        List<Appointment> appointments = appointmentRepository.findByAppointmentTimeAfterOrderByAppointmentTimeAsc(LocalDateTime.now(clock));
-        return mapToResponseList(appointments);
+    public AppointmentPage getUpcomingAppointments(AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.startingAfter(LocalDateTime.now(clock)), Sort.Direction.ASC, page);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getUpcomingAppointmentsByPatient(UUID patientId) {
-        List<Appointment> appointments = appointmentRepository.findByPatientIdAndAppointmentTimeAfterOrderByAppointmentTimeAsc(patientId, LocalDateTime.now(clock));
-        return mapToResponseList(appointments);
+    public AppointmentPage getUpcomingAppointmentsByPatient(UUID patientId, AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.forPatient(patientId)
+                .and(AppointmentSpecifications.startingAfter(LocalDateTime.now(clock))), Sort.Direction.ASC, page);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAppointmentHistory() {
-        List<Appointment> appointments = appointmentRepository.findByAppointmentTimeBeforeOrderByAppointmentTimeDesc(LocalDateTime.now(clock));
-        return mapToResponseList(appointments);
+    public AppointmentPage getAppointmentHistory(AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.startingBefore(LocalDateTime.now(clock)), Sort.Direction.DESC, page);
     }
 
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAppointmentHistoryByPatient(UUID patientId) {
-        List<Appointment> appointments = appointmentRepository.findByPatientIdAndAppointmentTimeBeforeOrderByAppointmentTimeDesc(patientId, LocalDateTime.now(clock));
-        return mapToResponseList(appointments);
+    public AppointmentPage getAppointmentHistoryByPatient(UUID patientId, AppointmentPageRequest page) {
+        return findPage(AppointmentSpecifications.forPatient(patientId)
+                .and(AppointmentSpecifications.startingBefore(LocalDateTime.now(clock))), Sort.Direction.DESC, page);
     }
 
-    private List<AppointmentResponse> mapToResponseList(List<Appointment> appointments) {
-        if (appointments.isEmpty()) {
-            return java.util.Collections.emptyList();
+    /**
+     * Keyset page over {@code (appointmentTime, id)}: fetches one row beyond the page size to learn whether
+     * another page exists, and never counts or offsets. Rows are projections, so status and medical record
+     * id come from the same statement.
+     */
+    private AppointmentPage findPage(Specification<Appointment> scope, Sort.Direction direction, AppointmentPageRequest page) {
+        Specification<Appointment> spec = scope;
+        if (page.status() != null && !page.status().isBlank()) {
+            spec = spec.and(AppointmentSpecifications.withStatus(parseStatus(page.status())));
         }
-        List<UUID> appointmentIds = appointments.stream().map(Appointment::getId).toList();
-        java.util.Map<UUID, UUID> medicalRecordMap = medicalRecordRepository.findByAppointmentIdIn(appointmentIds).stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        com.clinic.appointmentservice.domain.MedicalRecord::getAppointmentId,
-                        com.clinic.appointmentservice.domain.MedicalRecord::getId
-                ));
-        
-        return appointments.stream()
-                .map(app -> AppointmentMapper.toResponse(app, medicalRecordMap.get(app.getId())))
+        if (page.from() != null) {
+            spec = spec.and(AppointmentSpecifications.startingAtOrAfter(page.from()));
+        }
+        if (page.to() != null) {
+            spec = spec.and(AppointmentSpecifications.startingBefore(page.to()));
+        }
+        AppointmentCursor cursor = AppointmentCursor.decode(page.cursor());
+        if (cursor != null) {
+            spec = spec.and(AppointmentSpecifications.after(cursor.appointmentTime(), cursor.id(), direction));
+        }
+
+        int limit = pageSize(page.limit());
+        List<AppointmentListRow> rows = appointmentRepository.findListRows(
+                spec, AppointmentSpecifications.keysetOrder(direction), limit + 1);
+
+        List<AppointmentListRow> pageRows = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = rows.size() > limit ? AppointmentCursor.of(pageRows.get(limit - 1)).encode() : null;
+        return new AppointmentPage(pageRows.stream().map(AppointmentMapper::toResponse).toList(), nextCursor);
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return appointmentProperties.getListPageSize();
+        }
+        return Math.min(requested, appointmentProperties.getListMaxPageSize());
+    }
+
+    private Appointment newAppointment(UUID patientId, UUID doctorId, LocalDateTime appointmentTime,
+                                       Integer durationMinutes, String notes,
+                                       BookingValidationPipeline.BookingLookups lookups, AppointmentStatus status) {
+        PatientProfile patient = lookups.patient();
+        DoctorResponse doctorInfo = lookups.doctor();
+
+        Appointment appointment = Appointment.create(appointmentTime);
+        appointment.setPatientId(patientId);
+        appointment.setDoctorId(doctorId);
+        appointment.setDurationMinutes(durationMinutes);
+        appointment.setNotes(notes);
+
+        // Set Snapshot Data
+        appointment.setPatientName(patient.firstName() + " " + patient.lastName());
+        appointment.setDoctorName(doctorInfo.fullName());
+        appointment.setClinicAddress(doctorInfo.hospitalAddress());
+
+        // Fees are resolved by the validation pipeline
+        BigDecimal consultationFee = lookups.consultationFee();
+        BigDecimal serviceFee = lookups.serviceFee();
+        appointment.setConsultationFee(consultationFee);
+        appointment.setServiceFee(serviceFee);
+        appointment.setTotalAmount(consultationFee.add(serviceFee));
+        appointment.setSettingsVersion(lookups.settingsVersion());
+
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    /**
+     * Rejects a slot that is already booked or held for another waitlisted patient. A hit in the index is confirmed
+     * by reloading the day, so a booking cancelled on another instance does not block the slot; with the slot
+     * locked, the database check also sees bookings another instance committed after the index loaded the day. The
+     * patient a slot is held for may book it directly as well as through the offer.
+     */
+    private void ensureSlotFree(UUID doctorId, UUID patientId, LocalDateTime start, Integer durationMinutes) {
+        int minutes = durationMinutes != null ? durationMinutes : BookingIntervalIndex.DEFAULT_DURATION_MINUTES;
+        LocalDateTime end = start.plusMinutes(minutes);
+        if (!bookingIntervalIndex.isFree(doctorId, start, durationMinutes)
+                || appointmentRepository.existsOverlappingBooking(doctorId, start, end)) {
+            throw new AppointmentConflictException(doctorId, start.toString());
+        }
+        for (WaitlistOffer offer : waitlistRepository.findHeldSlots(doctorId, start.minusDays(1), end,
+                LocalDateTime.now(clock))) {
+            if (!offer.patientId().equals(patientId) && offer.overlaps(start, end)) {
+                throw new SlotHeldForWaitlistException(doctorId, start, offer.expiresAt());
+            }
+        }
+    }
+
+    /**
+     * Ids of the slots that overlap a slot held for another waitlisted patient than {@code patientId}, read with one
+     * range query like {@link #bookedInDatabase}.
+     */
+    private Set<UUID> heldForWaitlist(UUID doctorId, UUID patientId, List<BookingIntervalIndex.Slot> slots,
+                                      int durationMinutes) {
+        Set<UUID> held = new HashSet<>();
+        if (slots.isEmpty()) {
+            return held;
+        }
+        LocalDateTime first = slots.stream().map(BookingIntervalIndex.Slot::start).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime last = slots.stream().map(BookingIntervalIndex.Slot::start).max(LocalDateTime::compareTo).orElseThrow();
+        List<WaitlistOffer> offers = waitlistRepository.findHeldSlots(doctorId, first.minusDays(1),
+                last.plusMinutes(durationMinutes), LocalDateTime.now(clock));
+        for (BookingIntervalIndex.Slot slot : slots) {
+            LocalDateTime end = slot.start().plusMinutes(durationMinutes);
+            if (offers.stream().anyMatch(offer -> !offer.patientId().equals(patientId)
+                    && offer.overlaps(slot.start(), end))) {
+                held.add(slot.appointmentId());
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Ids of the slots that overlap a booking committed in the database. The doctor's bookings over the whole
+     * span of the slots are read with one range query and the slots are checked against them in memory; like
+     * {@link AppointmentRepository#existsOverlappingBooking}, bookings are assumed to last less than a day.
+     */
+    private Set<UUID> bookedInDatabase(UUID doctorId, List<BookingIntervalIndex.Slot> slots, int durationMinutes) {
+        Set<UUID> conflicting = new HashSet<>();
+        if (slots.isEmpty()) {
+            return conflicting;
+        }
+        LocalDateTime first = slots.stream().map(BookingIntervalIndex.Slot::start).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime last = slots.stream().map(BookingIntervalIndex.Slot::start).max(LocalDateTime::compareTo).orElseThrow();
+        // Latest end per start time, so a slot only walks back over the bookings of the day before it.
+        NavigableMap<LocalDateTime, LocalDateTime> booked = new TreeMap<>();
+        for (BookedInterval interval : appointmentRepository.findBookedIntervals(doctorId,
+                first.minusDays(1), last.plusMinutes(durationMinutes))) {
+            int minutes = interval.durationMinutes() != null
+                    ? interval.durationMinutes()
+                    : BookingIntervalIndex.DEFAULT_DURATION_MINUTES;
+            booked.merge(interval.appointmentTime(), interval.appointmentTime().plusMinutes(minutes),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+        for (BookingIntervalIndex.Slot slot : slots) {
+            LocalDateTime end = slot.start().plusMinutes(durationMinutes);
+            boolean overlaps = booked.subMap(slot.start().minusDays(1), false, end, false).values().stream()
+                    .anyMatch(bookedEnd -> bookedEnd.isAfter(slot.start()));
+            if (overlaps) {
+                conflicting.add(slot.appointmentId());
+            }
+        }
+        return conflicting;
+    }
+
+    private static void markRollbackOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    /**
+     * Availability per day of the series: the first day's comes from the booking lookups, the other days are
+     * checked at their first slot. Days the doctor is unavailable on map to empty.
+     */
+    private Map<LocalDate, Optional<DoctorAvailability>> availabilityByDay(UUID doctorId, LocalDateTime firstSlot,
+                                                                           DoctorAvailability firstAvailability,
+                                                                           Collection<LocalDateTime> firstSlotsOfDays,
+                                                                           int durationMinutes) {
+        LocalDate firstDay = firstSlot.toLocalDate();
+        List<LocalDateTime> otherDays = firstSlotsOfDays.stream()
+                .filter(slot -> !slot.toLocalDate().equals(firstDay))
                 .toList();
+        Map<LocalDate, Optional<DoctorAvailability>> byDay = new HashMap<>();
+        byDay.put(firstDay, Optional.of(firstAvailability));
+        bookingValidationPipeline.verifyAvailability(doctorId, otherDays, durationMinutes)
+                .forEach((slot, availability) -> byDay.put(slot.toLocalDate(), availability));
+        return byDay;
+    }
+
+    private AppointmentStatus initialStatus(DoctorAvailability doctorAvailability) {
+        return doctorAvailability.autoAccept()
+                ? appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED)
+                : appointmentStatusService.getStatus(AppointmentStatusCode.PENDING);
     }
 
-    private void ensureNoConflict(UUID doctorId, LocalDateTime appointmentTime) {
-        if (appointmentRepository.existsByDoctorIdAndAppointmentTime(doctorId, appointmentTime)) {
-            throw new AppointmentConflictException(doctorId, appointmentTime.toString());
+    private List<LocalDateTime> expandSlots(BulkAppointmentRequest request) {
+        boolean hasSlots = request.getSlots() != null && !request.getSlots().isEmpty();
+        RecurrenceRule rule = request.getRecurrence();
+        if (hasSlots == (rule != null)) {
+            throw new InvalidBulkBookingException("Provide either slots or a recurrence rule");
+        }
+        int maxSlots = appointmentProperties.getBulkMaxSlots();
+
+        List<LocalDateTime> slots;
+        if (hasSlots) {
+            slots = request.getSlots().stream().distinct().sorted().toList();
+        } else {
+            if (rule.getOccurrences() == null && rule.getUntil() == null) {
+                throw new InvalidBulkBookingException("Recurrence needs occurrences or until");
+            }
+            int occurrences = rule.getOccurrences() != null ? rule.getOccurrences() : maxSlots + 1;
+            slots = new ArrayList<>();
+            LocalDateTime slot = rule.getStart();
+            while (slots.size() < occurrences && slots.size() <= maxSlots
+                    && (rule.getUntil() == null || !slot.isAfter(rule.getUntil()))) {
+                slots.add(slot);
+                slot = rule.getFrequency() == RecurrenceRule.Frequency.DAILY
+                        ? slot.plusDays(rule.getInterval())
+                        : slot.plusWeeks(rule.getInterval());
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new InvalidBulkBookingException("Recurrence produces no slots");
         }
+        if (slots.size() > maxSlots) {
+            throw new InvalidBulkBookingException("A series may contain at most " + maxSlots + " slots");
+        }
+        return slots;
+    }
+
+    private BulkAppointmentResponse.SlotResult rejectedSlot(LocalDateTime slot, BulkAppointmentResponse.Outcome outcome,
+                                                            String reason) {
+        return new BulkAppointmentResponse.SlotResult(slot, outcome, null, reason);
+    }
+
+    private BulkAppointmentResponse bulkResponse(List<LocalDateTime> slots,
+                                                 Map<LocalDateTime, BulkAppointmentResponse.SlotResult> results) {
+        List<BulkAppointmentResponse.SlotResult> ordered = slots.stream().map(results::get).toList();
+        int booked = (int) ordered.stream()
+                .filter(result -> result.outcome() == BulkAppointmentResponse.Outcome.BOOKED)
+                .count();
+        return new BulkAppointmentResponse(booked, ordered.size() - booked, ordered);
+    }
+
+    private BulkStatusUpdateResponse.AppointmentResult rejectedAppointment(UUID appointmentId,
+                                                                          BulkStatusUpdateResponse.Outcome outcome,
+                                                                          String reason) {
+        return new BulkStatusUpdateResponse.AppointmentResult(appointmentId, outcome, null, reason);
+    }
+
+    private BulkStatusUpdateResponse bulkStatusResponse(List<UUID> appointmentIds,
+                                                        Map<UUID, Appointment> appointments,
+                                                        Map<UUID, BulkStatusUpdateResponse.AppointmentResult> rejected,
+                                                        Map<UUID, UUID> medicalRecordIds) {
+        List<BulkStatusUpdateResponse.AppointmentResult> results = appointmentIds.stream()
+                .map(id -> rejected.containsKey(id)
+                        ? rejected.get(id)
+                        : new BulkStatusUpdateResponse.AppointmentResult(id, BulkStatusUpdateResponse.Outcome.UPDATED,
+                                AppointmentMapper.toResponse(appointments.get(id), medicalRecordIds.get(id)), null))
+                .toList();
+        return new BulkStatusUpdateResponse(results.size() - rejected.size(), rejected.size(), results);
+    }
+
+    private void releaseSlot(Appointment appointment) {
+        bookingIntervalIndex.releaseAfterCommit(appointment.getId(), appointment.getDoctorId(),
+                appointment.getAppointmentTime(), appointment.getDurationMinutes());
+        waitlistOfferEngine.onSlotFreed(appointment.getId(), appointment.getDoctorId(),
+                appointment.getAppointmentTime(), appointment.getDurationMinutes());
     }
 
     private void ensureCancellationWindow(LocalDateTime appointmentTime, RequesterRole requesterRole) {
@@ -347,7 +808,7 @@ public class AppointmentService {
         throw new UnauthorizedActionException("Only the owning doctor or admin can perform this action");
     }
 
-    private AppointmentStatusCode parseStatus(String status) {
+    static AppointmentStatusCode parseStatus(String status) {
         try {
             return AppointmentStatusCode.valueOf(status.toUpperCase(Locale.US));
         } catch (IllegalArgumentException ex) {
@@ -372,7 +833,26 @@ public class AppointmentService {
                 message.formatted(time),
                 "EMAIL"
         );
-        dispatchNotification("creation", notification);
+        notificationOutbox.enqueue(notification);
+    }
+
+    private void sendSeriesNotification(List<Appointment> appointments) {
+        Appointment first = appointments.get(0);
+        String status = first.getStatus().getCode().name();
+        String message = (status.equals(AppointmentStatusCode.CONFIRMED.name())
+                ? "%d appointments starting %s have been confirmed."
+                : "%d appointments starting %s have been received and are pending confirmation.")
+                .formatted(appointments.size(), formatTime(first.getAppointmentTime()));
+
+        NotificationRequest notification = new NotificationRequest(
+                first.getPatientId(),
+                first.getDoctorId(),
+                first.getId(),
+                "Appointment series received",
+                message,
+                "EMAIL"
+        );
+        notificationOutbox.enqueue(notification);
     }
 
     private void sendCancellationNotification(Appointment appointment, String reason) {
@@ -388,10 +868,14 @@ public class AppointmentService {
                 message,
                 "EMAIL"
         );
-        dispatchNotification("cancellation", notification);
+        notificationOutbox.enqueue(notification);
     }
 
     private void sendStatusChangeNotification(Appointment appointment, AppointmentStatusCode status) {
+        notificationOutbox.enqueue(statusChangeNotification(appointment, status));
+    }
+
+    private NotificationRequest statusChangeNotification(Appointment appointment, AppointmentStatusCode status) {
         String subject = "Appointment status updated";
         String message = switch (status) {
             case CONFIRMED -> "Your appointment on %s has been confirmed by the doctor."
@@ -404,7 +888,7 @@ public class AppointmentService {
                     .formatted(formatTime(appointment.getAppointmentTime()));
         };
 
-        NotificationRequest notification = new NotificationRequest(
+        return new NotificationRequest(
                 appointment.getPatientId(),
                 appointment.getDoctorId(),
                 appointment.getId(),
@@ -412,26 +896,12 @@ public class AppointmentService {
                 message,
                 "EMAIL"
         );
-        dispatchNotification("status change", notification);
     }
 
     private String formatTime(LocalDateTime time) {
         return MESSAGE_TIME_FORMATTER.format(time);
     }
 
-    private void dispatchNotification(String context, NotificationRequest notification) {
-        try {
-            notificationServiceClient.sendNotification(notification);
-        } catch (RuntimeException ex) {
-            log.warn("Failed to send {} notification for appointmentId={}, patientId={}, doctorId={}",
-                    context,
-                    notification.appointmentId(),
-                    notification.patientId(),
-                    notification.doctorId(),
-                    ex);
-        }
-    }
-
     private String buildPerformer(RequesterRole role, UUID id) {
         return role.name() + "_" + id;
     }
@@ -0,0 +1,60 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.domain.AppointmentStatus;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.repository.AppointmentStatusRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds the rows of the static {@code appointment_status} lookup table, loaded once at startup.
+ * The instances are detached but fully initialised, which is all a non-cascading {@code @ManyToOne}
+ * needs: assigning one to an appointment writes its id without touching the lookup table.
+ */
+@Component
+public class AppointmentStatusRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStatusRegistry.class);
+
+    private final AppointmentStatusRepository repository;
+    private Map<AppointmentStatusCode, AppointmentStatus> statuses = Collections.emptyMap();
+
+    public AppointmentStatusRegistry(AppointmentStatusRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    void load() {
+        Map<AppointmentStatusCode, AppointmentStatus> loaded = new EnumMap<>(AppointmentStatusCode.class);
+        repository.findAll().forEach(status -> loaded.put(status.getCode(), status));
+        for (AppointmentStatusCode code : AppointmentStatusCode.values()) {
+            if (!loaded.containsKey(code)) {
+                throw new IllegalStateException("Appointment status not configured: " + code);
+            }
+        }
+        this.statuses = Collections.unmodifiableMap(loaded);
+        log.info("Loaded {} appointment statuses", loaded.size());
+    }
+
+    /**
+     * Returns the shared, detached row for {@code code}. It is deliberately not a managed reference:
+     * {@code Appointment.status} is a {@code @ManyToOne} without cascades, so persisting, merging or flushing an
+     * appointment only reads the status id, and a detached instance with its id set writes the same
+     * {@code status_id} a managed one would. A {@code getReference} proxy would instead belong to one persistence
+     * context and run a select the first time its code is read, for instance when the response is mapped, which
+     * is the per-booking query this registry removes. Callers must not modify the instance.
+     */
+    public AppointmentStatus get(AppointmentStatusCode code) {
+        AppointmentStatus status = statuses.get(code);
+        if (status == null) {
+            throw new IllegalStateException("Appointment status not configured: " + code);
+        }
+        return status;
+    }
+}
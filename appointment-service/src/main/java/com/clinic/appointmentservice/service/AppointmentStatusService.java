@@ -2,20 +2,18 @@ package com.clinic.appointmentservice.service;
 
 import com.clinic.appointmentservice.domain.AppointmentStatus;
 import com.clinic.appointmentservice.domain.AppointmentStatusCode;
-import com.clinic.appointmentservice.repository.AppointmentStatusRepository;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AppointmentStatusService {
 
-    private final AppointmentStatusRepository repository;
+    private final AppointmentStatusRegistry registry;
 
-    public AppointmentStatusService(AppointmentStatusRepository repository) {
-        this.repository = repository;
+    public AppointmentStatusService(AppointmentStatusRegistry registry) {
+        this.registry = registry;
     }
 
     public AppointmentStatus getStatus(AppointmentStatusCode code) {
-        return repository.findByCode(code)
-                .orElseThrow(() -> new IllegalStateException("Appointment status not configured: " + code));
+        return registry.get(code);
     }
 }
@@ -0,0 +1,112 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.ConcurrentAppointmentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs an appointment state transition in its own transaction and runs it again when a concurrent update wins the
+ * {@code @Version} check at commit. Every attempt re-reads the appointment and re-validates the transition against
+ * what it finds, so a retry can still be rejected, for example when the other update already cancelled it. No row
+ * locks are taken; notifications go through the outbox and other side effects are bound to the commit, so a failed
+ * attempt leaves nothing behind.
+ * <p>
+ * Retries wait an exponentially growing, fully jittered delay so colliding requests spread out. Transitions are
+ * counted as {@code appointment.transition} tagged with operation and outcome, and every lost version check as
+ * {@code appointment.transition.conflicts}; their ratio is the retry rate.
+ */
+@Component
+public class AppointmentTransitionExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentTransitionExecutor.class);
+
+    static final String METRIC_PREFIX = "appointment.transition";
+
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AppointmentTransitionExecutor(PlatformTransactionManager transactionManager,
+                                         AppointmentProperties properties,
+                                         MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code transition} for the appointment until it commits, fails for another reason or runs out of attempts.
+     *
+     * @throws ConcurrentAppointmentUpdateException when every attempt lost the version check
+     */
+    public <T> T execute(String operation, UUID appointmentId, Supplier<T> transition) {
+        return run(operation, "appointmentId=" + appointmentId, transition,
+                attempts -> new ConcurrentAppointmentUpdateException(appointmentId, attempts));
+    }
+
+    /**
+     * Runs {@code transition} over several appointments in one transaction; a lost version check on any of them
+     * runs all of it again.
+     *
+     * @throws ConcurrentAppointmentUpdateException when every attempt lost the version check
+     */
+    public <T> T executeAll(String operation, Collection<UUID> appointmentIds, Supplier<T> transition) {
+        return run(operation, appointmentIds.size() + " appointments", transition,
+                attempts -> new ConcurrentAppointmentUpdateException(appointmentIds.size(), attempts));
+    }
+
+    private <T> T run(String operation, String subject, Supplier<T> transition,
+                      IntFunction<ConcurrentAppointmentUpdateException> exhausted) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // A retry needs a fresh transaction; inside someone else's the caller has to retry the whole of it.
+            throw new IllegalStateException("Appointment transitions must not run inside an existing transaction");
+        }
+        int maxAttempts = Math.max(1, properties.getTransitionMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> transition.get());
+                meterRegistry.counter(METRIC_PREFIX, "operation", operation,
+                        "outcome", attempt == 1 ? "committed" : "committed-after-retry").increment();
+                return result;
+            } catch (OptimisticLockingFailureException ex) {
+                meterRegistry.counter(METRIC_PREFIX + ".conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter(METRIC_PREFIX, "operation", operation, "outcome", "exhausted").increment();
+                    log.warn("Giving up on {} for {} after {} conflicting attempts", operation, subject, attempt);
+                    throw exhausted.apply(attempt);
+                }
+                Duration delay = backoff(attempt);
+                log.debug("{} for {} lost a concurrent update (attempt {}), retrying in {}",
+                        operation, subject, attempt, delay);
+                LockSupport.parkNanos(delay.toNanos());
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw exhausted.apply(attempt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Full jitter: uniformly random between zero and the base delay doubled per failed attempt.
+     */
+    Duration backoff(int attempts) {
+        long ceiling = properties.getTransitionRetryBackoff().toNanos() << Math.min(attempts - 1, 20);
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+}
@@ -0,0 +1,139 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.AttachmentTooLargeException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store for medical record attachments. A file's id is the SHA-256 of its bytes, so
+ * uploading the same document twice stores it once, and a stored file never changes under its id.
+ * <p>
+ * Uploads are copied through one direct buffer from the source channel into a temporary file while being hashed,
+ * and then renamed into place; no upload is ever held in heap as a whole.
+ */
+@Component
+public class AttachmentStore {
+
+    private static final Pattern CONTENT_ID = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    public AttachmentStore(AppointmentProperties properties) throws IOException {
+        this.root = Path.of(properties.getAttachmentDir()).toAbsolutePath();
+        this.incoming = root.resolve("incoming");
+        this.maxSize = properties.getAttachmentMaxSize().toBytes();
+        Files.createDirectories(incoming);
+    }
+
+    /**
+     * Streams {@code content} into the store and returns its id; {@code content} is not closed.
+     *
+     * @throws AttachmentTooLargeException when more than the configured maximum arrives
+     */
+    public StoredAttachment store(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            ReadableByteChannel source = Channels.newChannel(content);
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException(maxSize);
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+
+            String contentId = HexFormat.of().formatHex(digest.digest());
+            Path path = pathOf(contentId);
+            boolean created = Files.notExists(path);
+            if (created) {
+                Files.createDirectories(path.getParent());
+                // Concurrent uploads of the same bytes rename identical files onto each other, which is harmless.
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredAttachment(contentId, size, created);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to store attachment", ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public Optional<Attachment> find(String contentId) {
+        if (!isContentId(contentId)) {
+            return Optional.empty();
+        }
+        Path path = pathOf(contentId);
+        try {
+            return Optional.of(new Attachment(contentId, path, Files.size(path)));
+        } catch (IOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean exists(String contentId) {
+        return isContentId(contentId) && Files.isRegularFile(pathOf(contentId));
+    }
+
+    private Path pathOf(String contentId) {
+        // Two-character fan-out keeps directories small.
+        return root.resolve(contentId.substring(0, 2)).resolve(contentId);
+    }
+
+    private static boolean isContentId(String contentId) {
+        return contentId != null && CONTENT_ID.matcher(contentId).matches();
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // Left in incoming/, which holds nothing but abandoned uploads.
+        }
+    }
+
+    /**
+     * Result of an upload; {@code created} is false when the same content was already stored.
+     */
+    public record StoredAttachment(String contentId, long size, boolean created) {
+    }
+
+    public record Attachment(String contentId, Path path, long size) {
+    }
+}
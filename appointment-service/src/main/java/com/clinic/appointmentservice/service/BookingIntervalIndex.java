@@ -0,0 +1,451 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.exception.AppointmentConflictException;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.BookedInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Per-doctor, per-day index of the time ranges taken by non-cancelled appointments.
+ * Each day is warmed from {@link AppointmentRepository} on first use and kept sorted by start time,
+ * so an overlap check for any duration is a single ordered lookup instead of a database round trip.
+ * The index only proves a range free: a loaded day is not told about appointments cancelled on other instances,
+ * so a hit reloads the affected days from the database and is checked again before a range counts as taken.
+ * Ranges claimed here stay in the day across reloads until their transaction commits. Ranges that cross midnight
+ * are indexed under every day they touch. Registered {@link Listener}s are told about every claim, release and
+ * reload change while the affected day is locked, so derived views see changes in index order.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    static final int DEFAULT_DURATION_MINUTES = 30;
+
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final AppointmentRepository appointmentRepository;
+    private final Clock clock;
+    private final ConcurrentMap<DayKey, DayIntervals> days = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public BookingIntervalIndex(AppointmentRepository appointmentRepository, Clock clock) {
+        this.appointmentRepository = appointmentRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Claims {@code [start, start + duration)} for the appointment or throws {@link AppointmentConflictException}
+     * when it overlaps an existing booking. Inside a transaction the claim is dropped again if the
+     * transaction does not commit.
+     */
+    public void reserve(UUID appointmentId, UUID doctorId, LocalDateTime start, Integer durationMinutes) {
+        Interval candidate = Interval.of(appointmentId, start, durationMinutes);
+        List<DayIntervals> touched = lockDays(doctorId, candidate);
+        try {
+            if (overlapsConfirmed(touched, candidate, new HashSet<>())) {
+                throw new AppointmentConflictException(doctorId, start.toString());
+            }
+            touched.forEach(day -> claim(day, candidate));
+        } finally {
+            touched.forEach(DayIntervals::unlock);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        settle(doctorId, candidate);
+                    } else {
+                        release(appointmentId, doctorId, start, durationMinutes);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Claims a batch of ranges for one doctor in a single pass: every day the batch touches is locked once, and
+     * each range is checked against the index and the ranges accepted before it. Ranges that overlap are
+     * skipped; their appointment ids are returned. Accepted claims are dropped again if the surrounding
+     * transaction does not commit.
+     */
+    public Set<UUID> reserveAll(UUID doctorId, List<Slot> slots) {
+        List<Interval> candidates = slots.stream()
+                .map(slot -> Interval.of(slot.appointmentId(), slot.start(), slot.durationMinutes()))
+                .toList();
+        SortedSet<LocalDate> dates = new TreeSet<>();
+        candidates.forEach(candidate -> dates.addAll(candidate.days()));
+
+        Set<UUID> rejected = new HashSet<>();
+        List<Interval> accepted = new ArrayList<>(candidates.size());
+        List<DayIntervals> touched = lockDays(doctorId, dates);
+        try {
+            Map<LocalDate, DayIntervals> byDate = new HashMap<>();
+            touched.forEach(day -> byDate.put(day.key.date(), day));
+            Set<DayIntervals> reloaded = new HashSet<>();
+            for (Interval candidate : candidates) {
+                List<DayIntervals> days = candidate.days().stream().map(byDate::get).toList();
+                if (overlapsConfirmed(days, candidate, reloaded)) {
+                    rejected.add(candidate.appointmentId());
+                    continue;
+                }
+                days.forEach(day -> claim(day, candidate));
+                accepted.add(candidate);
+            }
+        } finally {
+            touched.forEach(DayIntervals::unlock);
+        }
+
+        if (!accepted.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        accepted.forEach(interval -> settle(doctorId, interval));
+                    } else {
+                        accepted.forEach(interval -> release(interval.appointmentId(), doctorId,
+                                interval.start(), interval.durationMinutes()));
+                    }
+                }
+            });
+        }
+        return rejected;
+    }
+
+    /**
+     * Returns {@code true} when {@code [start, start + duration)} does not overlap any booking this instance knows of.
+     * Bookings committed on other instances since the day was loaded are not seen; a {@code false} is confirmed
+     * against the database.
+     */
+    public boolean isFree(UUID doctorId, LocalDateTime start, Integer durationMinutes) {
+        Interval candidate = Interval.of(null, start, durationMinutes);
+        List<DayIntervals> touched = lockDays(doctorId, candidate);
+        try {
+            return !overlapsConfirmed(touched, candidate, new HashSet<>());
+        } finally {
+            touched.forEach(DayIntervals::unlock);
+        }
+    }
+
+    /**
+     * Frees the range held by the appointment immediately.
+     */
+    public void release(UUID appointmentId, UUID doctorId, LocalDateTime start, Integer durationMinutes) {
+        Interval interval = Interval.of(appointmentId, start, durationMinutes);
+        for (LocalDate date : interval.days()) {
+            DayIntervals day = days.get(new DayKey(doctorId, date));
+            if (day != null) {
+                day.lock.lock();
+                try {
+                    day.pending.remove(appointmentId);
+                    if (day.remove(interval)) {
+                        listeners.forEach(listener -> listener.released(doctorId, date, interval.start(), interval.end()));
+                    }
+                } finally {
+                    day.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Frees the range once the surrounding transaction commits, so a rolled back cancellation keeps the slot taken.
+     */
+    public void releaseAfterCommit(UUID appointmentId, UUID doctorId, LocalDateTime start, Integer durationMinutes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(appointmentId, doctorId, start, durationMinutes);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(appointmentId, doctorId, start, durationMinutes);
+            }
+        });
+    }
+
+    /**
+     * Hands the ranges booked on one day to {@code action} while the day is locked; no claim or release for that day
+     * can interleave until it returns. A day loaded earlier is reloaded first, so the ranges include bookings made
+     * and cancelled on other instances.
+     */
+    public <T> T withBookedRanges(UUID doctorId, LocalDate date, Function<List<BookedRange>, T> action) {
+        DayIntervals day = days.computeIfAbsent(new DayKey(doctorId, date), DayIntervals::new);
+        day.lock.lock();
+        try {
+            if (day.loaded) {
+                reload(day);
+            } else {
+                day.ensureLoaded(appointmentRepository);
+            }
+            return action.apply(day.ranges());
+        } finally {
+            day.unlock();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Past days can no longer be booked; drop them to keep the index bounded. Yesterday is kept because
+     * ranges starting there may spill into today.
+     */
+    @Scheduled(cron = "${appointment-service.booking-index-eviction-cron:0 30 0 * * *}")
+    public void evictPastDays() {
+        LocalDate cutoff = LocalDate.now(clock).minusDays(1);
+        int before = days.size();
+        days.keySet().removeIf(key -> key.date().isBefore(cutoff));
+        log.debug("Evicted {} past doctor-days from booking index", before - days.size());
+    }
+
+    private void claim(DayIntervals day, Interval interval) {
+        day.pending.add(interval.appointmentId());
+        add(day, interval);
+    }
+
+    private void add(DayIntervals day, Interval interval) {
+        if (day.add(interval)) {
+            listeners.forEach(listener -> listener.claimed(day.key.doctorId(), day.key.date(), interval.start(), interval.end()));
+        }
+    }
+
+    /**
+     * Whether the candidate overlaps a booking on any of the locked days. A hit may be a booking another instance has
+     * cancelled since the day was loaded, so the days are reloaded, each at most once per {@code reloaded} set, and
+     * checked again.
+     */
+    private boolean overlapsConfirmed(List<DayIntervals> touched, Interval candidate, Set<DayIntervals> reloaded) {
+        if (touched.stream().noneMatch(day -> day.overlaps(candidate))) {
+            return false;
+        }
+        for (DayIntervals day : touched) {
+            if (reloaded.add(day)) {
+                reload(day);
+            }
+        }
+        return touched.stream().anyMatch(day -> day.overlaps(candidate));
+    }
+
+    /**
+     * Replaces a locked day's ranges with the database's, keeping the claims whose transaction is still open, and
+     * tells the listeners about every range that appeared or went away.
+     */
+    private void reload(DayIntervals day) {
+        Map<SlotKey, Interval> current = day.fetch(appointmentRepository);
+        List<Interval> gone = day.byStart.values().stream()
+                .filter(interval -> !current.containsKey(interval.key())
+                        && !day.pending.contains(interval.appointmentId()))
+                .toList();
+        for (Interval interval : gone) {
+            day.remove(interval);
+            listeners.forEach(listener -> listener.released(day.key.doctorId(), day.key.date(), interval.start(), interval.end()));
+        }
+        current.values().forEach(interval -> add(day, interval));
+        log.debug("Reloaded doctorId={} date={}: {} stale ranges dropped",
+                day.key.doctorId(), day.key.date(), gone.size());
+    }
+
+    /**
+     * The claim's transaction committed, so the database holds the booking and later reloads may replace it.
+     */
+    private void settle(UUID doctorId, Interval interval) {
+        for (LocalDate date : interval.days()) {
+            DayIntervals day = days.get(new DayKey(doctorId, date));
+            if (day != null) {
+                day.lock.lock();
+                try {
+                    day.pending.remove(interval.appointmentId());
+                } finally {
+                    day.lock.unlock();
+                }
+            }
+        }
+    }
+
+    private List<DayIntervals> lockDays(UUID doctorId, Interval interval) {
+        return lockDays(doctorId, interval.days());
+    }
+
+    private List<DayIntervals> lockDays(UUID doctorId, Collection<LocalDate> dates) {
+        List<DayIntervals> touched = new ArrayList<>(dates.size());
+        try {
+            // Days are visited in ascending order, so concurrent multi-day claims cannot deadlock.
+            for (LocalDate date : dates) {
+                DayKey key = new DayKey(doctorId, date);
+                DayIntervals day = days.computeIfAbsent(key, DayIntervals::new);
+                day.lock.lock();
+                touched.add(day);
+                day.ensureLoaded(appointmentRepository);
+            }
+            return touched;
+        } catch (RuntimeException ex) {
+            touched.forEach(DayIntervals::unlock);
+            throw ex;
+        }
+    }
+
+    /**
+     * A range to claim with {@link #reserveAll}.
+     */
+    public record Slot(UUID appointmentId, LocalDateTime start, Integer durationMinutes) {
+    }
+
+    /**
+     * A booked range; {@code start} and {@code end} may lie outside the day it was listed for.
+     */
+    public record BookedRange(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Observes claims and releases per day. Callbacks run while the day is locked and must not call back into the index.
+     */
+    public interface Listener {
+
+        void claimed(UUID doctorId, LocalDate date, LocalDateTime start, LocalDateTime end);
+
+        void released(UUID doctorId, LocalDate date, LocalDateTime start, LocalDateTime end);
+    }
+
+    private record DayKey(UUID doctorId, LocalDate date) {
+    }
+
+    private record SlotKey(LocalDateTime start, UUID appointmentId) implements Comparable<SlotKey> {
+
+        @Override
+        public int compareTo(SlotKey other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : appointmentId.compareTo(other.appointmentId);
+        }
+    }
+
+    private record Interval(UUID appointmentId, LocalDateTime start, LocalDateTime end, int durationMinutes) {
+
+        static Interval of(UUID appointmentId, LocalDateTime start, Integer durationMinutes) {
+            int minutes = durationMinutes != null ? durationMinutes : DEFAULT_DURATION_MINUTES;
+            return new Interval(appointmentId, start, start.plusMinutes(minutes), minutes);
+        }
+
+        List<LocalDate> days() {
+            LocalDate first = start.toLocalDate();
+            LocalDate last = end.minusNanos(1).toLocalDate();
+            List<LocalDate> result = new ArrayList<>(2);
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                result.add(date);
+            }
+            return result;
+        }
+
+        boolean touches(LocalDate date) {
+            return start.isBefore(date.plusDays(1).atStartOfDay()) && end.isAfter(date.atStartOfDay());
+        }
+
+        SlotKey key() {
+            return new SlotKey(start, appointmentId);
+        }
+    }
+
+    private static final class DayIntervals {
+
+        private final DayKey key;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NavigableMap<SlotKey, Interval> byStart = new TreeMap<>();
+        /** Appointments claimed through this index whose transaction has not committed yet. */
+        private final Set<UUID> pending = new HashSet<>();
+        private int maxDurationMinutes;
+        private boolean loaded;
+
+        DayIntervals(DayKey key) {
+            this.key = key;
+        }
+
+        void ensureLoaded(AppointmentRepository repository) {
+            if (loaded) {
+                return;
+            }
+            fetch(repository).values().forEach(this::add);
+            loaded = true;
+        }
+
+        /**
+         * The day's ranges as committed in the database.
+         */
+        Map<SlotKey, Interval> fetch(AppointmentRepository repository) {
+            LocalDateTime from = key.date().minusDays(1).atStartOfDay();
+            LocalDateTime to = key.date().plusDays(1).atStartOfDay();
+            Map<SlotKey, Interval> result = new HashMap<>();
+            for (BookedInterval booked : repository.findBookedIntervals(key.doctorId(), from, to)) {
+                Interval interval = Interval.of(booked.appointmentId(), booked.appointmentTime(), booked.durationMinutes());
+                if (interval.touches(key.date())) {
+                    result.put(interval.key(), interval);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Walks back from the last range starting before the candidate ends; ranges that start more than the
+         * longest indexed duration before the candidate cannot reach it, which bounds the walk.
+         */
+        boolean overlaps(Interval candidate) {
+            LocalDateTime horizon = candidate.start().minusMinutes(maxDurationMinutes);
+            for (Interval existing : byStart.headMap(new SlotKey(candidate.end(), LOWEST_ID), false).descendingMap().values()) {
+                if (!existing.start().isAfter(horizon)) {
+                    return false;
+                }
+                if (existing.end().isAfter(candidate.start()) && !existing.appointmentId().equals(candidate.appointmentId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean add(Interval interval) {
+            maxDurationMinutes = Math.max(maxDurationMinutes, interval.durationMinutes());
+            return byStart.put(interval.key(), interval) == null;
+        }
+
+        boolean remove(Interval interval) {
+            return byStart.remove(interval.key()) != null;
+        }
+
+        List<BookedRange> ranges() {
+            return byStart.values().stream()
+                    .map(interval -> new BookedRange(interval.start(), interval.end()))
+                    .toList();
+        }
+
+        void unlock() {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.DoctorServiceClient;
+import com.clinic.appointmentservice.client.DoctorSnapshotCache;
+import com.clinic.appointmentservice.client.PatientServiceClient;
+import com.clinic.appointmentservice.client.PlatformSettingsClient;
+import com.clinic.appointmentservice.client.dto.DoctorAvailability;
+import com.clinic.appointmentservice.client.dto.DoctorResponse;
+import com.clinic.appointmentservice.client.dto.DoctorScheduleResponse;
+import com.clinic.appointmentservice.client.dto.PatientProfile;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.dto.CreateAppointmentRequest;
+import com.clinic.appointmentservice.exception.DoctorUnavailableException;
+import com.clinic.appointmentservice.exception.PatientInactiveException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Performs the remote lookups a booking depends on. Patient, availability, schedule and doctor
+ * lookups are independent of each other and run concurrently on virtual threads, each with its own
+ * deadline; the first failure or missed deadline cancels the remaining lookups. Doctor profile and schedules are served from
+ * {@link DoctorSnapshotCache} when present, and the service fee is priced from the in-memory
+ * platform settings snapshot.
+ */
+@Component
+public class BookingValidationPipeline {
+
+    static final String STAGE_TIMER = "appointment.booking.stage";
+    static final String PIPELINE_TIMER = "appointment.booking.validation";
+
+    private static final BigDecimal DEFAULT_CONSULTATION_FEE = BigDecimal.valueOf(300000); // VND
+
+    private final PatientServiceClient patientServiceClient;
+    private final DoctorServiceClient doctorServiceClient;
+    private final DoctorSnapshotCache doctorSnapshotCache;
+    private final PlatformSettingsClient platformSettingsClient;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final AppointmentProperties appointmentProperties;
+
+    public BookingValidationPipeline(PatientServiceClient patientServiceClient,
+                                     DoctorServiceClient doctorServiceClient,
+                                     DoctorSnapshotCache doctorSnapshotCache,
+                                     PlatformSettingsClient platformSettingsClient,
+                                     @Qualifier("bookingLookupExecutor") ExecutorService executor,
+                                     MeterRegistry meterRegistry,
+                                     AppointmentProperties appointmentProperties) {
+        this.patientServiceClient = patientServiceClient;
+        this.doctorServiceClient = doctorServiceClient;
+        this.doctorSnapshotCache = doctorSnapshotCache;
+        this.platformSettingsClient = platformSettingsClient;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.appointmentProperties = appointmentProperties;
+    }
+
+    public BookingLookups validate(CreateAppointmentRequest request) {
+        Timer.Sample pipelineSample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try (FailFastScope scope = new FailFastScope(executor)) {
+            Supplier<PatientProfile> patient = scope.fork("patient", stageTimeout("patient"), timed("patient", () -> {
+                PatientProfile profile = patientServiceClient.getPatient(request.getPatientId());
+                if (!profile.active()) {
+                    throw new PatientInactiveException(request.getPatientId());
+                }
+                return profile;
+            }));
+            Supplier<DoctorAvailability> availability = scope.fork("availability", stageTimeout("availability"), timed("availability",
+                    () -> doctorServiceClient.verifyAvailability(
+                            request.getDoctorId(), request.getAppointmentTime(), request.getDurationMinutes())));
+            Supplier<List<DoctorScheduleResponse>> schedules = scope.fork("schedules", stageTimeout("schedules"), timed("schedules",
+                    () -> doctorSnapshotCache.getDoctorSchedules(request.getDoctorId())));
+            Supplier<DoctorResponse> doctor = scope.fork("doctor", stageTimeout("doctor"), timed("doctor",
+                    () -> doctorSnapshotCache.getDoctor(request.getDoctorId())));
+
+            try {
+                scope.join();
+            } catch (FailFastScope.StageTimeoutException ex) {
+                meterRegistry.counter(STAGE_TIMER + ".timeouts", "stage", ex.getStage()).increment();
+                outcome = "timeout";
+                throw ex;
+            }
+
+            BigDecimal consultationFee = doctor.get().consultationFee() != null
+                    ? doctor.get().consultationFee()
+                    : DEFAULT_CONSULTATION_FEE;
+            PlatformSettingsClient.SettingsSnapshot settings = platformSettingsClient.currentSettings();
+            BigDecimal serviceFee = settings.serviceFeeFor(consultationFee);
+
+            outcome = "success";
+            return new BookingLookups(patient.get(), availability.get(), schedules.get(), doctor.get(),
+                    consultationFee, serviceFee, settings.version());
+        } finally {
+            pipelineSample.stop(meterRegistry.timer(PIPELINE_TIMER, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Checks the doctor's availability at each of {@code times} concurrently, for series that span several days.
+     * A time the doctor service reports the doctor unavailable for maps to empty instead of failing the others.
+     */
+    public Map<LocalDateTime, Optional<DoctorAvailability>> verifyAvailability(UUID doctorId,
+                                                                               Collection<LocalDateTime> times,
+                                                                               Integer durationMinutes) {
+        if (times.isEmpty()) {
+            return Map.of();
+        }
+        try (FailFastScope scope = new FailFastScope(executor)) {
+            Map<LocalDateTime, Supplier<Optional<DoctorAvailability>>> lookups = new LinkedHashMap<>();
+            for (LocalDateTime time : times) {
+                lookups.put(time, scope.fork("availability", stageTimeout("availability"), timed("availability", () -> {
+                    try {
+                        return Optional.of(doctorServiceClient.verifyAvailability(doctorId, time, durationMinutes));
+                    } catch (DoctorUnavailableException ex) {
+                        return Optional.<DoctorAvailability>empty();
+                    }
+                })));
+            }
+            try {
+                scope.join();
+            } catch (FailFastScope.StageTimeoutException ex) {
+                meterRegistry.counter(STAGE_TIMER + ".timeouts", "stage", ex.getStage()).increment();
+                throw ex;
+            }
+            Map<LocalDateTime, Optional<DoctorAvailability>> availability = new LinkedHashMap<>();
+            lookups.forEach((time, lookup) -> availability.put(time, lookup.get()));
+            return availability;
+        }
+    }
+
+    private Duration stageTimeout(String stage) {
+        return appointmentProperties.getBookingStageTimeouts()
+                .getOrDefault(stage, appointmentProperties.getBookingStageTimeout());
+    }
+
+    private <T> Callable<T> timed(String stage, Callable<T> lookup) {
+        return () -> record(stage, lookup);
+    }
+
+    private <T> T record(String stage, Callable<T> lookup) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = lookup.call();
+            outcome = "success";
+            return result;
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            sample.stop(meterRegistry.timer(STAGE_TIMER, "stage", stage, "outcome", outcome));
+        }
+    }
+
+    public record BookingLookups(PatientProfile patient,
+                                 DoctorAvailability availability,
+                                 List<DoctorScheduleResponse> schedules,
+                                 DoctorResponse doctor,
+                                 BigDecimal consultationFee,
+                                 BigDecimal serviceFee,
+                                 Long settingsVersion) {
+    }
+}
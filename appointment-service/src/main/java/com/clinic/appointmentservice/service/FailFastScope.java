@@ -0,0 +1,125 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.exception.RemoteServiceException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a group of independent lookups concurrently and fails as soon as one of them fails or misses
+ * its own deadline, cancelling the remaining ones. Each deadline counts from the moment its lookup is
+ * forked. Mirrors the semantics of {@code StructuredTaskScope.ShutdownOnFailure} without depending on
+ * preview APIs.
+ */
+final class FailFastScope implements AutoCloseable {
+
+    private final ExecutorCompletionService<Object> completionService;
+    private final Map<Future<Object>, Stage> stages = new LinkedHashMap<>();
+
+    FailFastScope(ExecutorService executor) {
+        this.completionService = new ExecutorCompletionService<>(executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Supplier<T> fork(String stage, Duration timeout, Callable<T> task) {
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        Future<Object> future = completionService.submit(task::call);
+        stages.put(future, new Stage(stage, timeout, deadlineNanos));
+        return () -> (T) future.resultNow();
+    }
+
+    void join() {
+        int pending = stages.size();
+        while (pending > 0) {
+            Future<Object> done;
+            try {
+                long remaining = nextDeadlineNanos() - System.nanoTime();
+                done = remaining > 0
+                        ? completionService.poll(remaining, TimeUnit.NANOSECONDS)
+                        : completionService.poll();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new RemoteServiceException("Booking validation was interrupted", ex);
+            }
+            if (done == null) {
+                Optional<Stage> expired = firstExpiredStage();
+                if (expired.isPresent()) {
+                    cancelAll();
+                    throw new StageTimeoutException(expired.get().name(), expired.get().timeout());
+                }
+                continue;
+            }
+            pending--;
+            try {
+                done.get();
+            } catch (ExecutionException ex) {
+                cancelAll();
+                throw propagate(stages.get(done).name(), ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new RemoteServiceException("Booking validation was interrupted", ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        stages.keySet().forEach(future -> future.cancel(true));
+    }
+
+    private long nextDeadlineNanos() {
+        return stages.entrySet().stream()
+                .filter(entry -> !entry.getKey().isDone())
+                .mapToLong(entry -> entry.getValue().deadlineNanos())
+                .min()
+                .orElseGet(System::nanoTime);
+    }
+
+    private Optional<Stage> firstExpiredStage() {
+        long now = System.nanoTime();
+        return stages.entrySet().stream()
+                .filter(entry -> !entry.getKey().isDone() && entry.getValue().deadlineNanos() - now <= 0)
+                .map(Map.Entry::getValue)
+                .min(Comparator.comparingLong(Stage::deadlineNanos));
+    }
+
+    private static RuntimeException propagate(String stage, Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new RemoteServiceException("Booking lookup '" + stage + "' failed", cause);
+    }
+
+    static final class StageTimeoutException extends RemoteServiceException {
+
+        private final String stage;
+
+        StageTimeoutException(String stage, Duration timeout) {
+            super("Booking lookup '" + stage + "' did not complete within " + timeout.toMillis() + " ms");
+            this.stage = stage;
+        }
+
+        String getStage() {
+            return stage;
+        }
+    }
+
+    private record Stage(String name, Duration timeout, long deadlineNanos) {
+    }
+}
@@ -0,0 +1,266 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.DoctorSnapshotCache;
+import com.clinic.appointmentservice.client.dto.DoctorScheduleResponse;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.dto.FreeSlotsResponse;
+import com.clinic.appointmentservice.exception.InvalidSlotRangeException;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Materialised free time per doctor and day, one bit per 5-minute quantum. A day is built from the doctor's
+ * weekly schedule minus the ranges held in {@link BookingIntervalIndex}, and from then on is kept current by
+ * the index's claim and release callbacks, so answering a range query only scans a few words per day. Those
+ * callbacks only cover this instance, and schedule changes only reach the instance doctor-service notifies, so a
+ * day is rebuilt from a fresh schedule and fresh bookings once it is older than {@code free-slot-ttl}, capped at
+ * {@code doctor-cache-ttl}.
+ * <p>
+ * Slots held for a waitlisted patient are not bookable by anyone else, so each query also reads the doctor's open
+ * offers over its range with one indexed query and leaves their time out of the answer.
+ */
+@Component
+public class FreeSlotIndex implements BookingIntervalIndex.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(FreeSlotIndex.class);
+
+    static final int QUANTUM_MINUTES = 5;
+    static final int QUANTA_PER_DAY = 24 * 60 / QUANTUM_MINUTES;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final DoctorSnapshotCache doctorSnapshotCache;
+    private final WaitlistRepository waitlistRepository;
+    private final AppointmentProperties appointmentProperties;
+    private final Clock clock;
+    private final ConcurrentMap<DayKey, DaySlots> days = new ConcurrentHashMap<>();
+
+    public FreeSlotIndex(BookingIntervalIndex bookingIntervalIndex,
+                         DoctorSnapshotCache doctorSnapshotCache,
+                         WaitlistRepository waitlistRepository,
+                         AppointmentProperties appointmentProperties,
+                         Clock clock) {
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.doctorSnapshotCache = doctorSnapshotCache;
+        this.waitlistRepository = waitlistRepository;
+        this.appointmentProperties = appointmentProperties;
+        this.clock = clock;
+        bookingIntervalIndex.addListener(this);
+    }
+
+    /**
+     * Free ranges of at least {@code durationMinutes} for each day in {@code [from, to]}. Days before today are
+     * skipped and today's ranges start no earlier than now; {@code to} must lie within the configured horizon.
+     */
+    public FreeSlotsResponse freeSlots(UUID doctorId, LocalDate from, LocalDate to, int durationMinutes) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        LocalDate lastDay = today.plusDays(appointmentProperties.getFreeSlotHorizonDays() - 1L);
+        if (to.isBefore(from)) {
+            throw new InvalidSlotRangeException("'to' must not be before 'from'");
+        }
+        if (to.isAfter(lastDay)) {
+            throw new InvalidSlotRangeException("Free slots are available up to " + lastDay);
+        }
+        if (durationMinutes < 1 || durationMinutes > 24 * 60) {
+            throw new InvalidSlotRangeException("durationMinutes must be between 1 and 1440");
+        }
+        int needed = Math.ceilDiv(durationMinutes, QUANTUM_MINUTES);
+
+        LocalDate first = from.isBefore(today) ? today : from;
+        List<WaitlistOffer> held = waitlistRepository.findHeldSlots(doctorId, first.minusDays(1).atStartOfDay(),
+                to.plusDays(1).atStartOfDay(), now);
+        List<FreeSlotsResponse.Day> result = new ArrayList<>();
+        for (LocalDate date = first; !date.isAfter(to); date = date.plusDays(1)) {
+            BitSet free = day(doctorId, date).free();
+            if (date.equals(today)) {
+                free.clear(0, Math.min(QUANTA_PER_DAY, ceilQuantum(now.toLocalTime())));
+            }
+            for (WaitlistOffer offer : held) {
+                if (offer.overlaps(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+                    free.clear(firstQuantum(date, offer.slotTime()),
+                            lastQuantum(date, offer.slotTime().plusMinutes(offer.durationMinutes())));
+                }
+            }
+            result.add(new FreeSlotsResponse.Day(date, ranges(date, free, needed)));
+        }
+        return new FreeSlotsResponse(doctorId, durationMinutes, result);
+    }
+
+    /**
+     * Drops every materialised day of the doctor, e.g. after a schedule change on this instance.
+     */
+    public void invalidate(UUID doctorId) {
+        days.keySet().removeIf(key -> key.doctorId().equals(doctorId));
+    }
+
+    @Override
+    public void claimed(UUID doctorId, LocalDate date, LocalDateTime start, LocalDateTime end) {
+        DaySlots day = days.get(new DayKey(doctorId, date));
+        if (day != null) {
+            day.book(firstQuantum(date, start), lastQuantum(date, end));
+        }
+    }
+
+    @Override
+    public void released(UUID doctorId, LocalDate date, LocalDateTime start, LocalDateTime end) {
+        DaySlots day = days.get(new DayKey(doctorId, date));
+        if (day != null) {
+            day.unbook(firstQuantum(date, start), lastQuantum(date, end));
+        }
+    }
+
+    @Scheduled(cron = "${appointment-service.booking-index-eviction-cron:0 30 0 * * *}")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now(clock);
+        int before = days.size();
+        days.keySet().removeIf(key -> key.date().isBefore(today));
+        log.debug("Evicted {} past doctor-days from free-slot index", before - days.size());
+    }
+
+    private DaySlots day(UUID doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        Instant now = clock.instant();
+        DaySlots day = days.get(key);
+        if (day != null && isFresh(day, now)) {
+            return day;
+        }
+        List<DoctorScheduleResponse> schedules = doctorSnapshotCache.getDoctorSchedules(doctorId);
+        // Built while the booking index holds the day, so no claim or release is missed in between.
+        return bookingIntervalIndex.withBookedRanges(doctorId, date, booked -> days.compute(key, (k, current) -> {
+            if (current != null && isFresh(current, now)) {
+                return current;
+            }
+            DaySlots built = new DaySlots(scheduleMask(schedules, date), now);
+            booked.forEach(range -> built.book(firstQuantum(date, range.start()), lastQuantum(date, range.end())));
+            return built;
+        }));
+    }
+
+    private boolean isFresh(DaySlots day, Instant now) {
+        Duration ttl = appointmentProperties.getFreeSlotTtl();
+        if (ttl.compareTo(appointmentProperties.getDoctorCacheTtl()) > 0) {
+            ttl = appointmentProperties.getDoctorCacheTtl();
+        }
+        return day.builtAt().plus(ttl).isAfter(now);
+    }
+
+    private static BitSet scheduleMask(List<DoctorScheduleResponse> schedules, LocalDate date) {
+        BitSet mask = new BitSet(QUANTA_PER_DAY);
+        if (schedules.isEmpty()) {
+            // Booking accepts any time for a doctor without schedule rows, so every quantum is offered too.
+            mask.set(0, QUANTA_PER_DAY);
+            return mask;
+        }
+        for (DoctorScheduleResponse schedule : schedules) {
+            if (schedule.dayOfWeek() == date.getDayOfWeek() && Boolean.TRUE.equals(schedule.isAvailable())) {
+                // Only quanta that lie entirely inside the working window are bookable.
+                int from = ceilQuantum(schedule.startTime());
+                int to = schedule.endTime().equals(LocalTime.MIDNIGHT) ? QUANTA_PER_DAY : floorQuantum(schedule.endTime());
+                if (from < to) {
+                    mask.set(from, to);
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static List<FreeSlotsResponse.Range> ranges(LocalDate date, BitSet free, int needed) {
+        List<FreeSlotsResponse.Range> ranges = new ArrayList<>();
+        LocalDateTime midnight = date.atStartOfDay();
+        for (int start = free.nextSetBit(0); start >= 0; start = free.nextSetBit(start)) {
+            int end = free.nextClearBit(start);
+            if (end - start >= needed) {
+                ranges.add(new FreeSlotsResponse.Range(
+                        midnight.plusMinutes((long) start * QUANTUM_MINUTES),
+                        midnight.plusMinutes((long) end * QUANTUM_MINUTES)));
+            }
+            start = end;
+        }
+        return ranges;
+    }
+
+    private static int firstQuantum(LocalDate date, LocalDateTime start) {
+        if (start.toLocalDate().isBefore(date)) {
+            return 0;
+        }
+        return floorQuantum(start.toLocalTime());
+    }
+
+    private static int lastQuantum(LocalDate date, LocalDateTime end) {
+        if (end.toLocalDate().isAfter(date)) {
+            return QUANTA_PER_DAY;
+        }
+        return ceilQuantum(end.toLocalTime());
+    }
+
+    private static int floorQuantum(LocalTime time) {
+        return (int) (ChronoUnit.MINUTES.between(LocalTime.MIDNIGHT, time) / QUANTUM_MINUTES);
+    }
+
+    private static int ceilQuantum(LocalTime time) {
+        long seconds = time.toSecondOfDay();
+        return (int) Math.ceilDiv(seconds, QUANTUM_MINUTES * 60L);
+    }
+
+    private record DayKey(UUID doctorId, LocalDate date) {
+    }
+
+    /**
+     * Bookable quanta of one day. {@code bookings} counts the ranges touching each quantum, so releasing one of two
+     * bookings that share a partially used quantum keeps it taken.
+     */
+    private static final class DaySlots {
+
+        private final BitSet schedule;
+        private final BitSet free;
+        private final byte[] bookings = new byte[QUANTA_PER_DAY];
+        private final Instant builtAt;
+
+        DaySlots(BitSet schedule, Instant builtAt) {
+            this.schedule = schedule;
+            this.free = (BitSet) schedule.clone();
+            this.builtAt = builtAt;
+        }
+
+        Instant builtAt() {
+            return builtAt;
+        }
+
+        synchronized void book(int from, int to) {
+            for (int quantum = from; quantum < to; quantum++) {
+                bookings[quantum]++;
+            }
+            free.clear(from, to);
+        }
+
+        synchronized void unbook(int from, int to) {
+            for (int quantum = from; quantum < to; quantum++) {
+                if (bookings[quantum] > 0 && --bookings[quantum] == 0 && schedule.get(quantum)) {
+                    free.set(quantum);
+                }
+            }
+        }
+
+        synchronized BitSet free() {
+            return (BitSet) free.clone();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.IdempotencyKeyInProgressException;
+import com.clinic.appointmentservice.exception.IdempotencyKeyMismatchException;
+import com.clinic.appointmentservice.exception.InvalidIdempotencyKeyException;
+import com.clinic.appointmentservice.repository.IdempotencyKeyRepository;
+import com.clinic.appointmentservice.repository.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and replays its stored response afterwards.
+ * <p>
+ * Keys live in {@code idempotency_keys} together with a SHA-256 fingerprint of the request and, once the first
+ * execution finished, its serialized response; completed entries are also kept in a bounded in-memory cache so
+ * replays normally skip the database. A duplicate arriving while the first execution is still running waits for
+ * it: on the same instance through the in-flight future, across instances by polling the claimed row. Reusing a
+ * key for a different request is rejected. A failed execution releases its key, so the client may retry it.
+ * <p>
+ * Outcomes are counted as {@code appointment.idempotency}.
+ */
+@Component
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final String OUTCOME_COUNTER = "appointment.idempotency";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              ObjectMapper objectMapper,
+                              AppointmentProperties properties,
+                              MeterRegistry meterRegistry,
+                              Clock clock) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getIdempotencyCacheMaxSize())
+                .expireAfterWrite(properties.getIdempotencyKeyTtl())
+                .build();
+    }
+
+    /**
+     * Runs {@code action} unless {@code idempotencyKey} was already used for the same request within
+     * {@code scope}, in which case the stored response is returned instead.
+     *
+     * @param scope          namespace for the key, so equal keys from different callers or operations never collide
+     * @param responseStatus HTTP status stored with the response and replayed with it
+     */
+    public <T> Result<T> execute(String scope, String idempotencyKey, Object request, Class<T> responseType,
+                                 int responseStatus, Supplier<T> action) {
+        validate(idempotencyKey);
+        String key = scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, fingerprint, idempotencyKey, responseType);
+        }
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) {
+                throw mismatch(idempotencyKey);
+            }
+            return replay(await(running.outcome(), idempotencyKey), fingerprint, idempotencyKey, responseType);
+        }
+        try {
+            return claimAndExecute(key, fingerprint, idempotencyKey, responseType, responseStatus, action,
+                    mine.outcome());
+        } catch (RuntimeException ex) {
+            mine.outcome().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointment-service.idempotency-purge-interval:PT1H}")
+    public void purgeExpired() {
+        try {
+            int purged = repository.purgeExpired(clock.instant());
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Failed to purge expired idempotency keys; retrying on the next run", ex);
+        }
+    }
+
+    private <T> Result<T> claimAndExecute(String key, String fingerprint, String idempotencyKey, Class<T> responseType,
+                                          int responseStatus, Supplier<T> action,
+                                          CompletableFuture<IdempotencyRecord> outcome) {
+        long deadline = System.nanoTime() + properties.getIdempotencyWaitTimeout().toNanos();
+        while (true) {
+            Instant now = clock.instant();
+            Instant lockedUntil = now.plus(properties.getIdempotencyLease());
+            Instant expiresAt = now.plus(properties.getIdempotencyKeyTtl());
+            if (repository.claim(key, fingerprint, now, lockedUntil, expiresAt)) {
+                T response = run(key, action);
+                IdempotencyRecord record = new IdempotencyRecord(key, fingerprint, true, responseStatus,
+                        serialize(response), lockedUntil, expiresAt);
+                repository.complete(key, responseStatus, record.responseBody());
+                completed.put(key, record);
+                outcome.complete(record);
+                meterRegistry.counter(OUTCOME_COUNTER, "outcome", "executed").increment();
+                return new Result<>(response, responseStatus, false);
+            }
+
+            // Held by another instance (or released between the claim and this read, then simply claim again).
+            Optional<IdempotencyRecord> existing = repository.find(key);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (record.completed()) {
+                    completed.put(key, record);
+                    outcome.complete(record);
+                    return replay(record, fingerprint, idempotencyKey, responseType);
+                }
+                if (!record.fingerprint().equals(fingerprint)) {
+                    throw mismatch(idempotencyKey);
+                }
+                if (System.nanoTime() >= deadline) {
+                    meterRegistry.counter(OUTCOME_COUNTER, "outcome", "in-progress").increment();
+                    throw new IdempotencyKeyInProgressException(idempotencyKey);
+                }
+                sleep(POLL_INTERVAL);
+            }
+        }
+    }
+
+    private <T> T run(String key, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (RuntimeException ex) {
+            try {
+                repository.release(key);
+            } catch (DataAccessException releaseFailure) {
+                // The lease still runs out, after which a retry can claim the key again.
+                ex.addSuppressed(releaseFailure);
+            }
+            throw ex;
+        }
+    }
+
+    private <T> Result<T> replay(IdempotencyRecord record, String fingerprint, String idempotencyKey,
+                                 Class<T> responseType) {
+        if (!record.fingerprint().equals(fingerprint)) {
+            throw mismatch(idempotencyKey);
+        }
+        meterRegistry.counter(OUTCOME_COUNTER, "outcome", "replayed").increment();
+        try {
+            return new Result<>(objectMapper.readValue(record.responseBody(), responseType),
+                    record.responseStatus(), true);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for Idempotency-Key " + idempotencyKey
+                    + " cannot be read", ex);
+        }
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> outcome, String idempotencyKey) {
+        try {
+            return outcome.get(properties.getIdempotencyWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException ex) {
+            // The duplicate sees the same failure the first execution reported.
+            if (ex.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            meterRegistry.counter(OUTCOME_COUNTER, "outcome", "in-progress").increment();
+            throw new IdempotencyKeyInProgressException(idempotencyKey);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(idempotencyKey);
+        }
+    }
+
+    private IdempotencyKeyMismatchException mismatch(String idempotencyKey) {
+        meterRegistry.counter(OUTCOME_COUNTER, "outcome", "mismatch").increment();
+        return new IdempotencyKeyMismatchException(idempotencyKey);
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot fingerprint request", ex);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store response for idempotent replay", ex);
+        }
+    }
+
+    private static void validate(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH
+                || !idempotencyKey.chars().allMatch(c -> c > 0x20 && c < 0x7f)) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH
+                    + " visible ASCII characters");
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idempotent request", ex);
+        }
+    }
+
+    /**
+     * The response of an idempotent request; {@code replayed} is set when it came from an earlier execution.
+     */
+    public record Result<T>(T response, int status, boolean replayed) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<IdempotencyRecord> outcome) {
+    }
+}
@@ -8,6 +8,7 @@ import com.clinic.appointmentservice.dto.CreateMedicalRecordRequest;
 import com.clinic.appointmentservice.dto.MedicalRecordResponse;
 import com.clinic.appointmentservice.dto.UpdateMedicalRecordRequest;
 import com.clinic.appointmentservice.exception.AppointmentNotFoundException;
+import com.clinic.appointmentservice.exception.InvalidAttachmentException;
 import com.clinic.appointmentservice.exception.InvalidAppointmentStateException;
 import com.clinic.appointmentservice.repository.AppointmentRepository;
 import com.clinic.appointmentservice.repository.MedicalRecordRepository;
@@ -15,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -24,10 +26,20 @@ public class MedicalRecordService {
     private final MedicalRecordRepository medicalRecordRepository;
     private final AppointmentRepository appointmentRepository;
     private final AppointmentStatusService appointmentStatusService;
+    private final AttachmentStore attachmentStore;
+    private final AppointmentTransitionExecutor appointmentTransitionExecutor;
+    private final AppointmentDashboardProjection appointmentDashboardProjection;
 
-    @Transactional
+    /**
+     * Completes the appointment along with the record, so it runs as a retried appointment transition.
+     */
     public MedicalRecordResponse createMedicalRecord(UUID appointmentId, CreateMedicalRecordRequest request) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        return appointmentTransitionExecutor.execute("create-medical-record", appointmentId,
+                () -> applyMedicalRecord(appointmentId, request));
+    }
+
+    private MedicalRecordResponse applyMedicalRecord(UUID appointmentId, CreateMedicalRecordRequest request) {
+        Appointment appointment = appointmentRepository.findByAppointmentId(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
 
         AppointmentStatusCode currentStatus = appointment.getStatus().getCode();
@@ -47,7 +59,7 @@ public class MedicalRecordService {
         String combinedNotes = buildDoctorNotes(request.getTreatment(), request.getNotes());
         medicalRecord.setDoctorNotes(combinedNotes);
         
-        medicalRecord.setAttachments(request.getAttachments());
+        medicalRecord.setAttachments(resolveAttachments(request.getAttachments()));
 
         MedicalRecord savedRecord = medicalRecordRepository.save(medicalRecord);
 
@@ -57,6 +69,7 @@ public class MedicalRecordService {
             appointment.setStatus(completedStatus);
             appointmentRepository.save(appointment);
         }
+        appointmentDashboardProjection.onAppointmentChanged(appointment);
 
         return mapToResponse(savedRecord);
     }
@@ -90,11 +103,26 @@ public class MedicalRecordService {
             }
         }
         
-        if (request.getAttachments() != null) medicalRecord.setAttachments(request.getAttachments());
+        if (request.getAttachments() != null) medicalRecord.setAttachments(resolveAttachments(request.getAttachments()));
 
         return mapToResponse(medicalRecordRepository.save(medicalRecord));
     }
 
+    /**
+     * Records keep only content ids from {@link AttachmentStore}; the files are uploaded separately beforehand.
+     */
+    private List<String> resolveAttachments(List<String> contentIds) {
+        if (contentIds == null) {
+            return null;
+        }
+        for (String contentId : contentIds) {
+            if (!attachmentStore.exists(contentId)) {
+                throw new InvalidAttachmentException(contentId);
+            }
+        }
+        return contentIds.stream().distinct().toList();
+    }
+
     private String buildDoctorNotes(String treatment, String notes) {
         StringBuilder sb = new StringBuilder();
         if (treatment != null && !treatment.isBlank()) {
@@ -0,0 +1,40 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import com.clinic.appointmentservice.domain.NotificationOutboxEntry;
+import com.clinic.appointmentservice.repository.NotificationOutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records notifications in the outbox table as part of the caller's transaction, so a notification
+ * exists if and only if the appointment change that caused it committed. Delivery is left to
+ * {@link NotificationOutboxRelay}.
+ */
+@Component
+public class NotificationOutbox {
+
+    private final NotificationOutboxRepository repository;
+    private final Clock clock;
+
+    public NotificationOutbox(NotificationOutboxRepository repository, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(NotificationRequest notification) {
+        repository.save(new NotificationOutboxEntry(notification, clock.instant()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<NotificationRequest> notifications) {
+        Instant now = clock.instant();
+        repository.saveAll(notifications.stream().map(notification -> new NotificationOutboxEntry(notification, now)).toList());
+    }
+}
@@ -0,0 +1,128 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.NotificationServiceClient;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.NotificationOutboxEntry;
+import com.clinic.appointmentservice.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers outbox rows to notification-service in the background. Each run claims a batch in a short
+ * transaction ({@code FOR UPDATE SKIP LOCKED}, so several instances can relay side by side), posts the
+ * notifications without holding a connection, and records the outcome in a second short transaction.
+ * Failed rows back off exponentially and block later rows of the same appointment until they are
+ * delivered or exhausted.
+ */
+@Component
+public class NotificationOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    static final String METRIC_PREFIX = "appointment.notification.outbox";
+
+    private final NotificationOutboxRepository repository;
+    private final NotificationServiceClient notificationServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository repository,
+                                   NotificationServiceClient notificationServiceClient,
+                                   PlatformTransactionManager transactionManager,
+                                   AppointmentProperties properties,
+                                   MeterRegistry meterRegistry,
+                                   Clock clock) {
+        this.repository = repository;
+        this.notificationServiceClient = notificationServiceClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${appointment-service.outbox-poll-interval:PT1S}")
+    public void relay() {
+        int claimed;
+        do {
+            claimed = relayBatch();
+        } while (claimed == properties.getOutboxBatchSize());
+    }
+
+    /**
+     * Claims, delivers and settles one batch; returns the number of rows claimed.
+     */
+    int relayBatch() {
+        Instant now = clock.instant();
+        List<NotificationOutboxEntry> batch = transactionTemplate.execute(status -> {
+            List<NotificationOutboxEntry> due = repository.lockDue(now, properties.getOutboxBatchSize());
+            Instant leaseUntil = now.plus(properties.getOutboxClaimLease());
+            due.forEach(entry -> entry.claim(leaseUntil));
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> delivered = new ArrayList<>(batch.size());
+        Map<Long, String> failures = new HashMap<>();
+        for (NotificationOutboxEntry entry : batch) {
+            try {
+                notificationServiceClient.sendNotification(entry.toRequest());
+                delivered.add(entry.getId());
+            } catch (RuntimeException ex) {
+                failures.put(entry.getId(), ex.getMessage());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                repository.deleteAllByIdInBatch(delivered);
+            }
+            Instant settledAt = clock.instant();
+            for (NotificationOutboxEntry entry : repository.findAllById(failures.keySet())) {
+                settleFailure(entry, failures.get(entry.getId()), settledAt);
+            }
+        });
+
+        meterRegistry.counter(METRIC_PREFIX + ".delivered").increment(delivered.size());
+        return batch.size();
+    }
+
+    private void settleFailure(NotificationOutboxEntry entry, String error, Instant now) {
+        if (entry.getAttempts() >= properties.getOutboxMaxAttempts()) {
+            entry.fail(error);
+            meterRegistry.counter(METRIC_PREFIX + ".failed").increment();
+            log.error("Giving up on notification outbox entry {} for appointmentId={} after {} attempts: {}",
+                    entry.getId(), entry.getAppointmentId(), entry.getAttempts(), error);
+            return;
+        }
+        Duration delay = backoff(entry.getAttempts());
+        entry.retryAt(now.plus(delay), error);
+        meterRegistry.counter(METRIC_PREFIX + ".retried").increment();
+        log.warn("Notification outbox entry {} for appointmentId={} failed (attempt {}), retrying in {}: {}",
+                entry.getId(), entry.getAppointmentId(), entry.getAttempts(), delay, error);
+    }
+
+    Duration backoff(int attempts) {
+        Duration initial = properties.getOutboxInitialBackoff();
+        Duration max = properties.getOutboxMaxBackoff();
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = initial.multipliedBy(1L << doublings);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+}
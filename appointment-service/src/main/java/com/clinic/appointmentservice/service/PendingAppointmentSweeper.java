@@ -0,0 +1,153 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.repository.ExpiredAppointment;
+import com.clinic.appointmentservice.repository.PendingAppointmentExpiryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Cancels appointments that stayed pending past the confirmation deadline, typically with doctors who do not
+ * auto-accept and never answered, so their slots become bookable again.
+ * <p>
+ * Each chunk is one set-based {@code UPDATE} in its own short transaction, which also releases the slots after
+ * commit and hands them to the waitlist, records the audit rows for the batched audit writer, schedules the
+ * dashboard refresh and queues the cancellation notifications in the outbox. A run stops when a chunk comes back
+ * short or once {@code pending-expiry-max-run-time} has passed. Runs are timed as {@code appointment.pending.expiry.run}, tagged
+ * with how they ended.
+ */
+@Component
+public class PendingAppointmentSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingAppointmentSweeper.class);
+    private static final DateTimeFormatter MESSAGE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    static final String METRIC_PREFIX = "appointment.pending.expiry";
+    static final String REASON = "Not confirmed by the doctor in time";
+
+    private final PendingAppointmentExpiryRepository repository;
+    private final AppointmentStatusService appointmentStatusService;
+    private final AppointmentAuditWriter appointmentAuditWriter;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final AppointmentDashboardProjection appointmentDashboardProjection;
+    private final WaitlistOfferEngine waitlistOfferEngine;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final DistributionSummary expiredPerRun;
+
+    public PendingAppointmentSweeper(PendingAppointmentExpiryRepository repository,
+                                     AppointmentStatusService appointmentStatusService,
+                                     AppointmentAuditWriter appointmentAuditWriter,
+                                     BookingIntervalIndex bookingIntervalIndex,
+                                     AppointmentDashboardProjection appointmentDashboardProjection,
+                                     WaitlistOfferEngine waitlistOfferEngine,
+                                     NotificationOutbox notificationOutbox,
+                                     PlatformTransactionManager transactionManager,
+                                     AppointmentProperties properties,
+                                     MeterRegistry meterRegistry,
+                                     Clock clock) {
+        this.repository = repository;
+        this.appointmentStatusService = appointmentStatusService;
+        this.appointmentAuditWriter = appointmentAuditWriter;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.appointmentDashboardProjection = appointmentDashboardProjection;
+        this.waitlistOfferEngine = waitlistOfferEngine;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.expiredPerRun = DistributionSummary.builder(METRIC_PREFIX + ".expired.per.run").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${appointment-service.pending-expiry-interval:PT5M}")
+    public void sweep() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long stopAt = System.nanoTime() + properties.getPendingExpiryMaxRunTime().toNanos();
+        int chunkSize = properties.getPendingExpiryChunkSize();
+        int total = 0;
+        String outcome = "drained";
+        try {
+            int expired;
+            do {
+                expired = expireChunk(chunkSize);
+                total += expired;
+                if (expired == chunkSize && System.nanoTime() >= stopAt) {
+                    outcome = "time-limit";
+                    break;
+                }
+            } while (expired == chunkSize);
+        } catch (DataAccessException ex) {
+            outcome = "failed";
+            log.warn("Expiring pending appointments failed after {} appointments; retrying on the next run", total, ex);
+        }
+        sample.stop(meterRegistry.timer(METRIC_PREFIX + ".run", "outcome", outcome));
+        expiredPerRun.record(total);
+        if (total > 0) {
+            log.info("Cancelled {} appointments left pending past the confirmation deadline ({})", total, outcome);
+        }
+    }
+
+    /**
+     * Cancels one chunk of overdue pending appointments; returns how many were cancelled.
+     */
+    int expireChunk(int chunkSize) {
+        // created_at and updated_at are written from instants as UTC wall-clock time, whatever the host's zone.
+        LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        LocalDateTime createdBefore = now.minus(properties.getPendingConfirmationTimeout());
+        long pendingId = appointmentStatusService.getStatus(AppointmentStatusCode.PENDING).getId();
+        long cancelledId = appointmentStatusService.getStatus(AppointmentStatusCode.CANCELLED).getId();
+
+        List<ExpiredAppointment> expired = transactionTemplate.execute(status -> {
+            List<ExpiredAppointment> rows = repository.expirePending(pendingId, cancelledId, REASON,
+                    createdBefore, now, chunkSize);
+            for (ExpiredAppointment appointment : rows) {
+                bookingIntervalIndex.releaseAfterCommit(appointment.appointmentId(), appointment.doctorId(),
+                        appointment.appointmentTime(), appointment.durationMinutes());
+                waitlistOfferEngine.onSlotFreed(appointment.appointmentId(), appointment.doctorId(),
+                        appointment.appointmentTime(), appointment.durationMinutes());
+                appointmentAuditWriter.record(appointment.appointmentId(), "EXPIRED", "SYSTEM", REASON);
+                appointmentDashboardProjection.onAppointmentChanged(appointment.appointmentId(),
+                        appointment.appointmentTime());
+            }
+            if (!rows.isEmpty()) {
+                notificationOutbox.enqueueAll(rows.stream().map(this::notification).toList());
+            }
+            return rows;
+        });
+        int count = expired != null ? expired.size() : 0;
+        meterRegistry.counter(METRIC_PREFIX + ".expired").increment(count);
+        return count;
+    }
+
+    private NotificationRequest notification(ExpiredAppointment appointment) {
+        return new NotificationRequest(
+                appointment.patientId(),
+                appointment.doctorId(),
+                appointment.appointmentId(),
+                "Appointment cancelled",
+                "Your appointment request for %s was not confirmed in time and has been cancelled."
+                        .formatted(MESSAGE_TIME_FORMATTER.format(appointment.appointmentTime())),
+                "EMAIL"
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.clinic.appointmentservice.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical timing wheel: level 0 has {@code wheelSize} buckets of one tick each, and every further level has
+ * {@code wheelSize} buckets spanning a whole rotation of the level below. An entry lives in the lowest level whose
+ * rotation still reaches its deadline and cascades one level down each time the wheel reaches its bucket, so
+ * scheduling, cancelling and expiring an entry are O(1) however many entries are pending.
+ * <p>
+ * Entries are keyed; scheduling an existing key replaces it. Not thread-safe.
+ */
+final class TimingWheel<K, V> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<Set<Entry<K, V>>>> levels = new ArrayList<>();
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+    private final List<Entry<K, V>> overdue = new ArrayList<>();
+    private long currentTick;
+
+    TimingWheel(Duration tick, int wheelSize, Instant start) {
+        if (tick.toMillis() <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be at least 1ms and the wheel must have 2 or more buckets");
+        }
+        this.tickMillis = tick.toMillis();
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    void schedule(K key, Instant deadline, V value) {
+        cancel(key);
+        // Rounded up, so an entry never fires before its deadline.
+        Entry<K, V> entry = new Entry<>(key, value, Math.ceilDiv(deadline.toEpochMilli(), tickMillis));
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    boolean cancel(K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.bucket != null) {
+            entry.bucket.remove(entry);
+        } else {
+            overdue.remove(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Cancels every entry whose value matches, e.g. all entries loaded for a window that is no longer owned.
+     */
+    int cancelIf(Predicate<V> filter) {
+        List<K> keys = entries.values().stream().filter(entry -> filter.test(entry.value)).map(entry -> entry.key).toList();
+        keys.forEach(this::cancel);
+        return keys.size();
+    }
+
+    boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    boolean anyMatch(Predicate<V> filter) {
+        return entries.values().stream().anyMatch(entry -> filter.test(entry.value));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code now} and returns the values whose deadline has passed, in deadline order
+     * per tick.
+     */
+    List<V> advance(Instant now) {
+        List<V> expired = new ArrayList<>();
+        drain(overdue, expired);
+        long targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Higher levels first: their entries may cascade into the level-0 bucket expiring on this very tick.
+            long span = pow(levels.size() - 1);
+            for (int level = levels.size() - 1; level >= 1; level--, span /= wheelSize) {
+                if (currentTick % span == 0) {
+                    Set<Entry<K, V>> bucket = levels.get(level).get((int) ((currentTick / span) % wheelSize));
+                    List<Entry<K, V>> cascading = new ArrayList<>(bucket);
+                    bucket.clear();
+                    cascading.forEach(this::place);
+                }
+            }
+            if (!levels.isEmpty()) {
+                Set<Entry<K, V>> bucket = levels.get(0).get((int) (currentTick % wheelSize));
+                List<Entry<K, V>> due = new ArrayList<>(bucket);
+                bucket.clear();
+                drain(due, expired);
+            }
+            drain(overdue, expired);
+        }
+        return expired;
+    }
+
+    private void drain(List<Entry<K, V>> due, List<V> expired) {
+        for (Entry<K, V> entry : due) {
+            entries.remove(entry.key);
+            expired.add(entry.value);
+        }
+        due.clear();
+    }
+
+    private void place(Entry<K, V> entry) {
+        if (entry.deadlineTick <= currentTick) {
+            entry.bucket = null;
+            overdue.add(entry);
+            return;
+        }
+        // The lowest level where the deadline falls less than one rotation ahead; its bucket then cannot be shared
+        // with an entry of another rotation.
+        int level = 0;
+        long span = 1;
+        while (entry.deadlineTick / span - currentTick / span >= wheelSize) {
+            level++;
+            span *= wheelSize;
+        }
+        while (levels.size() <= level) {
+            List<Set<Entry<K, V>>> buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new LinkedHashSet<>());
+            }
+            levels.add(buckets);
+        }
+        Set<Entry<K, V>> bucket = levels.get(level).get((int) ((entry.deadlineTick / span) % wheelSize));
+        bucket.add(entry);
+        entry.bucket = bucket;
+    }
+
+    private long pow(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= wheelSize;
+        }
+        return result;
+    }
+
+    private static final class Entry<K, V> {
+
+        private final K key;
+        private final V value;
+        private final long deadlineTick;
+        private Set<Entry<K, V>> bucket;
+
+        private Entry(K key, V value, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
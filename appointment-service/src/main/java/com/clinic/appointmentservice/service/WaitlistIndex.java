@@ -0,0 +1,214 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.WaitlistEntry;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index of the waiting entries of each doctor, with one priority queue per day the entries could be
+ * booked on: higher priority first, then first come first served. Picking the patient for a freed slot only
+ * looks at the queue of the slot's day, so it stays cheap for doctors with thousands of waiting entries.
+ * <p>
+ * A doctor's entries are loaded on first use and reloaded once they are older than {@code waitlist-index-ttl},
+ * which picks up entries joined or left on other instances. An entry spans several day queues; once it is taken
+ * or removed its other copies are dropped lazily, when they reach the head of their queue. The index only picks
+ * candidates: the database still decides whether a candidate is waiting when the offer is made.
+ */
+@Component
+public class WaitlistIndex {
+
+    static final Comparator<WaitlistEntry> PRIORITY_ORDER = Comparator
+            .comparingInt(WaitlistEntry::priority).reversed()
+            .thenComparing(WaitlistEntry::createdAt)
+            .thenComparing(WaitlistEntry::entryId);
+
+    private static final Comparator<Queued> QUEUE_ORDER = Comparator.comparing(Queued::entry, PRIORITY_ORDER);
+
+    private final WaitlistRepository repository;
+    private final AppointmentProperties properties;
+    private final Clock clock;
+    private final ConcurrentMap<UUID, DoctorWaitlist> doctors = new ConcurrentHashMap<>();
+
+    public WaitlistIndex(WaitlistRepository repository, AppointmentProperties properties, Clock clock) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Removes and returns the best waiting entry of the doctor whose range fits an appointment starting at
+     * {@code start} within a slot of {@code slotMinutes}, skipping the entries in {@code excluded}.
+     */
+    public Optional<WaitlistEntry> take(UUID doctorId, LocalDateTime start, int slotMinutes, Set<UUID> excluded) {
+        DoctorWaitlist waitlist = doctors.computeIfAbsent(doctorId, id -> new DoctorWaitlist());
+        waitlist.lock.lock();
+        try {
+            if (waitlist.isStale()) {
+                waitlist.load(repository.findWaiting(doctorId, LocalDateTime.now(clock)));
+            }
+            return Optional.ofNullable(waitlist.take(start, slotMinutes, excluded));
+        } finally {
+            waitlist.lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a waiting entry to its doctor's queues, unless they are not loaded yet and will read it anyway.
+     */
+    public void add(WaitlistEntry entry) {
+        DoctorWaitlist waitlist = doctors.get(entry.doctorId());
+        if (waitlist == null) {
+            return;
+        }
+        waitlist.lock.lock();
+        try {
+            if (waitlist.loadedAt != null) {
+                waitlist.add(entry);
+            }
+        } finally {
+            waitlist.lock.unlock();
+        }
+    }
+
+    public void remove(UUID doctorId, UUID entryId) {
+        DoctorWaitlist waitlist = doctors.get(doctorId);
+        if (waitlist == null) {
+            return;
+        }
+        waitlist.lock.lock();
+        try {
+            waitlist.waiting.remove(entryId);
+        } finally {
+            waitlist.lock.unlock();
+        }
+    }
+
+    /**
+     * Makes the next {@link #take} reload the doctor's entries, e.g. after entries went back to waiting.
+     */
+    public void invalidate(UUID doctorId) {
+        DoctorWaitlist waitlist = doctors.get(doctorId);
+        if (waitlist == null) {
+            return;
+        }
+        waitlist.lock.lock();
+        try {
+            waitlist.loadedAt = null;
+        } finally {
+            waitlist.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the doctors whose entries are due for a reload anyway; they are loaded again when a slot is freed.
+     */
+    public void evictStale() {
+        doctors.values().removeIf(waitlist -> {
+            if (!waitlist.lock.tryLock()) {
+                return false;
+            }
+            try {
+                return waitlist.isStale();
+            } finally {
+                waitlist.lock.unlock();
+            }
+        });
+    }
+
+    int waitingCount(UUID doctorId) {
+        DoctorWaitlist waitlist = doctors.get(doctorId);
+        return waitlist != null ? waitlist.waiting.size() : 0;
+    }
+
+    /**
+     * The queues of one doctor, guarded by {@code lock}. {@code waiting} holds the current copy of every entry
+     * still in the queues; a queued copy that is not the current one is stale and skipped.
+     */
+    private final class DoctorWaitlist {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<UUID, Queued> waiting = new HashMap<>();
+        private final Map<LocalDate, PriorityQueue<Queued>> days = new HashMap<>();
+        private Instant loadedAt;
+
+        boolean isStale() {
+            return loadedAt == null || !loadedAt.plus(properties.getWaitlistIndexTtl()).isAfter(clock.instant());
+        }
+
+        void load(List<WaitlistEntry> entries) {
+            waiting.clear();
+            days.clear();
+            entries.forEach(this::add);
+            loadedAt = clock.instant();
+        }
+
+        void add(WaitlistEntry entry) {
+            Queued queued = new Queued(entry);
+            waiting.put(entry.entryId(), queued);
+            LocalDate today = LocalDate.now(clock);
+            LocalDate first = entry.earliestTime().toLocalDate();
+            LocalDate last = entry.latestTime().minusMinutes(entry.durationMinutes()).toLocalDate();
+            if (first.isBefore(today)) {
+                first = today;
+            }
+            LocalDate cap = first.plusDays(properties.getWaitlistMaxRangeDays());
+            for (LocalDate date = first; !date.isAfter(last) && !date.isAfter(cap); date = date.plusDays(1)) {
+                days.computeIfAbsent(date, d -> new PriorityQueue<>(QUEUE_ORDER)).add(queued);
+            }
+        }
+
+        WaitlistEntry take(LocalDateTime start, int slotMinutes, Set<UUID> excluded) {
+            LocalDate date = start.toLocalDate();
+            PriorityQueue<Queued> queue = days.get(date);
+            if (queue == null) {
+                return null;
+            }
+            List<Queued> passedOver = new ArrayList<>();
+            Queued found = null;
+            Queued head;
+            while ((head = queue.poll()) != null) {
+                if (waiting.get(head.entry().entryId()) != head) {
+                    continue;
+                }
+                if (head.entry().fits(start, slotMinutes) && !excluded.contains(head.entry().entryId())) {
+                    found = head;
+                    break;
+                }
+                passedOver.add(head);
+            }
+            queue.addAll(passedOver);
+            if (queue.isEmpty()) {
+                days.remove(date);
+            }
+            if (found == null) {
+                return null;
+            }
+            waiting.remove(found.entry().entryId());
+            return found.entry();
+        }
+    }
+
+    /**
+     * A queued copy of an entry; {@link DoctorWaitlist} tells copies apart by reference.
+     */
+    private record Queued(WaitlistEntry entry) {
+    }
+}
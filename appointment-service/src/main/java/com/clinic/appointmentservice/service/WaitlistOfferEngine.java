@@ -0,0 +1,288 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.WaitlistEntry;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Offers slots freed by cancellations to waitlisted patients. A freed slot is queued once its cancellation commits
+ * and handled in the background, so cancelling never waits on the waitlist: if the slot is still free, the best
+ * fitting waiting entry from {@link WaitlistIndex} is moved to offered and the offer is queued in the notification
+ * outbox in one transaction. Until the offer closes or its hold runs out, {@link AppointmentService} turns away
+ * bookings of the slot by anyone else.
+ * <p>
+ * Concurrent cancellations on this instance are handed out one entry each by the index; across instances the
+ * database settles them, because an entry is only offered from waiting and a slot holds one open offer at a time.
+ * Offers whose {@code waitlist-offer-hold} ran out, and declined ones, put their patient back on the waitlist and
+ * the slot is offered to the next patient who was not offered it before. Outcomes are counted as
+ * {@code appointment.waitlist.offers}, tagged with the outcome.
+ */
+@Component
+public class WaitlistOfferEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistOfferEngine.class);
+    private static final DateTimeFormatter MESSAGE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int EXPIRY_CHUNK_SIZE = 500;
+
+    static final String METRIC_PREFIX = "appointment.waitlist";
+
+    private final WaitlistRepository repository;
+    private final WaitlistIndex waitlistIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final AppointmentRepository appointmentRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppointmentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final BlockingQueue<FreedSlot> freedSlots;
+    private final Counter overflow;
+    private final Counter expired;
+
+    public WaitlistOfferEngine(WaitlistRepository repository,
+                               WaitlistIndex waitlistIndex,
+                               BookingIntervalIndex bookingIntervalIndex,
+                               AppointmentRepository appointmentRepository,
+                               NotificationOutbox notificationOutbox,
+                               PlatformTransactionManager transactionManager,
+                               AppointmentProperties properties,
+                               MeterRegistry meterRegistry,
+                               Clock clock) {
+        this.repository = repository;
+        this.waitlistIndex = waitlistIndex;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.appointmentRepository = appointmentRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.freedSlots = new ArrayBlockingQueue<>(properties.getWaitlistQueueCapacity());
+        this.overflow = meterRegistry.counter(METRIC_PREFIX + ".overflow");
+        this.expired = meterRegistry.counter(METRIC_PREFIX + ".offers.expired");
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", freedSlots, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Queues the slot held by the cancelled appointment for the waitlist once the current transaction commits, or
+     * right away outside one.
+     */
+    public void onSlotFreed(UUID appointmentId, UUID doctorId, LocalDateTime start, Integer durationMinutes) {
+        int minutes = durationMinutes != null ? durationMinutes : BookingIntervalIndex.DEFAULT_DURATION_MINUTES;
+        FreedSlot slot = new FreedSlot(appointmentId, doctorId, start, minutes);
+        afterCommit(() -> enqueue(slot));
+    }
+
+    /**
+     * Passes the slot of a declined or withdrawn offer on to the next patient once the current transaction
+     * commits, or right away outside one.
+     */
+    public void onOfferClosed(WaitlistOffer offer) {
+        afterCommit(() -> passOn(List.of(offer)));
+    }
+
+    /**
+     * Offers the queued slots until the queue is empty.
+     */
+    @Scheduled(fixedDelayString = "${appointment-service.waitlist-offer-interval:PT1S}")
+    public synchronized void offerFreedSlots() {
+        FreedSlot slot;
+        while ((slot = freedSlots.poll()) != null) {
+            Outcome outcome;
+            try {
+                outcome = offer(slot);
+            } catch (DataAccessException ex) {
+                outcome = Outcome.FAILED;
+                log.warn("Failed to offer the slot of doctorId={} at {} to the waitlist", slot.doctorId(),
+                        slot.start(), ex);
+            }
+            meterRegistry.counter(METRIC_PREFIX + ".offers", "outcome", outcome.tag()).increment();
+        }
+    }
+
+    /**
+     * Expires offers whose hold ran out and entries whose range has passed, then queues the slots of the expired
+     * offers for the next patients.
+     */
+    @Scheduled(fixedDelayString = "${appointment-service.waitlist-expiry-interval:PT30S}")
+    public void expire() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            List<WaitlistOffer> offers;
+            do {
+                offers = repository.expireOffers(now, EXPIRY_CHUNK_SIZE);
+                expired.increment(offers.size());
+                passOn(offers);
+            } while (offers.size() == EXPIRY_CHUNK_SIZE);
+            int entries = repository.expireEntries(now);
+            if (entries > 0) {
+                log.info("Expired {} waitlist entries whose date range has passed", entries);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Expiring waitlist offers failed; retrying on the next run", ex);
+        }
+        waitlistIndex.evictStale();
+    }
+
+    @PreDestroy
+    void drain() {
+        offerFreedSlots();
+    }
+
+    int queueDepth() {
+        return freedSlots.size();
+    }
+
+    /**
+     * Offers the slot to the best waiting patient who fits it and was not offered it before.
+     */
+    Outcome offer(FreedSlot slot) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!slot.start().isAfter(now)) {
+            return Outcome.PAST;
+        }
+        // Like AppointmentService.ensureSlotFree: bookings committed on other instances are only visible in the
+        // database.
+        if (!bookingIntervalIndex.isFree(slot.doctorId(), slot.start(), slot.durationMinutes())
+                || appointmentRepository.existsOverlappingBooking(slot.doctorId(), slot.start(),
+                slot.start().plusMinutes(slot.durationMinutes()))) {
+            return Outcome.REBOOKED;
+        }
+        Set<UUID> offeredBefore = repository.findOfferedEntryIds(slot.doctorId(), slot.start());
+        while (true) {
+            Optional<WaitlistEntry> candidate = waitlistIndex.take(slot.doctorId(), slot.start(),
+                    slot.durationMinutes(), offeredBefore);
+            if (candidate.isEmpty()) {
+                return Outcome.NO_CANDIDATE;
+            }
+            WaitlistEntry entry = candidate.get();
+            Outcome outcome = transactionTemplate.execute(status -> {
+                if (!repository.transitionEntry(entry.entryId(), WaitlistEntry.Status.WAITING,
+                        WaitlistEntry.Status.OFFERED, null, now)) {
+                    return Outcome.ENTRY_GONE;
+                }
+                WaitlistOffer offer = newOffer(entry, slot, now);
+                if (!repository.insertOffer(offer)) {
+                    status.setRollbackOnly();
+                    return Outcome.SLOT_HELD;
+                }
+                notificationOutbox.enqueue(offerNotification(offer));
+                return Outcome.OFFERED;
+            });
+            switch (outcome) {
+                case ENTRY_GONE -> {
+                    // Left, booked or offered another slot elsewhere; the index already dropped it.
+                }
+                case SLOT_HELD -> {
+                    // Another instance offered the slot first; the entry keeps waiting for the next one.
+                    waitlistIndex.add(entry);
+                    return outcome;
+                }
+                default -> {
+                    return outcome;
+                }
+            }
+        }
+    }
+
+    private WaitlistOffer newOffer(WaitlistEntry entry, FreedSlot slot, LocalDateTime now) {
+        LocalDateTime expiresAt = now.plus(properties.getWaitlistOfferHold());
+        if (expiresAt.isAfter(slot.start())) {
+            expiresAt = slot.start();
+        }
+        return new WaitlistOffer(UUID.randomUUID(), entry.entryId(), entry.patientId(), slot.doctorId(),
+                slot.appointmentId(), slot.start(), slot.durationMinutes(), WaitlistOffer.Status.OPEN, expiresAt, now);
+    }
+
+    private NotificationRequest offerNotification(WaitlistOffer offer) {
+        String message = "A slot on %s opened up and is held for you until %s. Accept the offer to book it."
+                .formatted(MESSAGE_TIME_FORMATTER.format(offer.slotTime()),
+                        MESSAGE_TIME_FORMATTER.format(offer.expiresAt()));
+        return new NotificationRequest(
+                offer.patientId(),
+                offer.doctorId(),
+                offer.sourceAppointmentId(),
+                "An appointment slot is available",
+                message,
+                "EMAIL"
+        );
+    }
+
+    /**
+     * Puts the patients of closed offers back on this instance's waitlist and queues their slots for the next
+     * patients.
+     */
+    private void passOn(List<WaitlistOffer> offers) {
+        Set<UUID> doctors = new LinkedHashSet<>();
+        for (WaitlistOffer offer : offers) {
+            doctors.add(offer.doctorId());
+        }
+        doctors.forEach(waitlistIndex::invalidate);
+        for (WaitlistOffer offer : offers) {
+            enqueue(new FreedSlot(offer.sourceAppointmentId(), offer.doctorId(), offer.slotTime(),
+                    offer.durationMinutes()));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void enqueue(FreedSlot slot) {
+        if (!freedSlots.offer(slot)) {
+            overflow.increment();
+            log.warn("Waitlist queue is full; the slot of doctorId={} at {} is not offered", slot.doctorId(),
+                    slot.start());
+        }
+    }
+
+    /**
+     * A slot freed by the cancellation of {@code appointmentId}.
+     */
+    record FreedSlot(UUID appointmentId, UUID doctorId, LocalDateTime start, int durationMinutes) {
+    }
+
+    enum Outcome {
+        OFFERED, NO_CANDIDATE, REBOOKED, PAST, ENTRY_GONE, SLOT_HELD, FAILED;
+
+        String tag() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.dto.CreateAppointmentRequest;
+import com.clinic.appointmentservice.dto.JoinWaitlistRequest;
+import com.clinic.appointmentservice.dto.WaitlistEntryResponse;
+import com.clinic.appointmentservice.exception.AlreadyWaitlistedException;
+import com.clinic.appointmentservice.exception.InvalidWaitlistRequestException;
+import com.clinic.appointmentservice.exception.UnauthorizedActionException;
+import com.clinic.appointmentservice.exception.WaitlistEntryNotFoundException;
+import com.clinic.appointmentservice.exception.WaitlistOfferNotFoundException;
+import com.clinic.appointmentservice.exception.WaitlistOfferUnavailableException;
+import com.clinic.appointmentservice.repository.WaitlistEntry;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Patients joining and leaving doctors' waitlists, and answering the offers {@link WaitlistOfferEngine} makes them.
+ * Accepting books the offered slot like any other booking, in the same transaction that closes the offer, so a
+ * booking that fails leaves the offer open until it expires.
+ */
+@Service
+public class WaitlistService {
+
+    static final String BOOKING_NOTES = "Booked from the waitlist";
+
+    private final WaitlistRepository repository;
+    private final WaitlistIndex waitlistIndex;
+    private final WaitlistOfferEngine waitlistOfferEngine;
+    private final AppointmentService appointmentService;
+    private final AppointmentProperties appointmentProperties;
+    private final Clock clock;
+
+    public WaitlistService(WaitlistRepository repository,
+                           WaitlistIndex waitlistIndex,
+                           WaitlistOfferEngine waitlistOfferEngine,
+                           AppointmentService appointmentService,
+                           AppointmentProperties appointmentProperties,
+                           Clock clock) {
+        this.repository = repository;
+        this.waitlistIndex = waitlistIndex;
+        this.waitlistOfferEngine = waitlistOfferEngine;
+        this.appointmentService = appointmentService;
+        this.appointmentProperties = appointmentProperties;
+        this.clock = clock;
+    }
+
+    public WaitlistEntryResponse join(JoinWaitlistRequest request) {
+        int durationMinutes = request.getDurationMinutes() != null
+                ? request.getDurationMinutes()
+                : BookingIntervalIndex.DEFAULT_DURATION_MINUTES;
+        validateRange(request.getEarliestTime(), request.getLatestTime(), durationMinutes);
+
+        WaitlistEntry entry = new WaitlistEntry(UUID.randomUUID(), request.getPatientId(), request.getDoctorId(),
+                request.getEarliestTime(), request.getLatestTime(), durationMinutes,
+                request.getPriority() != null ? request.getPriority() : 0,
+                WaitlistEntry.Status.WAITING, LocalDateTime.now(clock));
+        try {
+            repository.insertEntry(entry);
+        } catch (DuplicateKeyException ex) {
+            throw new AlreadyWaitlistedException(request.getPatientId(), request.getDoctorId());
+        }
+        waitlistIndex.add(entry);
+        return toResponse(entry);
+    }
+
+    public WaitlistEntryResponse getEntry(UUID entryId) {
+        return toResponse(findEntry(entryId));
+    }
+
+    /**
+     * Takes the patient off the waitlist; an offer they still hold is declined and passed on. Leaving twice is a
+     * no-op.
+     */
+    @Transactional
+    public void leave(UUID entryId, UUID patientId) {
+        WaitlistEntry entry = findEntry(entryId);
+        requireOwner(entry.patientId(), patientId);
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!repository.leave(entryId, now)) {
+            return;
+        }
+        waitlistIndex.remove(entry.doctorId(), entryId);
+        repository.declineOpenOfferOf(entryId, now).ifPresent(waitlistOfferEngine::onOfferClosed);
+    }
+
+    @Transactional
+    public AppointmentResponse acceptOffer(UUID offerId, UUID patientId) {
+        WaitlistOffer offer = findOffer(offerId);
+        requireOwner(offer.patientId(), patientId);
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!repository.acceptOffer(offerId, now)) {
+            throw new WaitlistOfferUnavailableException(offerId);
+        }
+        WaitlistEntry entry = findEntry(offer.entryId());
+
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(offer.patientId());
+        request.setDoctorId(offer.doctorId());
+        request.setAppointmentTime(offer.slotTime());
+        request.setDurationMinutes(entry.durationMinutes());
+        request.setNotes(BOOKING_NOTES);
+        AppointmentResponse appointment = appointmentService.createAppointment(request);
+
+        repository.transitionEntry(entry.entryId(), WaitlistEntry.Status.OFFERED, WaitlistEntry.Status.BOOKED,
+                appointment.id(), now);
+        return appointment;
+    }
+
+    /**
+     * Declines the offer; the patient keeps their place on the waitlist and the slot goes to the next patient.
+     */
+    @Transactional
+    public void declineOffer(UUID offerId, UUID patientId) {
+        WaitlistOffer offer = findOffer(offerId);
+        requireOwner(offer.patientId(), patientId);
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!repository.declineOffer(offerId, now)) {
+            throw new WaitlistOfferUnavailableException(offerId);
+        }
+        repository.transitionEntry(offer.entryId(), WaitlistEntry.Status.OFFERED, WaitlistEntry.Status.WAITING,
+                null, now);
+        waitlistOfferEngine.onOfferClosed(offer);
+    }
+
+    private void validateRange(LocalDateTime earliest, LocalDateTime latest, int durationMinutes) {
+        if (earliest.plusMinutes(durationMinutes).isAfter(latest)) {
+            throw new InvalidWaitlistRequestException("The range from earliestTime to latestTime must fit an "
+                    + "appointment of " + durationMinutes + " minutes");
+        }
+        int maxDays = appointmentProperties.getWaitlistMaxRangeDays();
+        if (Duration.between(earliest, latest).compareTo(Duration.ofDays(maxDays)) > 0) {
+            throw new InvalidWaitlistRequestException("A waitlist entry may cover at most " + maxDays + " days");
+        }
+    }
+
+    private WaitlistEntry findEntry(UUID entryId) {
+        return repository.findEntry(entryId).orElseThrow(() -> new WaitlistEntryNotFoundException(entryId));
+    }
+
+    private WaitlistOffer findOffer(UUID offerId) {
+        return repository.findOffer(offerId).orElseThrow(() -> new WaitlistOfferNotFoundException(offerId));
+    }
+
+    private static void requireOwner(UUID ownerId, UUID patientId) {
+        if (!ownerId.equals(patientId)) {
+            throw new UnauthorizedActionException("Only the waitlisted patient can act on this waitlist entry");
+        }
+    }
+
+    private static WaitlistEntryResponse toResponse(WaitlistEntry entry) {
+        return new WaitlistEntryResponse(entry.entryId(), entry.patientId(), entry.doctorId(), entry.earliestTime(),
+                entry.latestTime(), entry.durationMinutes(), entry.priority(), entry.status().name(),
+                entry.createdAt());
+    }
+}
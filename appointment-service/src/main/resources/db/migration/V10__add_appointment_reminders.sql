@@ -0,0 +1,26 @@
+-- Appointment reminders (T-24h, T-1h, ...).
+-- Reminder fire times are split into fixed windows; an instance leases a window, loads the reminders firing
+-- in it into its in-memory timing wheel, and marks the window completed once all of them were handed over.
+-- Every reminder handed to the notification outbox is recorded, so a window taken over after a crash or a
+-- lost lease never sends a reminder twice.
+
+CREATE TABLE reminder_windows (
+    window_start TIMESTAMP WITH TIME ZONE PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    lease_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE TABLE appointment_reminders_sent (
+    appointment_id UUID NOT NULL,
+    lead_minutes INTEGER NOT NULL,             -- how long before the appointment the reminder fires
+    appointment_time TIMESTAMP NOT NULL,       -- a rescheduled appointment gets its reminders again
+    sent_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (appointment_id, lead_minutes, appointment_time)
+);
+
+-- Purge of reminders for past appointments
+CREATE INDEX idx_appointment_reminders_sent_time ON appointment_reminders_sent(appointment_time);
+
+COMMENT ON TABLE reminder_windows IS 'Leases on reminder fire-time windows; a window whose lease ran out is taken over by another instance';
+COMMENT ON TABLE appointment_reminders_sent IS 'Reminders already queued in notification_outbox, keyed so each is queued once per appointment time';
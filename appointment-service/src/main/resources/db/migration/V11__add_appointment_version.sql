@@ -0,0 +1,7 @@
+-- Optimistic locking for appointment state transitions.
+-- Every JPA update checks and bumps the version, so concurrent transitions cannot silently overwrite each other;
+-- set-based updates outside JPA bump it as well. Adding a column with a constant default rewrites no rows.
+
+ALTER TABLE appointments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN appointments.version IS 'Optimistic lock version, incremented by every update';
@@ -0,0 +1,47 @@
+-- Read model behind the patient and doctor appointment dashboards.
+-- One denormalized row per appointment with its status code and medical record id resolved, so a dashboard
+-- page is a single range scan of the owner's index instead of a join across the appointment partitions.
+-- Rows are refreshed from the normalized tables after every committed change; source_version keeps a late
+-- refresh from overwriting a newer one.
+
+CREATE TABLE appointment_dashboard (
+    appointment_id UUID PRIMARY KEY,
+    patient_id UUID NOT NULL,
+    doctor_id UUID NOT NULL,
+    doctor_name VARCHAR(255),
+    patient_name VARCHAR(255),
+    clinic_address TEXT,
+    appointment_time TIMESTAMP NOT NULL,
+    duration_minutes INTEGER,
+    status_code VARCHAR(32) NOT NULL,
+    notes TEXT,
+    cancelled_reason TEXT,
+    consultation_fee DECIMAL(12,2),
+    service_fee DECIMAL(12,2),
+    total_amount DECIMAL(12,2),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    medical_record_id UUID,
+    source_version BIGINT NOT NULL,
+    projected_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_appointment_dashboard_patient_time_id
+    ON appointment_dashboard(patient_id, appointment_time, appointment_id);
+CREATE INDEX idx_appointment_dashboard_doctor_time_id
+    ON appointment_dashboard(doctor_id, appointment_time, appointment_id);
+
+INSERT INTO appointment_dashboard (appointment_id, patient_id, doctor_id, doctor_name, patient_name,
+                                   clinic_address, appointment_time, duration_minutes, status_code, notes,
+                                   cancelled_reason, consultation_fee, service_fee, total_amount, created_at,
+                                   updated_at, medical_record_id, source_version)
+SELECT a.appointment_id, a.patient_id, a.doctor_id, a.doctor_name, a.patient_name,
+       a.clinic_address, a.appointment_time, a.duration_minutes, s.code, a.notes,
+       a.cancelled_reason, a.consultation_fee, a.service_fee, a.total_amount, a.created_at,
+       a.updated_at, m.id, a.version
+FROM appointments a
+JOIN appointment_status s ON s.id = a.status_id
+LEFT JOIN medical_records m ON m.appointment_id = a.appointment_id;
+
+COMMENT ON TABLE appointment_dashboard IS 'Denormalized appointment rows serving the patient and doctor dashboards';
+COMMENT ON COLUMN appointment_dashboard.source_version IS 'appointments.version the row was projected from';
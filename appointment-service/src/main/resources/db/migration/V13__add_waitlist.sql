@@ -0,0 +1,59 @@
+-- Waitlist for cancelled slots.
+-- A patient joins a doctor's waitlist for a date range with a priority. When a slot in the range is freed, the
+-- best waiting patient is offered it for a limited time; an entry holds at most one open offer and a slot is
+-- offered to at most one patient at a time, so instances racing for the same entry or slot settle here.
+
+CREATE TABLE waitlist_entries (
+    entry_id UUID PRIMARY KEY,
+    patient_id UUID NOT NULL,
+    doctor_id UUID NOT NULL,
+    earliest_time TIMESTAMP NOT NULL,          -- the booked appointment must lie within [earliest, latest]
+    latest_time TIMESTAMP NOT NULL,
+    duration_minutes INTEGER NOT NULL,
+    priority INTEGER NOT NULL DEFAULT 0,       -- higher first, then first come first served
+    status VARCHAR(20) NOT NULL,               -- WAITING, OFFERED, BOOKED, LEFT, EXPIRED
+    appointment_id UUID,                       -- set once BOOKED
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT chk_waitlist_entries_range CHECK (earliest_time < latest_time)
+);
+
+-- Loading a doctor's waitlist
+CREATE INDEX idx_waitlist_entries_doctor_waiting ON waitlist_entries(doctor_id, latest_time)
+    WHERE status = 'WAITING';
+
+-- One active entry per patient and doctor
+CREATE UNIQUE INDEX uq_waitlist_entries_active ON waitlist_entries(patient_id, doctor_id)
+    WHERE status IN ('WAITING', 'OFFERED');
+
+-- Expiring entries whose range has passed
+CREATE INDEX idx_waitlist_entries_active_latest ON waitlist_entries(latest_time)
+    WHERE status IN ('WAITING', 'OFFERED');
+
+CREATE TABLE waitlist_offers (
+    offer_id UUID PRIMARY KEY,
+    entry_id UUID NOT NULL REFERENCES waitlist_entries(entry_id),
+    patient_id UUID NOT NULL,
+    doctor_id UUID NOT NULL,
+    source_appointment_id UUID NOT NULL,       -- the cancelled appointment that freed the slot
+    slot_time TIMESTAMP NOT NULL,
+    duration_minutes INTEGER NOT NULL,         -- length of the freed slot
+    status VARCHAR(20) NOT NULL,               -- OPEN, ACCEPTED, DECLINED, EXPIRED
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    closed_at TIMESTAMP
+);
+
+-- A slot is held for one patient at a time
+CREATE UNIQUE INDEX uq_waitlist_offers_open_slot ON waitlist_offers(doctor_id, slot_time)
+    WHERE status = 'OPEN';
+
+-- Patients already offered a slot are not offered it again
+CREATE INDEX idx_waitlist_offers_slot ON waitlist_offers(doctor_id, slot_time);
+
+-- Expiry of offers whose hold ran out
+CREATE INDEX idx_waitlist_offers_open_expiry ON waitlist_offers(expires_at)
+    WHERE status = 'OPEN';
+
+COMMENT ON TABLE waitlist_entries IS 'Patients waiting for a freed slot with a doctor within a date range';
+COMMENT ON TABLE waitlist_offers IS 'Freed slots held for a waitlisted patient until accepted, declined or expired';
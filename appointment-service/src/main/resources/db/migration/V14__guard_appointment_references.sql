@@ -0,0 +1,84 @@
+-- V8 had to drop the primary key on appointment_id alone and every foreign key into appointments, because both
+-- would have to include the partition key. This restores the guarantees that can be kept without blocking
+-- archive_appointment_partitions: a composite foreign key from medical_records or appointment_audit would make
+-- DETACH PARTITION fail for every month that still has referencing rows.
+
+-- 1. Unique appointment_id. Time-keyed (version 7) ids carry the month of appointment_time, so the check below
+--    pins every such id to exactly one partition and a unique index per partition is enough to make it unique
+--    across the table. Version 4 ids predate time-keyed ids; they were unique under the old primary key and the
+--    service no longer mints them.
+CREATE OR REPLACE FUNCTION appointment_id_month(id UUID) RETURNS TIMESTAMP AS $$
+    SELECT CASE
+        WHEN substr(id::TEXT, 15, 1) = '7' THEN
+            date_trunc('month', to_timestamp(('x' || substr(replace(id::TEXT, '-', ''), 1, 12))::BIT(48)::BIGINT / 1000.0)
+                                AT TIME ZONE 'UTC')
+    END;
+$$ LANGUAGE sql IMMUTABLE STRICT;
+
+ALTER TABLE appointments ADD CONSTRAINT appointments_id_matches_month
+    CHECK (appointment_id_month(appointment_id) IS NULL
+           OR appointment_id_month(appointment_id) = date_trunc('month', appointment_time));
+
+DO $$
+DECLARE
+    part record;
+BEGIN
+    FOR part IN SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'appointments'::regclass
+    LOOP
+        EXECUTE format('CREATE UNIQUE INDEX IF NOT EXISTS %I ON %I (appointment_id)',
+                       part.relname || '_appointment_id_key', part.relname);
+    END LOOP;
+END $$;
+
+-- New partitions get the same index before they are attached.
+CREATE OR REPLACE FUNCTION create_appointment_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', month_start::TIMESTAMP);
+    upper_bound TIMESTAMP := date_trunc('month', month_start::TIMESTAMP) + INTERVAL '1 month';
+    partition_name TEXT := 'appointments_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (appointment_time >= %L AND appointment_time < %L)',
+                   partition_name, partition_name || '_bounds', lower_bound, upper_bound);
+    EXECUTE format('CREATE UNIQUE INDEX %I ON %I (appointment_id)',
+                   partition_name || '_appointment_id_key', partition_name);
+    EXECUTE format('INSERT INTO %I SELECT * FROM appointments_default WHERE appointment_time >= $1 AND appointment_time < $2',
+                   partition_name) USING lower_bound, upper_bound;
+    DELETE FROM appointments_default WHERE appointment_time >= lower_bound AND appointment_time < upper_bound;
+    -- The check constraint lets ATTACH skip the validation scan.
+    EXECUTE format('ALTER TABLE appointments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, partition_name || '_bounds');
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 2. Referencing rows. The service checks that the appointment exists when it writes a medical record or an
+--    audit row; this sweep removes what still slips through, such as a row whose appointment insert was rolled
+--    back after it was written. Only rows created since the given time are considered, because rows of
+--    appointments archived with their partition have no match in appointments either.
+--    Returns the number of rows deleted.
+CREATE OR REPLACE FUNCTION sweep_orphaned_appointment_references(since TIMESTAMP WITH TIME ZONE) RETURNS INTEGER AS $$
+DECLARE
+    records INTEGER;
+    audits INTEGER;
+BEGIN
+    DELETE FROM medical_records r
+    WHERE r.created_at >= since
+      AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.appointment_id = r.appointment_id);
+    GET DIAGNOSTICS records = ROW_COUNT;
+    DELETE FROM appointment_audit au
+    WHERE au.created_at >= since
+      AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.appointment_id = au.appointment_id);
+    GET DIAGNOSTICS audits = ROW_COUNT;
+    RETURN records + audits;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE INDEX IF NOT EXISTS idx_appointment_audit_created_at ON appointment_audit(created_at);
@@ -0,0 +1,16 @@
+-- Outbox rows were keyed by a serial column, which forces one INSERT round trip per row.
+-- A sequence with a matching allocation size lets Hibernate pre-allocate ids and batch the inserts.
+-- Pooled ids are handed out in blocks per instance and no longer follow insertion order across instances,
+-- so per-appointment delivery order is taken from created_at, with the id only breaking ties.
+
+ALTER TABLE notification_outbox ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS notification_outbox_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS notification_outbox_seq INCREMENT BY 50;
+
+SELECT setval('notification_outbox_seq', COALESCE((SELECT MAX(id) FROM notification_outbox), 0) + 50);
+
+DROP INDEX IF EXISTS idx_notification_outbox_appointment;
+
+-- Per-appointment ordering check: earlier pending rows of the same appointment
+CREATE INDEX idx_notification_outbox_appointment ON notification_outbox(appointment_id, created_at, id) WHERE status = 'PENDING';
@@ -0,0 +1,18 @@
+-- The V14 sweep deleted medical records and audit rows whose appointment could not be found. Medical records hold
+-- clinical data and audit rows are the trail of what happened, so neither is removed automatically any more:
+-- maintenance only counts them and reports them for someone to look at.
+DROP FUNCTION IF EXISTS sweep_orphaned_appointment_references(TIMESTAMP WITH TIME ZONE);
+
+-- Counts the medical records and audit rows created since the given time whose appointment does not exist. Older
+-- rows are left out because rows of appointments archived with their partition have no match in appointments.
+CREATE OR REPLACE FUNCTION count_orphaned_appointment_references(since TIMESTAMP WITH TIME ZONE)
+    RETURNS TABLE (medical_records BIGINT, audit_rows BIGINT) AS $$
+    SELECT (SELECT count(*)
+            FROM medical_records r
+            WHERE r.created_at >= since
+              AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.appointment_id = r.appointment_id)),
+           (SELECT count(*)
+            FROM appointment_audit au
+            WHERE au.created_at >= since
+              AND NOT EXISTS (SELECT 1 FROM appointments a WHERE a.appointment_id = au.appointment_id));
+$$ LANGUAGE sql STABLE;
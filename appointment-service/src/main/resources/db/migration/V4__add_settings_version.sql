@@ -0,0 +1,4 @@
+-- Record which platform settings version priced each appointment
+ALTER TABLE appointments ADD COLUMN settings_version BIGINT;
+
+COMMENT ON COLUMN appointments.settings_version IS 'auth-service platform settings version used to compute service_fee (NULL = built-in defaults)';
@@ -0,0 +1,26 @@
+-- Transactional outbox for appointment notifications.
+-- Rows are written in the same transaction as the appointment change and delivered
+-- to notification-service by a background relay; delivered rows are deleted.
+
+CREATE TABLE notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    appointment_id UUID NOT NULL,
+    patient_id UUID,
+    doctor_id UUID,
+    subject VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    channel VARCHAR(16) NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING', -- PENDING or FAILED (attempts exhausted)
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Relay polling: due rows in insertion order
+CREATE INDEX idx_notification_outbox_due ON notification_outbox(next_attempt_at, id) WHERE status = 'PENDING';
+-- Per-appointment ordering check: earlier pending rows of the same appointment
+CREATE INDEX idx_notification_outbox_appointment ON notification_outbox(appointment_id, id) WHERE status = 'PENDING';
+
+COMMENT ON TABLE notification_outbox IS 'Notifications awaiting delivery to notification-service, written atomically with appointment changes';
+COMMENT ON COLUMN notification_outbox.next_attempt_at IS 'Earliest time the relay may (re)try the row; also used as the claim lease while a delivery is in flight';
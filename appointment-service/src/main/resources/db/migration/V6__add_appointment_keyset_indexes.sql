@@ -0,0 +1,14 @@
+-- Composite indexes for keyset-paginated appointment listings.
+-- Every listing is ordered by (appointment_time, appointment_id) and continues after the
+-- last key of the previous page, so each scope needs an index ending in those two columns.
+
+CREATE INDEX IF NOT EXISTS idx_appointments_time_id ON appointments(appointment_time, appointment_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_time_id ON appointments(patient_id, appointment_time, appointment_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_time_id ON appointments(doctor_id, appointment_time, appointment_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_status_time_id ON appointments(status_id, appointment_time, appointment_id);
+
+-- The single-column indexes are prefixes of the composite ones above
+DROP INDEX IF EXISTS idx_appointments_time;
+DROP INDEX IF EXISTS idx_appointments_patient;
+DROP INDEX IF EXISTS idx_appointments_doctor;
+DROP INDEX IF EXISTS idx_appointments_status;
@@ -0,0 +1,16 @@
+-- Audit rows were keyed by an identity column, which forces one INSERT round trip per row.
+-- A sequence with a matching allocation size lets Hibernate pre-allocate ids and batch the inserts.
+CREATE TABLE IF NOT EXISTS appointment_audit (
+    audit_id BIGINT PRIMARY KEY,
+    appointment_id UUID NOT NULL REFERENCES appointments(appointment_id),
+    action VARCHAR(32) NOT NULL,
+    performed_by VARCHAR(64) NOT NULL,
+    details VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+ALTER TABLE appointment_audit ALTER COLUMN audit_id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS appointment_audit_seq INCREMENT BY 50;
+
+SELECT setval('appointment_audit_seq', COALESCE((SELECT MAX(audit_id) FROM appointment_audit), 0) + 50);
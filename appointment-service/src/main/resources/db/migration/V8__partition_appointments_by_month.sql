@@ -0,0 +1,124 @@
+-- Convert appointments into a table range-partitioned by month on appointment_time.
+-- Queries that carry a time bound only touch the partitions of the months they cover, and old
+-- months can be detached to the archive schema instead of deleted row by row.
+
+-- 1. Foreign keys cannot point at a partitioned table unless they include the partition key.
+--    Referencing rows are kept consistent by the service instead.
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS tbl, conname
+              FROM pg_constraint
+              WHERE contype = 'f' AND confrelid = 'appointments'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+
+-- 2. Partitioned parent; the primary key has to include the partition key.
+CREATE TABLE appointments (LIKE appointments_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (appointment_time);
+ALTER TABLE appointments ADD PRIMARY KEY (appointment_id, appointment_time);
+
+-- Rows outside every monthly partition land here until their month is created.
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+CREATE SCHEMA IF NOT EXISTS appointment_archive;
+
+-- 3. Creates the partition for the month starting at month_start, moving any rows of that month
+--    out of the default partition first. Returns false when the partition already exists.
+CREATE OR REPLACE FUNCTION create_appointment_partition(month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    lower_bound TIMESTAMP := date_trunc('month', month_start::TIMESTAMP);
+    upper_bound TIMESTAMP := date_trunc('month', month_start::TIMESTAMP) + INTERVAL '1 month';
+    partition_name TEXT := 'appointments_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (appointment_time >= %L AND appointment_time < %L)',
+                   partition_name, partition_name || '_bounds', lower_bound, upper_bound);
+    EXECUTE format('INSERT INTO %I SELECT * FROM appointments_default WHERE appointment_time >= $1 AND appointment_time < $2',
+                   partition_name) USING lower_bound, upper_bound;
+    DELETE FROM appointments_default WHERE appointment_time >= lower_bound AND appointment_time < upper_bound;
+    -- The check constraint lets ATTACH skip the validation scan.
+    EXECUTE format('ALTER TABLE appointments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, upper_bound);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, partition_name || '_bounds');
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Ensures partitions exist from the current month through months_ahead months ahead.
+-- appointment_time holds UTC wall-clock time, so the current month is taken in UTC.
+-- Returns the number of partitions created.
+CREATE OR REPLACE FUNCTION ensure_appointment_partitions(months_ahead INTEGER) RETURNS INTEGER AS $$
+DECLARE
+    created INTEGER := 0;
+    month_start DATE;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('appointments_partition_maintenance'));
+    FOR i IN 0..months_ahead LOOP
+        month_start := (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => i))::DATE;
+        IF create_appointment_partition(month_start) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches monthly partitions that ended more than retention_months ago and moves them to the
+-- appointment_archive schema. Returns the number of partitions archived.
+CREATE OR REPLACE FUNCTION archive_appointment_partitions(retention_months INTEGER) RETURNS INTEGER AS $$
+DECLARE
+    archived INTEGER := 0;
+    cutoff TEXT := 'appointments_p' || to_char(date_trunc('month', now() AT TIME ZONE 'UTC') - make_interval(months => retention_months), 'YYYYMM');
+    part record;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('appointments_partition_maintenance'));
+    FOR part IN SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'appointments'::regclass
+                  AND c.relname ~ '^appointments_p[0-9]{6}$'
+                  AND c.relname < cutoff
+                ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE appointments DETACH PARTITION %I', part.relname);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA appointment_archive', part.relname);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 4. Partitions for every month that has data, plus the next three, then copy the rows over.
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR month_start IN SELECT DISTINCT date_trunc('month', appointment_time)::DATE
+                       FROM appointments_unpartitioned
+    LOOP
+        PERFORM create_appointment_partition(month_start);
+    END LOOP;
+END $$;
+SELECT ensure_appointment_partitions(3);
+
+INSERT INTO appointments SELECT * FROM appointments_unpartitioned;
+DROP TABLE appointments_unpartitioned;
+
+-- 5. Indexes are created on the parent and cascade to every partition, present and future.
+CREATE INDEX idx_appointments_time_id ON appointments(appointment_time, appointment_id);
+CREATE INDEX idx_appointments_patient_time_id ON appointments(patient_id, appointment_time, appointment_id);
+CREATE INDEX idx_appointments_doctor_time_id ON appointments(doctor_id, appointment_time, appointment_id);
+CREATE INDEX idx_appointments_status_time_id ON appointments(status_id, appointment_time, appointment_id);
+
+ANALYZE appointments;
+
+COMMENT ON TABLE appointments IS 'Partitioned by month on appointment_time; maintained by ensure_appointment_partitions / archive_appointment_partitions';
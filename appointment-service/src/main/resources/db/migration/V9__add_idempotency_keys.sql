@@ -0,0 +1,20 @@
+-- Idempotency-Key store for appointment creation.
+-- A key is claimed (IN_PROGRESS) before the booking runs and completed with the response it produced;
+-- retries with the same key replay that response until expires_at. Failed executions delete their claim.
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(300) PRIMARY KEY,  -- operation scope and caller, then the client's key
+    fingerprint CHAR(64) NOT NULL,             -- SHA-256 of the request body
+    status VARCHAR(16) NOT NULL,               -- IN_PROGRESS or COMPLETED
+    response_status INTEGER,
+    response_body TEXT,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Purge of expired keys
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
+
+COMMENT ON TABLE idempotency_keys IS 'Responses of POST requests carrying an Idempotency-Key header, replayed to retries until they expire';
+COMMENT ON COLUMN idempotency_keys.locked_until IS 'Lease of an IN_PROGRESS claim; once past, another instance may take the key over';
@@ -0,0 +1,150 @@
+package com.clinic.appointmentservice.client;
+
+import com.clinic.appointmentservice.client.dto.DoctorResponse;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.RemoteServiceException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DownstreamGuardTest {
+
+    @Mock
+    private DoctorServiceClient doctorServiceClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private DownstreamGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(HttpClientErrorException.class, BulkheadFullException.class)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        guard = new DownstreamGuard(circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    @Test
+    void call_repeatedFailures_openBreakerAndRejectWithoutCalling() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(DownstreamGuard.DOCTOR_SERVICE, () -> {
+                throw new ResourceAccessException("Read timed out");
+            })).isInstanceOf(ResourceAccessException.class);
+        }
+
+        Runnable downstream = mock(Runnable.class);
+        assertThatThrownBy(() -> guard.run(DownstreamGuard.DOCTOR_SERVICE, downstream))
+                .isInstanceOf(CallNotPermittedException.class);
+
+        verifyNoInteractions(downstream);
+        assertThat(circuitBreakerRegistry.circuitBreaker(DownstreamGuard.DOCTOR_SERVICE).getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(rejected(DownstreamGuard.DOCTOR_SERVICE, "circuit-open")).isEqualTo(1);
+        assertThat(guard.call(DownstreamGuard.PATIENT_SERVICE, () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void call_clientErrors_doNotOpenBreaker() {
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> guard.call(DownstreamGuard.DOCTOR_SERVICE, () -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker(DownstreamGuard.DOCTOR_SERVICE).getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void call_bulkheadFull_rejectsImmediately() throws Exception {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slowCall = Thread.ofVirtual().start(() -> guard.run(DownstreamGuard.DOCTOR_SERVICE, () -> {
+            inCall.countDown();
+            await(release);
+        }));
+        assertThat(inCall.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> guard.call(DownstreamGuard.DOCTOR_SERVICE, () -> "never"))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(100));
+
+        release.countDown();
+        slowCall.join();
+        assertThat(rejected(DownstreamGuard.DOCTOR_SERVICE, "bulkhead-full")).isEqualTo(1);
+        assertThat(circuitBreakerRegistry.circuitBreaker(DownstreamGuard.DOCTOR_SERVICE).getMetrics()
+                .getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void doctorSnapshot_doctorServiceUnavailable_servesLastKnownProfile() {
+        AppointmentProperties properties = new AppointmentProperties();
+        properties.setDoctorCacheTtl(Duration.ZERO);
+        DoctorSnapshotCache cache = new DoctorSnapshotCache(doctorServiceClient, properties, meterRegistry);
+        UUID doctorId = UUID.randomUUID();
+        DoctorResponse doctor = new DoctorResponse(doctorId, "Dr. Lan", "City Clinic", "1 Main St", "0900", BigDecimal.TEN);
+        when(doctorServiceClient.getDoctor(doctorId))
+                .thenReturn(doctor)
+                .thenThrow(new RemoteServiceException("Error calling doctor service",
+                        new ResourceAccessException("Read timed out")))
+                .thenThrow(new RemoteServiceException("Doctor not found: " + doctorId));
+
+        assertThat(cache.getDoctor(doctorId)).isSameAs(doctor);
+        assertThat(cache.getDoctor(doctorId)).isSameAs(doctor);
+        assertThat(meterRegistry.get("appointment.doctor.snapshot.stale").tag("kind", "profile").counter().count())
+                .isEqualTo(1);
+        assertThatThrownBy(() -> cache.getDoctor(doctorId)).isInstanceOf(RemoteServiceException.class);
+
+        cache.invalidate(doctorId);
+        doThrow(new RemoteServiceException("Error calling doctor service", new ResourceAccessException("Read timed out")))
+                .when(doctorServiceClient).getDoctor(doctorId);
+        assertThatThrownBy(() -> cache.getDoctor(doctorId)).isInstanceOf(RemoteServiceException.class);
+    }
+
+    private double rejected(String downstream, String reason) {
+        return meterRegistry.get("appointment.downstream.rejected").tag("downstream", downstream).tag("reason", reason)
+                .counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
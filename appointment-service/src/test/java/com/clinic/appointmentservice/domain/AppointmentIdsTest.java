@@ -0,0 +1,38 @@
+package com.clinic.appointmentservice.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentIdsTest {
+
+    @Test
+    void newId_encodesAppointmentMonth() {
+        UUID id = AppointmentIds.newId(LocalDateTime.of(2025, 3, 31, 23, 59, 59));
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(AppointmentIds.monthOf(id)).contains(LocalDateTime.of(2025, 3, 1, 0, 0));
+    }
+
+    @Test
+    void newId_sameTime_isUnique() {
+        LocalDateTime time = LocalDateTime.of(2025, 1, 2, 9, 0);
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(AppointmentIds.newId(time));
+        }
+
+        assertThat(ids).hasSize(10_000);
+    }
+
+    @Test
+    void monthOf_randomId_isEmpty() {
+        assertThat(AppointmentIds.monthOf(UUID.randomUUID())).isEmpty();
+    }
+}
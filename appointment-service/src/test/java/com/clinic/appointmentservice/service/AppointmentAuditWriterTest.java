@@ -0,0 +1,167 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.AppointmentAuditBatchRepository;
+import com.clinic.appointmentservice.repository.AuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentAuditWriterTest {
+
+    @Mock
+    private AppointmentAuditBatchRepository repository;
+    @Mock
+    private EntityManager entityManager;
+    @Captor
+    private ArgumentCaptor<List<AuditEvent>> batches;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentAuditWriter writer;
+
+    private final UUID appointmentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        AppointmentProperties properties = new AppointmentProperties();
+        properties.setAuditBatchSize(3);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new AppointmentAuditWriter(repository, entityManager, properties, meterRegistry,
+                Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void record_insideTransaction_writesBeforeCommitAfterFlushingEntities() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        writer.record(appointmentId, "CREATED", "PATIENT_1", "Checkup");
+        writer.record(appointmentId, "AUTO_CONFIRMED", "SYSTEM", null);
+        when(repository.insertAll(anyList())).thenReturn(2);
+        verifyNoInteractions(repository);
+
+        commit();
+
+        InOrder inOrder = inOrder(entityManager, repository);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(repository).insertAll(batches.capture());
+        assertThat(batches.getValue()).extracting(AuditEvent::action).containsExactly("CREATED", "AUTO_CONFIRMED");
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".written").counter().count()).isEqualTo(2);
+        assertThat(TransactionSynchronizationManager.getResource(writer)).isNull();
+    }
+
+    @Test
+    void record_rolledBack_isDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+        writer.record(appointmentId, "CANCELLED", "PATIENT_1", "Busy");
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(
+                TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(repository);
+        assertThat(TransactionSynchronizationManager.getResource(writer)).isNull();
+    }
+
+    @Test
+    void record_failedWrite_failsTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        writer.record(appointmentId, "CREATED", "PATIENT_1", null);
+        when(repository.insertAll(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(this::commit).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".flush").tag("outcome", "failure")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void record_manyEvents_areWrittenInMultiRowBatchesInOrder() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 5; i++) {
+            writer.record(appointmentId, "STATUS_" + i, "SYSTEM", null);
+        }
+        when(repository.insertAll(anyList())).thenAnswer(invocation -> invocation.<List<AuditEvent>>getArgument(0).size());
+
+        commit();
+
+        verify(repository, times(2)).insertAll(batches.capture());
+        assertThat(batches.getAllValues())
+                .map(batch -> batch.stream().map(AuditEvent::action).toList())
+                .containsExactly(
+                        List.of("STATUS_0", "STATUS_1", "STATUS_2"),
+                        List.of("STATUS_3", "STATUS_4"));
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".written").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".flush").tag("outcome", "success")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void record_outsideTransaction_writesRightAway() {
+        when(repository.insertAll(anyList())).thenReturn(1);
+
+        writer.record(appointmentId, "EXPIRED", "SYSTEM", null);
+
+        verify(repository).insertAll(batches.capture());
+        assertThat(batches.getValue()).extracting(AuditEvent::action).containsExactly("EXPIRED");
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void record_eventsOfMissingAppointments_failTheCommitAndAreCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        writer.record(appointmentId, "CREATED", "PATIENT_1", null);
+        writer.record(UUID.randomUUID(), "CREATED", "PATIENT_2", null);
+        when(repository.insertAll(anyList())).thenReturn(1);
+
+        assertThatThrownBy(this::commit).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".written").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AppointmentAuditWriter.METRIC_PREFIX + ".flush").tag("outcome", "failure")
+                .timer().count()).isEqualTo(1);
+    }
+
+    /**
+     * Runs the synchronizations the way a committing transaction does.
+     */
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        try {
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(
+                    TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+}
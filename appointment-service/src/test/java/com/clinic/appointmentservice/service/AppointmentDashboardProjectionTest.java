@@ -0,0 +1,161 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.AppointmentDashboardRepository;
+import com.clinic.appointmentservice.repository.AppointmentDashboardRepository.RebuildChunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentDashboardProjectionTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 1, 6, 9, 0);
+    private static final LocalDateTime AFTERNOON = LocalDateTime.of(2025, 1, 9, 15, 30);
+
+    @Mock
+    private AppointmentDashboardRepository repository;
+
+    private final MutableClock clock = new MutableClock(NOW, ZoneOffset.UTC);
+    private AppointmentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentDashboardProjection projection;
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        properties.setDashboardBatchSize(10);
+        properties.setDashboardQueueCapacity(10);
+        properties.setDashboardRebuildChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        projection = new AppointmentDashboardProjection(repository, properties, meterRegistry, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onAppointmentChanged_committed_isProjectedAndTimedFromCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        projection.onAppointmentChanged(first, MORNING);
+        assertThat(projection.queueDepth()).isZero();
+
+        clock.set(NOW.plusSeconds(5));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        clock.set(NOW.plusSeconds(7));
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".lag.oldest").gauge().value())
+                .isEqualTo(2.0);
+        projection.flush();
+
+        verify(repository).refresh(Set.of(first), MORNING, MORNING);
+        assertThat(projection.queueDepth()).isZero();
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".lag").timer()
+                .max(TimeUnit.SECONDS)).isEqualTo(2.0);
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".lag.oldest").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void onAppointmentChanged_rolledBack_isDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+        projection.onAppointmentChanged(first, MORNING);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        projection.flush();
+
+        assertThat(TransactionSynchronizationManager.getResource(projection)).isNull();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void flush_appointmentChangedTwice_isProjectedOnceWithPartitionBounds() {
+        projection.onAppointmentChanged(first, MORNING);
+        projection.onAppointmentChanged(second, AFTERNOON);
+        projection.onAppointmentChanged(first, MORNING);
+
+        projection.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).refresh(ids.capture(), eq(MORNING), eq(AFTERNOON));
+        assertThat(ids.getValue()).containsExactly(first, second);
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".projected").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".lag").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void flush_failedRefresh_isRetriedOnNextRun() {
+        projection.onAppointmentChanged(first, MORNING);
+        when(repository.refresh(anyCollection(), any(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        projection.flush();
+        clock.set(NOW.plusSeconds(30));
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".lag.oldest").gauge().value())
+                .isEqualTo(30.0);
+        projection.flush();
+
+        verify(repository, times(2)).refresh(Set.of(first), MORNING, MORNING);
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".refresh")
+                .tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AppointmentDashboardProjection.METRIC_PREFIX + ".projected").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_projectsChunkByChunkThenRemovesUntouchedRows() {
+        OffsetDateTime started = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        RebuildChunk firstChunk = new RebuildChunk(MORNING, first, 2);
+        RebuildChunk lastChunk = new RebuildChunk(AFTERNOON, second, 1);
+        when(repository.now()).thenReturn(started);
+        when(repository.rebuildChunk(null, 2)).thenReturn(firstChunk);
+        when(repository.rebuildChunk(firstChunk, 2)).thenReturn(lastChunk);
+        when(repository.deleteProjectedBefore(started)).thenReturn(4);
+
+        AppointmentDashboardProjection.RebuildResult result = projection.rebuild();
+
+        assertThat(result.projected()).isEqualTo(3);
+        assertThat(result.removed()).isEqualTo(4);
+        verify(repository, times(2)).rebuildChunk(any(), eq(2));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,127 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.dto.AppointmentExportRequest;
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.dto.ExportFormat;
+import com.clinic.appointmentservice.exception.UnsupportedAppointmentStatusException;
+import com.clinic.appointmentservice.repository.AppointmentExportRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentExportServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private AppointmentExportRepository exportRepository;
+
+    // Same date handling as the Spring Boot managed mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private AppointmentExportService exportService;
+
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID medicalRecordId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        exportService = new AppointmentExportService(exportRepository, objectMapper, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void export_ndjson_writesOneObjectPerLine() throws Exception {
+        emitRows(row("Checkup", medicalRecordId), row(null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new AppointmentExportRequest(patientId, null, null, null, null), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("patientId").asText()).isEqualTo(patientId.toString());
+        assertThat(first.get("medicalRecordId").asText()).isEqualTo(medicalRecordId.toString());
+        assertThat(first.get("appointmentTime").asText()).isEqualTo("2024-12-30T09:00:00");
+        assertThat(objectMapper.readTree(lines[1]).get("medicalRecordId").isNull()).isTrue();
+        verify(exportRepository).stream(eq(patientId), isNull(), isNull(), isNull(),
+                eq(LocalDateTime.of(2025, 1, 1, 10, 0)), any());
+    }
+
+    @Test
+    void export_csv_quotesFieldsThatNeedIt() throws Exception {
+        emitRows(row("Cough, \"dry\"\nsince Monday", medicalRecordId));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new AppointmentExportRequest(null, null, "completed", null, null), ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith(AppointmentExportService.CSV_HEADER + "\r\n");
+        assertThat(csv).contains(",\"Cough, \"\"dry\"\"\nsince Monday\",");
+        assertThat(csv).endsWith("," + medicalRecordId + "\r\n");
+        verify(exportRepository).stream(isNull(), isNull(), eq(AppointmentStatusCode.COMPLETED), isNull(), any(), any());
+    }
+
+    @Test
+    void export_csv_neutralisesFormulaLikeText() throws Exception {
+        emitRows(row("=HYPERLINK(\"http://evil.example\",\"x\")", medicalRecordId), row("-2+3", null), row("@SUM(A1)", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(new AppointmentExportRequest(null, null, null, null, null), ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).contains(",\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"x\"\")\",");
+        assertThat(csv).contains(",\"'-2+3\",");
+        assertThat(csv).contains(",\"'@SUM(A1)\",");
+        assertThat(AppointmentExportService.csvField(BigDecimal.valueOf(-5))).isEqualTo("-5");
+    }
+
+    @Test
+    void resolveStatus_unknownStatus_isRejected() {
+        assertThatThrownBy(() -> exportService.resolveStatus(new AppointmentExportRequest(null, null, "lost", null, null)))
+                .isInstanceOf(UnsupportedAppointmentStatusException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void emitRows(AppointmentResponse... rows) {
+        doAnswer(invocation -> {
+            Consumer<AppointmentResponse> sink = invocation.getArgument(5);
+            for (AppointmentResponse row : rows) {
+                sink.accept(row);
+            }
+            return null;
+        }).when(exportRepository).stream(any(), any(), any(), any(), any(), any());
+    }
+
+    private AppointmentResponse row(String notes, UUID medicalRecord) {
+        return new AppointmentResponse(UUID.randomUUID(), patientId, UUID.randomUUID(), "Dr. Smith", "John Doe",
+                "123 Main St", LocalDateTime.of(2024, 12, 30, 9, 0), 30, "COMPLETED", notes, null,
+                BigDecimal.valueOf(500000), BigDecimal.valueOf(50000), BigDecimal.valueOf(550000),
+                Instant.parse("2024-12-01T08:00:00Z"), Instant.parse("2024-12-30T10:00:00Z"), medicalRecord);
+    }
+}
@@ -0,0 +1,138 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.domain.AppointmentStatus;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.domain.MedicalRecord;
+import com.clinic.appointmentservice.dto.AppointmentPage;
+import com.clinic.appointmentservice.dto.AppointmentPageRequest;
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.MedicalRecordRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the listing paths against N+1 loading: every page must be read with a fixed number of statements,
+ * however many rows, statuses and medical records it contains.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.schema-locations=classpath:listing-schema.sql",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AppointmentListingStatementCountTest {
+
+    private static final long MAX_STATEMENTS_PER_PAGE = 1;
+    private static final int APPOINTMENTS = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    private AppointmentService appointmentService;
+    private Statistics statistics;
+
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID doctorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-20T00:00:00Z"), ZoneOffset.UTC);
+        appointmentService = new AppointmentService(appointmentRepository, null, null, null, null, null, null, null, null, null,
+                null, null, medicalRecordRepository, new AppointmentProperties(), clock);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<AppointmentStatusCode, AppointmentStatus> statuses = new EnumMap<>(AppointmentStatusCode.class);
+        for (AppointmentStatusCode code : AppointmentStatusCode.values()) {
+            statuses.put(code, entityManager.persist(new AppointmentStatus(code, code.name())));
+        }
+        AppointmentStatusCode[] codes = AppointmentStatusCode.values();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = Appointment.create(LocalDateTime.of(2025, 1, 1, 8, 0).plusHours(12L * i));
+            appointment.setPatientId(patientId);
+            appointment.setDoctorId(doctorId);
+            appointment.setDurationMinutes(30);
+            appointment.setStatus(statuses.get(codes[i % codes.length]));
+            entityManager.persist(appointment);
+            if (i % 2 == 0) {
+                MedicalRecord record = new MedicalRecord();
+                record.setAppointmentId(appointment.getId());
+                record.setDiagnosis("Diagnosis " + i);
+                entityManager.persist(record);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void patientListing_readsPageInOneStatement() {
+        AppointmentPage page = appointmentService.getAppointmentsByPatient(patientId,
+                new AppointmentPageRequest(null, null, null, null, 25));
+
+        assertThat(page.data()).hasSize(25);
+        assertThat(page.data()).extracting(AppointmentResponse::status).containsAll(
+                Arrays.stream(AppointmentStatusCode.values()).map(Enum::name).toList());
+        assertThat(page.data()).filteredOn(row -> row.medicalRecordId() != null).hasSize(13);
+        assertStatementsAtMost(MAX_STATEMENTS_PER_PAGE);
+
+        statistics.clear();
+        AppointmentPage next = appointmentService.getAppointmentsByPatient(patientId,
+                new AppointmentPageRequest(null, null, null, page.nextCursor(), 25));
+
+        assertThat(next.data()).hasSize(APPOINTMENTS - 25);
+        assertThat(next.nextCursor()).isNull();
+        assertStatementsAtMost(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void filteredHistory_readsPageInOneStatement() {
+        AppointmentPage page = appointmentService.getAppointmentHistoryByPatient(patientId,
+                new AppointmentPageRequest("completed", null, null, null, 50));
+
+        assertThat(page.data()).isNotEmpty().allSatisfy(row -> {
+            assertThat(row.status()).isEqualTo("COMPLETED");
+            assertThat(row.appointmentTime()).isBefore(LocalDateTime.of(2025, 1, 20, 0, 0));
+        });
+        assertStatementsAtMost(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void doctorListing_readsPageInOneStatement() {
+        appointmentService.getAppointmentsByDoctor(doctorId, new AppointmentPageRequest(null, null, null, null, 40));
+
+        assertStatementsAtMost(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    private void assertStatementsAtMost(long max) {
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements issued by one listing page")
+                .isLessThanOrEqualTo(max);
+    }
+}
@@ -0,0 +1,188 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.domain.AppointmentStatus;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.repository.AppointmentReminder;
+import com.clinic.appointmentservice.repository.AppointmentReminderRepository;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.ReminderTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentReminderSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final LocalDateTime APPOINTMENT_TIME = LocalDateTime.of(2025, 1, 1, 11, 15);
+    private static final Instant FIRE_AT = Instant.parse("2025-01-01T10:15:00Z");
+    private static final Instant FIRE_WINDOW = Instant.parse("2025-01-01T10:10:00Z");
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private AppointmentReminderRepository reminderRepository;
+    @Mock
+    private NotificationOutbox notificationOutbox;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(NOW, ZoneOffset.UTC);
+    private final ReminderTarget target = new ReminderTarget(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+            APPOINTMENT_TIME);
+    private AppointmentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        properties.setReminderLeadTimes(List.of(Duration.ofHours(1)));
+        properties.setReminderWindow(Duration.ofMinutes(10));
+        properties.setReminderLookahead(Duration.ofMinutes(30));
+        properties.setReminderCatchUp(Duration.ofMinutes(20));
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new AppointmentReminderScheduler(appointmentRepository, reminderRepository, notificationOutbox,
+                transactionManager, properties, meterRegistry, clock);
+
+        lenient().when(reminderRepository.claimWindow(any(), anyString(), any(), any())).thenReturn(true);
+        // The reminder fires at 10:15, so only the 10:10 window's query covers the appointment.
+        lenient().when(appointmentRepository.findReminderTargets(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(0);
+            LocalDateTime to = invocation.getArgument(1);
+            return !APPOINTMENT_TIME.isBefore(from) && APPOINTMENT_TIME.isBefore(to) ? List.of(target) : List.of();
+        });
+    }
+
+    @Test
+    void fireDue_queuesReminderOnceItsTimeComes() {
+        scheduler.maintainWindows();
+        assertThat(scheduler.pending()).isEqualTo(1);
+        verify(reminderRepository, times(6)).claimWindow(any(), anyString(), eq(NOW), eq(NOW.plus(Duration.ofMinutes(1))));
+
+        clock.set(FIRE_AT.minusSeconds(1));
+        scheduler.fireDue();
+        verifyNoInteractions(notificationOutbox);
+
+        AppointmentReminder reminder = new AppointmentReminder(target.appointmentId(), 60, APPOINTMENT_TIME);
+        when(appointmentRepository.findReminderTargetsByIds(Set.of(target.appointmentId()), APPOINTMENT_TIME,
+                APPOINTMENT_TIME)).thenReturn(List.of(target));
+        when(reminderRepository.markSent(List.of(reminder))).thenReturn(Set.of(reminder));
+        clock.set(FIRE_AT);
+        scheduler.fireDue();
+
+        verify(notificationOutbox).enqueue(argThat(notification ->
+                notification.appointmentId().equals(target.appointmentId())
+                        && notification.message().equals("Reminder: your appointment on 2025-01-01 11:15 starts in 1 hour.")));
+        assertThat(scheduler.pending()).isZero();
+        assertThat(meterRegistry.get("appointment.reminder.queued").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fireDue_clockOutsideUtc_readsAppointmentTimesInItsZone() {
+        MutableClock bangkok = new MutableClock(NOW, ZoneOffset.ofHours(7));
+        // 18:15 in Bangkok is 11:15 UTC, so the T-1h reminder fires at 10:15 UTC like in the other tests.
+        LocalDateTime appointmentTime = LocalDateTime.of(2025, 1, 1, 18, 15);
+        ReminderTarget local = new ReminderTarget(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                appointmentTime);
+        doAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(0);
+            LocalDateTime to = invocation.getArgument(1);
+            return !appointmentTime.isBefore(from) && appointmentTime.isBefore(to) ? List.of(local) : List.of();
+        }).when(appointmentRepository).findReminderTargets(any(), any());
+        scheduler = new AppointmentReminderScheduler(appointmentRepository, reminderRepository, notificationOutbox,
+                transactionManager, properties, meterRegistry, bangkok);
+
+        scheduler.maintainWindows();
+        assertThat(scheduler.pending()).isEqualTo(1);
+
+        bangkok.set(FIRE_AT.minusSeconds(1));
+        scheduler.fireDue();
+        verifyNoInteractions(notificationOutbox);
+
+        AppointmentReminder reminder = new AppointmentReminder(local.appointmentId(), 60, appointmentTime);
+        when(appointmentRepository.findReminderTargetsByIds(Set.of(local.appointmentId()), appointmentTime,
+                appointmentTime)).thenReturn(List.of(local));
+        when(reminderRepository.markSent(List.of(reminder))).thenReturn(Set.of(reminder));
+        bangkok.set(FIRE_AT);
+        scheduler.fireDue();
+
+        verify(notificationOutbox).enqueue(argThat(notification ->
+                notification.message().equals("Reminder: your appointment on 2025-01-01 18:15 starts in 1 hour.")));
+    }
+
+    @Test
+    void fireDue_appointmentMovedElsewhere_skipsStaleReminder() {
+        scheduler.maintainWindows();
+        when(appointmentRepository.findReminderTargetsByIds(anyCollection(), any(), any())).thenReturn(List.of());
+        when(reminderRepository.markSent(List.of())).thenReturn(Set.of());
+
+        clock.set(FIRE_AT);
+        scheduler.fireDue();
+
+        verifyNoInteractions(notificationOutbox);
+        assertThat(meterRegistry.get("appointment.reminder.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onAppointmentChanged_cancelledAndReconfirmed_updatesWheelImmediately() {
+        scheduler.maintainWindows();
+        Appointment appointment = Appointment.create(APPOINTMENT_TIME);
+        appointment.setId(target.appointmentId());
+        appointment.setPatientId(target.patientId());
+        appointment.setDoctorId(target.doctorId());
+        appointment.setStatus(new AppointmentStatus(AppointmentStatusCode.CANCELLED, "CANCELLED"));
+
+        scheduler.onAppointmentChanged(appointment);
+        assertThat(scheduler.pending()).isZero();
+
+        appointment.setStatus(new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "CONFIRMED"));
+        scheduler.onAppointmentChanged(appointment);
+        assertThat(scheduler.pending()).isEqualTo(1);
+
+        // Moved to a time whose reminder falls in a window this instance has not loaded.
+        appointment.setAppointmentTime(APPOINTMENT_TIME.plusDays(1));
+        scheduler.onAppointmentChanged(appointment);
+        assertThat(scheduler.pending()).isZero();
+    }
+
+    @Test
+    void maintainWindows_lostLease_dropsWindowAndCompletesFinishedOnes() {
+        scheduler.maintainWindows();
+        assertThat(scheduler.pending()).isEqualTo(1);
+
+        when(reminderRepository.claimWindow(eq(FIRE_WINDOW), anyString(), any(), any())).thenReturn(false);
+        clock.set(NOW.plusSeconds(20));
+        scheduler.maintainWindows();
+
+        assertThat(scheduler.pending()).isZero();
+        // The windows that ended before 10:00 were loaded empty on the first run, so they are done now.
+        verify(reminderRepository).completeWindow(eq(Instant.parse("2025-01-01T09:40:00Z")), anyString(), any());
+        verify(reminderRepository).completeWindow(eq(Instant.parse("2025-01-01T09:50:00Z")), anyString(), any());
+        verify(reminderRepository, never()).completeWindow(eq(NOW), anyString(), any());
+        verify(reminderRepository, never()).markSent(anyList());
+    }
+}
@@ -1,41 +1,76 @@
 package com.clinic.appointmentservice.service;
 
 import com.clinic.appointmentservice.client.DoctorServiceClient;
-import com.clinic.appointmentservice.client.NotificationServiceClient;
+import com.clinic.appointmentservice.client.DoctorSnapshotCache;
 import com.clinic.appointmentservice.client.PatientServiceClient;
 import com.clinic.appointmentservice.client.PlatformSettingsClient;
 import com.clinic.appointmentservice.client.dto.DoctorAvailability;
 import com.clinic.appointmentservice.client.dto.DoctorResponse;
+import com.clinic.appointmentservice.client.dto.DoctorScheduleResponse;
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
 import com.clinic.appointmentservice.client.dto.PatientProfile;
 import com.clinic.appointmentservice.config.AppointmentProperties;
 import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.domain.AppointmentIds;
 import com.clinic.appointmentservice.domain.AppointmentStatus;
 import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.dto.AppointmentPage;
+import com.clinic.appointmentservice.dto.AppointmentPageRequest;
+import com.clinic.appointmentservice.dto.BulkAppointmentRequest;
+import com.clinic.appointmentservice.dto.BulkAppointmentResponse;
+import com.clinic.appointmentservice.dto.BulkStatusUpdateRequest;
+import com.clinic.appointmentservice.dto.BulkStatusUpdateResponse;
 import com.clinic.appointmentservice.dto.CancelAppointmentRequest;
 import com.clinic.appointmentservice.dto.CreateAppointmentRequest;
+import com.clinic.appointmentservice.dto.RecurrenceRule;
 import com.clinic.appointmentservice.dto.RequesterRole;
 import com.clinic.appointmentservice.dto.UpdateAppointmentStatusRequest;
+import com.clinic.appointmentservice.exception.AppointmentConflictException;
 import com.clinic.appointmentservice.exception.CancellationNotAllowedException;
 import com.clinic.appointmentservice.exception.InvalidAppointmentStateException;
-import com.clinic.appointmentservice.exception.RemoteServiceException;
-import com.clinic.appointmentservice.repository.AppointmentAuditRepository;
+import com.clinic.appointmentservice.exception.DoctorUnavailableException;
+import com.clinic.appointmentservice.exception.InvalidBulkBookingException;
+import com.clinic.appointmentservice.exception.InvalidBulkStatusUpdateException;
+import com.clinic.appointmentservice.exception.InvalidCursorException;
+import com.clinic.appointmentservice.exception.PatientInactiveException;
+import com.clinic.appointmentservice.exception.SlotBookingInProgressException;
+import com.clinic.appointmentservice.exception.SlotHeldForWaitlistException;
+import com.clinic.appointmentservice.repository.AppointmentListRow;
 import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.BookedInterval;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.*;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,7 +81,7 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentStatusService appointmentStatusService;
     @Mock
-    private AppointmentAuditRepository appointmentAuditRepository;
+    private AppointmentAuditWriter appointmentAuditWriter;
     @Mock
     private PatientServiceClient patientServiceClient;
     @Mock
@@ -54,12 +89,25 @@ class AppointmentServiceTest {
     @Mock
     private PlatformSettingsClient platformSettingsClient;
     @Mock
-    private NotificationServiceClient notificationServiceClient;
+    private NotificationOutbox notificationOutbox;
+    @Mock
+    private BookingSlotLocks bookingSlotLocks;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private AppointmentReminderScheduler appointmentReminderScheduler;
+    @Mock
+    private AppointmentDashboardProjection appointmentDashboardProjection;
+    @Mock
+    private WaitlistOfferEngine waitlistOfferEngine;
+    @Mock
+    private WaitlistRepository waitlistRepository;
     @Mock
     private com.clinic.appointmentservice.repository.MedicalRecordRepository medicalRecordRepository;
 
     private AppointmentProperties appointmentProperties;
     private Clock fixedClock;
+    private ExecutorService bookingLookupExecutor;
 
     @InjectMocks
     private AppointmentService appointmentService;
@@ -73,20 +121,41 @@ class AppointmentServiceTest {
         appointmentProperties = new AppointmentProperties();
         appointmentProperties.setCancellationCutoffHours(24);
         fixedClock = Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC);
-        appointmentService = new AppointmentService(
-                appointmentRepository,
-                appointmentStatusService,
-                appointmentAuditRepository,
+        bookingLookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingValidationPipeline bookingValidationPipeline = new BookingValidationPipeline(
                 patientServiceClient,
                 doctorServiceClient,
+                new DoctorSnapshotCache(doctorServiceClient, appointmentProperties, meterRegistry),
                 platformSettingsClient,
-                notificationServiceClient,
+                bookingLookupExecutor,
+                meterRegistry,
+                appointmentProperties
+        );
+        appointmentService = new AppointmentService(
+                appointmentRepository,
+                appointmentStatusService,
+                appointmentAuditWriter,
+                bookingValidationPipeline,
+                new BookingIntervalIndex(appointmentRepository, fixedClock),
+                bookingSlotLocks,
+                new AppointmentTransitionExecutor(transactionManager, appointmentProperties, meterRegistry),
+                notificationOutbox,
+                appointmentReminderScheduler,
+                appointmentDashboardProjection,
+                waitlistOfferEngine,
+                waitlistRepository,
                 medicalRecordRepository,
                 appointmentProperties,
                 fixedClock
         );
     }
 
+    @AfterEach
+    void tearDown() {
+        bookingLookupExecutor.shutdownNow();
+    }
+
     @Test
     void createAppointment_autoConfirm_setsConfirmedStatus() {
         CreateAppointmentRequest request = new CreateAppointmentRequest();
@@ -100,12 +169,12 @@ class AppointmentServiceTest {
         when(doctorServiceClient.verifyAvailability(doctorId, request.getAppointmentTime(), 30))
                 .thenReturn(new DoctorAvailability(doctorId, true, true));
         when(doctorServiceClient.getDoctor(doctorId)).thenReturn(new DoctorResponse(doctorId, "Dr. Smith", "General Hospital", "123 Main St", "555-1234", BigDecimal.valueOf(500000)));
-        when(platformSettingsClient.calculateServiceFee(any())).thenReturn(BigDecimal.valueOf(50000));
+        when(platformSettingsClient.currentSettings()).thenReturn(
+                new PlatformSettingsClient.SettingsSnapshot(BigDecimal.TEN, 7L, "\"7\"", Instant.parse("2025-01-01T09:59:00Z")));
 
         AppointmentStatus confirmedStatus = new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "Confirmed");
         when(appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED)).thenReturn(confirmedStatus);
 
-        when(appointmentRepository.existsByDoctorIdAndAppointmentTime(doctorId, request.getAppointmentTime())).thenReturn(false);
         when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
             Appointment entity = invocation.getArgument(0);
             ReflectionTestUtils.setField(entity, "id", appointmentId);
@@ -117,12 +186,14 @@ class AppointmentServiceTest {
         var response = appointmentService.createAppointment(request);
 
         assertThat(response.status()).isEqualTo("CONFIRMED");
-        verify(notificationServiceClient, times(1)).sendNotification(any());
-        verify(appointmentAuditRepository, times(2)).save(any());
+        assertThat(response.serviceFee()).isEqualByComparingTo("50000");
+        verify(notificationOutbox, times(1)).enqueue(any());
+        verify(appointmentAuditWriter).record(appointmentId, "CREATED", "PATIENT_" + patientId, "Checkup");
+        verify(appointmentAuditWriter).record(appointmentId, "AUTO_CONFIRMED", "SYSTEM", null);
     }
 
     @Test
-    void createAppointment_notificationFailure_doesNotRollback() {
+    void createAppointment_enqueuesNotificationInsteadOfSending() {
         CreateAppointmentRequest request = new CreateAppointmentRequest();
         request.setPatientId(patientId);
         request.setDoctorId(doctorId);
@@ -133,12 +204,12 @@ class AppointmentServiceTest {
         when(doctorServiceClient.verifyAvailability(doctorId, request.getAppointmentTime(), 30))
                 .thenReturn(new DoctorAvailability(doctorId, true, true));
         when(doctorServiceClient.getDoctor(doctorId)).thenReturn(new DoctorResponse(doctorId, "Dr. Smith", "General Hospital", "123 Main St", "555-1234", BigDecimal.valueOf(500000)));
-        when(platformSettingsClient.calculateServiceFee(any())).thenReturn(BigDecimal.valueOf(50000));
+        when(platformSettingsClient.currentSettings()).thenReturn(
+                new PlatformSettingsClient.SettingsSnapshot(BigDecimal.TEN, 7L, "\"7\"", Instant.parse("2025-01-01T09:59:00Z")));
 
         AppointmentStatus confirmedStatus = new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "Confirmed");
         when(appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED)).thenReturn(confirmedStatus);
 
-        when(appointmentRepository.existsByDoctorIdAndAppointmentTime(doctorId, request.getAppointmentTime())).thenReturn(false);
         when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
             Appointment entity = invocation.getArgument(0);
             ReflectionTestUtils.setField(entity, "id", appointmentId);
@@ -147,22 +218,281 @@ class AppointmentServiceTest {
             return entity;
         });
 
-        doThrow(new RemoteServiceException("downstream unreachable"))
-                .when(notificationServiceClient)
-                .sendNotification(any());
-
         var response = appointmentService.createAppointment(request);
 
         assertThat(response.status()).isEqualTo("CONFIRMED");
-        verify(appointmentRepository, times(1)).save(any(Appointment.class));
-        verify(appointmentAuditRepository, times(2)).save(any());
-        verify(notificationServiceClient, times(1)).sendNotification(any());
+        ArgumentCaptor<NotificationRequest> notification = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationOutbox, times(1)).enqueue(notification.capture());
+        assertThat(notification.getValue().appointmentId()).isEqualTo(appointmentId);
+        assertThat(notification.getValue().patientId()).isEqualTo(patientId);
+        assertThat(notification.getValue().message()).contains("has been confirmed");
+    }
+
+    @Test
+    void createAppointment_inactivePatient_failsBeforePersisting() {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setAppointmentTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        request.setDurationMinutes(30);
+
+        when(patientServiceClient.getPatient(patientId)).thenReturn(new PatientProfile(patientId, "John", "Doe", false, "LOCKED"));
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(request))
+                .isInstanceOf(PatientInactiveException.class);
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(notificationOutbox, never()).enqueue(any());
+    }
+
+    @Test
+    void createAppointment_slotBeingBooked_failsBeforeRemoteLookups() {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setAppointmentTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        request.setDurationMinutes(30);
+
+        doThrow(new SlotBookingInProgressException(doctorId, request.getAppointmentTime()))
+                .when(bookingSlotLocks).lock(doctorId, request.getAppointmentTime(), 30);
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(request))
+                .isInstanceOf(SlotBookingInProgressException.class);
+
+        verifyNoInteractions(patientServiceClient, doctorServiceClient, platformSettingsClient);
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    void createAppointment_slotBookedByAnotherInstance_failsBeforeRemoteLookups() {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setAppointmentTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        request.setDurationMinutes(30);
+
+        when(appointmentRepository.existsOverlappingBooking(doctorId, request.getAppointmentTime(),
+                request.getAppointmentTime().plusMinutes(30))).thenReturn(true);
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(request))
+                .isInstanceOf(AppointmentConflictException.class);
+
+        verifyNoInteractions(patientServiceClient, doctorServiceClient, platformSettingsClient);
+    }
+
+    @Test
+    void createAppointment_slotHeldForWaitlistedPatient_failsBeforeRemoteLookups() {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setAppointmentTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        request.setDurationMinutes(30);
+
+        LocalDateTime heldUntil = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(waitlistRepository.findHeldSlots(eq(doctorId), any(), eq(request.getAppointmentTime().plusMinutes(30)),
+                eq(LocalDateTime.of(2025, 1, 1, 10, 0)))).thenReturn(List.of(new WaitlistOffer(UUID.randomUUID(),
+                UUID.randomUUID(), UUID.randomUUID(), doctorId, UUID.randomUUID(), LocalDateTime.of(2025, 1, 2, 8, 45),
+                30, WaitlistOffer.Status.OPEN, heldUntil, LocalDateTime.of(2025, 1, 1, 10, 0))));
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(request))
+                .isInstanceOf(SlotHeldForWaitlistException.class)
+                .hasMessageContaining(heldUntil.toString());
+
+        verifyNoInteractions(patientServiceClient, doctorServiceClient, platformSettingsClient);
+    }
+
+    @Test
+    void createAppointment_slotHeldForTheBookingPatient_isNotRejectedByTheHold() {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setAppointmentTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        request.setDurationMinutes(30);
+
+        when(waitlistRepository.findHeldSlots(eq(doctorId), any(), any(), any())).thenReturn(List.of(
+                new WaitlistOffer(UUID.randomUUID(), UUID.randomUUID(), patientId, doctorId, UUID.randomUUID(),
+                        request.getAppointmentTime(), 30, WaitlistOffer.Status.OPEN,
+                        LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 1, 10, 0))));
+        when(patientServiceClient.getPatient(patientId)).thenReturn(new PatientProfile(patientId, "John", "Doe", false, "LOCKED"));
+
+        // Gets past the slot checks to the patient lookup instead of failing on its own hold.
+        assertThatThrownBy(() -> appointmentService.createAppointment(request))
+                .isInstanceOf(PatientInactiveException.class);
+    }
+
+    @Test
+    void createAppointments_mixedSlots_looksUpOnceChecksEachDayAndReportsEachSlot() {
+        LocalDateTime past = LocalDateTime.of(2025, 1, 1, 9, 0);
+        LocalDateTime thursday = LocalDateTime.of(2025, 1, 2, 9, 0);
+        LocalDateTime saturday = LocalDateTime.of(2025, 1, 4, 9, 0);
+        LocalDateTime taken = LocalDateTime.of(2025, 1, 9, 9, 0);
+        LocalDateTime nextThursday = LocalDateTime.of(2025, 1, 16, 9, 0);
+        BulkAppointmentRequest request = new BulkAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setDurationMinutes(30);
+        request.setSlots(List.of(nextThursday, saturday, past, taken, thursday, thursday));
+
+        when(patientServiceClient.getPatient(patientId)).thenReturn(new PatientProfile(patientId, "John", "Doe", true, "ACTIVE"));
+        when(doctorServiceClient.verifyAvailability(eq(doctorId), any(), eq(30)))
+                .thenReturn(new DoctorAvailability(doctorId, true, true));
+        when(doctorServiceClient.getDoctorSchedules(doctorId)).thenReturn(List.of(
+                new DoctorScheduleResponse(DayOfWeek.THURSDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true)));
+        when(doctorServiceClient.getDoctor(doctorId)).thenReturn(new DoctorResponse(doctorId, "Dr. Smith", "General Hospital", "123 Main St", "555-1234", BigDecimal.valueOf(500000)));
+        when(platformSettingsClient.currentSettings()).thenReturn(
+                new PlatformSettingsClient.SettingsSnapshot(BigDecimal.TEN, 7L, "\"7\"", Instant.parse("2025-01-01T09:59:00Z")));
+        when(appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED))
+                .thenReturn(new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "Confirmed"));
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any()))
+                .thenReturn(List.of(new BookedInterval(UUID.randomUUID(), taken.plusMinutes(15), 30)));
+        when(appointmentRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Appointment> entities = invocation.getArgument(0);
+            entities.forEach(entity -> {
+                ReflectionTestUtils.setField(entity, "createdAt", Instant.parse("2025-01-01T10:00:00Z"));
+                ReflectionTestUtils.setField(entity, "updatedAt", Instant.parse("2025-01-01T10:00:00Z"));
+            });
+            return entities;
+        });
+
+        BulkAppointmentResponse response = appointmentService.createAppointments(request);
+
+        assertThat(response.booked()).isEqualTo(2);
+        assertThat(response.rejected()).isEqualTo(3);
+        assertThat(response.results())
+                .extracting(BulkAppointmentResponse.SlotResult::appointmentTime, BulkAppointmentResponse.SlotResult::outcome)
+                .containsExactly(
+                        tuple(past, BulkAppointmentResponse.Outcome.IN_PAST),
+                        tuple(thursday, BulkAppointmentResponse.Outcome.BOOKED),
+                        tuple(saturday, BulkAppointmentResponse.Outcome.OUTSIDE_SCHEDULE),
+                        tuple(taken, BulkAppointmentResponse.Outcome.CONFLICT),
+                        tuple(nextThursday, BulkAppointmentResponse.Outcome.BOOKED));
+        assertThat(response.results().get(1).appointment().status()).isEqualTo("CONFIRMED");
+
+        verify(patientServiceClient, times(1)).getPatient(patientId);
+        verify(doctorServiceClient).verifyAvailability(doctorId, thursday, 30);
+        verify(doctorServiceClient).verifyAvailability(doctorId, taken, 30);
+        verify(doctorServiceClient).verifyAvailability(doctorId, nextThursday, 30);
+        verify(doctorServiceClient, never()).verifyAvailability(doctorId, saturday, 30);
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(appointmentAuditWriter, times(2)).record(any(), eq("CREATED"), any(), any());
+        verify(appointmentAuditWriter, times(2)).record(any(), eq("AUTO_CONFIRMED"), any(), any());
+        verify(notificationOutbox, times(1)).enqueue(any());
+    }
+
+    @Test
+    void createAppointments_slotBookedByAnotherInstance_isReportedAsConflict() {
+        LocalDateTime thursday = LocalDateTime.of(2025, 1, 2, 9, 0);
+        LocalDateTime nextThursday = LocalDateTime.of(2025, 1, 9, 9, 0);
+        BulkAppointmentRequest request = bulkRequest(thursday, nextThursday);
+        stubBulkLookups();
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any()))
+                .thenReturn(List.of(new BookedInterval(UUID.randomUUID(), nextThursday.minusMinutes(15), 30)));
+        when(appointmentRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Appointment> entities = invocation.getArgument(0);
+            entities.forEach(entity -> {
+                ReflectionTestUtils.setField(entity, "createdAt", Instant.parse("2025-01-01T10:00:00Z"));
+                ReflectionTestUtils.setField(entity, "updatedAt", Instant.parse("2025-01-01T10:00:00Z"));
+            });
+            return entities;
+        });
+
+        BulkAppointmentResponse response = appointmentService.createAppointments(request);
+
+        assertThat(response.results())
+                .extracting(BulkAppointmentResponse.SlotResult::appointmentTime, BulkAppointmentResponse.SlotResult::outcome)
+                .containsExactly(
+                        tuple(thursday, BulkAppointmentResponse.Outcome.BOOKED),
+                        tuple(nextThursday, BulkAppointmentResponse.Outcome.CONFLICT));
+        verify(appointmentRepository).saveAllAndFlush(argThat(entities -> entities.spliterator().getExactSizeIfKnown() == 1));
+        verify(appointmentRepository).findBookedIntervals(doctorId, thursday.minusDays(1), nextThursday.plusMinutes(30));
+        verify(appointmentRepository, never()).existsOverlappingBooking(any(), any(), any());
+    }
+
+    @Test
+    void createAppointments_concurrentInsertViolatesConstraint_rejectsSeriesWithoutFailing() {
+        LocalDateTime thursday = LocalDateTime.of(2025, 1, 2, 9, 0);
+        LocalDateTime nextThursday = LocalDateTime.of(2025, 1, 9, 9, 0);
+        BulkAppointmentRequest request = bulkRequest(thursday, nextThursday);
+        stubBulkLookups();
+        when(appointmentRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("no_overlapping_appointments"));
+
+        BulkAppointmentResponse response = appointmentService.createAppointments(request);
+
+        assertThat(response.booked()).isZero();
+        assertThat(response.results())
+                .extracting(BulkAppointmentResponse.SlotResult::outcome)
+                .containsOnly(BulkAppointmentResponse.Outcome.CONFLICT);
+        verifyNoInteractions(appointmentAuditWriter, notificationOutbox, appointmentReminderScheduler);
+    }
+
+    @Test
+    void createAppointments_availabilityDiffersByDay_appliesEachDaysAnswer() {
+        LocalDateTime thursday = LocalDateTime.of(2025, 1, 2, 9, 0);
+        LocalDateTime thursdayLater = LocalDateTime.of(2025, 1, 2, 10, 0);
+        LocalDateTime nextThursday = LocalDateTime.of(2025, 1, 9, 9, 0);
+        LocalDateTime thirdThursday = LocalDateTime.of(2025, 1, 16, 9, 0);
+        BulkAppointmentRequest request = bulkRequest(thursday, thursdayLater, nextThursday, thirdThursday);
+        request.setDurationMinutes(null);
+        stubBulkLookups();
+        when(doctorServiceClient.verifyAvailability(doctorId, nextThursday, 30))
+                .thenReturn(new DoctorAvailability(doctorId, true, false));
+        when(doctorServiceClient.verifyAvailability(doctorId, thirdThursday, 30))
+                .thenThrow(new DoctorUnavailableException(doctorId));
+        when(appointmentStatusService.getStatus(AppointmentStatusCode.PENDING))
+                .thenReturn(new AppointmentStatus(AppointmentStatusCode.PENDING, "Pending"));
+        when(appointmentRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Appointment> entities = invocation.getArgument(0);
+            entities.forEach(entity -> {
+                ReflectionTestUtils.setField(entity, "createdAt", Instant.parse("2025-01-01T10:00:00Z"));
+                ReflectionTestUtils.setField(entity, "updatedAt", Instant.parse("2025-01-01T10:00:00Z"));
+            });
+            return entities;
+        });
+
+        BulkAppointmentResponse response = appointmentService.createAppointments(request);
+
+        assertThat(response.results())
+                .extracting(BulkAppointmentResponse.SlotResult::appointmentTime, BulkAppointmentResponse.SlotResult::outcome)
+                .containsExactly(
+                        tuple(thursday, BulkAppointmentResponse.Outcome.BOOKED),
+                        tuple(thursdayLater, BulkAppointmentResponse.Outcome.BOOKED),
+                        tuple(nextThursday, BulkAppointmentResponse.Outcome.BOOKED),
+                        tuple(thirdThursday, BulkAppointmentResponse.Outcome.UNAVAILABLE));
+        assertThat(response.results().subList(0, 3))
+                .extracting(result -> result.appointment().status())
+                .containsExactly("CONFIRMED", "CONFIRMED", "PENDING");
+        assertThat(response.results().get(0).appointment().durationMinutes()).isEqualTo(30);
+        verify(doctorServiceClient, never()).verifyAvailability(doctorId, thursdayLater, 30);
+        verify(appointmentAuditWriter, times(2)).record(any(), eq("AUTO_CONFIRMED"), any(), any());
+    }
+
+    @Test
+    void createAppointments_weeklyRecurrence_expandsUntilCap() {
+        appointmentProperties.setBulkMaxSlots(4);
+        RecurrenceRule rule = new RecurrenceRule();
+        rule.setStart(LocalDateTime.of(2025, 1, 2, 9, 0));
+        rule.setFrequency(RecurrenceRule.Frequency.WEEKLY);
+        rule.setUntil(LocalDateTime.of(2025, 3, 1, 0, 0));
+        BulkAppointmentRequest request = new BulkAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setRecurrence(rule);
+
+        assertThatThrownBy(() -> appointmentService.createAppointments(request))
+                .isInstanceOf(InvalidBulkBookingException.class)
+                .hasMessageContaining("at most 4");
+
+        request.setSlots(List.of(LocalDateTime.of(2025, 1, 2, 9, 0)));
+        assertThatThrownBy(() -> appointmentService.createAppointments(request))
+                .isInstanceOf(InvalidBulkBookingException.class);
+        verifyNoInteractions(patientServiceClient, appointmentRepository);
     }
 
     @Test
     void cancelAppointment_afterCutoff_throwsException() {
         Appointment appointment = buildAppointment(patientId, doctorId, AppointmentStatusCode.PENDING, LocalDateTime.of(2025, 1, 1, 12, 0));
-        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByAppointmentId(appointmentId)).thenReturn(Optional.of(appointment));
 
         CancelAppointmentRequest request = new CancelAppointmentRequest();
         request.setRequesterId(patientId);
@@ -172,13 +502,57 @@ class AppointmentServiceTest {
         assertThatThrownBy(() -> appointmentService.cancelAppointment(appointmentId, request))
                 .isInstanceOf(CancellationNotAllowedException.class);
 
-        verify(notificationServiceClient, never()).sendNotification(any());
+        verify(notificationOutbox, never()).enqueue(any());
+    }
+
+    @Test
+    void cancelAppointment_lostVersionCheck_rereadsAndRevalidates() {
+        Appointment stale = buildAppointment(patientId, doctorId, AppointmentStatusCode.CONFIRMED, LocalDateTime.of(2025, 1, 3, 9, 0));
+        Appointment cancelledMeanwhile = buildAppointment(patientId, doctorId, AppointmentStatusCode.CANCELLED, LocalDateTime.of(2025, 1, 3, 9, 0));
+        when(appointmentRepository.findByAppointmentId(appointmentId))
+                .thenReturn(Optional.of(stale), Optional.of(cancelledMeanwhile));
+        when(appointmentStatusService.getStatus(AppointmentStatusCode.CANCELLED))
+                .thenReturn(new AppointmentStatus(AppointmentStatusCode.CANCELLED, "Cancelled"));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId))
+                .when(transactionManager).commit(any());
+        appointmentProperties.setTransitionRetryBackoff(Duration.ZERO);
+
+        CancelAppointmentRequest request = new CancelAppointmentRequest();
+        request.setRequesterId(patientId);
+        request.setRequesterRole(RequesterRole.PATIENT);
+        request.setReason("Busy");
+
+        assertThatThrownBy(() -> appointmentService.cancelAppointment(appointmentId, request))
+                .isInstanceOf(InvalidAppointmentStateException.class);
+
+        verify(appointmentRepository, times(2)).findByAppointmentId(appointmentId);
+        verify(appointmentRepository, times(1)).save(any(Appointment.class));
+    }
+
+    @Test
+    void cancelAppointment_beforeCutoff_handsSlotToWaitlist() {
+        LocalDateTime time = LocalDateTime.of(2025, 1, 3, 9, 0);
+        Appointment appointment = buildAppointment(patientId, doctorId, AppointmentStatusCode.CONFIRMED, time);
+        when(appointmentRepository.findByAppointmentId(appointmentId)).thenReturn(Optional.of(appointment));
+        when(appointmentStatusService.getStatus(AppointmentStatusCode.CANCELLED))
+                .thenReturn(new AppointmentStatus(AppointmentStatusCode.CANCELLED, "Cancelled"));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CancelAppointmentRequest request = new CancelAppointmentRequest();
+        request.setRequesterId(patientId);
+        request.setRequesterRole(RequesterRole.PATIENT);
+        request.setReason("Busy");
+
+        appointmentService.cancelAppointment(appointmentId, request);
+
+        verify(waitlistOfferEngine).onSlotFreed(appointment.getId(), doctorId, time, appointment.getDurationMinutes());
     }
 
     @Test
     void updateStatus_fromCancelledToConfirmed_isInvalid() {
         Appointment appointment = buildAppointment(patientId, doctorId, AppointmentStatusCode.CANCELLED, LocalDateTime.of(2025, 2, 1, 10, 0));
-        when(appointmentRepository.findById(appointmentId)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findByAppointmentId(appointmentId)).thenReturn(Optional.of(appointment));
 
         UpdateAppointmentStatusRequest request = new UpdateAppointmentStatusRequest();
         request.setRequesterId(doctorId);
@@ -189,11 +563,125 @@ class AppointmentServiceTest {
                 .isInstanceOf(InvalidAppointmentStateException.class);
     }
 
+    @Test
+    void updateStatuses_doctorsMorning_confirmsValidOnesInOneBatchAndReportsTheRest() {
+        LocalDateTime morning = LocalDateTime.of(2025, 1, 6, 9, 0);
+        Appointment pending = withId(buildAppointment(patientId, doctorId, AppointmentStatusCode.PENDING, morning));
+        Appointment cancelled = withId(buildAppointment(patientId, doctorId, AppointmentStatusCode.CANCELLED,
+                morning.plusMinutes(30)));
+        Appointment otherDoctors = withId(buildAppointment(patientId, UUID.randomUUID(), AppointmentStatusCode.PENDING,
+                morning.plusMinutes(60)));
+        UUID missing = UUID.randomUUID();
+        List<UUID> ids = List.of(pending.getId(), cancelled.getId(), otherDoctors.getId(), missing, pending.getId());
+        when(appointmentRepository.findAllByAppointmentIds(anyList())).thenReturn(List.of(pending, cancelled, otherDoctors));
+        when(appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED))
+                .thenReturn(new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "Confirmed"));
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setAppointmentIds(ids);
+        request.setStatus("confirmed");
+        request.setRequesterId(doctorId);
+        request.setRequesterRole(RequesterRole.DOCTOR);
+
+        BulkStatusUpdateResponse response = appointmentService.updateStatuses(request);
+
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(3);
+        assertThat(response.results()).extracting(BulkStatusUpdateResponse.AppointmentResult::outcome).containsExactly(
+                BulkStatusUpdateResponse.Outcome.UPDATED,
+                BulkStatusUpdateResponse.Outcome.INVALID_TRANSITION,
+                BulkStatusUpdateResponse.Outcome.NOT_ALLOWED,
+                BulkStatusUpdateResponse.Outcome.NOT_FOUND);
+        assertThat(response.results().get(0).appointment().status()).isEqualTo("CONFIRMED");
+        verify(appointmentRepository).findAllByAppointmentIds(List.of(pending.getId(), cancelled.getId(),
+                otherDoctors.getId(), missing));
+        verify(appointmentRepository).flush();
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(appointmentAuditWriter).record(eq(pending.getId()), eq("STATUS_CONFIRMED"), anyString(), any());
+        verify(notificationOutbox).enqueueAll(argThat(notifications -> notifications.size() == 1));
+        verify(notificationOutbox, never()).enqueue(any());
+        verify(medicalRecordRepository).findByAppointmentIdIn(List.of(pending.getId()));
+    }
+
+    @Test
+    void updateStatuses_tooManyAppointments_isRejectedBeforeLoading() {
+        appointmentProperties.setBulkStatusMaxAppointments(2);
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setAppointmentIds(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+        request.setStatus("COMPLETED");
+        request.setRequesterId(doctorId);
+        request.setRequesterRole(RequesterRole.DOCTOR);
+
+        assertThatThrownBy(() -> appointmentService.updateStatuses(request))
+                .isInstanceOf(InvalidBulkStatusUpdateException.class);
+        verifyNoInteractions(appointmentRepository, transactionManager);
+    }
+
+    @Test
+    void getAppointmentsByPatient_fullPage_returnsCursorOfLastRow() {
+        appointmentProperties.setListPageSize(2);
+        List<AppointmentListRow> rows = List.of(
+                buildListRow(AppointmentStatusCode.CONFIRMED, LocalDateTime.of(2025, 1, 2, 9, 0)),
+                buildListRow(AppointmentStatusCode.PENDING, LocalDateTime.of(2025, 1, 3, 9, 0)),
+                buildListRow(AppointmentStatusCode.PENDING, LocalDateTime.of(2025, 1, 4, 9, 0)));
+        when(appointmentRepository.findListRows(any(), any(), eq(3))).thenReturn(rows);
+
+        AppointmentPage page = appointmentService.getAppointmentsByPatient(patientId, AppointmentPageRequest.firstPage());
+
+        assertThat(page.data()).hasSize(2);
+        AppointmentCursor cursor = AppointmentCursor.decode(page.nextCursor());
+        assertThat(cursor.appointmentTime()).isEqualTo(LocalDateTime.of(2025, 1, 3, 9, 0));
+        assertThat(cursor.id()).isEqualTo(appointmentId);
+    }
+
+    @Test
+    void getAppointmentsByPatient_lastPage_hasNoCursor() {
+        when(appointmentRepository.findListRows(any(), any(), eq(11))).thenReturn(List.of(
+                buildListRow(AppointmentStatusCode.CONFIRMED, LocalDateTime.of(2025, 1, 2, 9, 0))));
+
+        AppointmentPage page = appointmentService.getAppointmentsByPatient(patientId,
+                new AppointmentPageRequest("confirmed", null, null, null, 10));
+
+        assertThat(page.data()).hasSize(1);
+        assertThat(page.data().get(0).status()).isEqualTo("CONFIRMED");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAllAppointments_malformedCursor_isRejected() {
+        assertThatThrownBy(() -> appointmentService.getAllAppointments(
+                new AppointmentPageRequest(null, null, null, "not-a-cursor", null)))
+                .isInstanceOf(InvalidCursorException.class);
+
+        verify(appointmentRepository, never()).findListRows(any(), any(), anyInt());
+    }
+
+    private BulkAppointmentRequest bulkRequest(LocalDateTime... slots) {
+        BulkAppointmentRequest request = new BulkAppointmentRequest();
+        request.setPatientId(patientId);
+        request.setDoctorId(doctorId);
+        request.setDurationMinutes(30);
+        request.setSlots(List.of(slots));
+        return request;
+    }
+
+    private void stubBulkLookups() {
+        when(patientServiceClient.getPatient(patientId)).thenReturn(new PatientProfile(patientId, "John", "Doe", true, "ACTIVE"));
+        when(doctorServiceClient.verifyAvailability(eq(doctorId), any(), eq(30)))
+                .thenReturn(new DoctorAvailability(doctorId, true, true));
+        when(doctorServiceClient.getDoctorSchedules(doctorId)).thenReturn(List.of(
+                new DoctorScheduleResponse(DayOfWeek.THURSDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true)));
+        when(doctorServiceClient.getDoctor(doctorId)).thenReturn(new DoctorResponse(doctorId, "Dr. Smith", "General Hospital", "123 Main St", "555-1234", BigDecimal.valueOf(500000)));
+        when(platformSettingsClient.currentSettings()).thenReturn(
+                new PlatformSettingsClient.SettingsSnapshot(BigDecimal.TEN, 7L, "\"7\"", Instant.parse("2025-01-01T09:59:00Z")));
+        when(appointmentStatusService.getStatus(AppointmentStatusCode.CONFIRMED))
+                .thenReturn(new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "Confirmed"));
+    }
+
     private Appointment buildAppointment(UUID patientId, UUID doctorId, AppointmentStatusCode statusCode, LocalDateTime time) {
-        Appointment appointment = Appointment.create();
+        Appointment appointment = Appointment.create(time);
         appointment.setPatientId(patientId);
         appointment.setDoctorId(doctorId);
-        appointment.setAppointmentTime(time);
         appointment.setStatus(new AppointmentStatus(statusCode, statusCode.name()));
         appointment.setDurationMinutes(30);
         ReflectionTestUtils.setField(appointment, "id", appointmentId);
@@ -201,4 +689,15 @@ class AppointmentServiceTest {
         ReflectionTestUtils.setField(appointment, "updatedAt", Instant.parse("2024-12-31T10:00:00Z"));
         return appointment;
     }
+
+    private static Appointment withId(Appointment appointment) {
+        ReflectionTestUtils.setField(appointment, "id", AppointmentIds.newId(appointment.getAppointmentTime()));
+        return appointment;
+    }
+
+    private AppointmentListRow buildListRow(AppointmentStatusCode statusCode, LocalDateTime time) {
+        return new AppointmentListRow(appointmentId, patientId, doctorId, "Dr. Smith", "John Doe", "123 Main St",
+                time, 30, statusCode, null, null, BigDecimal.valueOf(500000), BigDecimal.valueOf(50000),
+                BigDecimal.valueOf(550000), Instant.parse("2024-12-31T10:00:00Z"), Instant.parse("2024-12-31T10:00:00Z"), null);
+    }
 }
@@ -0,0 +1,83 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.domain.AppointmentStatus;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.repository.AppointmentStatusRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentStatusRegistryTest {
+
+    private static final int BOOKINGS = 100;
+
+    /**
+     * Status lookups on the write path of one booking that is created, confirmed by the doctor and then
+     * completed through a medical record. Each of them used to be one {@code findByCode} query.
+     */
+    private static final List<AppointmentStatusCode> BOOKING_LIFECYCLE = List.of(
+            AppointmentStatusCode.PENDING,
+            AppointmentStatusCode.CONFIRMED,
+            AppointmentStatusCode.COMPLETED
+    );
+
+    @Mock
+    private AppointmentStatusRepository repository;
+
+    @Test
+    void writePath_neverQueriesLookupTableAfterStartup() {
+        when(repository.findAll()).thenReturn(allStatuses());
+        AppointmentStatusRegistry registry = new AppointmentStatusRegistry(repository);
+        registry.load();
+        verify(repository, times(1)).findAll();
+        AppointmentStatusService statusService = new AppointmentStatusService(registry);
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            for (AppointmentStatusCode code : BOOKING_LIFECYCLE) {
+                assertThat(statusService.getStatus(code).getCode()).isEqualTo(code);
+            }
+        }
+
+        verify(repository, never()).findByCode(any());
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void get_returnsTheSameInstanceForEveryBooking() {
+        when(repository.findAll()).thenReturn(allStatuses());
+        AppointmentStatusRegistry registry = new AppointmentStatusRegistry(repository);
+        registry.load();
+
+        assertThat(registry.get(AppointmentStatusCode.CONFIRMED))
+                .isSameAs(registry.get(AppointmentStatusCode.CONFIRMED));
+    }
+
+    @Test
+    void load_missingStatus_failsStartup() {
+        when(repository.findAll()).thenReturn(List.of(
+                new AppointmentStatus(AppointmentStatusCode.PENDING, "Pending"),
+                new AppointmentStatus(AppointmentStatusCode.CONFIRMED, "Confirmed")
+        ));
+        AppointmentStatusRegistry registry = new AppointmentStatusRegistry(repository);
+
+        assertThatThrownBy(registry::load)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("CANCELLED");
+    }
+
+    private static List<AppointmentStatus> allStatuses() {
+        return Arrays.stream(AppointmentStatusCode.values())
+                .map(code -> new AppointmentStatus(code, code.name()))
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.Appointment;
+import com.clinic.appointmentservice.exception.ConcurrentAppointmentUpdateException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentTransitionExecutorTest {
+
+    private final UUID appointmentId = UUID.randomUUID();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentTransitionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        properties.setTransitionRetryBackoff(Duration.ofMillis(1));
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new AppointmentTransitionExecutor(transactionManager, properties, meterRegistry);
+    }
+
+    @Test
+    void execute_conflictAtCommit_runsTransitionAgainInFreshTransaction() {
+        doThrow(conflict()).doThrow(conflict()).doNothing().when(transactionManager).commit(any());
+        AtomicInteger runs = new AtomicInteger();
+
+        String result = executor.execute("cancel", appointmentId, () -> "run " + runs.incrementAndGet());
+
+        assertThat(result).isEqualTo("run 3");
+        verify(transactionManager, times(3)).getTransaction(any());
+        assertThat(meterRegistry.get("appointment.transition.conflicts").tag("operation", "cancel").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("appointment.transition").tag("outcome", "committed-after-retry").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void execute_conflictEveryTime_givesUpAfterMaxAttempts() {
+        properties.setTransitionMaxAttempts(3);
+        doThrow(conflict()).when(transactionManager).commit(any());
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("update-status", appointmentId, runs::incrementAndGet))
+                .isInstanceOf(ConcurrentAppointmentUpdateException.class);
+
+        assertThat(runs.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("appointment.transition").tag("outcome", "exhausted").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void execute_otherFailure_isNotRetried() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("cancel", appointmentId, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("not allowed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(runs.get()).isEqualTo(1);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void backoff_staysWithinDoublingCeiling() {
+        properties.setTransitionRetryBackoff(Duration.ofMillis(10));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(executor.backoff(1)).isBetween(Duration.ZERO, Duration.ofMillis(10));
+            assertThat(executor.backoff(3)).isBetween(Duration.ZERO, Duration.ofMillis(40));
+        }
+    }
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Appointment.class, appointmentId);
+    }
+}
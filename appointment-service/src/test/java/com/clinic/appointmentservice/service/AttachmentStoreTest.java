@@ -0,0 +1,86 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.AttachmentTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttachmentStoreTest {
+
+    @TempDir
+    private Path root;
+
+    private AttachmentStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AppointmentProperties properties = new AppointmentProperties();
+        properties.setAttachmentDir(root.toString());
+        properties.setAttachmentMaxSize(DataSize.ofKilobytes(256));
+        store = new AttachmentStore(properties);
+    }
+
+    @Test
+    void store_usesSha256OfContentAsId() throws IOException {
+        AttachmentStore.StoredAttachment stored = store.store(stream("hello".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(stored.contentId()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        assertThat(stored.size()).isEqualTo(5);
+        AttachmentStore.Attachment attachment = store.find(stored.contentId()).orElseThrow();
+        assertThat(Files.readString(attachment.path())).isEqualTo("hello");
+    }
+
+    @Test
+    void store_sameContentTwice_keepsOneCopy() throws IOException {
+        byte[] content = new byte[200 * 1024];
+        new Random(7).nextBytes(content);
+
+        AttachmentStore.StoredAttachment first = store.store(stream(content));
+        AttachmentStore.StoredAttachment second = store.store(stream(content));
+
+        assertThat(first.created()).isTrue();
+        assertThat(second.created()).isFalse();
+        assertThat(second.contentId()).isEqualTo(first.contentId());
+        assertThat(Files.readAllBytes(store.find(first.contentId()).orElseThrow().path())).isEqualTo(content);
+        assertThat(leftoverUploads()).isZero();
+    }
+
+    @Test
+    void store_overMaxSize_rejectsAndLeavesNothingBehind() throws IOException {
+        byte[] content = new byte[256 * 1024 + 1];
+
+        assertThatThrownBy(() -> store.store(stream(content))).isInstanceOf(AttachmentTooLargeException.class);
+
+        assertThat(leftoverUploads()).isZero();
+    }
+
+    @Test
+    void find_rejectsIdsThatAreNotContentHashes() {
+        assertThat(store.find("../../etc/passwd")).isEmpty();
+        assertThat(store.exists("https://files.example.com/scan.pdf")).isFalse();
+        assertThat(store.exists("0".repeat(64))).isFalse();
+    }
+
+    private long leftoverUploads() throws IOException {
+        try (Stream<Path> files = Files.list(root.resolve("incoming"))) {
+            return files.count();
+        }
+    }
+
+    private static ByteArrayInputStream stream(byte[] content) {
+        return new ByteArrayInputStream(content);
+    }
+}
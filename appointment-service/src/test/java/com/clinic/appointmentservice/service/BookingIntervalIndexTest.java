@@ -0,0 +1,214 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.exception.AppointmentConflictException;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.BookedInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final int CONCURRENT_BOOKINGS = 5_000;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private BookingIntervalIndex index;
+
+    private final UUID doctorId = UUID.randomUUID();
+    private final LocalDate day = LocalDate.of(2025, 1, 2);
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC);
+        index = new BookingIntervalIndex(appointmentRepository, clock);
+    }
+
+    @Test
+    void reserve_overlapWithDifferentStartAndDuration_isRejected() {
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 0), 60);
+
+        assertThatThrownBy(() -> index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 45), 15))
+                .isInstanceOf(AppointmentConflictException.class);
+        assertThatThrownBy(() -> index.reserve(UUID.randomUUID(), doctorId, day.atTime(8, 30), 45))
+                .isInstanceOf(AppointmentConflictException.class);
+        assertThatThrownBy(() -> index.reserve(UUID.randomUUID(), doctorId, day.atTime(8, 0), 240))
+                .isInstanceOf(AppointmentConflictException.class);
+    }
+
+    @Test
+    void reserve_adjacentSlots_areAccepted() {
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 0), 30);
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 30), 30);
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(8, 30), 30);
+
+        assertThat(index.isFree(doctorId, day.atTime(10, 0), 30)).isTrue();
+        assertThat(index.isFree(doctorId, day.atTime(8, 45), 30)).isFalse();
+    }
+
+    @Test
+    void reserve_warmsDayFromRepositoryOnce() {
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any())).thenReturn(List.of(
+                new BookedInterval(UUID.randomUUID(), day.atTime(14, 0), 90),
+                new BookedInterval(UUID.randomUUID(), day.minusDays(1).atTime(23, 30), 60)
+        ));
+
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(15, 30), 30);
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(0, 30), 30);
+        assertThat(index.isFree(doctorId, day.atTime(12, 0), 60)).isTrue();
+
+        verify(appointmentRepository, times(1)).findBookedIntervals(eq(doctorId), any(), any());
+    }
+
+    @Test
+    void reserve_storedBookings_areConfirmedAgainstRepository() {
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any())).thenReturn(List.of(
+                new BookedInterval(UUID.randomUUID(), day.atTime(14, 0), 90),
+                new BookedInterval(UUID.randomUUID(), day.minusDays(1).atTime(23, 30), 60)
+        ));
+
+        assertThatThrownBy(() -> index.reserve(UUID.randomUUID(), doctorId, day.atTime(15, 0), 30))
+                .isInstanceOf(AppointmentConflictException.class);
+        assertThatThrownBy(() -> index.reserve(UUID.randomUUID(), doctorId, day.atTime(0, 15), 30))
+                .isInstanceOf(AppointmentConflictException.class);
+
+        // One warm-up, then one reload per hit.
+        verify(appointmentRepository, times(3)).findBookedIntervals(eq(doctorId), any(), any());
+    }
+
+    @Test
+    void reserve_bookingCancelledElsewhere_isDroppedOnReload() {
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any()))
+                .thenReturn(List.of(new BookedInterval(UUID.randomUUID(), day.atTime(9, 0), 30)))
+                .thenReturn(List.of());
+
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 0), 30);
+
+        // The new claim is not in the database yet, but survives the reload its own hit triggers.
+        assertThatThrownBy(() -> index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 15), 30))
+                .isInstanceOf(AppointmentConflictException.class);
+        verify(appointmentRepository, times(3)).findBookedIntervals(eq(doctorId), any(), any());
+    }
+
+    @Test
+    void reserveAll_reloadsEachHitDayOnce() {
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any()))
+                .thenReturn(List.of(new BookedInterval(UUID.randomUUID(), day.atTime(9, 0), 60)))
+                .thenReturn(List.of());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        Set<UUID> rejected = index.reserveAll(doctorId, List.of(
+                new BookingIntervalIndex.Slot(first, day.atTime(9, 0), 30),
+                new BookingIntervalIndex.Slot(second, day.atTime(9, 30), 30)));
+
+        assertThat(rejected).isEmpty();
+        verify(appointmentRepository, times(2)).findBookedIntervals(eq(doctorId), any(), any());
+    }
+
+    @Test
+    void reserve_acrossMidnight_blocksBothDays() {
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(23, 30), 60);
+
+        assertThat(index.isFree(doctorId, day.plusDays(1).atTime(0, 0), 30)).isFalse();
+        assertThat(index.isFree(doctorId, day.plusDays(1).atTime(0, 30), 30)).isTrue();
+    }
+
+    @Test
+    void release_freesTheRange() {
+        UUID appointmentId = UUID.randomUUID();
+        index.reserve(appointmentId, doctorId, day.atTime(9, 0), 45);
+        index.release(appointmentId, doctorId, day.atTime(9, 0), 45);
+
+        index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 15), 30);
+    }
+
+    @Test
+    void concurrentBookingsForSameSlot_exactlyOneWins() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(CONCURRENT_BOOKINGS, i -> {
+            try {
+                index.reserve(UUID.randomUUID(), doctorId, day.atTime(9, 0), 30);
+                accepted.incrementAndGet();
+            } catch (AppointmentConflictException ignored) {
+                // expected for every loser
+            }
+        });
+
+        assertThat(accepted).hasValue(1);
+    }
+
+    @Test
+    void concurrentBookingsWithMixedDurations_neverOverlap() throws Exception {
+        List<LocalDateTime[]> acceptedRanges = Collections.synchronizedList(new ArrayList<>());
+        int[] durations = {15, 30, 45, 60, 90};
+        runConcurrently(CONCURRENT_BOOKINGS, i -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDateTime start = day.atTime(7, 0).plusMinutes(5L * random.nextInt(0, 12 * 12));
+            int duration = durations[random.nextInt(durations.length)];
+            try {
+                index.reserve(UUID.randomUUID(), doctorId, start, duration);
+                acceptedRanges.add(new LocalDateTime[]{start, start.plusMinutes(duration)});
+            } catch (AppointmentConflictException ignored) {
+                // slot already taken
+            }
+        });
+
+        assertThat(acceptedRanges).isNotEmpty();
+        List<LocalDateTime[]> sorted = new ArrayList<>(acceptedRanges);
+        sorted.sort((a, b) -> a[0].compareTo(b[0]));
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(sorted.get(i)[0]).isAfterOrEqualTo(sorted.get(i - 1)[1]);
+        }
+    }
+
+    private void runConcurrently(int tasks, IntConsumer task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < tasks; i++) {
+                int id = i;
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        task.accept(id);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.exception.SlotBookingInProgressException;
+import com.clinic.appointmentservice.repository.SlotLockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSlotLocksTest {
+
+    private static final int HOT_SLOTS = 8;
+    private static final int ATTEMPTS = 400;
+
+    @Mock
+    private SlotLockRepository slotLockRepository;
+    @Mock
+    private Runnable validation;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingSlotLocks locks;
+
+    private final UUID doctorId = UUID.randomUUID();
+    private final LocalDate day = LocalDate.of(2025, 1, 2);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        locks = new BookingSlotLocks(slotLockRepository, new AppointmentProperties(), meterRegistry);
+        lenient().when(slotLockRepository.tryLockAll(any())).thenReturn(Set.of());
+    }
+
+    @Test
+    void lock_overlappingRangeHeldByOpenTransaction_failsUntilItCompletes() {
+        List<TransactionSynchronization> first = open(() -> locks.lock(doctorId, day.atTime(9, 0), 60));
+
+        assertThatThrownBy(() -> open(() -> locks.lock(doctorId, day.atTime(9, 45), 15)))
+                .isInstanceOf(SlotBookingInProgressException.class);
+        complete(open(() -> locks.lock(doctorId, day.atTime(10, 0), 30)));
+        complete(open(() -> locks.lock(UUID.randomUUID(), day.atTime(9, 0), 60)));
+
+        complete(first);
+        complete(open(() -> locks.lock(doctorId, day.atTime(9, 45), 15)));
+        assertThat(meterRegistry.get(BookingSlotLocks.METRIC_NAME).tag("outcome", "busy-local").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void lockAll_bucketHeldByAnotherInstance_reportsSlotAndFreesLocalKeys() {
+        UUID free = UUID.randomUUID();
+        UUID contended = UUID.randomUUID();
+        doAnswer(invocation -> {
+            long[] keys = invocation.getArgument(0);
+            assertThat(keys).hasSize(4);
+            // The second slot's 09:15 bucket is held elsewhere.
+            return Set.of(keys[3]);
+        }).doReturn(Set.of()).when(slotLockRepository).tryLockAll(any());
+
+        AtomicReference<Set<UUID>> busy = new AtomicReference<>();
+        List<TransactionSynchronization> transaction = open(() -> busy.set(locks.lockAll(doctorId, List.of(
+                new BookingIntervalIndex.Slot(free, day.minusDays(1).atTime(9, 0), 30),
+                new BookingIntervalIndex.Slot(contended, day.atTime(9, 0), 30)))));
+
+        assertThat(busy.get()).containsExactly(contended);
+        complete(transaction);
+        complete(open(() -> locks.lock(doctorId, day.atTime(9, 0), 30)));
+    }
+
+    @Test
+    void lock_outsideTransaction_isRejected() {
+        assertThatThrownBy(() -> locks.lock(doctorId, day.atTime(9, 0), 30))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(slotLockRepository);
+    }
+
+    /**
+     * A hot doctor: many patients race for a handful of slots. Each slot's holder stays in validation until every
+     * other attempt has finished, so all of them must be turned away before reaching it.
+     */
+    @Test
+    void hotDoctor_losersFailBeforeValidationAndNeverOverlapTheHolder() throws InterruptedException {
+        AtomicIntegerArray holders = new AtomicIntegerArray(HOT_SLOTS);
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+        List<LocalDateTime> accepted = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch losersDone = new CountDownLatch(ATTEMPTS - HOT_SLOTS);
+        CountDownLatch done = new CountDownLatch(ATTEMPTS);
+        doAnswer(invocation -> losersDone.await(30, TimeUnit.SECONDS)).when(validation).run();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int slot = i % HOT_SLOTS;
+                LocalDateTime time = day.atTime(9, 0).plusMinutes(15L * slot);
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        complete(open(() -> {
+                            locks.lock(doctorId, time, 15);
+                            if (holders.incrementAndGet(slot) > 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            validation.run();
+                            accepted.add(time);
+                            holders.decrementAndGet(slot);
+                        }));
+                    } catch (SlotBookingInProgressException ex) {
+                        rejected.incrementAndGet();
+                        losersDone.countDown();
+                    } catch (Throwable ex) {
+                        unexpected.add(ex);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(overlaps.get()).isZero();
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - HOT_SLOTS);
+        assertThat(accepted).hasSize(HOT_SLOTS).doesNotHaveDuplicates();
+        verify(validation, times(HOT_SLOTS)).run();
+    }
+
+    /**
+     * Runs {@code work} as if inside a transaction that stays open; the returned synchronizations complete it.
+     */
+    private static List<TransactionSynchronization> open(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } catch (RuntimeException ex) {
+            complete(TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+            throw ex;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations) {
+        complete(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,72 @@
+package com.clinic.appointmentservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FailFastScopeTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch never = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void join_stageMissingItsOwnDeadline_isReportedByName() {
+        try (FailFastScope scope = new FailFastScope(executor)) {
+            scope.fork("patient", Duration.ofMinutes(1), this::blockForever);
+            scope.fork("doctor", Duration.ofMillis(50), this::blockForever);
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(FailFastScope.StageTimeoutException.class)
+                    .satisfies(ex -> assertThat(((FailFastScope.StageTimeoutException) ex).getStage()).isEqualTo("doctor"))
+                    .hasMessageContaining("50 ms");
+        }
+    }
+
+    @Test
+    void join_slowStageWithinItsDeadline_outlastsShorterDeadlinesOfFinishedStages() {
+        try (FailFastScope scope = new FailFastScope(executor)) {
+            Supplier<String> doctor = scope.fork("doctor", Duration.ofMillis(50), () -> "cached");
+            Supplier<String> patient = scope.fork("patient", Duration.ofSeconds(10), () -> {
+                Thread.sleep(200);
+                return "remote";
+            });
+
+            scope.join();
+
+            assertThat(doctor.get()).isEqualTo("cached");
+            assertThat(patient.get()).isEqualTo("remote");
+        }
+    }
+
+    @Test
+    void join_failingStage_cancelsTheOthers() {
+        try (FailFastScope scope = new FailFastScope(executor)) {
+            scope.fork("patient", Duration.ofMinutes(1), this::blockForever);
+            scope.fork("availability", Duration.ofMinutes(1), () -> {
+                throw new IllegalStateException("unavailable");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("unavailable");
+        }
+    }
+
+    private String blockForever() throws InterruptedException {
+        never.await();
+        return "never";
+    }
+}
@@ -0,0 +1,188 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.DoctorServiceClient;
+import com.clinic.appointmentservice.client.DoctorSnapshotCache;
+import com.clinic.appointmentservice.client.dto.DoctorScheduleResponse;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.dto.FreeSlotsResponse;
+import com.clinic.appointmentservice.exception.InvalidSlotRangeException;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.BookedInterval;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FreeSlotIndexTest {
+
+    private static final int WARM_QUERIES = 10;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private DoctorServiceClient doctorServiceClient;
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:02:00Z"), ZoneOffset.UTC);
+    private BookingIntervalIndex bookingIntervalIndex;
+    private FreeSlotIndex freeSlotIndex;
+
+    private final UUID doctorId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.of(2025, 1, 1); // Wednesday
+    private final LocalDate thursday = LocalDate.of(2025, 1, 2);
+
+    @BeforeEach
+    void setUp() {
+        AppointmentProperties properties = new AppointmentProperties();
+        bookingIntervalIndex = new BookingIntervalIndex(appointmentRepository, clock);
+        freeSlotIndex = new FreeSlotIndex(bookingIntervalIndex,
+                new DoctorSnapshotCache(doctorServiceClient, properties, new SimpleMeterRegistry()),
+                waitlistRepository, properties, clock);
+        lenient().when(doctorServiceClient.getDoctorSchedules(doctorId)).thenReturn(List.of(
+                new DoctorScheduleResponse(DayOfWeek.WEDNESDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true),
+                new DoctorScheduleResponse(DayOfWeek.THURSDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true),
+                new DoctorScheduleResponse(DayOfWeek.THURSDAY, LocalTime.of(14, 0), LocalTime.of(16, 0), true),
+                new DoctorScheduleResponse(DayOfWeek.FRIDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), false)));
+    }
+
+    @Test
+    void freeSlots_scheduleMinusBookings() {
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any())).thenReturn(List.of(
+                new BookedInterval(UUID.randomUUID(), thursday.atTime(9, 0), 30)));
+
+        FreeSlotsResponse response = freeSlotIndex.freeSlots(doctorId, thursday, thursday.plusDays(1), 30);
+
+        assertThat(response.days()).hasSize(2);
+        assertThat(response.days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 9, 0), range(thursday, 9, 30, 12, 0), range(thursday, 14, 0, 16, 0));
+        assertThat(response.days().get(1).free()).isEmpty();
+    }
+
+    @Test
+    void freeSlots_followsBookAndCancel() {
+        freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30);
+
+        UUID appointmentId = UUID.randomUUID();
+        bookingIntervalIndex.reserve(appointmentId, doctorId, thursday.atTime(10, 0), 45);
+        assertThat(freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30).days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 10, 0), range(thursday, 10, 45, 12, 0), range(thursday, 14, 0, 16, 0));
+
+        bookingIntervalIndex.release(appointmentId, doctorId, thursday.atTime(10, 0), 45);
+        assertThat(freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30).days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 12, 0), range(thursday, 14, 0, 16, 0));
+
+        verify(doctorServiceClient, times(1)).getDoctorSchedules(doctorId);
+        verify(appointmentRepository, times(1)).findBookedIntervals(eq(doctorId), any(), any());
+    }
+
+    @Test
+    void freeSlots_releasingOneOfTwoBookingsSharingAQuantum_keepsItTaken() {
+        UUID first = UUID.randomUUID();
+        bookingIntervalIndex.reserve(first, doctorId, thursday.atTime(9, 0), 32);
+        bookingIntervalIndex.reserve(UUID.randomUUID(), doctorId, thursday.atTime(9, 32), 28);
+        freeSlotIndex.freeSlots(doctorId, thursday, thursday, 5);
+
+        bookingIntervalIndex.release(first, doctorId, thursday.atTime(9, 0), 32);
+
+        assertThat(freeSlotIndex.freeSlots(doctorId, thursday, thursday, 5).days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 9, 30), range(thursday, 10, 0, 12, 0), range(thursday, 14, 0, 16, 0));
+    }
+
+    @Test
+    void freeSlots_slotHeldForWaitlistedPatient_isNotFree() {
+        when(waitlistRepository.findHeldSlots(eq(doctorId), any(), any(), any())).thenReturn(List.of(
+                new WaitlistOffer(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), doctorId, UUID.randomUUID(),
+                        thursday.atTime(10, 0), 30, WaitlistOffer.Status.OPEN, today.atTime(12, 0),
+                        today.atTime(10, 0))));
+
+        assertThat(freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30).days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 10, 0), range(thursday, 10, 30, 12, 0), range(thursday, 14, 0, 16, 0));
+    }
+
+    @Test
+    void freeSlots_doctorWithoutSchedule_isFreeAllDayLikeBookingAccepts() {
+        UUID unscheduled = UUID.randomUUID();
+        when(doctorServiceClient.getDoctorSchedules(unscheduled)).thenReturn(List.of());
+        when(appointmentRepository.findBookedIntervals(eq(unscheduled), any(), any())).thenReturn(List.of(
+                new BookedInterval(UUID.randomUUID(), thursday.atTime(9, 0), 30)));
+
+        assertThat(freeSlotIndex.freeSlots(unscheduled, thursday, thursday, 30).days().get(0).free()).containsExactly(
+                range(thursday, 0, 0, 9, 0),
+                new FreeSlotsResponse.Range(thursday.atTime(9, 30), thursday.plusDays(1).atStartOfDay()));
+    }
+
+    @Test
+    void freeSlots_today_startsAfterNowAndFiltersShortRanges() {
+        FreeSlotsResponse response = freeSlotIndex.freeSlots(doctorId, today.minusDays(3), thursday, 180);
+
+        assertThat(response.days()).extracting(FreeSlotsResponse.Day::date).containsExactly(today, thursday);
+        assertThat(response.days().get(0).free()).isEmpty();
+        assertThat(response.days().get(1).free()).containsExactly(range(thursday, 8, 0, 12, 0));
+        assertThat(freeSlotIndex.freeSlots(doctorId, today, today, 30).days().get(0).free())
+                .containsExactly(range(today, 10, 5, 12, 0));
+    }
+
+    @Test
+    void freeSlots_beyondHorizon_isRejected() {
+        assertThatThrownBy(() -> freeSlotIndex.freeSlots(doctorId, today, today.plusDays(28), 30))
+                .isInstanceOf(InvalidSlotRangeException.class);
+        assertThatThrownBy(() -> freeSlotIndex.freeSlots(doctorId, thursday, today, 30))
+                .isInstanceOf(InvalidSlotRangeException.class);
+    }
+
+    @Test
+    void freeSlots_warmQuery_isServedFromMemory() {
+        LocalDate to = today.plusDays(13);
+        freeSlotIndex.freeSlots(doctorId, today, to, 30);
+        verify(doctorServiceClient, times(1)).getDoctorSchedules(doctorId);
+        verify(appointmentRepository, times(14)).findBookedIntervals(eq(doctorId), any(), any());
+
+        for (int i = 0; i < WARM_QUERIES; i++) {
+            assertThat(freeSlotIndex.freeSlots(doctorId, today, to, 30).days()).hasSize(14);
+        }
+
+        verifyNoMoreInteractions(doctorServiceClient, appointmentRepository);
+    }
+
+    @Test
+    void freeSlots_dayOlderThanTtl_isRebuiltFromTheDatabase() {
+        freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30);
+        // Booked on another instance: this one is not told, so only a rebuild shows it.
+        when(appointmentRepository.findBookedIntervals(eq(doctorId), any(), any())).thenReturn(List.of(
+                new BookedInterval(UUID.randomUUID(), thursday.atTime(9, 0), 60)));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30).days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 12, 0), range(thursday, 14, 0, 16, 0));
+
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(freeSlotIndex.freeSlots(doctorId, thursday, thursday, 30).days().get(0).free()).containsExactly(
+                range(thursday, 8, 0, 9, 0), range(thursday, 10, 0, 12, 0), range(thursday, 14, 0, 16, 0));
+        verify(appointmentRepository, times(2)).findBookedIntervals(eq(doctorId), any(), any());
+    }
+
+    private static FreeSlotsResponse.Range range(LocalDate date, int startHour, int startMinute, int endHour, int endMinute) {
+        return new FreeSlotsResponse.Range(date.atTime(startHour, startMinute), date.atTime(endHour, endMinute));
+    }
+}
@@ -0,0 +1,197 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.dto.AppointmentResponse;
+import com.clinic.appointmentservice.dto.CreateAppointmentRequest;
+import com.clinic.appointmentservice.exception.AppointmentConflictException;
+import com.clinic.appointmentservice.exception.IdempotencyKeyInProgressException;
+import com.clinic.appointmentservice.exception.IdempotencyKeyMismatchException;
+import com.clinic.appointmentservice.exception.InvalidIdempotencyKeyException;
+import com.clinic.appointmentservice.repository.IdempotencyKeyRepository;
+import com.clinic.appointmentservice.repository.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final String SCOPE = "create-appointment:patient";
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private AppointmentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        properties.setIdempotencyWaitTimeout(Duration.ofMillis(300));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new IdempotencyService(repository, objectMapper, properties, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void execute_repeatedKey_replaysStoredResponseWithoutRunningAgain() {
+        when(repository.claim(eq(SCOPE + ":key-1"), anyString(), eq(NOW), any(), any())).thenReturn(true);
+        AtomicInteger runs = new AtomicInteger();
+        CreateAppointmentRequest request = request("first visit");
+        Supplier<AppointmentResponse> action = () -> {
+            runs.incrementAndGet();
+            return response();
+        };
+
+        IdempotencyService.Result<AppointmentResponse> first = service.execute(SCOPE, "key-1", request,
+                AppointmentResponse.class, 201, action);
+        IdempotencyService.Result<AppointmentResponse> second = service.execute(SCOPE, "key-1", request,
+                AppointmentResponse.class, 201, action);
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.status()).isEqualTo(201);
+        assertThat(second.response()).isEqualTo(first.response());
+        verify(repository).complete(eq(SCOPE + ":key-1"), eq(201), anyString());
+        verify(repository, never()).find(anyString());
+    }
+
+    @Test
+    void execute_keyCompletedElsewhere_replaysFromDatabaseAndRejectsDifferentRequest() throws Exception {
+        AppointmentResponse stored = response();
+        when(repository.claim(eq(SCOPE + ":key-2"), anyString(), eq(NOW), any(), any())).thenReturn(false);
+        CreateAppointmentRequest request = request("first visit");
+        String fingerprint = fingerprintOf(request);
+        when(repository.find(SCOPE + ":key-2")).thenReturn(Optional.of(new IdempotencyRecord(SCOPE + ":key-2",
+                fingerprint, true, 201, objectMapper.writeValueAsString(stored), NOW, NOW.plusSeconds(60))));
+
+        IdempotencyService.Result<AppointmentResponse> replayed = service.execute(SCOPE, "key-2", request,
+                AppointmentResponse.class, 201, IdempotencyServiceTest::unexpected);
+
+        assertThat(replayed.replayed()).isTrue();
+        assertThat(replayed.response()).isEqualTo(stored);
+        assertThatThrownBy(() -> service.execute(SCOPE, "key-2", request("another visit"),
+                AppointmentResponse.class, 201, IdempotencyServiceTest::unexpected))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThatThrownBy(() -> service.execute(SCOPE, "bad key", request, AppointmentResponse.class, 201,
+                IdempotencyServiceTest::unexpected))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    @Test
+    void execute_concurrentDuplicate_waitsForFirstExecution() throws Exception {
+        when(repository.claim(eq(SCOPE + ":key-3"), anyString(), eq(NOW), any(), any())).thenReturn(true);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CreateAppointmentRequest request = request("first visit");
+        properties.setIdempotencyWaitTimeout(Duration.ofSeconds(5));
+
+        CompletableFuture<IdempotencyService.Result<AppointmentResponse>> first = CompletableFuture.supplyAsync(
+                () -> service.execute(SCOPE, "key-3", request, AppointmentResponse.class, 201, () -> {
+                    runs.incrementAndGet();
+                    running.countDown();
+                    await(release);
+                    return response();
+                }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<IdempotencyService.Result<AppointmentResponse>> duplicate = CompletableFuture.supplyAsync(
+                () -> service.execute(SCOPE, "key-3", request, AppointmentResponse.class, 201, () -> {
+                    runs.incrementAndGet();
+                    return response();
+                }));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+        assertThat(duplicate.get().response()).isEqualTo(first.get().response());
+        assertThat(runs).hasValue(1);
+        verify(repository, times(1)).claim(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void execute_failedExecution_releasesKeyAndTimesOutWhileHeldElsewhere() throws Exception {
+        when(repository.claim(eq(SCOPE + ":key-4"), anyString(), eq(NOW), any(), any())).thenReturn(true, false);
+        CreateAppointmentRequest request = request("first visit");
+
+        assertThatThrownBy(() -> service.execute(SCOPE, "key-4", request, AppointmentResponse.class, 201, () -> {
+            throw new AppointmentConflictException(UUID.randomUUID(), "Slot already booked");
+        })).isInstanceOf(AppointmentConflictException.class);
+        verify(repository).release(SCOPE + ":key-4");
+        verify(repository, never()).complete(anyString(), anyInt(), anyString());
+
+        when(repository.find(SCOPE + ":key-4")).thenReturn(Optional.of(new IdempotencyRecord(SCOPE + ":key-4",
+                fingerprintOf(request), false, null, null, NOW.plusSeconds(30), NOW.plusSeconds(60))));
+        assertThatThrownBy(() -> service.execute(SCOPE, "key-4", request, AppointmentResponse.class, 201,
+                IdempotencyServiceTest::unexpected))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        assertThat(meterRegistry.get("appointment.idempotency").tag("outcome", "in-progress").counter().count())
+                .isEqualTo(1);
+    }
+
+    private String fingerprintOf(CreateAppointmentRequest request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static CreateAppointmentRequest request(String notes) {
+        CreateAppointmentRequest request = new CreateAppointmentRequest();
+        request.setPatientId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        request.setDoctorId(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        request.setAppointmentTime(LocalDateTime.of(2025, 1, 2, 9, 0));
+        request.setNotes(notes);
+        return request;
+    }
+
+    private static AppointmentResponse response() {
+        return new AppointmentResponse(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "Dr. Lan", "An",
+                "1 Main St", LocalDateTime.of(2025, 1, 2, 9, 0), 30, "PENDING", "first visit", null,
+                BigDecimal.TEN, BigDecimal.ONE, BigDecimal.valueOf(11), NOW, NOW, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AppointmentResponse unexpected() {
+        throw new AssertionError("action must not run");
+    }
+}
@@ -0,0 +1,44 @@
+package com.clinic.appointmentservice.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock tests move by hand. The zone is explicit so that code mixing instants and wall-clock times can be run
+ * outside UTC.
+ */
+final class MutableClock extends Clock {
+
+    private final ZoneId zone;
+    private Instant instant;
+
+    MutableClock(Instant instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    void set(Instant instant) {
+        this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+        this.instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new MutableClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
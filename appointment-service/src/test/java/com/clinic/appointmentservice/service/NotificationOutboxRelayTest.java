@@ -0,0 +1,114 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.NotificationServiceClient;
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.NotificationOutboxEntry;
+import com.clinic.appointmentservice.exception.RemoteServiceException;
+import com.clinic.appointmentservice.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private NotificationOutboxRepository repository;
+    @Mock
+    private NotificationServiceClient notificationServiceClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new NotificationOutboxRelay(repository, notificationServiceClient, transactionManager,
+                properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void relayBatch_deletesDeliveredAndBacksOffFailed() {
+        NotificationOutboxEntry delivered = entry(1L, 0);
+        NotificationOutboxEntry failing = entry(2L, 0);
+        when(repository.lockDue(NOW, properties.getOutboxBatchSize())).thenReturn(List.of(delivered, failing));
+        doNothing().when(notificationServiceClient).sendNotification(argThat(r -> r.appointmentId().equals(delivered.getAppointmentId())));
+        doThrow(new RemoteServiceException("downstream unreachable"))
+                .when(notificationServiceClient).sendNotification(argThat(r -> r.appointmentId().equals(failing.getAppointmentId())));
+        when(repository.findAllById(Set.of(2L))).thenReturn(List.of(failing));
+
+        int claimed = relay.relayBatch();
+
+        assertThat(claimed).isEqualTo(2);
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getStatus()).isEqualTo(NotificationOutboxEntry.Status.PENDING);
+        assertThat(failing.getNextAttemptAt()).isEqualTo(NOW.plus(properties.getOutboxInitialBackoff()));
+        assertThat(failing.getLastError()).isEqualTo("downstream unreachable");
+        assertThat(meterRegistry.counter(NotificationOutboxRelay.METRIC_PREFIX + ".delivered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayBatch_exhaustedAttempts_marksFailed() {
+        NotificationOutboxEntry failing = entry(3L, properties.getOutboxMaxAttempts() - 1);
+        when(repository.lockDue(NOW, properties.getOutboxBatchSize())).thenReturn(List.of(failing));
+        doThrow(new RemoteServiceException("downstream unreachable")).when(notificationServiceClient).sendNotification(any());
+        when(repository.findAllById(Set.of(3L))).thenReturn(List.of(failing));
+
+        relay.relayBatch();
+
+        assertThat(failing.getStatus()).isEqualTo(NotificationOutboxEntry.Status.FAILED);
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        assertThat(meterRegistry.counter(NotificationOutboxRelay.METRIC_PREFIX + ".failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relayBatch_nothingDue_sendsNothing() {
+        when(repository.lockDue(NOW, properties.getOutboxBatchSize())).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+        verifyNoInteractions(notificationServiceClient);
+    }
+
+    @Test
+    void backoff_doublesUpToMaximum() {
+        assertThat(relay.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(relay.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(relay.backoff(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(relay.backoff(50)).isEqualTo(properties.getOutboxMaxBackoff());
+    }
+
+    private static NotificationOutboxEntry entry(long id, int attempts) {
+        NotificationRequest request = new NotificationRequest(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                "Appointment cancelled", "Appointment on 02/01/2025 09:00 has been cancelled.", "EMAIL");
+        NotificationOutboxEntry entry = new NotificationOutboxEntry(request, NOW.minusSeconds(60));
+        ReflectionTestUtils.setField(entry, "id", id);
+        ReflectionTestUtils.setField(entry, "attempts", attempts);
+        return entry;
+    }
+}
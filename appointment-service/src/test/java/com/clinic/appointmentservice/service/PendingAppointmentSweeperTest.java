@@ -0,0 +1,159 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.domain.AppointmentStatus;
+import com.clinic.appointmentservice.domain.AppointmentStatusCode;
+import com.clinic.appointmentservice.repository.ExpiredAppointment;
+import com.clinic.appointmentservice.repository.PendingAppointmentExpiryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingAppointmentSweeperTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private PendingAppointmentExpiryRepository repository;
+    @Mock
+    private AppointmentStatusService appointmentStatusService;
+    @Mock
+    private AppointmentAuditWriter appointmentAuditWriter;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private AppointmentDashboardProjection appointmentDashboardProjection;
+    @Mock
+    private WaitlistOfferEngine waitlistOfferEngine;
+    @Mock
+    private NotificationOutbox notificationOutbox;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private PendingAppointmentSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AppointmentProperties();
+        properties.setPendingExpiryChunkSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new PendingAppointmentSweeper(repository, appointmentStatusService, appointmentAuditWriter,
+                bookingIntervalIndex, appointmentDashboardProjection, waitlistOfferEngine, notificationOutbox,
+                transactionManager, properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        lenient().when(appointmentStatusService.getStatus(AppointmentStatusCode.PENDING))
+                .thenReturn(status(AppointmentStatusCode.PENDING, 1L));
+        lenient().when(appointmentStatusService.getStatus(AppointmentStatusCode.CANCELLED))
+                .thenReturn(status(AppointmentStatusCode.CANCELLED, 3L));
+    }
+
+    @Test
+    void sweep_cancelsInChunksUntilAShortChunk() {
+        when(repository.expirePending(eq(1L), eq(3L), anyString(), eq(LOCAL_NOW.minusHours(48)), eq(LOCAL_NOW), eq(2)))
+                .thenReturn(expired(2), expired(1));
+
+        sweeper.sweep();
+
+        verify(repository, times(2)).expirePending(anyLong(), anyLong(), anyString(), any(), any(), anyInt());
+        verify(bookingIntervalIndex, times(3)).releaseAfterCommit(any(), any(), any(), any());
+        verify(waitlistOfferEngine, times(3)).onSlotFreed(any(), any(), any(), any());
+        verify(appointmentAuditWriter, times(3)).record(any(), eq("EXPIRED"), eq("SYSTEM"), anyString());
+        verify(appointmentDashboardProjection, times(3)).onAppointmentChanged(any(UUID.class), any(LocalDateTime.class));
+        verify(notificationOutbox).enqueueAll(argThat(notifications -> notifications.size() == 2));
+        verify(notificationOutbox).enqueueAll(argThat(notifications -> notifications.size() == 1
+                && notifications.get(0).message().equals(
+                "Your appointment request for 2025-01-01 09:00 was not confirmed in time and has been cancelled.")));
+        assertThat(meterRegistry.get("appointment.pending.expiry.expired").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("appointment.pending.expiry.run").tag("outcome", "drained").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void sweep_clockOutsideUtc_comparesAndStampsInUtc() {
+        sweeper = new PendingAppointmentSweeper(repository, appointmentStatusService, appointmentAuditWriter,
+                bookingIntervalIndex, appointmentDashboardProjection, waitlistOfferEngine, notificationOutbox,
+                transactionManager, properties, meterRegistry, Clock.fixed(NOW, ZoneOffset.ofHours(7)));
+        when(repository.expirePending(anyLong(), anyLong(), anyString(), any(), any(), anyInt())).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verify(repository).expirePending(eq(1L), eq(3L), anyString(), eq(LOCAL_NOW.minusHours(48)), eq(LOCAL_NOW),
+                eq(2));
+    }
+
+    @Test
+    void sweep_stopsStartingChunksOnceTheRunTimeIsUsed() {
+        properties.setPendingExpiryMaxRunTime(Duration.ZERO);
+        when(repository.expirePending(anyLong(), anyLong(), anyString(), any(), any(), anyInt())).thenReturn(expired(2));
+
+        sweeper.sweep();
+
+        verify(repository, times(1)).expirePending(anyLong(), anyLong(), anyString(), any(), any(), anyInt());
+        assertThat(meterRegistry.get("appointment.pending.expiry.run").tag("outcome", "time-limit").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void sweep_nothingOverdue_recordsAnEmptyRunWithoutSideEffects() {
+        when(repository.expirePending(anyLong(), anyLong(), anyString(), any(), any(), anyInt())).thenReturn(List.of());
+
+        sweeper.sweep();
+
+        verifyNoInteractions(bookingIntervalIndex, appointmentAuditWriter, appointmentDashboardProjection,
+                waitlistOfferEngine, notificationOutbox);
+        assertThat(meterRegistry.get("appointment.pending.expiry.expired.per.run").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweep_databaseFailure_isRecordedAndSwallowed() {
+        when(repository.expirePending(anyLong(), anyLong(), anyString(), any(), any(), anyInt()))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        sweeper.sweep();
+
+        verify(notificationOutbox, never()).enqueueAll(anyList());
+        assertThat(meterRegistry.get("appointment.pending.expiry.run").tag("outcome", "failed").timer().count())
+                .isEqualTo(1);
+    }
+
+    private static List<ExpiredAppointment> expired(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ExpiredAppointment(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                        LOCAL_NOW.minusHours(1), 30))
+                .toList();
+    }
+
+    private static AppointmentStatus status(AppointmentStatusCode code, long id) {
+        AppointmentStatus status = new AppointmentStatus(code, code.name());
+        ReflectionTestUtils.setField(status, "id", id);
+        return status;
+    }
+}
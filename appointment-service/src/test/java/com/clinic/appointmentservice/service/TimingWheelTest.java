@@ -0,0 +1,75 @@
+package com.clinic.appointmentservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Test
+    void advance_firesEachEntryAtItsDeadlineAcrossLevels() {
+        TimingWheel<Integer, Integer> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, START);
+        Random random = new Random(42);
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // Up to 8^4 ticks ahead, so entries start in levels 0 to 3 and cascade down.
+            int offset = 1 + random.nextInt(4096);
+            offsets.add(offset);
+            wheel.schedule(i, START.plusSeconds(offset), i);
+        }
+
+        for (int second = 1; second <= 4096; second++) {
+            List<Integer> fired = wheel.advance(START.plusSeconds(second));
+            for (Integer key : fired) {
+                assertThat(offsets.get(key)).isEqualTo(second);
+            }
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_largeJump_firesEverythingOverdue() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 16, START);
+        wheel.schedule("in-a-minute", START.plusSeconds(60), "in-a-minute");
+        wheel.schedule("in-a-day", START.plus(Duration.ofDays(1)), "in-a-day");
+        wheel.schedule("in-the-past", START.minusSeconds(5), "in-the-past");
+
+        assertThat(wheel.advance(START)).containsExactly("in-the-past");
+        assertThat(wheel.advance(START.plus(Duration.ofHours(2)))).containsExactly("in-a-minute");
+        assertThat(wheel.advance(START.plus(Duration.ofDays(1)).minusMillis(1))).isEmpty();
+        assertThat(wheel.advance(START.plus(Duration.ofDays(1)))).containsExactly("in-a-day");
+    }
+
+    @Test
+    void scheduleAndCancel_replaceOrRemoveByKey() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 16, START);
+        wheel.schedule("a", START.plusSeconds(10), "a@10");
+        wheel.schedule("a", START.plusSeconds(500), "a@500");
+        wheel.schedule("b", START.plusSeconds(20), "b@20");
+        wheel.schedule("c", START.plusSeconds(30), "c@30");
+
+        assertThat(wheel.cancel("b")).isTrue();
+        assertThat(wheel.cancel("b")).isFalse();
+        assertThat(wheel.cancelIf(value -> value.startsWith("c"))).isEqualTo(1);
+
+        assertThat(wheel.advance(START.plusSeconds(499))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(500))).containsExactly("a@500");
+    }
+
+    @Test
+    void schedule_roundsDeadlineUpToTheNextTick() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(Duration.ofSeconds(1), 16, START);
+        wheel.schedule("a", START.plusMillis(1500), "a");
+
+        assertThat(wheel.advance(START.plusMillis(1999))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(2))).containsExactly("a");
+    }
+}
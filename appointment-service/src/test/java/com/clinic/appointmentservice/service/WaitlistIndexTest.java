@@ -0,0 +1,156 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.WaitlistEntry;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistIndexTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2025, 1, 6, 8, 0);
+    private static final LocalDateTime DAY_END = LocalDateTime.of(2025, 1, 6, 18, 0);
+    private static final LocalDateTime MORNING_SLOT = LocalDateTime.of(2025, 1, 6, 9, 0);
+
+    @Mock
+    private WaitlistRepository repository;
+
+    private WaitlistIndex index;
+
+    private final UUID doctorId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new WaitlistIndex(repository, new AppointmentProperties(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void take_returnsHighestPriorityThenFirstJoined() {
+        WaitlistEntry low = entry(1, 60, DAY_START, DAY_END);
+        WaitlistEntry urgentLater = entry(5, 30, DAY_START, DAY_END);
+        WaitlistEntry urgentEarlier = entry(5, 120, DAY_START, DAY_END);
+        when(repository.findWaiting(eq(doctorId), any())).thenReturn(List.of(low, urgentLater, urgentEarlier));
+
+        assertThat(take(MORNING_SLOT, Set.of())).contains(urgentEarlier);
+        assertThat(take(MORNING_SLOT, Set.of())).contains(urgentLater);
+        assertThat(take(MORNING_SLOT, Set.of())).contains(low);
+        assertThat(take(MORNING_SLOT, Set.of())).isEmpty();
+        verify(repository, times(1)).findWaiting(eq(doctorId), any());
+    }
+
+    @Test
+    void take_entryOutsideItsRange_isPassedOverAndKeptForLaterSlots() {
+        WaitlistEntry afternoonOnly = entry(9, 60, LocalDateTime.of(2025, 1, 6, 14, 0), DAY_END);
+        WaitlistEntry anyTime = entry(1, 30, DAY_START, DAY_END);
+        when(repository.findWaiting(eq(doctorId), any())).thenReturn(List.of(afternoonOnly, anyTime));
+
+        assertThat(take(MORNING_SLOT, Set.of())).contains(anyTime);
+        assertThat(take(MORNING_SLOT, Set.of())).isEmpty();
+        assertThat(take(LocalDateTime.of(2025, 1, 6, 15, 0), Set.of())).contains(afternoonOnly);
+    }
+
+    @Test
+    void take_excludedAndRemovedEntries_areSkipped() {
+        WaitlistEntry offeredBefore = entry(9, 60, DAY_START, DAY_END);
+        WaitlistEntry left = entry(5, 60, DAY_START, DAY_END);
+        WaitlistEntry next = entry(1, 60, DAY_START, DAY_END);
+        when(repository.findWaiting(eq(doctorId), any())).thenReturn(List.of(offeredBefore, left, next));
+        assertThat(take(LocalDateTime.of(2025, 1, 7, 9, 0), Set.of())).isEmpty();
+
+        index.remove(doctorId, left.entryId());
+
+        assertThat(take(MORNING_SLOT, Set.of(offeredBefore.entryId()))).contains(next);
+        assertThat(take(MORNING_SLOT, Set.of())).contains(offeredBefore);
+        assertThat(take(MORNING_SLOT, Set.of())).isEmpty();
+    }
+
+    @Test
+    void add_afterTake_putsEntryBackAndInvalidateReloads() {
+        WaitlistEntry entry = entry(1, 60, DAY_START, DAY_END);
+        when(repository.findWaiting(eq(doctorId), any())).thenReturn(List.of(entry));
+        assertThat(take(MORNING_SLOT, Set.of())).contains(entry);
+
+        index.add(entry);
+        assertThat(take(MORNING_SLOT, Set.of())).contains(entry);
+
+        index.invalidate(doctorId);
+        assertThat(take(MORNING_SLOT, Set.of())).contains(entry);
+        verify(repository, times(2)).findWaiting(eq(doctorId), any());
+    }
+
+    @Test
+    void take_concurrentCancellations_handEachEntryOutOnce() throws Exception {
+        int entries = 2_000;
+        int threads = 8;
+        List<WaitlistEntry> waiting = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+            waiting.add(entry(i % 10, i, DAY_START, DAY_END));
+        }
+        when(repository.findWaiting(eq(doctorId), any())).thenReturn(waiting);
+
+        Set<UUID> taken = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    Optional<WaitlistEntry> next;
+                    while ((next = take(MORNING_SLOT, Set.of())).isPresent()) {
+                        taken.add(next.get().entryId());
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            assertThat(total).isEqualTo(entries);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(taken).hasSize(entries);
+        assertThat(index.waitingCount(doctorId)).isZero();
+        verify(repository, times(1)).findWaiting(eq(doctorId), any());
+    }
+
+    private Optional<WaitlistEntry> take(LocalDateTime start, Set<UUID> excluded) {
+        return index.take(doctorId, start, 30, excluded);
+    }
+
+    private WaitlistEntry entry(int priority, int joinedMinutesAgo, LocalDateTime earliest, LocalDateTime latest) {
+        return new WaitlistEntry(UUID.randomUUID(), UUID.randomUUID(), doctorId, earliest, latest, 30, priority,
+                WaitlistEntry.Status.WAITING,
+                LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusMinutes(joinedMinutesAgo));
+    }
+}
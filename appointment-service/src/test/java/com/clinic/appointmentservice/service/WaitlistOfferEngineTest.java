@@ -0,0 +1,189 @@
+package com.clinic.appointmentservice.service;
+
+import com.clinic.appointmentservice.client.dto.NotificationRequest;
+import com.clinic.appointmentservice.config.AppointmentProperties;
+import com.clinic.appointmentservice.repository.AppointmentRepository;
+import com.clinic.appointmentservice.repository.WaitlistEntry;
+import com.clinic.appointmentservice.repository.WaitlistOffer;
+import com.clinic.appointmentservice.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistOfferEngineTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+    private static final LocalDateTime NOW_UTC = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+    private static final LocalDateTime SLOT = LocalDateTime.of(2025, 1, 6, 9, 0);
+
+    @Mock
+    private WaitlistRepository repository;
+    @Mock
+    private WaitlistIndex waitlistIndex;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private NotificationOutbox notificationOutbox;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WaitlistOfferEngine engine;
+
+    private final UUID doctorId = UUID.randomUUID();
+    private final UUID cancelledId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        AppointmentProperties properties = new AppointmentProperties();
+        properties.setWaitlistOfferHold(Duration.ofHours(2));
+        engine = new WaitlistOfferEngine(repository, waitlistIndex, bookingIntervalIndex, appointmentRepository,
+                notificationOutbox, transactionManager, properties, new SimpleMeterRegistry(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void offer_freeSlot_offersBestCandidateAndNotifiesThem() {
+        WaitlistEntry entry = entry();
+        when(bookingIntervalIndex.isFree(doctorId, SLOT, 30)).thenReturn(true);
+        when(repository.findOfferedEntryIds(doctorId, SLOT)).thenReturn(Set.of());
+        when(waitlistIndex.take(doctorId, SLOT, 30, Set.of())).thenReturn(Optional.of(entry));
+        when(repository.transitionEntry(entry.entryId(), WaitlistEntry.Status.WAITING, WaitlistEntry.Status.OFFERED,
+                null, NOW_UTC)).thenReturn(true);
+        when(repository.insertOffer(any())).thenReturn(true);
+
+        assertThat(engine.offer(slot())).isEqualTo(WaitlistOfferEngine.Outcome.OFFERED);
+
+        ArgumentCaptor<WaitlistOffer> offer = ArgumentCaptor.forClass(WaitlistOffer.class);
+        verify(repository).insertOffer(offer.capture());
+        assertThat(offer.getValue().patientId()).isEqualTo(entry.patientId());
+        assertThat(offer.getValue().sourceAppointmentId()).isEqualTo(cancelledId);
+        assertThat(offer.getValue().expiresAt()).isEqualTo(NOW_UTC.plusHours(2));
+        ArgumentCaptor<NotificationRequest> notification = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationOutbox).enqueue(notification.capture());
+        assertThat(notification.getValue().patientId()).isEqualTo(entry.patientId());
+    }
+
+    @Test
+    void offer_candidateNoLongerWaiting_movesOnToTheNext() {
+        WaitlistEntry gone = entry();
+        WaitlistEntry next = entry();
+        when(bookingIntervalIndex.isFree(doctorId, SLOT, 30)).thenReturn(true);
+        when(repository.findOfferedEntryIds(doctorId, SLOT)).thenReturn(Set.of());
+        when(waitlistIndex.take(doctorId, SLOT, 30, Set.of())).thenReturn(Optional.of(gone), Optional.of(next));
+        when(repository.transitionEntry(eq(gone.entryId()), any(), any(), any(), any())).thenReturn(false);
+        when(repository.transitionEntry(eq(next.entryId()), any(), any(), any(), any())).thenReturn(true);
+        when(repository.insertOffer(any())).thenReturn(true);
+
+        assertThat(engine.offer(slot())).isEqualTo(WaitlistOfferEngine.Outcome.OFFERED);
+
+        verify(repository).insertOffer(argThat(offer -> offer.entryId().equals(next.entryId())));
+        verify(notificationOutbox, times(1)).enqueue(any());
+    }
+
+    @Test
+    void offer_slotAlreadyHeldByAnotherInstance_rollsBackAndKeepsEntryWaiting() {
+        WaitlistEntry entry = entry();
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(bookingIntervalIndex.isFree(doctorId, SLOT, 30)).thenReturn(true);
+        when(repository.findOfferedEntryIds(doctorId, SLOT)).thenReturn(Set.of());
+        when(waitlistIndex.take(doctorId, SLOT, 30, Set.of())).thenReturn(Optional.of(entry));
+        when(repository.transitionEntry(any(), any(), any(), any(), any())).thenReturn(true);
+        when(repository.insertOffer(any())).thenReturn(false);
+
+        assertThat(engine.offer(slot())).isEqualTo(WaitlistOfferEngine.Outcome.SLOT_HELD);
+
+        assertThat(status.isRollbackOnly()).isTrue();
+        verify(waitlistIndex).add(entry);
+        verifyNoInteractions(notificationOutbox);
+    }
+
+    @Test
+    void offer_slotBookedAgain_offersNothing() {
+        when(bookingIntervalIndex.isFree(doctorId, SLOT, 30)).thenReturn(false);
+
+        assertThat(engine.offer(slot())).isEqualTo(WaitlistOfferEngine.Outcome.REBOOKED);
+
+        verifyNoInteractions(waitlistIndex, notificationOutbox);
+    }
+
+    @Test
+    void offer_slotBookedOnAnotherInstance_isConfirmedAgainstTheDatabase() {
+        when(bookingIntervalIndex.isFree(doctorId, SLOT, 30)).thenReturn(true);
+        when(appointmentRepository.existsOverlappingBooking(doctorId, SLOT, SLOT.plusMinutes(30))).thenReturn(true);
+
+        assertThat(engine.offer(slot())).isEqualTo(WaitlistOfferEngine.Outcome.REBOOKED);
+
+        verifyNoInteractions(waitlistIndex, notificationOutbox);
+    }
+
+    @Test
+    void onSlotFreed_isQueuedOnlyOnceTheCancellationCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        engine.onSlotFreed(cancelledId, doctorId, SLOT, null);
+        assertThat(engine.queueDepth()).isZero();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(engine.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void expire_expiredOffers_arePassedOnToTheNextPatient() {
+        WaitlistOffer expired = new WaitlistOffer(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), doctorId,
+                cancelledId, SLOT, 30, WaitlistOffer.Status.EXPIRED, NOW_UTC, NOW_UTC.minusHours(2));
+        when(repository.expireOffers(eq(NOW_UTC), anyInt())).thenReturn(List.of(expired));
+
+        engine.expire();
+
+        verify(waitlistIndex).invalidate(doctorId);
+        verify(repository).expireEntries(NOW_UTC);
+        assertThat(engine.queueDepth()).isEqualTo(1);
+    }
+
+    private WaitlistOfferEngine.FreedSlot slot() {
+        return new WaitlistOfferEngine.FreedSlot(cancelledId, doctorId, SLOT, 30);
+    }
+
+    private WaitlistEntry entry() {
+        return new WaitlistEntry(UUID.randomUUID(), UUID.randomUUID(), doctorId, SLOT.minusDays(1), SLOT.plusDays(1),
+                30, 0, WaitlistEntry.Status.WAITING, NOW_UTC.minusDays(1));
+    }
+}
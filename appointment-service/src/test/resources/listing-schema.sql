@@ -0,0 +1,40 @@
+-- Minimal H2 schema for the listing tables used by repository slice tests.
+-- Mirrors the Flyway migrations without the PostgreSQL-only column types.
+
+CREATE TABLE appointment_status (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    code VARCHAR(32) NOT NULL UNIQUE,
+    display_name VARCHAR(64) NOT NULL
+);
+
+CREATE TABLE appointments (
+    appointment_id UUID PRIMARY KEY,
+    patient_id UUID NOT NULL,
+    doctor_id UUID NOT NULL,
+    doctor_name VARCHAR(255),
+    patient_name VARCHAR(255),
+    clinic_address VARCHAR(1000),
+    appointment_time TIMESTAMP NOT NULL,
+    duration_minutes INTEGER,
+    status_id BIGINT NOT NULL REFERENCES appointment_status(id),
+    notes VARCHAR(2000),
+    cancelled_reason VARCHAR(2000),
+    consultation_fee NUMERIC(12, 2),
+    service_fee NUMERIC(12, 2),
+    total_amount NUMERIC(12, 2),
+    settings_version BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE medical_records (
+    id UUID PRIMARY KEY,
+    appointment_id UUID NOT NULL UNIQUE,
+    diagnosis VARCHAR(2000) NOT NULL,
+    prescription VARCHAR(2000),
+    doctor_notes VARCHAR(2000),
+    attachments VARCHAR(1000) ARRAY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
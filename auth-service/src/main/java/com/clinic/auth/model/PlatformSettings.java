@@ -24,6 +24,9 @@ public class PlatformSettings {
     @Column(name = "updated_by")
     private UUID updatedBy;
 
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
     @Column(name = "created_at", updatable = false)
     private Instant createdAt;
 
@@ -57,6 +60,9 @@ public class PlatformSettings {
     public UUID getUpdatedBy() { return updatedBy; }
     public void setUpdatedBy(UUID updatedBy) { this.updatedBy = updatedBy; }
 
+    public long getRevision() { return revision; }
+    public void setRevision(long revision) { this.revision = revision; }
+
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 }
@@ -2,6 +2,7 @@ package com.clinic.auth.repository;
 
 import com.clinic.auth.model.PlatformSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +11,10 @@ import java.util.UUID;
 @Repository
 public interface PlatformSettingsRepository extends JpaRepository<PlatformSettings, UUID> {
     Optional<PlatformSettings> findBySettingKey(String settingKey);
+
+    @Query("select coalesce(max(s.revision), 0) from PlatformSettings s")
+    long findCurrentRevision();
+
+    @Query(value = "select nextval('platform_settings_revision_seq')", nativeQuery = true)
+    long nextRevision();
 }
@@ -64,6 +64,13 @@ public class PlatformSettingsService {
         return new BigDecimal(value);
     }
 
+    /**
+     * Version of the settings as a whole; it increases with every change to any setting.
+     */
+    public long getSettingsVersion() {
+        return repository.findCurrentRevision();
+    }
+
     public BigDecimal getDefaultConsultationFee() {
         String value = getSettingValue(DEFAULT_CONSULTATION_FEE, "300000");
         return new BigDecimal(value);
@@ -80,6 +87,7 @@ public class PlatformSettingsService {
         
         setting.setSettingValue(value);
         setting.setUpdatedBy(updatedBy);
+        setting.setRevision(repository.nextRevision());
         return repository.save(setting);
     }
 
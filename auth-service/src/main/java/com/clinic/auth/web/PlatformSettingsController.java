@@ -4,6 +4,7 @@ import com.clinic.auth.model.PlatformSettings;
 import com.clinic.auth.service.PlatformSettingsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -45,13 +46,20 @@ public class PlatformSettingsController {
     }
 
     /**
-     * Get commission rate specifically
+     * Get commission rate specifically.
+     * The ETag carries the settings version, so callers can refresh with If-None-Match.
      */
     @GetMapping("/commission-rate")
-    public ResponseEntity<Map<String, Object>> getCommissionRate() {
+    public ResponseEntity<Map<String, Object>> getCommissionRate(WebRequest request) {
+        long version = settingsService.getSettingsVersion();
+        String etag = "\"" + version + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
         BigDecimal rate = settingsService.getCommissionRate();
-        return ResponseEntity.ok(Map.of(
+        return ResponseEntity.ok().eTag(etag).body(Map.of(
             "commissionRate", rate,
+            "version", version,
             "description", "Platform commission rate in percentage (%)"
         ));
     }
@@ -0,0 +1,8 @@
+-- Monotonic revision so clients can cache platform settings and refresh them conditionally
+CREATE SEQUENCE platform_settings_revision_seq;
+
+ALTER TABLE platform_settings ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+
+UPDATE platform_settings SET revision = nextval('platform_settings_revision_seq');
+
+COMMENT ON COLUMN platform_settings.revision IS 'Value of platform_settings_revision_seq at the last change; MAX(revision) is the settings version';
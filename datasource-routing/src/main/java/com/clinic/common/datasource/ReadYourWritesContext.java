@@ -0,0 +1,36 @@
+package com.clinic.common.datasource;
+
+/**
+ * Per-request memory of whether the request has written to the primary. Once it has, later read-only transactions
+ * of the same request stay on the primary so they see the request's own writes regardless of replication lag.
+ * <p>
+ * Outside an open context (background jobs, message listeners) nothing is remembered and every read-only
+ * transaction is free to use the replica.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<boolean[]> PINNED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void open() {
+        PINNED.set(new boolean[1]);
+    }
+
+    public static void close() {
+        PINNED.remove();
+    }
+
+    static void markWritten() {
+        boolean[] pinned = PINNED.get();
+        if (pinned != null) {
+            pinned[0] = true;
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        boolean[] pinned = PINNED.get();
+        return pinned != null && pinned[0];
+    }
+}
@@ -0,0 +1,109 @@
+package com.clinic.common.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the replica's replication lag on a fixed interval. The replica counts as usable only while the last
+ * measurement succeeded and stayed within the configured maximum; an unreachable replica is treated like a
+ * lagging one, so reads fall back to the primary until it recovers.
+ */
+public class ReplicaLagMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when the replica has replayed everything it received
+     * (an idle primary would otherwise look like a growing lag) or when the database is not a standby.
+     */
+    static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END""";
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean healthy;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        this(replica, POSTGRES_LAG_QUERY, properties, meterRegistry);
+    }
+
+    ReplicaLagMonitor(DataSource replica, String lagQuery, ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = properties.getMaxLag();
+        this.checkInterval = properties.getLagCheckInterval();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder(RoutingDataSource.METRIC_PREFIX + ".replica.lag", this, ReplicaLagMonitor::lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        check();
+        long intervalMillis = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+
+    void check() {
+        boolean wasHealthy = healthy;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            resultSet.next();
+            lagSeconds = resultSet.getDouble(1);
+            healthy = lagSeconds * 1_000 <= maxLag.toMillis();
+            if (wasHealthy && !healthy) {
+                log.warn("Replica lag {}s exceeds {}; routing reads to the primary", lagSeconds, maxLag);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            lagSeconds = Double.NaN;
+            healthy = false;
+            if (wasHealthy) {
+                log.warn("Replica lag check failed; routing reads to the primary: {}", ex.getMessage());
+            }
+        }
+        if (!wasHealthy && healthy) {
+            log.info("Replica lag {}s within {}; routing read-only transactions to the replica", lagSeconds, maxLag);
+        }
+    }
+}
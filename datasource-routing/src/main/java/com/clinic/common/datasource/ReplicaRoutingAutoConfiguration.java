@@ -0,0 +1,128 @@
+package com.clinic.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single auto-configured pool with a primary and a replica pool behind a {@link RoutingDataSource}.
+ * Active only with {@code clinic.datasource.replica.enabled=true}; otherwise the service keeps Spring Boot's
+ * regular data source.
+ * <p>
+ * Both pools are built from {@code spring.datasource.*} and {@code spring.datasource.hikari.*}; the replica takes
+ * its url and credentials from {@link ReplicaRoutingProperties} and may override pool settings under
+ * {@code clinic.datasource.replica.hikari.*}. The pools are registered as beans so they are closed, health-checked
+ * and reported by the Hikari metrics; the routing proxy is the {@link Primary} data source everything else uses.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class})
+@ConditionalOnProperty(prefix = "clinic.datasource.replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaRoutingProperties.class})
+public class ReplicaRoutingAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingAutoConfiguration.class);
+
+    @Bean
+    public HikariDataSource primaryPool(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        if (pool.getPoolName() == null) {
+            pool.setPoolName(poolName(environment, "primary"));
+        }
+        return pool;
+    }
+
+    @Bean
+    public HikariDataSource replicaPool(DataSourceProperties dataSourceProperties,
+                                       ReplicaRoutingProperties replicaProperties,
+                                       Environment environment) {
+        if (replicaProperties.getUrl() == null || replicaProperties.getUrl().isBlank()) {
+            throw new IllegalStateException("clinic.datasource.replica.url must be set when replica routing is enabled");
+        }
+        HikariDataSource pool = DataSourceBuilder.create(dataSourceProperties.getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername() != null
+                        ? replicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(replicaProperties.getPassword() != null
+                        ? replicaProperties.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        binder.bind("clinic.datasource.replica.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName(environment, "replica"));
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaPool") DataSource replicaPool,
+                                               ReplicaRoutingProperties replicaProperties,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaLagMonitor(replicaPool, replicaProperties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") DataSource primaryPool,
+                                 @Qualifier("replicaPool") DataSource replicaPool,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 ReplicaRoutingProperties replicaProperties,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment) {
+        if (ClassUtils.isPresent("jakarta.persistence.EntityManagerFactory", getClass().getClassLoader())
+                && environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            // An entity manager held open for the whole request keeps the first connection it got, whichever pool
+            // that was, so later transactions of the request cannot be routed.
+            log.warn("Replica routing is enabled while spring.jpa.open-in-view is on; set it to false so that each "
+                    + "transaction gets its own connection");
+        }
+        RoutingDataSource routing = new RoutingDataSource(primaryPool, replicaPool, replicaLagMonitor,
+                replicaProperties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static String poolName(Environment environment, String role) {
+        return environment.getProperty("spring.application.name", "clinic") + "-" + role;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(name = "org.springframework.web.filter.OncePerRequestFilter")
+    @ConditionalOnProperty(prefix = "clinic.datasource.replica", name = "read-your-writes", havingValue = "true",
+            matchIfMissing = true)
+    static class ReadYourWritesConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+            FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.clinic.common.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection settings for the read replica. The primary keeps using the regular {@code spring.datasource.*}
+ * properties; Hikari settings for the replica pool are read from {@code clinic.datasource.replica.hikari.*}.
+ */
+@ConfigurationProperties(prefix = "clinic.datasource.replica")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Route read-only transactions to the replica. When false the module does nothing.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC url of the replica (or of a load balancer in front of several replicas).
+     */
+    private String url;
+
+    /**
+     * Replica user; defaults to the primary's.
+     */
+    private String username;
+
+    /**
+     * Replica password; defaults to the primary's.
+     */
+    private String password;
+
+    /**
+     * Replication lag above which read-only transactions fall back to the primary.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the replica's replication lag is measured.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Keep a request on the primary once it has written, so it reads its own writes.
+     */
+    private boolean readYourWrites = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public boolean isReadYourWrites() {
+        return readYourWrites;
+    }
+
+    public void setReadYourWrites(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+}
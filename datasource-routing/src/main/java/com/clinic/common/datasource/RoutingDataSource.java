@@ -0,0 +1,90 @@
+package com.clinic.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The decision needs the transaction's read-only flag, which is only known once the transaction has started, so
+ * this data source must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that defers fetching the physical connection to the first statement. A read-only transaction still goes to the
+ * primary when the current request has already written ({@link ReadYourWritesContext}) or when the replica is
+ * lagging or unreachable ({@link ReplicaLagMonitor}).
+ * <p>
+ * Every routing decision is made once per physical connection checkout, not per statement, and is counted as
+ * {@code clinic.datasource.routing.connections} tagged with the pool and the reason. A transaction running many
+ * statements on one connection counts once.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String METRIC_PREFIX = "clinic.datasource";
+
+    public enum Pool {
+        PRIMARY, REPLICA
+    }
+
+    enum Reason {
+        READ_WRITE("read-write"),
+        READ_ONLY("read-only"),
+        READ_YOUR_WRITES("read-your-writes"),
+        REPLICA_LAGGING("replica-lagging");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final boolean readYourWrites;
+    private final Map<Reason, Counter> connections = new EnumMap<>(Reason.class);
+
+    public RoutingDataSource(DataSource primary,
+                             DataSource replica,
+                             ReplicaLagMonitor lagMonitor,
+                             ReplicaRoutingProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = properties.isReadYourWrites();
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        for (Reason reason : Reason.values()) {
+            Pool pool = reason == Reason.READ_ONLY ? Pool.REPLICA : Pool.PRIMARY;
+            connections.put(reason, meterRegistry.counter(METRIC_PREFIX + ".routing.connections",
+                    "pool", pool.name().toLowerCase(), "reason", reason.tag));
+        }
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Reason reason = route();
+        connections.get(reason).increment();
+        return reason == Reason.READ_ONLY ? Pool.REPLICA : Pool.PRIMARY;
+    }
+
+    private Reason route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (readYourWrites && TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWritesContext.markWritten();
+            }
+            return Reason.READ_WRITE;
+        }
+        if (readYourWrites && ReadYourWritesContext.isPinnedToPrimary()) {
+            return Reason.READ_YOUR_WRITES;
+        }
+        if (!lagMonitor.isHealthy()) {
+            return Reason.REPLICA_LAGGING;
+        }
+        return Reason.READ_ONLY;
+    }
+}
@@ -0,0 +1,124 @@
+package com.clinic.common.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingDataSourceTest {
+
+    private static final String WHICH_DATABASE = "SELECT name FROM which_database";
+
+    private ReplicaRoutingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReplicaRoutingProperties();
+        properties.setMaxLag(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = database("primary");
+        replica = database("replica");
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT lag FROM which_database", properties, meterRegistry);
+        lagMonitor.check();
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new RoutingDataSource(primary, replica, lagMonitor, properties, meterRegistry));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.close();
+        lagMonitor.destroy();
+    }
+
+    @Test
+    void readOnlyTransaction_goesToReplica_everythingElseToPrimary() {
+        assertThat(whichIn(readOnly)).isEqualTo("replica");
+        assertThat(whichIn(readWrite)).isEqualTo("primary");
+        assertThat(which()).isEqualTo("primary");
+
+        assertThat(routed("replica", "read-only")).isEqualTo(1);
+        assertThat(routed("primary", "read-write")).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void readOnlyTransaction_afterWriteInSameRequest_staysOnPrimary() {
+        ReadYourWritesContext.open();
+        assertThat(whichIn(readOnly)).isEqualTo("replica");
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE which_database SET lag = lag"));
+
+        assertThat(whichIn(readOnly)).isEqualTo("primary");
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(1);
+
+        ReadYourWritesContext.close();
+        assertThat(whichIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_laggingReplica_fallsBackToPrimaryUntilCaughtUp() {
+        new JdbcTemplate(replica).update("UPDATE which_database SET lag = 30");
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isHealthy()).isFalse();
+        assertThat(meterRegistry.get("clinic.datasource.replica.lag").gauge().value()).isEqualTo(30);
+        assertThat(whichIn(readOnly)).isEqualTo("primary");
+        assertThat(routed("primary", "replica-lagging")).isEqualTo(1);
+
+        new JdbcTemplate(replica).update("UPDATE which_database SET lag = 1");
+        lagMonitor.check();
+        assertThat(whichIn(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplica_countsAsLagging() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT missing_column FROM which_database",
+                properties, new SimpleMeterRegistry());
+        monitor.check();
+
+        assertThat(monitor.isHealthy()).isFalse();
+        assertThat(monitor.lagSeconds()).isNaN();
+    }
+
+    private String which() {
+        return jdbcTemplate.queryForObject(WHICH_DATABASE, String.class);
+    }
+
+    private String whichIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> which());
+    }
+
+    private double routed(String pool, String reason) {
+        return meterRegistry.get("clinic.datasource.routing.connections").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE which_database (name VARCHAR(16), lag DOUBLE PRECISION)");
+        jdbcTemplate.update("INSERT INTO which_database VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,42 @@
+package com.clinic.doctorservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Tells appointment-service to drop its cached snapshot of a doctor once the change is committed.
+ * Failures are only logged: appointment-service expires its snapshots on its own.
+ */
+@Component
+public class AppointmentCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentCacheInvalidator.class);
+
+    private final RestTemplate restTemplate;
+    private final String appointmentServiceUrl;
+
+    public AppointmentCacheInvalidator(
+            RestTemplate restTemplate,
+            @Value("${app.appointment-service-url:http://localhost:8084}") String appointmentServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.appointmentServiceUrl = appointmentServiceUrl;
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDoctorChanged(DoctorChangedEvent event) {
+        String url = appointmentServiceUrl + "/api/v1/internal/doctors/" + event.doctorId() + "/invalidate";
+        try {
+            restTemplate.postForEntity(url, null, Void.class);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate appointment-service cache for doctorId: {}. Error: {}",
+                    event.doctorId(), e.getMessage());
+        }
+    }
+}
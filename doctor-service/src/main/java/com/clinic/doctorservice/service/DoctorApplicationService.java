@@ -11,6 +11,7 @@ import com.clinic.doctorservice.repository.DoctorRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -37,6 +38,7 @@ public class DoctorApplicationService {
     private final DoctorApplicationRepository repo;
     private final DoctorRepository doctorRepository;
     private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
     private final Path uploadDir;
     private final String authServiceUrl;
 
@@ -44,11 +46,13 @@ public class DoctorApplicationService {
             DoctorApplicationRepository repo, 
             DoctorRepository doctorRepository,
             RestTemplate restTemplate,
+            ApplicationEventPublisher eventPublisher,
             @Value("${app.upload-dir:./uploads}") String uploadDir,
             @Value("${app.auth-service-url:http://localhost:8081}") String authServiceUrl) {
         this.repo = repo;
         this.doctorRepository = doctorRepository;
         this.restTemplate = restTemplate;
+        this.eventPublisher = eventPublisher;
         this.uploadDir = Path.of(uploadDir);
         this.authServiceUrl = authServiceUrl;
         try { Files.createDirectories(this.uploadDir); } catch (IOException ignored) {}
@@ -267,6 +271,7 @@ public class DoctorApplicationService {
         }
         
         doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctor.getId()));
         
         // Cũng cập nhật DoctorApplication nếu có
         Optional<DoctorApplication> appOpt = repo.findByUserId(userId);
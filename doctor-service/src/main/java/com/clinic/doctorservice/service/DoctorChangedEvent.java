@@ -0,0 +1,9 @@
+package com.clinic.doctorservice.service;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a doctor's profile, fees or weekly schedule change.
+ */
+public record DoctorChangedEvent(UUID doctorId) {
+}
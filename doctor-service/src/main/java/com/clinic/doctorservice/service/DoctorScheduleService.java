@@ -7,6 +7,7 @@ import com.clinic.doctorservice.model.DoctorSchedule;
 import com.clinic.doctorservice.repository.DoctorRepository;
 import com.clinic.doctorservice.repository.DoctorScheduleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +25,7 @@ public class DoctorScheduleService {
 
     private final DoctorScheduleRepository doctorScheduleRepository;
     private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public List<DoctorSchedule> updateSchedules(UUID userId, List<ScheduleRequest> requests) {
@@ -47,7 +49,9 @@ public class DoctorScheduleService {
                         .build())
                 .collect(Collectors.toList());
 
-        return doctorScheduleRepository.saveAll(newSchedules);
+        List<DoctorSchedule> saved = doctorScheduleRepository.saveAll(newSchedules);
+        eventPublisher.publishEvent(new DoctorChangedEvent(doctor.getId()));
+        return saved;
     }
 
     public List<DoctorSchedule> getSchedulesByDoctorId(UUID doctorId) {
@@ -20,6 +20,11 @@ export const getAppointmentsByDoctor = async (doctorId) => {
   return api.get(`/v1/appointments/doctor/${doctorId}`);
 };
 
+// Get a doctor's free time per day; from/to are ISO dates (yyyy-MM-dd)
+export const getDoctorFreeSlots = async (doctorId, from, to, durationMinutes = 30) => {
+  return api.get(`/v1/appointments/doctors/${doctorId}/free-slots`, { params: { from, to, durationMinutes } });
+};
+
 // Update appointment status
 export const updateAppointmentStatus = async (id, status, notes = '') => {
   return api.put(`/v1/appointments/${id}/status`, { status, notes });
@@ -30,17 +35,17 @@ export const cancelAppointment = async (id, reason = '') => {
   return api.delete(`/v1/appointments/${id}/cancel`, { data: { reason } });
 };
 
-// Get upcoming appointments
-export const getUpcomingAppointments = async () => {
-  return api.get('/v1/appointments/upcoming');
+// Get upcoming appointments (one page: { data, nextCursor })
+export const getUpcomingAppointments = async (params = {}) => {
+  return api.get('/v1/appointments/upcoming', { params });
 };
 
-// Get appointment history
-export const getAppointmentHistory = async () => {
-  return api.get('/v1/appointments/history');
+// Get appointment history (one page: { data, nextCursor })
+export const getAppointmentHistory = async (params = {}) => {
+  return api.get('/v1/appointments/history', { params });
 };
 
-// Get all appointments with filters
+// Get all appointments with filters (status, from, to, cursor, limit)
 export const getAppointments = async (params = {}) => {
   return api.get('/v1/appointments', { params });
 };
@@ -0,0 +1,39 @@
+package com.clinic.common.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Pool saturation gauges under {@code clinic.http.client.pool}: connections in use ({@code leased}), idle
+ * ({@code available}), the configured maximum ({@code max}) and calls queued for a connection ({@code pending}).
+ * A non-zero {@code pending} means calls are waiting on the pool rather than on the destination.
+ */
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    static final String METRIC_PREFIX = "clinic.http.client.pool";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public ConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "leased", PoolStats::getLeased);
+        gauge(registry, "available", PoolStats::getAvailable);
+        gauge(registry, "pending", PoolStats::getPending);
+        gauge(registry, "max", PoolStats::getMax);
+    }
+
+    private void gauge(MeterRegistry registry, String name, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder(METRIC_PREFIX + "." + name, connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .baseUnit("connections")
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.clinic.common.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Times every outgoing call as {@code clinic.http.client.requests}, tagged with the destination host and port
+ * rather than the full uri so the number of series stays bounded. The timer publishes a percentile histogram, so
+ * per-destination latency percentiles can be aggregated across instances.
+ */
+public class DestinationMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String METRIC_NAME = "clinic.http.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public DestinationMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            return response;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("destination", destination(request.getURI()))
+                    .tag("method", request.getMethod().name())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    static String destination(URI uri) {
+        if (uri.getHost() == null) {
+            return "unknown";
+        }
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+}
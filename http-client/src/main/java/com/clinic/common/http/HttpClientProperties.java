@@ -0,0 +1,120 @@
+package com.clinic.common.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings for the shared inter-service HTTP client. Connect and read timeouts stay with each
+ * service's {@code RestTemplateBuilder} call.
+ */
+@ConfigurationProperties(prefix = "clinic.http-client")
+public class HttpClientProperties {
+
+    /**
+     * Use the pooled client for every {@code RestTemplate} built from the shared builder.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on open connections across all destinations.
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Upper bound on open connections to a single destination (scheme, host and port).
+     */
+    private int maxConnectionsPerHost = 50;
+
+    /**
+     * Per-destination overrides of {@link #maxConnectionsPerHost}, keyed by base url, e.g. {@code http://doctor-service:8082}.
+     */
+    private Map<String, Integer> hostLimits = new LinkedHashMap<>();
+
+    /**
+     * How long a call waits for a pooled connection before failing; bounds the damage of a saturated pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Idle connections are closed after this long. Kept below Tomcat's 20s keep-alive timeout so the client
+     * closes first instead of reusing a connection the server is about to drop.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(15);
+
+    /**
+     * Pooled connections idle for longer than this are checked before reuse.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Maximum lifetime of a pooled connection, so traffic rebalances after a destination is scaled out.
+     */
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public Map<String, Integer> getHostLimits() {
+        return hostLimits;
+    }
+
+    public void setHostLimits(Map<String, Integer> hostLimits) {
+        this.hostLimits = hostLimits;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public Duration getConnectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+        this.connectionTimeToLive = connectionTimeToLive;
+    }
+}
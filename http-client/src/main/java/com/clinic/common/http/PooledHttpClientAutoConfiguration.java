@@ -0,0 +1,115 @@
+package com.clinic.common.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateBuilderConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Backs every {@code RestTemplate} built from the auto-configured {@link RestTemplateBuilder} with one shared,
+ * pooled Apache HttpClient, so calls between services reuse keep-alive connections instead of opening one per
+ * request. Services keep setting their own connect and read timeouts on the builder; pool sizing lives under
+ * {@code clinic.http-client.*}.
+ * <p>
+ * The client speaks HTTP/1.1: the services serve plain-text HTTP/1.1 and the classic client behind
+ * {@code RestTemplate} has no HTTP/2 support, so pooled keep-alive connections are what removes the
+ * per-call connection setup.
+ */
+@AutoConfiguration(before = RestTemplateAutoConfiguration.class)
+@ConditionalOnClass({HttpClient.class, RestTemplate.class})
+@ConditionalOnProperty(prefix = "clinic.http-client", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class PooledHttpClientAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                        .setTimeToLive(timeValue(properties.getConnectionTimeToLive()))
+                        .build())
+                .build();
+        for (Map.Entry<String, Integer> limit : properties.getHostLimits().entrySet()) {
+            connectionManager.setMaxPerRoute(new HttpRoute(host(limit.getKey())), limit.getValue());
+        }
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pooledHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                HttpClientProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(properties.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean
+    public ConnectionPoolMetrics httpClientConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(connectionManager);
+        if (meterRegistry.getIfAvailable() == null) {
+            // Without actuator there is no registry to bind MeterBinder beans to.
+            metrics.bindTo(Metrics.globalRegistry);
+        }
+        return metrics;
+    }
+
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(RestTemplateBuilderConfigurer configurer,
+                                                   CloseableHttpClient pooledHttpClient,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return configurer.configure(new RestTemplateBuilder())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(pooledHttpClient))
+                .additionalInterceptors(new DestinationMetricsInterceptor(
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+    }
+
+    private static HttpHost host(String baseUrl) {
+        try {
+            HttpHost host = HttpHost.create(baseUrl);
+            if (host.getPort() != -1) {
+                return host;
+            }
+            // Routes are keyed by explicit port, so an implicit one has to be spelled out to match.
+            int defaultPort = "https".equalsIgnoreCase(host.getSchemeName()) ? 443 : 80;
+            return new HttpHost(host.getSchemeName(), host.getHostName(), defaultPort);
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Invalid clinic.http-client.host-limits key: " + baseUrl, ex);
+        }
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
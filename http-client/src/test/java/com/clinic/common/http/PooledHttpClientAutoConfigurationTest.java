@@ -0,0 +1,110 @@
+package com.clinic.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PooledHttpClientAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(PooledHttpClientAutoConfiguration.class, RestTemplateAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    private HttpServer server;
+    private final Set<InetSocketAddress> clientConnections = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ping", exchange -> {
+            clientConnections.add(exchange.getRemoteAddress());
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void restTemplate_reusesPooledConnectionAndRecordsLatencyPerDestination() {
+        contextRunner.run(context -> {
+            RestTemplate restTemplate = context.getBean(RestTemplateBuilder.class).build();
+            assertThat(restTemplate.getInterceptors()).hasAtLeastOneElementOfType(DestinationMetricsInterceptor.class);
+
+            String url = "http://localhost:" + server.getAddress().getPort() + "/ping";
+            for (int i = 0; i < 5; i++) {
+                assertThat(restTemplate.getForObject(url, String.class)).isEqualTo("pong");
+            }
+
+            assertThat(clientConnections).hasSize(1);
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            // Actuator binds MeterBinder beans; this slice has no actuator.
+            context.getBean(ConnectionPoolMetrics.class).bindTo(meterRegistry);
+            Timer timer = meterRegistry.get(DestinationMetricsInterceptor.METRIC_NAME)
+                    .tag("destination", "localhost:" + server.getAddress().getPort())
+                    .tag("status", "200")
+                    .timer();
+            assertThat(timer.count()).isEqualTo(5);
+            assertThat(meterRegistry.get(ConnectionPoolMetrics.METRIC_PREFIX + ".available").gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get(ConnectionPoolMetrics.METRIC_PREFIX + ".leased").gauge().value()).isZero();
+        });
+    }
+
+    @Test
+    void hostLimits_overrideThePerHostDefault() {
+        // Map keys holding urls cannot go through withPropertyValues, which splits on the first ':'.
+        contextRunner
+                .withInitializer(context -> context.getEnvironment().getPropertySources().addFirst(
+                        new MapPropertySource("hostLimits", Map.of(
+                                "clinic.http-client.max-connections-per-host", 20,
+                                "clinic.http-client.host-limits[http://doctor-service:8082]", 5,
+                                "clinic.http-client.host-limits[http://patient-service]", 7))))
+                .run(context -> {
+                    PoolingHttpClientConnectionManager connectionManager =
+                            context.getBean(PoolingHttpClientConnectionManager.class);
+                    assertThat(connectionManager.getMaxPerRoute(route("doctor-service", 8082))).isEqualTo(5);
+                    assertThat(connectionManager.getMaxPerRoute(route("patient-service", 80))).isEqualTo(7);
+                    assertThat(connectionManager.getMaxPerRoute(route("auth-service", 8081))).isEqualTo(20);
+                });
+    }
+
+    @Test
+    void disabled_leavesTheDefaultBuilder() {
+        contextRunner.withPropertyValues("clinic.http-client.enabled=false").run(context -> {
+            assertThat(context).doesNotHaveBean(PoolingHttpClientConnectionManager.class);
+            assertThat(context).hasSingleBean(RestTemplateBuilder.class);
+        });
+    }
+
+    private static HttpRoute route(String host, int port) {
+        return new HttpRoute(new HttpHost("http", host, port));
+    }
+}
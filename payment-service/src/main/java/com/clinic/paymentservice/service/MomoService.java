@@ -3,12 +3,14 @@ package com.clinic.paymentservice.service;
 import com.clinic.paymentservice.config.MomoConfig;
 import com.clinic.paymentservice.util.CryptoUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
 
 @Service
@@ -19,9 +21,12 @@ public class MomoService {
     private final MomoConfig momoConfig;
 
     // Inject config
-    public MomoService(MomoConfig momoConfig) {
+    public MomoService(MomoConfig momoConfig, RestTemplateBuilder restTemplateBuilder) {
         this.momoConfig = momoConfig;
-        this.rest = new RestTemplate();
+        this.rest = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(5))
+                .setReadTimeout(Duration.ofSeconds(30))
+                .build();
         this.mapper = new ObjectMapper();
     }
 